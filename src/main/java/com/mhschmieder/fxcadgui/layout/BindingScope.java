@@ -0,0 +1,154 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.layout;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.property.Property;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A Binding Scope registers listeners and bindings against a data model as a
+ * group, so that they can all be released together when a layout pane is
+ * re-bound to a different data model reference.
+ * <p>
+ * This avoids the listener leaks (and the extra work on every change) that
+ * otherwise result from repeatedly adding listeners to long-lived models.
+ */
+public final class BindingScope {
+
+    /**
+     * The actions that release each registered listener or binding, in the
+     * order that they were registered.
+     */
+    private final List< Runnable > _releasers;
+
+    public BindingScope() {
+        _releasers = new ArrayList<>();
+    }
+
+    /**
+     * Binds a property to an observable value, and tracks it for release.
+     *
+     * @param property
+     *            The property to bind
+     * @param observable
+     *            The observable value that the property follows
+     * @param <T>
+     *            The value type of the property
+     */
+    public < T > void bind( final Property< T > property,
+                            final ObservableValue< ? extends T > observable ) {
+        property.bind( observable );
+        _releasers.add( property::unbind );
+    }
+
+    /**
+     * Binds two properties bidirectionally, and tracks it for release.
+     *
+     * @param property
+     *            The first property to bind
+     * @param otherProperty
+     *            The other property to bind
+     * @param <T>
+     *            The value type of the properties
+     */
+    public < T > void bindBidirectional( final Property< T > property,
+                                         final Property< T > otherProperty ) {
+        property.bindBidirectional( otherProperty );
+        _releasers.add( () -> property.unbindBidirectional( otherProperty ) );
+    }
+
+    /**
+     * Adds a change listener to an observable value, and tracks it for
+     * release.
+     *
+     * @param observable
+     *            The observable value to listen to
+     * @param changeListener
+     *            The change listener to add
+     * @param <T>
+     *            The value type of the observable value
+     */
+    public < T > void addChangeListener( final ObservableValue< T > observable,
+                                         final ChangeListener< ? super T > changeListener ) {
+        observable.addListener( changeListener );
+        _releasers.add( () -> observable.removeListener( changeListener ) );
+    }
+
+    /**
+     * Adds an invalidation listener to an observable, and tracks it for
+     * release.
+     *
+     * @param observable
+     *            The observable to listen to
+     * @param invalidationListener
+     *            The invalidation listener to add
+     */
+    public void addInvalidationListener( final Observable observable,
+                                         final InvalidationListener invalidationListener ) {
+        observable.addListener( invalidationListener );
+        _releasers.add( () -> observable.removeListener( invalidationListener ) );
+    }
+
+    /**
+     * Returns {@code true} if nothing is currently registered in this scope.
+     *
+     * @return {@code true} if nothing is currently registered in this scope
+     */
+    public boolean isEmpty() {
+        return _releasers.isEmpty();
+    }
+
+    /**
+     * Releases all registered listeners and bindings, in reverse order of
+     * registration, leaving the scope empty and ready for re-use.
+     */
+    public void release() {
+        for ( int i = _releasers.size() - 1; i >= 0; i-- ) {
+            _releasers.get( i ).run();
+        }
+        _releasers.clear();
+    }
+
+    /**
+     * Returns the number of listeners and bindings registered in this scope.
+     *
+     * @return The number of listeners and bindings registered in this scope
+     */
+    public int size() {
+        return _releasers.size();
+    }
+}
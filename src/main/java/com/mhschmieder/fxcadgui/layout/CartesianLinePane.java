@@ -31,20 +31,31 @@
 package com.mhschmieder.fxcadgui.layout;
 
 import com.mhschmieder.fxcadcontrols.model.LinearObjectProperties;
+import com.mhschmieder.fxcadgui.layout.CartesianLinePlacementPane.LineEndPoint;
+import com.mhschmieder.fxcadgui.util.CartesianLineImporter;
+import com.mhschmieder.fxcadgui.util.CartesianLineImporter.LineImportReport;
+import com.mhschmieder.fxcadgui.util.LineIntersectionIndex;
+import com.mhschmieder.fxcadgui.util.LineSnapIndex;
+import com.mhschmieder.fxcadgui.util.ProjectionZoneEngine;
+import com.mhschmieder.fxcadgui.util.PulseUpdateScheduler;
 import com.mhschmieder.fxgraphics.geometry.CartesianLine;
 import com.mhschmieder.fxgraphics.collections.GraphicalObjectCollection;
 import com.mhschmieder.fxgraphics.layers.Layer;
-import com.mhschmieder.fxgraphics.layers.LayerManager;
+import com.mhschmieder.jcommons.text.NumberFormatUtilities;
 import com.mhschmieder.jcommons.util.ClientProperties;
 import com.mhschmieder.jgraphics.input.ScrollingSensitivity;
 import com.mhschmieder.jphysics.measure.AngleUnit;
 import com.mhschmieder.jphysics.measure.DistanceUnit;
+import javafx.beans.value.ChangeListener;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
+import javafx.scene.control.Slider;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.List;
 
 public final class CartesianLinePane extends VBox {
@@ -52,11 +63,29 @@ public final class CartesianLinePane extends VBox {
     public LinearObjectPropertiesPane _linearObjectPropertiesPane;
     public CartesianLinePlacementPane _cartesianLinePlacementPane;
 
-    /** Layer Collection reference. */
-    private List< Layer > _layerCollection;
-
     /** Client Properties (System Type, Locale, etc.). */
-    public ClientProperties                  _clientProperties;
+    public ClientProperties                             _clientProperties;
+
+    /**
+     * Scratch Cartesian Line, re-used as the intermediary for all edits so
+     * that interactive editing doesn't allocate a new line for every event.
+     */
+    private final CartesianLine                         _scratchCartesianLine;
+
+    /** Scheduler for coalescing slider drag updates to once per pulse. */
+    private final PulseUpdateScheduler                  _sliderUpdateScheduler;
+
+    /** Index of line features for snapping the end points while editing. */
+    private final LineSnapIndex                         _lineSnapIndex;
+
+    /** Engine for the Projection Zones of the collection's Projector lines. */
+    private final ProjectionZoneEngine< CartesianLine > _projectionZoneEngine;
+
+    /** The Cartesian Line collection, once the pane has been attached to it. */
+    private final GraphicalObjectCollection< CartesianLine > _cartesianLineCollection;
+
+    /** The lines in the Cartesian Line collection. */
+    private List< CartesianLine >                       _cartesianLines;
 
     public CartesianLinePane( final ClientProperties pClientProperties,
                               final GraphicalObjectCollection< CartesianLine > cartesianLineCollection,
@@ -64,24 +93,89 @@ public final class CartesianLinePane extends VBox {
                               final String projectorType,
                               final String projectionZonesType,
                               final String projectionZonesUsageContext ) {
+        this( pClientProperties,
+              cartesianLineCollection,
+              cartesianLineType,
+              projectorType,
+              projectionZonesType,
+              projectionZonesUsageContext,
+              new LineIntersectionIndex(),
+              true );
+    }
+
+    /**
+     * Builds the pane, optionally leaving it detached from the collection.
+     * <p>
+     * A detached pane only builds its node tree, so it may be constructed on a
+     * worker thread, but {@link #attachCartesianLineCollection()} must then be
+     * called on the JavaFX Application Thread before the pane is used.
+     * <p>
+     * The snapping index finds the crossings of the collection via the given
+     * intersection index, so that a host that already indexes the crossings
+     * can share its index rather than have them binned twice.
+     */
+    public CartesianLinePane( final ClientProperties pClientProperties,
+                              final GraphicalObjectCollection< CartesianLine > cartesianLineCollection,
+                              final String cartesianLineType,
+                              final String projectorType,
+                              final String projectionZonesType,
+                              final String projectionZonesUsageContext,
+                              final LineIntersectionIndex lineIntersectionIndex,
+                              final boolean attachCollection ) {
         // Always call the superclass constructor first!
         super();
 
         _clientProperties = pClientProperties;
+        _cartesianLineCollection = cartesianLineCollection;
 
-        // Avoid chicken-or-egg null pointer problems during startup.
-        _layerCollection = LayerManager.makeLayerCollection();
+        _scratchCartesianLine = new CartesianLine();
+        _sliderUpdateScheduler = new PulseUpdateScheduler(
+                () -> updateCartesianLineModelAndView( LineEndPoint.END ) );
+        _lineSnapIndex = new LineSnapIndex( lineIntersectionIndex );
+        _projectionZoneEngine = ProjectionZoneEngine.forCartesianLines();
+        _cartesianLines = null;
 
         try {
-            initPane( cartesianLineCollection, 
+            initPane( cartesianLineCollection,
                       cartesianLineType,
-                      projectorType, 
+                      projectorType,
                       projectionZonesType,
                       projectionZonesUsageContext );
         }
         catch ( final Exception ex ) {
             ex.printStackTrace();
         }
+
+        if ( attachCollection ) {
+            attachCartesianLineCollection();
+        }
+    }
+
+    // Hook the label and snap indexes and the Projection Zones up to the live
+    // collection. This must be called on the JavaFX Application Thread.
+    public void attachCartesianLineCollection() {
+        _linearObjectPropertiesPane.attachLinearObjectCollection( _cartesianLineCollection );
+
+        // Snap the end points to the features of the collection's lines.
+        _lineSnapIndex.setCartesianLines( _cartesianLineCollection.getCollection() );
+
+        // Preview the Projection Zones of Projector lines, computing them up
+        // front for the whole collection.
+        _cartesianLines = _cartesianLineCollection.getCollection();
+        updateProjectionZones();
+    }
+
+    /**
+     * Adds a listener for whether a slider is being dragged, such as for
+     * merging all of the edits of a drag into a single undo entry.
+     *
+     * @param valueChangingListener
+     *            The listener to add
+     */
+    public void addValueChangingListener( final ChangeListener< Boolean > valueChangingListener ) {
+        // Forward this method to the angle slider of the End Position Pane.
+        _cartesianLinePlacementPane._endPositionPane._polarPositionPane._anglePane._angleSlider
+                .valueChangingProperty().addListener( valueChangingListener );
     }
 
     public String getNewCartesianLineLabelDefault() {
@@ -95,11 +189,31 @@ public final class CartesianLinePane extends VBox {
                 .getUniqueLinearObjectLabel( cartesianLineLabelCandidate );
     }
 
+    public String getUniqueCartesianLineLabel( final String cartesianLineLabelCandidate,
+                                                final CartesianLine cartesianLine ) {
+        // Forward this method to the Linear Object Properties Pane.
+        return _linearObjectPropertiesPane
+                .getUniqueLinearObjectLabel( cartesianLineLabelCandidate, cartesianLine );
+    }
+
+    public Layer getLayerByName( final String layerName ) {
+        // Forward this method to the Linear Object Properties Pane.
+        return _linearObjectPropertiesPane.getLayerByName( layerName );
+    }
+
+    public LineSnapIndex getLineSnapIndex() {
+        return _lineSnapIndex;
+    }
+
     public LinearObjectProperties getLinearObjectProperties() {
         // Forward this method to the Linear Object Properties Pane.
         return _linearObjectPropertiesPane.getLinearObjectProperties();
     }
 
+    public ProjectionZoneEngine< CartesianLine > getProjectionZoneEngine() {
+        return _projectionZoneEngine;
+    }
+
     private void initPane( final GraphicalObjectCollection< CartesianLine > cartesianLineCollection,
                            final String cartesianLineType,
                            final String projectorType,
@@ -115,6 +229,11 @@ public final class CartesianLinePane extends VBox {
 
         _cartesianLinePlacementPane = new CartesianLinePlacementPane( _clientProperties );
 
+        // Snap the end points and preview the Projection Zones; the indexes
+        // are only filled once the pane is attached to the collection.
+        _cartesianLinePlacementPane.setLineSnapIndex( _lineSnapIndex );
+        _cartesianLinePlacementPane.setProjectionZoneEngine( _projectionZoneEngine );
+
         setSpacing( 12 );
         setPadding( new Insets( 6 ) );
 
@@ -124,68 +243,118 @@ public final class CartesianLinePane extends VBox {
         // Make sure the Placement Pane always gets grow priority.
         VBox.setVgrow( _cartesianLinePlacementPane, Priority.ALWAYS );
 
+        // Commit end points dragged in the preview to the model and editors.
+        _cartesianLinePlacementPane.setEndPointDragAction( this::updateCartesianLineModelAndView );
+
         // If the Projector status changes in any way, update the Preview.
         _linearObjectPropertiesPane._linearObjectPropertiesControls._useAsProjectorCheckBox
                 .selectedProperty().addListener( ( observable, oldValue, newValue ) -> {
-                    final CartesianLine cartesianLine = new CartesianLine();
-                    updateCartesianLineModel( cartesianLine );
+                    updateCartesianLineModel();
                 } );
         _linearObjectPropertiesPane._linearObjectPropertiesControls._projectionZonesSelector
                 .setOnAction( evt -> {
-                    final CartesianLine cartesianLine = new CartesianLine();
-                    updateCartesianLineModel( cartesianLine );
+                    updateCartesianLineModel();
                 } );
 
         // Make sure that any edits to one end position control affect the
         // others, so that the two coordinate systems are always in sync.
-        // NOTE: We also update the model if the start position changes, in
-        // order to get the preview to update.
-        // NOTE: We make a dummy object to serve as an intermediary for now,
+        // NOTE: We also update the model and view if the start position
+        // changes, in order to get the preview to update, and to re-sync the
+        // editors if the start point snapped to a feature of another line.
+        // NOTE: We use a scratch object to serve as an intermediary for now,
         // until we move the coordinate system transform code to a utility
         // class, so that we don't prematurely apply changes and prevent
         // reversion to a previous state.
+        // NOTE: Edits are only committed once focus is lost, so there is no
+        // work to do when focus is gained.
         _cartesianLinePlacementPane._startCartesianPositionPane._xPositionEditor
                 .focusedProperty().addListener( ( observable, oldValue, newValue ) -> {
-                    final CartesianLine cartesianLine = new CartesianLine();
-                    updateCartesianLineModel( cartesianLine );
+                    if ( !newValue ) {
+                        updateCartesianLineModelAndView( LineEndPoint.START );
+                    }
                 } );
         _cartesianLinePlacementPane._startCartesianPositionPane._yPositionEditor
                 .focusedProperty().addListener( ( observable, oldValue, newValue ) -> {
-                    final CartesianLine cartesianLine = new CartesianLine();
-                    updateCartesianLineModel( cartesianLine );
+                    if ( !newValue ) {
+                        updateCartesianLineModelAndView( LineEndPoint.START );
+                    }
                 } );
         _cartesianLinePlacementPane._endPositionPane._cartesianPositionPane._xPositionEditor
                 .focusedProperty().addListener( ( observable, oldValue, newValue ) -> {
-                    final CartesianLine cartesianLine = new CartesianLine();
-                    updateCartesianLineModel( cartesianLine );
-                    updateCartesianLineView( cartesianLine );
+                    if ( !newValue ) {
+                        updateCartesianLineModelAndView( LineEndPoint.END );
+                    }
                 } );
         _cartesianLinePlacementPane._endPositionPane._cartesianPositionPane._yPositionEditor
                 .focusedProperty().addListener( ( observable, oldValue, newValue ) -> {
-                    final CartesianLine cartesianLine = new CartesianLine();
-                    updateCartesianLineModel( cartesianLine );
-                    updateCartesianLineView( cartesianLine );
+                    if ( !newValue ) {
+                        updateCartesianLineModelAndView( LineEndPoint.END );
+                    }
                 } );
         _cartesianLinePlacementPane._endPositionPane._polarPositionPane._anglePane._angleEditor
                 .focusedProperty().addListener( ( observable, oldValue, newValue ) -> {
-                    final CartesianLine cartesianLine = new CartesianLine();
-                    updateCartesianLineModel( cartesianLine );
-                    updateCartesianLineView( cartesianLine );
-                } );
-        _cartesianLinePlacementPane._endPositionPane._polarPositionPane._anglePane._angleSlider
-                .valueProperty().addListener( ( observable, oldValue, newValue ) -> {
-                    final CartesianLine cartesianLine = new CartesianLine();
-                    updateCartesianLineModel( cartesianLine );
-                    updateCartesianLineView( cartesianLine );
+                    if ( !newValue ) {
+                        updateCartesianLineModelAndView( LineEndPoint.END );
+                    }
                 } );
         _cartesianLinePlacementPane._endPositionPane._polarPositionPane._distanceEditor
                 .focusedProperty().addListener( ( observable, oldValue, newValue ) -> {
-                    final CartesianLine cartesianLine = new CartesianLine();
-                    updateCartesianLineModel( cartesianLine );
-                    updateCartesianLineView( cartesianLine );
+                    if ( !newValue ) {
+                        updateCartesianLineModelAndView( LineEndPoint.END );
+                    }
+                } );
+
+        // While the angle slider is being dragged, update at most once per
+        // pulse, and commit the drag only once it is released. Discrete
+        // changes, such as from the keyboard, are committed directly.
+        final Slider angleSlider =
+                _cartesianLinePlacementPane._endPositionPane._polarPositionPane._anglePane._angleSlider;
+        angleSlider.valueProperty().addListener( ( observable, oldValue, newValue ) -> {
+            if ( angleSlider.isValueChanging() ) {
+                _sliderUpdateScheduler.requestUpdate();
+                return;
+            }
+
+            updateCartesianLineModelAndView( LineEndPoint.END );
+        } );
+        angleSlider.valueChangingProperty()
+                .addListener( ( observable, wasValueChanging, isValueChanging ) -> {
+                    if ( wasValueChanging && !isValueChanging ) {
+                        // Drop the pending drag update, as it is superseded.
+                        _sliderUpdateScheduler.cancel();
+                        updateCartesianLineModelAndView( LineEndPoint.END );
+                    }
                 } );
     }
 
+    /**
+     * Imports Cartesian Lines from delimited text into the collection, with
+     * their Layers resolved via the Layer Index and their labels made unique,
+     * and then recomputes the Projection Zones. The label and snap indexes
+     * follow the additions to the collection on their own.
+     * <p>
+     * This must be called on the JavaFX Application Thread, once the pane is
+     * attached to the collection.
+     *
+     * @param reader
+     *            The source of the delimited text, which is not closed
+     * @return The report of the import
+     * @throws IOException
+     *             If the text could not be read
+     */
+    public LineImportReport importCartesianLines( final Reader reader ) throws IOException {
+        final CartesianLineImporter cartesianLineImporter = new CartesianLineImporter(
+                _linearObjectPropertiesPane._layerIndex,
+                NumberFormatUtilities.getUniquefierNumberFormat( _clientProperties.locale ),
+                getNewCartesianLineLabelDefault() );
+        final LineImportReport lineImportReport = cartesianLineImporter
+                .importLines( reader, _cartesianLineCollection );
+
+        updateProjectionZones();
+
+        return lineImportReport;
+    }
+
     public boolean isCartesianLineLabelUnique( final String cartesianLineLabelCandidate ) {
         // Forward this method to the Linear Object Properties Pane.
         return _linearObjectPropertiesPane
@@ -197,17 +366,44 @@ public final class CartesianLinePane extends VBox {
         _cartesianLinePlacementPane.saveEdits();
     }
 
+    // Lock the label and the geometry while batch editing, as those are
+    // specific to each Cartesian Line and so are never batch edited.
+    public void setBatchEditMode( final boolean batchEditMode ) {
+        // Forward this method to the Linear Object Properties Pane.
+        _linearObjectPropertiesPane.setBatchEditMode( batchEditMode );
+
+        _cartesianLinePlacementPane.setDisable( batchEditMode );
+    }
+
     public void setGesturesEnabled( final boolean gesturesEnabled ) {
         // Forward this method to the Cartesian Line Placement Pane.
         _cartesianLinePlacementPane.setGesturesEnabled( gesturesEnabled );
     }
 
     public void setLayerCollection( final ObservableList< Layer > layerCollection ) {
-        // Cache a local copy of the Layer Collection.
-        _layerCollection = layerCollection;
+        // Forward this method to the Linear Object Properties Pane, which
+        // also keeps the Layer Index in sync with the Layer Collection.
+        _linearObjectPropertiesPane.setLayerCollection( layerCollection );
+    }
 
+    public void relabelCartesianLine( final CartesianLine cartesianLine ) {
         // Forward this method to the Linear Object Properties Pane.
-        _linearObjectPropertiesPane.setLayerCollection( layerCollection );
+        _linearObjectPropertiesPane.relabelLinearObject( cartesianLine );
+    }
+
+    public void reindexCartesianLine( final CartesianLine cartesianLine ) {
+        // Forward this method to the Line Snap Index.
+        _lineSnapIndex.updateCartesianLine( cartesianLine );
+    }
+
+    public void setSnapDistance( final double snapDistance ) {
+        // Forward this method to the Cartesian Line Placement Pane.
+        _cartesianLinePlacementPane.setSnapDistance( snapDistance );
+    }
+
+    public void setEditedCartesianLine( final CartesianLine editedCartesianLine ) {
+        // Forward this method to the Cartesian Line Placement Pane.
+        _cartesianLinePlacementPane.setEditedCartesianLine( editedCartesianLine );
     }
 
     /**
@@ -221,15 +417,33 @@ public final class CartesianLinePane extends VBox {
         _cartesianLinePlacementPane.setScrollingSensitivity( scrollingSensitivity );
     }
 
+    // Update the Preview via the scratch Cartesian Line.
+    private void updateCartesianLineModel() {
+        updateCartesianLineModel( _scratchCartesianLine );
+    }
+
+    // Sync both coordinate systems via the scratch Cartesian Line, after
+    // snapping the end point that is being edited.
+    private void updateCartesianLineModelAndView( final LineEndPoint editedEndPoint ) {
+        updateCartesianLineModel( _scratchCartesianLine, editedEndPoint );
+        updateCartesianLineView( _scratchCartesianLine );
+    }
+
     public void updateCartesianLineModel( final CartesianLine cartesianLine ) {
+        // Commit the editors as they are, as they were synced after snapping.
+        updateCartesianLineModel( cartesianLine, null );
+    }
+
+    private void updateCartesianLineModel( final CartesianLine cartesianLine,
+                                           final LineEndPoint editedEndPoint ) {
         // Get all of the Linear Object properties.
         final LinearObjectProperties linearObjectProperties = getLinearObjectProperties();
         cartesianLine.setLabel( linearObjectProperties.getLabel() );
+        _linearObjectPropertiesPane.relabelLinearObject( cartesianLine );
 
-        // Cache the current Layer selection via Layer Name lookup.
+        // Cache the current Layer selection via indexed Layer Name lookup.
         final String layerName = linearObjectProperties.getLayerName();
-        final Layer layer = LayerManager.getLayerByName(
-                _layerCollection, layerName );
+        final Layer layer = _linearObjectPropertiesPane.getLayerByName( layerName );
         cartesianLine.setLayer( layer );
 
         // Update the Projector values.
@@ -238,7 +452,10 @@ public final class CartesianLinePane extends VBox {
                 .setNumberOfProjectionZones( linearObjectProperties.getNumberOfProjectionZones() );
 
         // Forward this method to the Cartesian Line Placement Pane.
-        _cartesianLinePlacementPane.updateCartesianLineModel( cartesianLine );
+        _cartesianLinePlacementPane.updateCartesianLineModel( cartesianLine, editedEndPoint );
+
+        // Re-index the snapping features if this is a line in the collection.
+        _lineSnapIndex.updateCartesianLine( cartesianLine );
     }
 
     public void updateLayerNameSelection( final CartesianLine cartesianLine ) {
@@ -277,14 +494,36 @@ public final class CartesianLinePane extends VBox {
     }
 
     public void updateLayerNames( final Layer currentLayer ) {
-        final List< Layer > layerCollection = _layerCollection;
-        final int currentLayerIndex = LayerManager.getLayerIndex(
-                layerCollection, currentLayer );
+        final int currentLayerIndex = _linearObjectPropertiesPane.getLayerIndex( currentLayer );
 
         // Forward this method to the Linear Object Properties Pane.
         _linearObjectPropertiesPane.updateLayerNames( currentLayerIndex );
     }
 
+    /**
+     * Recomputes the Projection Zones of the collection's Projector lines,
+     * such as after a bulk import or other batch edit, skipping the lines
+     * whose geometry and number of Projection Zones have not changed.
+     *
+     * @return The number of lines whose Projection Zones were recomputed
+     */
+    public int updateProjectionZones() {
+        return _projectionZoneEngine.update( _cartesianLines );
+    }
+
+    /**
+     * Recomputes the Projection Zones of a single line in the collection
+     * after it was edited, if its geometry or number of Projection Zones
+     * changed.
+     *
+     * @param cartesianLine
+     *            The edited Cartesian Line, which must be in the collection
+     */
+    public void updateProjectionZones( final CartesianLine cartesianLine ) {
+        // Forward this method to the Projection Zone Engine.
+        _projectionZoneEngine.updateLinearObject( cartesianLine );
+    }
+
     public void updatePositioning( final CartesianLine cartesianLine ) {
         // Forward this method to the Cartesian Line Placement Pane.
         _cartesianLinePlacementPane.updatePositioning( cartesianLine );
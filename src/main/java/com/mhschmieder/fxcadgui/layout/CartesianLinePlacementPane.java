@@ -30,6 +30,11 @@
  */
 package com.mhschmieder.fxcadgui.layout;
 
+import com.mhschmieder.fxcadgui.util.CoordinateSyncEngine;
+import com.mhschmieder.fxcadgui.util.CoordinateSyncEngine.Representation;
+import com.mhschmieder.fxcadgui.util.LineSnapIndex;
+import com.mhschmieder.fxcadgui.util.LineSnapIndex.SnapFeature;
+import com.mhschmieder.fxcadgui.util.ProjectionZoneEngine;
 import com.mhschmieder.fxgraphics.geometry.CartesianLine;
 import com.mhschmieder.fxgui.util.GuiUtilities;
 import com.mhschmieder.fxphysicsgui.layout.CartesianPositionPane;
@@ -42,17 +47,53 @@ import javafx.geometry.Insets;
 import javafx.geometry.Point2D;
 import javafx.scene.Node;
 import javafx.scene.layout.HBox;
+import org.apache.commons.math3.util.FastMath;
+
+import java.util.function.Consumer;
 
 public final class CartesianLinePlacementPane extends HBox {
 
+    /**
+     * The end points of a line, so that only the one being edited is snapped.
+     */
+    public enum LineEndPoint {
+        START, END
+    }
+
     protected GraphicalObjectPreviewPane _previewPane;
     public CartesianPositionPane _startCartesianPositionPane;
     public PositioningPane _endPositionPane;
 
+    // Sync the positioning editors from the data model without recursion.
+    private final CoordinateSyncEngine _coordinateSyncEngine;
+
+    // Index of the features of other lines that end points can snap to.
+    private LineSnapIndex _lineSnapIndex;
+
+    // The distance within which end points snap, or zero for no snapping.
+    private double _snapDistance;
+
+    // The line being edited, whose own features must not be snapped to, and
+    // whose cached Projection Zones are used for the preview.
+    private CartesianLine _editedCartesianLine;
+
+    // Engine for the Projection Zones previewed on Projector lines.
+    private ProjectionZoneEngine< CartesianLine > _projectionZoneEngine;
+
+    // Action to commit end points dragged in the preview to the data model.
+    private Consumer< LineEndPoint > _endPointDragAction;
+
     public CartesianLinePlacementPane( final ClientProperties pClientProperties ) {
         // Always call the superclass constructor first!
         super();
 
+        _coordinateSyncEngine = new CoordinateSyncEngine();
+        _lineSnapIndex = null;
+        _snapDistance = 0.0d;
+        _editedCartesianLine = null;
+        _projectionZoneEngine = null;
+        _endPointDragAction = null;
+
         try {
             initPane( pClientProperties );
         }
@@ -78,23 +119,68 @@ public final class CartesianLinePlacementPane extends HBox {
                               startCartesianPositionBorderNode,
                               endPositionBorderNode );
 
+        // Positions dragged in the preview arrive at most once per pulse.
+        _previewPane.setEndPointDragHandler( this::dragEndPoint );
+
         setSpacing( 6.0d );
         setPadding( new Insets( 3.0d ) );
     }
 
+    /*
+     * Moves a line end point that was dragged in the preview, by setting the
+     * positioning editors that own it and then committing them to the model.
+     * The other end point stays put, even if the end point is being edited
+     * in Polar Coordinates relative to the start point.
+     */
+    private void dragEndPoint( final boolean startPoint, final double x, final double y ) {
+        if ( _endPointDragAction == null ) {
+            return;
+        }
+
+        final boolean cartesianPositionActive = _endPositionPane.isCartesianPositionActive();
+        if ( startPoint ) {
+            final Point2D endPosition2D = _endPositionPane.getCartesianPosition2D();
+            _startCartesianPositionPane.setCartesianPosition2D( x, y );
+            if ( !cartesianPositionActive ) {
+                setEndPolarPosition( x, y, endPosition2D.getX(), endPosition2D.getY() );
+            }
+        }
+        else if ( cartesianPositionActive ) {
+            _endPositionPane.setCartesianPosition2D( x, y );
+        }
+        else {
+            final Point2D startPosition2D = _startCartesianPositionPane.getCartesianPosition2D();
+            setEndPolarPosition( startPosition2D.getX(), startPosition2D.getY(), x, y );
+        }
+
+        _endPointDragAction.accept( startPoint ? LineEndPoint.START : LineEndPoint.END );
+    }
+
     public void saveEdits() {
         _startCartesianPositionPane.saveEdits();
         _endPositionPane.saveEdits();
     }
 
-    protected void setEndPointPosition( final CartesianLine cartesianLine ) {
-        _endPositionPane.setCartesianPosition2D( cartesianLine.getX2(),
-                                                 cartesianLine.getY2() );
+    private void setEndPolarPosition( final double x1,
+                                      final double y1,
+                                      final double x2,
+                                      final double y2 ) {
+        final double deltaX = x2 - x1;
+        final double deltaY = y2 - y1;
+        _endPositionPane.setPolarPosition( FastMath.toDegrees( FastMath.atan2( deltaY, deltaX ) ),
+                                           FastMath.hypot( deltaX, deltaY ) );
     }
 
-    protected void setEndPolarPosition( final CartesianLine cartesianLine ) {
-        _endPositionPane.setPolarPosition( cartesianLine.getAngleDegrees(),
-                                           cartesianLine.getDistance() );
+    /**
+     * Set the action that commits line end points dragged in the preview to
+     * the data model, once the positioning editors have been updated.
+     *
+     * @param endPointDragAction
+     *            The action to run with each dragged end point, or {@code null}
+     *            to turn off end point dragging
+     */
+    public void setEndPointDragAction( final Consumer< LineEndPoint > endPointDragAction ) {
+        _endPointDragAction = endPointDragAction;
     }
 
     public void setGesturesEnabled( final boolean gesturesEnabled ) {
@@ -113,12 +199,84 @@ public final class CartesianLinePlacementPane extends HBox {
         _endPositionPane.setScrollingSensitivity( scrollingSensitivity );
     }
 
-    protected void setStartPointPosition( final CartesianLine cartesianLine ) {
-        _startCartesianPositionPane.setCartesianPosition2D( cartesianLine.getX1(),
-                                                            cartesianLine.getY1() );
+    public void setProjectionZoneEngine(
+            final ProjectionZoneEngine< CartesianLine > projectionZoneEngine ) {
+        _projectionZoneEngine = projectionZoneEngine;
+    }
+
+    public void setLineSnapIndex( final LineSnapIndex lineSnapIndex ) {
+        _lineSnapIndex = lineSnapIndex;
+    }
+
+    /**
+     * Set the distance within which end points snap to the endpoints,
+     * midpoints and crossings of other lines.
+     *
+     * @param snapDistance
+     *            The snap distance, or zero to turn snapping off
+     */
+    public void setSnapDistance( final double snapDistance ) {
+        _snapDistance = snapDistance;
+    }
+
+    public void setEditedCartesianLine( final CartesianLine editedCartesianLine ) {
+        _editedCartesianLine = editedCartesianLine;
+    }
+
+    /*
+     * Snaps the end point being edited to the nearest feature of another line
+     * within the snap distance, leaving the other end point where it is so
+     * that it doesn't jump to a feature that the user never moved it near.
+     */
+    private void snapCartesianLine( final CartesianLine cartesianLine,
+                                    final LineEndPoint editedEndPoint ) {
+        if ( ( _lineSnapIndex == null ) || ( _snapDistance <= 0.0d ) ) {
+            return;
+        }
+
+        final boolean startPoint = LineEndPoint.START.equals( editedEndPoint );
+        final SnapFeature snapFeature = _lineSnapIndex
+                .findNearestFeature( startPoint ? cartesianLine.getX1() : cartesianLine.getX2(),
+                                     startPoint ? cartesianLine.getY1() : cartesianLine.getY2(),
+                                     _snapDistance,
+                                     _editedCartesianLine );
+        if ( snapFeature == null ) {
+            return;
+        }
+
+        if ( startPoint ) {
+            cartesianLine.setLine( snapFeature.getX(),
+                                   snapFeature.getY(),
+                                   cartesianLine.getX2(),
+                                   cartesianLine.getY2() );
+        }
+        else {
+            cartesianLine.setLine( cartesianLine.getX1(),
+                                   cartesianLine.getY1(),
+                                   snapFeature.getX(),
+                                   snapFeature.getY() );
+        }
     }
 
     public void updateCartesianLineModel( final CartesianLine cartesianLine ) {
+        // Commit the positioning editors as they are, without snapping.
+        updateCartesianLineModel( cartesianLine, null );
+    }
+
+    /**
+     * Update the line from the positioning editors, snapping the end point
+     * that is being edited to nearby features of other lines, if enabled.
+     * <p>
+     * The caller should re-sync the view afterwards, as a snapped end point
+     * no longer matches what is shown in the positioning editors.
+     *
+     * @param cartesianLine
+     *            The line to update
+     * @param editedEndPoint
+     *            The end point being edited, or {@code null} for no snapping
+     */
+    public void updateCartesianLineModel( final CartesianLine cartesianLine,
+                                          final LineEndPoint editedEndPoint ) {
         final Point2D startPosition2D = _startCartesianPositionPane.getCartesianPosition2D();
         if ( _endPositionPane.isCartesianPositionActive() ) {
             final Point2D endPosition2D = _endPositionPane.getCartesianPosition2D();
@@ -133,6 +291,11 @@ public final class CartesianLinePlacementPane extends HBox {
             cartesianLine.setLine( startPosition2D, angleDegrees, distance );
         }
 
+        // Snap the edited end point to nearby features of other lines.
+        if ( editedEndPoint != null ) {
+            snapCartesianLine( cartesianLine, editedEndPoint );
+        }
+
         // Update the preview of the current Cartesian Line.
         updatePreview( cartesianLine );
     }
@@ -161,33 +324,73 @@ public final class CartesianLinePlacementPane extends HBox {
     }
 
     public void updatePositioning( final CartesianLine cartesianLine ) {
-        setStartPointPosition( cartesianLine );
-        setEndPointPosition( cartesianLine );
-
         // NOTE: We have to avoid recursion between the Cartesian and Polar
         // Coordinate editors, as the sliders may have set "Snap to Ticks" and
         // this auto-rounding can cause subsequent syncing calls to the
         // Cartesian coordinates to then re-sync the Polar coordinates,
         // eventually causing stack overflow from too much recursion.
-        // NOTE: This is unconditionally re-enabled, as otherwise selecting a
-        // different Linear Object while the Editor is open, can result in the
-        // Polar Coordinates not updating, if they are the active selection.
-        // There does not appear to be any resultant recursion, so probably we
-        // added some data binding approaches after this code was first written.
-        // if ( _endPositionPane.isCartesianPositionActive() ) {
-        setEndPolarPosition( cartesianLine );
-        // }
+        // NOTE: The active End Point editor is the source and the other one
+        // is derived, and each is only pushed to when its values changed, so
+        // that selecting a different Linear Object while the Editor is open
+        // still updates both, but rounded values are not re-synced.
+        _coordinateSyncEngine.sync( () -> {
+            final Point2D startPosition2D = _startCartesianPositionPane.getCartesianPosition2D();
+            _coordinateSyncEngine.syncSource( Representation.CARTESIAN,
+                                              startPosition2D.getX(),
+                                              startPosition2D.getY(),
+                                              cartesianLine.getX1(),
+                                              cartesianLine.getY1(),
+                                              _startCartesianPositionPane::setCartesianPosition2D );
+
+            if ( _endPositionPane.isCartesianPositionActive() ) {
+                final Point2D endPosition2D = _endPositionPane.getCartesianPosition2D();
+                _coordinateSyncEngine.syncSource( Representation.CARTESIAN,
+                                                  endPosition2D.getX(),
+                                                  endPosition2D.getY(),
+                                                  cartesianLine.getX2(),
+                                                  cartesianLine.getY2(),
+                                                  _endPositionPane::setCartesianPosition2D );
+                _coordinateSyncEngine.syncDerived( Representation.POLAR,
+                                                   cartesianLine.getAngleDegrees(),
+                                                   cartesianLine.getDistance(),
+                                                   _endPositionPane::setPolarPosition );
+            }
+            else {
+                _coordinateSyncEngine.syncSource( Representation.POLAR,
+                                                  _endPositionPane.getRotationAngle(),
+                                                  _endPositionPane.getDistance(),
+                                                  cartesianLine.getAngleDegrees(),
+                                                  cartesianLine.getDistance(),
+                                                  _endPositionPane::setPolarPosition );
+                _coordinateSyncEngine.syncDerived( Representation.CARTESIAN,
+                                                   cartesianLine.getX2(),
+                                                   cartesianLine.getY2(),
+                                                   _endPositionPane::setCartesianPosition2D );
+            }
+        } );
+    }
+
+    /**
+     * Returns the engine that syncs the positioning editors, such as for
+     * checking how much work the syncing does.
+     *
+     * @return The coordinate sync engine
+     */
+    public CoordinateSyncEngine getCoordinateSyncEngine() {
+        return _coordinateSyncEngine;
     }
 
     public void updatePreview( final CartesianLine cartesianLineCurrent ) {
-        // Forward this to the preview pane, at the origin.
-        final CartesianLine cartesianLine = new CartesianLine( cartesianLineCurrent );
-        final double x1 = 0;
-        final double y1 = 0;
-        final double x2 = cartesianLine.getX2() - cartesianLine.getX1();
-        final double y2 = cartesianLine.getY2() - cartesianLine.getY1();
-        cartesianLine.setLine( x1, y1, x2, y2 );
-
-        _previewPane.updatePreview( cartesianLine, 2.0d );
+        // Forward this to the preview pane, which previews lines at the origin,
+        // along with the Projection Zones if the line is a Projector.
+        // NOTE: The current line is usually a scratch copy of the edited line,
+        // so the Projection Zones are looked up via the edited line.
+        _previewPane.updatePreview( cartesianLineCurrent,
+                                    ( _projectionZoneEngine != null )
+                                        ? _projectionZoneEngine
+                                                .getProjectionZones( _editedCartesianLine,
+                                                                     cartesianLineCurrent )
+                                        : null,
+                                    2.0d );
     }
 }
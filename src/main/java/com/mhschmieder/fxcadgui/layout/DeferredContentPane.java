@@ -0,0 +1,204 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.layout;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.StackPane;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A Deferred Content Pane shows a lightweight placeholder while its content
+ * node is built on a worker thread, and swaps the content in on the JavaFX
+ * Application Thread once it is ready, so that opening a window never blocks
+ * on the construction of a heavyweight layout.
+ * <p>
+ * JavaFX allows nodes to be constructed off of the JavaFX Application Thread
+ * as long as they are not yet attached to a live scene. Should construction
+ * fail on the worker thread anyway (some controls insist on the JavaFX
+ * Application Thread), it is retried on the JavaFX Application Thread, and if
+ * it fails there too, the placeholder is replaced by an error message.
+ * <p>
+ * All Deferred Content Panes share one pool of daemon worker threads, so that
+ * opening several windows doesn't start a thread per window.
+ * <p>
+ * Only the node tree may be built by the content builder. Anything that hooks
+ * the content up to live collections, indexes or listeners must be deferred to
+ * {@link #whenContentReady}, which always runs on the JavaFX Application
+ * Thread.
+ *
+ * @param <T>
+ *            The type of the content node
+ */
+public final class DeferredContentPane< T extends Node > extends StackPane {
+
+    /** Numbers the worker threads, so that they can be told apart. */
+    private static final AtomicInteger          CONTENT_THREAD_COUNT = new AtomicInteger();
+
+    /**
+     * The shared worker threads that build the content nodes, which are
+     * daemons so that they never keep the application alive.
+     */
+    private static final ExecutorService        CONTENT_EXECUTOR     = Executors
+            .newCachedThreadPool( runnable -> {
+                final Thread contentThread = new Thread( runnable,
+                                                         "DeferredContentPane-" //$NON-NLS-1$
+                                                                 + CONTENT_THREAD_COUNT
+                                                                         .incrementAndGet() );
+                contentThread.setDaemon( true );
+                return contentThread;
+            } );
+
+    /** The content node, once it has been built and attached. */
+    private T                                   _content;
+
+    /** Actions waiting for the content, in the order they were requested. */
+    private final List< Consumer< ? super T > > _pendingActions;
+
+    public DeferredContentPane( final Supplier< T > contentBuilder ) {
+        // Always call the superclass constructor first!
+        super();
+
+        _content = null;
+        _pendingActions = new ArrayList<>();
+
+        try {
+            initPane( contentBuilder );
+        }
+        catch ( final Exception ex ) {
+            ex.printStackTrace();
+        }
+    }
+
+    private void initPane( final Supplier< T > contentBuilder ) {
+        // Show an indeterminate progress indicator until the content is ready.
+        final ProgressIndicator placeholder = new ProgressIndicator();
+        placeholder.setMaxSize( 48d, 48d );
+        getChildren().add( placeholder );
+
+        CONTENT_EXECUTOR.execute( () -> {
+            T content = null;
+            try {
+                content = contentBuilder.get();
+            }
+            catch ( final Throwable t ) {
+                // Fall back to building the content on the JavaFX Application
+                // Thread, as it may contain controls that require it.
+                content = null;
+            }
+
+            final T builtContent = content;
+            Platform.runLater( () -> {
+                if ( builtContent != null ) {
+                    attachContent( builtContent );
+                    return;
+                }
+
+                final T fallbackContent;
+                try {
+                    fallbackContent = contentBuilder.get();
+                }
+                catch ( final Throwable t ) {
+                    showContentError( t );
+                    return;
+                }
+                attachContent( fallbackContent );
+            } );
+        } );
+    }
+
+    /**
+     * Returns the content node, if it is ready.
+     *
+     * @return The content node, or {@code null} if it is still being built
+     */
+    public T getContent() {
+        return _content;
+    }
+
+    /**
+     * Returns {@code true} if the content node has been built and attached.
+     *
+     * @return {@code true} if the content node is ready
+     */
+    public boolean isContentReady() {
+        return _content != null;
+    }
+
+    /**
+     * Runs an action against the content node, immediately if it is ready,
+     * and otherwise as soon as it is attached. Deferred actions are run in
+     * the order that they were requested.
+     * <p>
+     * This must be called on the JavaFX Application Thread.
+     *
+     * @param action
+     *            The action to run against the content node
+     */
+    public void whenContentReady( final Consumer< ? super T > action ) {
+        if ( _content != null ) {
+            action.accept( _content );
+        }
+        else {
+            _pendingActions.add( action );
+        }
+    }
+
+    private void attachContent( final T content ) {
+        _content = content;
+        getChildren().setAll( content );
+
+        // Replay everything that was requested while the content was built.
+        for ( final Consumer< ? super T > action : _pendingActions ) {
+            action.accept( content );
+        }
+        _pendingActions.clear();
+    }
+
+    // Replace the placeholder with an error message, as the content will never
+    // arrive, and drop the actions that were waiting for it.
+    private void showContentError( final Throwable t ) {
+        t.printStackTrace();
+
+        _pendingActions.clear();
+        getChildren().setAll( new Label( "The content could not be built." ) ); //$NON-NLS-1$
+    }
+
+}
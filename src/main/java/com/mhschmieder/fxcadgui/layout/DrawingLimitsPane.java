@@ -32,6 +32,7 @@ package com.mhschmieder.fxcadgui.layout;
 
 import com.mhschmieder.fxcadcontrols.model.DrawingLimitsProperties;
 import com.mhschmieder.fxcadcontrols.model.Extents2DProperties;
+import com.mhschmieder.fxcadgui.util.AutoSyncBoundaryTracker;
 import com.mhschmieder.fxcontrols.control.ControlUtilities;
 import com.mhschmieder.jcommons.util.ClientProperties;
 import com.mhschmieder.jphysics.measure.DistanceUnit;
@@ -51,6 +52,14 @@ public final class DrawingLimitsPane extends GridPane {
     // Cache a reference to the Auto-Sync Boundary.
     protected Extents2DProperties autoSyncBoundary;
 
+    // Track the bindings on the current Drawing Limits, for release on
+    // re-binding.
+    private final BindingScope    _drawingLimitsBindings;
+
+    // Track the union of the registered scene objects' extents, pushing it
+    // as the Auto-Sync Boundary whenever it changes.
+    private final AutoSyncBoundaryTracker< Object > _autoSyncBoundaryTracker;
+
     public DrawingLimitsPane( final ClientProperties pClientProperties,
                               final String autoSyncLabel,
                               final boolean initialAutoSync,
@@ -60,6 +69,9 @@ public final class DrawingLimitsPane extends GridPane {
         // Always call the superclass constructor first!
         super();
 
+        _drawingLimitsBindings = new BindingScope();
+        _autoSyncBoundaryTracker = new AutoSyncBoundaryTracker<>( this::setAutoSyncBoundary );
+
         try {
             initPane( pClientProperties,
                       autoSyncLabel,
@@ -75,19 +87,31 @@ public final class DrawingLimitsPane extends GridPane {
 
     private void bindProperties() {
         // Load the event handler for the Auto-Sync Check Box.
-        _autoSyncCheckBox.selectedProperty()
-                .addListener( ( observableValue,
-                                oldValue,
-                                newValue ) -> setDrawingLimitsToAutoSyncBoundary( newValue )
-
-                );
+        _drawingLimitsBindings.addChangeListener( _autoSyncCheckBox.selectedProperty(),
+                ( observableValue,
+                  oldValue,
+                  newValue ) -> setDrawingLimitsToAutoSyncBoundary( newValue ) );
 
         // The Auto-Sync flag is a simple boolean so can be bi-directionally
         // bound to its corresponding check box.
-        _autoSyncCheckBox.selectedProperty().bindBidirectional( drawingLimitsProperties.autoSyncProperty() );
+        _drawingLimitsBindings.bindBidirectional( _autoSyncCheckBox.selectedProperty(),
+                                                  drawingLimitsProperties.autoSyncProperty() );
 
         // Bind Extents Pane enablement to the associated Auto-Sync Check Box.
-        _extents2DPane.disableProperty().bind( _autoSyncCheckBox.selectedProperty() );
+        _drawingLimitsBindings.bind( _extents2DPane.disableProperty(),
+                                     _autoSyncCheckBox.selectedProperty() );
+    }
+
+    /**
+     * Returns the tracker that maintains the Auto-Sync Boundary incrementally,
+     * so that scene objects can register, update and unregister their extents
+     * as they are added, moved and removed, rather than callers recomputing
+     * the boundary over all scene objects and setting it directly.
+     *
+     * @return The Auto-Sync Boundary tracker
+     */
+    public AutoSyncBoundaryTracker< Object > getAutoSyncBoundaryTracker() {
+        return _autoSyncBoundaryTracker;
     }
 
     private void initPane( final ClientProperties pClientProperties,
@@ -119,12 +143,20 @@ public final class DrawingLimitsPane extends GridPane {
 
         // Conditionally set the Drawing Limits to match the updated Auto-Sync
         // Boundary.
-        setDrawingLimitsToAutoSyncBoundary( drawingLimitsProperties.isAutoSync() );
+        // NOTE: The tracker may push a boundary before the Drawing Limits are
+        // set, in which case the cached boundary is applied once they are.
+        if ( drawingLimitsProperties != null ) {
+            setDrawingLimitsToAutoSyncBoundary( drawingLimitsProperties.isAutoSync() );
+        }
     }
 
     // Set and bind the Drawing Limits reference.
-    // NOTE: This should be done only once, to avoid breaking bindings.
+    // NOTE: Re-binding releases the bindings on the previous Drawing Limits.
     public void setDrawingLimits( final DrawingLimitsProperties pDrawingLimitsProperties) {
+        // Release any bindings from a previous Drawing Limits reference first,
+        // so that re-binding doesn't accumulate listeners.
+        _drawingLimitsBindings.release();
+
         // Cache the Drawing Limits reference.
         drawingLimitsProperties = pDrawingLimitsProperties;
 
@@ -133,6 +165,9 @@ public final class DrawingLimitsPane extends GridPane {
 
         // Bind the data model to the respective GUI components.
         bindProperties();
+
+        // Apply any Auto-Sync Boundary that was pushed before this point.
+        setDrawingLimitsToAutoSyncBoundary( drawingLimitsProperties.isAutoSync() );
     }
 
     /*
@@ -30,14 +30,15 @@
  */
 package com.mhschmieder.fxcadgui.layout;
 
+import com.mhschmieder.fxcadcontrols.model.DrawingLimitsProperties;
 import com.mhschmieder.fxcadcontrols.model.Extents2DProperties;
+import com.mhschmieder.fxcadgui.util.PulseUpdateScheduler;
 import com.mhschmieder.fxcontrols.util.RegionUtilities;
 import com.mhschmieder.fxgraphics.paint.ColorUtilities;
 import com.mhschmieder.fxgui.util.GuiUtilities;
 import com.mhschmieder.fxphysicsgui.layout.CartesianPositionPane;
 import com.mhschmieder.jcommons.util.ClientProperties;
 import com.mhschmieder.jphysics.measure.DistanceUnit;
-import javafx.application.Platform;
 import javafx.geometry.HPos;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -59,6 +60,27 @@ public final class Extents2DPane extends GridPane {
     // Maintain an observable reference to the global Extents.
     protected Extents2DProperties extents;
 
+    // Track the listeners on the current Extents, for release on re-binding.
+    private final BindingScope   _extentsBindings;
+
+    // Editor values that are waiting to be committed to the Extents, or NaN
+    // for values that haven't been edited since the last commit.
+    private double               _pendingMinimumX;
+    private double               _pendingMinimumY;
+    private double               _pendingSizeX;
+    private double               _pendingSizeY;
+
+    // The nesting depth of explicit transactions, during which edits are
+    // collected rather than scheduled for commit.
+    private int                  _transactionDepth;
+
+    // Flag for whether pending edits are being committed to the Extents, so
+    // that the resulting changes aren't echoed back into the editors.
+    private boolean              _committingEdits;
+
+    // Scheduler for committing all pending edits at most once per pulse.
+    private final PulseUpdateScheduler _editCommitScheduler;
+
     public Extents2DPane(final ClientProperties clientProperties,
                          final double extentsSizeMinimumMeters,
                          final double extentsSizeMaximumMeters,
@@ -66,6 +88,13 @@ public final class Extents2DPane extends GridPane {
         // Always call the superclass constructor first!
         super();
 
+        _extentsBindings = new BindingScope();
+
+        clearPendingEdits();
+        _transactionDepth = 0;
+        _committingEdits = false;
+        _editCommitScheduler = new PulseUpdateScheduler( this::commitPendingEdits );
+
         try {
             initPane( clientProperties,
                       extentsSizeMinimumMeters,
@@ -77,87 +106,177 @@ public final class Extents2DPane extends GridPane {
         }
     }
 
+    /**
+     * Starts collecting edits from the editors without committing them, so
+     * that a group of edits is applied to the Extents in a single update.
+     * Transactions may be nested, and each must be ended by a call to
+     * {@link #commitTransaction()}.
+     */
+    public void beginTransaction() {
+        _transactionDepth++;
+    }
+
     private void bindProperties() {
         // NOTE: Editors sync to the exact value of JavaFX Bean Properties,
-        // only passing through the unit conversion.
-        extents.xProperty()
-                .addListener( ( observableValue, oldValue, newValue ) -> {
-                    _minimumPane._xPositionEditor.setDistanceMeters( newValue.doubleValue() );
+        // only passing through the unit conversion. Changes that result from
+        // committing the editors' own pending edits are not echoed back.
+        _extentsBindings.addChangeListener( extents.xProperty(),
+                ( observableValue, oldValue, newValue ) -> {
+                    if ( !_committingEdits ) {
+                        _minimumPane._xPositionEditor.setDistanceMeters( newValue.doubleValue() );
+                    }
                 } );
-        extents.yProperty()
-                .addListener( ( observableValue, oldValue, newValue ) -> {
-                    _minimumPane._yPositionEditor.setDistanceMeters( newValue.doubleValue() );
+        _extentsBindings.addChangeListener( extents.yProperty(),
+                ( observableValue, oldValue, newValue ) -> {
+                    if ( !_committingEdits ) {
+                        _minimumPane._yPositionEditor.setDistanceMeters( newValue.doubleValue() );
+                    }
                 } );
-        extents.widthProperty()
-                .addListener( ( observableValue, oldValue, newValue ) -> {
-                    _sizePane._xPositionEditor.setDistanceMeters( newValue.doubleValue() );
+        _extentsBindings.addChangeListener( extents.widthProperty(),
+                ( observableValue, oldValue, newValue ) -> {
+                    if ( !_committingEdits ) {
+                        _sizePane._xPositionEditor.setDistanceMeters( newValue.doubleValue() );
+                    }
                 } );
-        extents.heightProperty()
-                .addListener( ( observableValue, oldValue, newValue ) -> {
-                    _sizePane._yPositionEditor.setDistanceMeters( newValue.doubleValue() );
+        _extentsBindings.addChangeListener( extents.heightProperty(),
+                ( observableValue, oldValue, newValue ) -> {
+                    if ( !_committingEdits ) {
+                        _sizePane._yPositionEditor.setDistanceMeters( newValue.doubleValue() );
+                    }
                 } );
 
         // NOTE: Editors might switch presentation units, whereas JavaFX Bean
         // Properties are specified with a single unchanging unit, so we have to
         // be careful to only sync the cached Distance property to the textField
         // when a real magnitude change occurred vs. a Distance Unit change.
-        _minimumPane._xPositionEditor.valueProperty()
-                .addListener( ( observableValue, oldValue, newValue ) -> {
-                    final double storedValue = getMinimumX();
-                    final double editorValue = _minimumPane._xPositionEditor.getDistanceMeters();
-
-                    // Make sure we don't set dirty flag because of round-off
-                    // errors in textField value when changing units, but wrap this
-                    // in a JavaFX runLater thread to ensure all FX event code
-                    // precedes the custom selection.
-                    if ( ( FastMath.abs( storedValue - editorValue ) >= EPSILON_TOLERANCE ) ) {
-                        Platform.runLater( () -> setMinimumX( editorValue ) );
-                    }
+        // NOTE: Rather than posting a separate runLater task per editor, the
+        // edits are collected and then committed together on the next pulse,
+        // which also ensures that all FX event code precedes the commit.
+        _extentsBindings.addChangeListener( _minimumPane._xPositionEditor.valueProperty(),
+                ( observableValue, oldValue, newValue ) -> {
+                    _pendingMinimumX = getPendingEdit( getMinimumX(),
+                            _minimumPane._xPositionEditor.getDistanceMeters() );
+                    requestEditCommit();
                 } );
-
-        _minimumPane._yPositionEditor.valueProperty()
-                .addListener( ( observableValue, oldValue, newValue ) -> {
-                    final double storedValue = getMinimumY();
-                    final double editorValue = _minimumPane._yPositionEditor.getDistanceMeters();
-
-                    // Make sure we don't set dirty flag because of round-off
-                    // errors in textField value when changing units, but wrap this
-                    // in a JavaFX runLater thread to ensure all FX event code
-                    // precedes the custom selection.
-                    if ( ( FastMath.abs( storedValue - editorValue ) >= EPSILON_TOLERANCE ) ) {
-                        Platform.runLater( () -> setMinimumY( editorValue ) );
-                    }
+        _extentsBindings.addChangeListener( _minimumPane._yPositionEditor.valueProperty(),
+                ( observableValue, oldValue, newValue ) -> {
+                    _pendingMinimumY = getPendingEdit( getMinimumY(),
+                            _minimumPane._yPositionEditor.getDistanceMeters() );
+                    requestEditCommit();
                 } );
-
-        _sizePane._xPositionEditor.valueProperty()
-                .addListener( ( observableValue, oldValue, newValue ) -> {
-                    final double storedValue = getSizeX();
-                    final double editorValue = _sizePane._xPositionEditor.getDistanceMeters();
-
-                    // Make sure we don't set dirty flag because of round-off
-                    // errors in textField value when changing units, but wrap this
-                    // in a JavaFX runLater thread to ensure all FX event code
-                    // precedes the custom selection.
-                    if ( ( FastMath.abs( storedValue - editorValue ) >= EPSILON_TOLERANCE ) ) {
-                        Platform.runLater( () -> setSizeX( editorValue ) );
-                    }
+        _extentsBindings.addChangeListener( _sizePane._xPositionEditor.valueProperty(),
+                ( observableValue, oldValue, newValue ) -> {
+                    _pendingSizeX = getPendingEdit( getSizeX(),
+                            _sizePane._xPositionEditor.getDistanceMeters() );
+                    requestEditCommit();
                 } );
-
-        _sizePane._yPositionEditor.valueProperty()
-                .addListener( ( observableValue, oldValue, newValue ) -> {
-                    final double storedValue = getSizeY();
-                    final double editorValue = _sizePane._yPositionEditor.getDistanceMeters();
-
-                    // Make sure we don't set dirty flag because of round-off
-                    // errors in textField value when changing units, but wrap this
-                    // in a JavaFX runLater thread to ensure all FX event code
-                    // precedes the custom selection.
-                    if ( ( FastMath.abs( storedValue - editorValue ) >= EPSILON_TOLERANCE ) ) {
-                        Platform.runLater( () -> setSizeY( editorValue ) );
-                    }
+        _extentsBindings.addChangeListener( _sizePane._yPositionEditor.valueProperty(),
+                ( observableValue, oldValue, newValue ) -> {
+                    _pendingSizeY = getPendingEdit( getSizeY(),
+                            _sizePane._yPositionEditor.getDistanceMeters() );
+                    requestEditCommit();
                 } );
     }
 
+    private void clearPendingEdits() {
+        _pendingMinimumX = Double.NaN;
+        _pendingMinimumY = Double.NaN;
+        _pendingSizeX = Double.NaN;
+        _pendingSizeY = Double.NaN;
+    }
+
+    /*
+     * Applies all pending edits to the Extents in one update, without echoing
+     * the resulting changes back into the editors that they came from, unless
+     * the Extents stored different values than were committed, such as from
+     * clamping them to their valid range.
+     */
+    private void commitPendingEdits() {
+        if ( extents == null ) {
+            clearPendingEdits();
+            return;
+        }
+
+        final double minimumX = _pendingMinimumX;
+        final double minimumY = _pendingMinimumY;
+        final double sizeX = _pendingSizeX;
+        final double sizeY = _pendingSizeY;
+        clearPendingEdits();
+
+        if ( Double.isNaN( minimumX ) && Double.isNaN( minimumY ) && Double.isNaN( sizeX )
+                && Double.isNaN( sizeY ) ) {
+            return;
+        }
+
+        _committingEdits = true;
+        try {
+            // NOTE: Only the Drawing Limits are known to have a setter for all
+            // four values, so other Extents are set one axis at a time.
+            if ( extents instanceof DrawingLimitsProperties ) {
+                ( ( DrawingLimitsProperties ) extents )
+                        .setExtents( Double.isNaN( minimumX ) ? getMinimumX() : minimumX,
+                                     Double.isNaN( minimumY ) ? getMinimumY() : minimumY,
+                                     Double.isNaN( sizeX ) ? getSizeX() : sizeX,
+                                     Double.isNaN( sizeY ) ? getSizeY() : sizeY );
+            }
+            else {
+                if ( !Double.isNaN( minimumX ) ) {
+                    setMinimumX( minimumX );
+                }
+                if ( !Double.isNaN( minimumY ) ) {
+                    setMinimumY( minimumY );
+                }
+                if ( !Double.isNaN( sizeX ) ) {
+                    setSizeX( sizeX );
+                }
+                if ( !Double.isNaN( sizeY ) ) {
+                    setSizeY( sizeY );
+                }
+            }
+        }
+        finally {
+            _committingEdits = false;
+        }
+
+        // Push back any committed values that the Extents didn't store as is.
+        if ( isAdjusted( minimumX, getMinimumX() ) ) {
+            _minimumPane._xPositionEditor.setDistanceMeters( getMinimumX() );
+        }
+        if ( isAdjusted( minimumY, getMinimumY() ) ) {
+            _minimumPane._yPositionEditor.setDistanceMeters( getMinimumY() );
+        }
+        if ( isAdjusted( sizeX, getSizeX() ) ) {
+            _sizePane._xPositionEditor.setDistanceMeters( getSizeX() );
+        }
+        if ( isAdjusted( sizeY, getSizeY() ) ) {
+            _sizePane._yPositionEditor.setDistanceMeters( getSizeY() );
+        }
+    }
+
+    /**
+     * Ends a transaction started by {@link #beginTransaction()}, and once the
+     * outermost transaction ends, schedules all of the collected edits to be
+     * committed to the Extents together on the next pulse.
+     */
+    public void commitTransaction() {
+        if ( _transactionDepth <= 0 ) {
+            return;
+        }
+
+        _transactionDepth--;
+        requestEditCommit();
+    }
+
+    /**
+     * Commits any pending edits to the Extents right away, rather than
+     * waiting for the next pulse, such as before the Extents are read back.
+     */
+    public void flushEdits() {
+        if ( _transactionDepth == 0 ) {
+            _editCommitScheduler.flush();
+        }
+    }
+
     public double getMinimumX() {
         return extents.getX();
     }
@@ -174,6 +293,22 @@ public final class Extents2DPane extends GridPane {
         return extents.getHeight();
     }
 
+    // Make sure we don't set dirty flag because of round-off errors in the
+    // editor value when changing units, by treating tiny changes as no edit.
+    private static double getPendingEdit( final double storedValue, final double editorValue ) {
+        return ( FastMath.abs( storedValue - editorValue ) >= EPSILON_TOLERANCE )
+            ? editorValue
+            : Double.NaN;
+    }
+
+    // Check whether a committed value was stored as something else, ignoring
+    // round-off, or skip the check if the value wasn't committed at all.
+    private static boolean isAdjusted( final double committedValue,
+                                       final double storedValue ) {
+        return !Double.isNaN( committedValue )
+                && ( FastMath.abs( storedValue - committedValue ) >= EPSILON_TOLERANCE );
+    }
+
     private void initPane( final ClientProperties clientProperties,
                            final double extentsSizeMinimumMeters,
                            final double extentsSizeMaximumMeters,
@@ -202,17 +337,40 @@ public final class Extents2DPane extends GridPane {
         setAlignment( Pos.CENTER );
     }
 
+    private void requestEditCommit() {
+        if ( _transactionDepth == 0 ) {
+            _editCommitScheduler.requestUpdate();
+        }
+    }
+
     // Reset all fields to the default values, regardless of state.
     public void reset() {
-        _minimumPane._xPositionEditor.setValue( Extents2DProperties.X_METERS_DEFAULT );
-        _minimumPane._yPositionEditor.setValue( Extents2DProperties.Y_METERS_DEFAULT );
-        _sizePane._xPositionEditor.setValue( Extents2DProperties.WIDTH_METERS_DEFAULT );
-        _sizePane._yPositionEditor.setValue( Extents2DProperties.HEIGHT_METERS_DEFAULT );
+        // Commit the resets together, as a single update to the Extents.
+        beginTransaction();
+        try {
+            _minimumPane._xPositionEditor.setValue( Extents2DProperties.X_METERS_DEFAULT );
+            _minimumPane._yPositionEditor.setValue( Extents2DProperties.Y_METERS_DEFAULT );
+            _sizePane._xPositionEditor.setValue( Extents2DProperties.WIDTH_METERS_DEFAULT );
+            _sizePane._yPositionEditor.setValue( Extents2DProperties.HEIGHT_METERS_DEFAULT );
+        }
+        finally {
+            commitTransaction();
+        }
     }
 
     // Set and bind the Extents reference.
-    // NOTE: This should be done only once, to avoid breaking bindings.
+    // NOTE: Re-binding releases the listeners on the previous Extents.
     public void setExtents( final Extents2DProperties pExtents ) {
+        // Commit any pending edits to the previous Extents reference, as they
+        // were made against its values rather than the new ones.
+        _editCommitScheduler.cancel();
+        commitPendingEdits();
+
+        // Release any listeners from a previous Extents reference first, so
+        // that re-binding doesn't accumulate listeners, and so that syncing
+        // the editors below doesn't write back to the previous Extents.
+        _extentsBindings.release();
+
         // Cache the new Extents.
         extents = pExtents;
 
@@ -30,14 +30,31 @@
  */
 package com.mhschmieder.fxcadgui.layout;
 
+import com.mhschmieder.fxcadgui.util.ProjectionZoneGeometry;
+import com.mhschmieder.fxcadgui.util.PulseUpdateScheduler;
+import com.mhschmieder.fxgraphics.geometry.CartesianLine;
 import com.mhschmieder.fxgraphics.geometry.GraphicalObject;
+import com.mhschmieder.fxgraphics.geometry.LinearObject;
+import com.mhschmieder.fxgraphics.geometry.PolarLine;
+import com.mhschmieder.fxgraphics.layers.Layer;
 import com.mhschmieder.fxgraphics.shape.ShapeGroup;
 import javafx.collections.ObservableList;
 import javafx.geometry.Bounds;
+import javafx.scene.Cursor;
+import javafx.scene.Group;
 import javafx.scene.Node;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Line;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
 import javafx.scene.shape.Rectangle;
+import javafx.scene.transform.Transform;
 import org.apache.commons.math3.util.FastMath;
 
 /**
@@ -48,6 +65,27 @@ import org.apache.commons.math3.util.FastMath;
  */
 public final class GraphicalObjectPreviewPane extends StackPane {
 
+    /**
+     * A handler for the new position of a line end point that is being
+     * dragged in the preview, called at most once per pulse.
+     */
+    @FunctionalInterface
+    public interface EndPointDragHandler {
+
+        /**
+         * Handles the new position of a dragged line end point.
+         *
+         * @param startPoint
+         *            {@code true} if the start point is being dragged, and
+         *            {@code false} if the end point is being dragged
+         * @param x
+         *            The new x coordinate of the end point, in model space
+         * @param y
+         *            The new y coordinate of the end point, in model space
+         */
+        void endPointDragged( boolean startPoint, double x, double y );
+    }
+
     /**
      * From inspecting the scene graph, it appears that this node only gets to
      * use up to the bounds of the parent minus 15 pixels at each edge.
@@ -57,32 +95,107 @@ public final class GraphicalObjectPreviewPane extends StackPane {
      * reduced to ten pixels, hoping that is enough to cover diagonal
      * orientations of rotated elements, which have taller bounding boxes.
      */
-    private static final double PARENT_INSETS = 3.0d;
+    private static final double        PARENT_INSETS         = 3.0d;
+
+    /**
+     * The on-screen length of each Projection Zone tick mark, in pixels, to
+     * either side of the line.
+     */
+    private static final double        ZONE_TICK_HALF_LENGTH = 3.0d;
+
+    /**
+     * The on-screen distance, in pixels, within which a mouse press picks up
+     * a line end point for dragging.
+     */
+    private static final double        END_POINT_HIT_RADIUS  = 6.0d;
 
     /**
      * The last graphic to be produced by the {@link GraphicalObject} given to
      * {@link #updatePreview}.
      */
-    private ShapeGroup          _shapeFx;
+    private ShapeGroup                 _shapeFx;
+
+    /**
+     * The long-lived line node for previewing lines, whose geometry is
+     * updated in place rather than being regenerated for each update.
+     */
+    private Line                       _linePreview;
+
+    /**
+     * The long-lived path for previewing the Projection Zone tick marks of a
+     * Projector line, whose elements are moved in place for each update.
+     */
+    private Path                       _zoneTickPreview;
+
+    /**
+     * The long-lived group that holds the line and tick mark previews, so
+     * that they share the same scale factors.
+     */
+    private Group                      _linePreviewGroup;
+
+    // The model space start point and extent of the previewed line.
+    private double                     _lineStartX;
+    private double                     _lineStartY;
+    private double                     _lineDeltaX;
+    private double                     _lineDeltaY;
+
+    /** The handler for dragged end points, or {@code null} if not draggable. */
+    private EndPointDragHandler        _endPointDragHandler;
+
+    /** Scheduler for delivering dragged end points once per pulse. */
+    private final PulseUpdateScheduler _endPointDragScheduler;
+
+    // The drag state, captured when an end point is picked up, so that each
+    // drag event maps the mouse movement to model space without allocation.
+    private boolean                    _endPointDragging;
+    private boolean                    _startPointDragged;
+    private double                     _dragPressSceneX;
+    private double                     _dragPressSceneY;
+    private double                     _dragPressModelX;
+    private double                     _dragPressModelY;
+    private double                     _dragInverseXX;
+    private double                     _dragInverseXY;
+    private double                     _dragInverseYX;
+    private double                     _dragInverseYY;
+    private double                     _draggedModelX;
+    private double                     _draggedModelY;
+
+    /**
+     * The clip that keeps the preview from painting over other controls,
+     * which is resized in place rather than being replaced.
+     */
+    private final Rectangle            _outputClip;
 
     /**
      * We need a nested layout scheme, to take advantage of auto-clipping.
      */
-    private Pane                _drawingPane;
+    private Pane                       _drawingPane;
 
     /**
      * The bounds of the parent at the time that they are first relevant for
      * sizing this node.
      */
-    private Bounds              _parentBounds;
+    private Bounds                     _parentBounds;
 
     public GraphicalObjectPreviewPane( final double width, final double height ) {
         // Always call the superclass constructor first!
         super();
 
         _shapeFx = null;
+        _linePreview = null;
+        _zoneTickPreview = null;
+        _linePreviewGroup = null;
+        _outputClip = new Rectangle();
         _parentBounds = null;
 
+        _lineStartX = 0.0d;
+        _lineStartY = 0.0d;
+        _lineDeltaX = 0.0d;
+        _lineDeltaY = 0.0d;
+        _endPointDragHandler = null;
+        _endPointDragScheduler = new PulseUpdateScheduler( this::deliverDraggedEndPoint );
+        _endPointDragging = false;
+
         try {
             initPane( width, height );
         }
@@ -108,6 +221,144 @@ public final class GraphicalObjectPreviewPane extends StackPane {
         // NOTE: This doesn't work as the layout bounds doesn't change, and
         // thus the registered callback is never invoked; thus no clipping.
         // SceneGraphNodeUtilities.clipChildren( _drawingPane, 3.0d );
+
+        // Let the line end points be dragged directly in the preview.
+        setOnMouseMoved( this::updateEndPointCursor );
+        setOnMousePressed( this::pickUpEndPoint );
+        setOnMouseDragged( this::dragEndPoint );
+        setOnMouseReleased( this::dropEndPoint );
+    }
+
+    /**
+     * Sets the handler for line end points dragged in the preview, which is
+     * called at most once per pulse while dragging, and once more when the
+     * end point is dropped.
+     *
+     * @param endPointDragHandler
+     *            The handler for dragged end points, or {@code null} to turn
+     *            off end point dragging
+     */
+    public void setEndPointDragHandler( final EndPointDragHandler endPointDragHandler ) {
+        _endPointDragHandler = endPointDragHandler;
+    }
+
+    /*
+     * Finds the line end point under the given scene position, by mapping the
+     * end points to the scene rather than by picking nodes, returning zero for
+     * none, one for the start point, or two for the end point.
+     */
+    private int findEndPoint( final double sceneX, final double sceneY ) {
+        if ( ( _endPointDragHandler == null ) || !isLinePreviewShowing() ) {
+            return 0;
+        }
+
+        // The line is previewed from its local origin to its extent.
+        final Transform localToScene = _linePreviewGroup.getLocalToSceneTransform();
+        final double startSceneX = localToScene.getTx();
+        final double startSceneY = localToScene.getTy();
+        final double endSceneX = ( localToScene.getMxx() * _lineDeltaX )
+                + ( localToScene.getMxy() * _lineDeltaY ) + localToScene.getTx();
+        final double endSceneY = ( localToScene.getMyx() * _lineDeltaX )
+                + ( localToScene.getMyy() * _lineDeltaY ) + localToScene.getTy();
+
+        final double startDistance = FastMath.hypot( sceneX - startSceneX, sceneY - startSceneY );
+        final double endDistance = FastMath.hypot( sceneX - endSceneX, sceneY - endSceneY );
+        if ( FastMath.min( startDistance, endDistance ) > END_POINT_HIT_RADIUS ) {
+            return 0;
+        }
+
+        // Favor the end point if they overlap, as it is usually the one that
+        // is being positioned relative to the start point.
+        return ( startDistance < endDistance ) ? 1 : 2;
+    }
+
+    private boolean isLinePreviewShowing() {
+        final ObservableList< Node > nodes = _drawingPane.getChildren();
+        return ( _linePreviewGroup != null ) && !nodes.isEmpty()
+                && ( nodes.get( 0 ) == _linePreviewGroup );
+    }
+
+    private void updateEndPointCursor( final MouseEvent mouseEvent ) {
+        final int endPoint = findEndPoint( mouseEvent.getSceneX(), mouseEvent.getSceneY() );
+        setCursor( ( endPoint != 0 ) ? Cursor.HAND : Cursor.DEFAULT );
+    }
+
+    private void pickUpEndPoint( final MouseEvent mouseEvent ) {
+        if ( mouseEvent.getButton() != MouseButton.PRIMARY ) {
+            return;
+        }
+
+        final double sceneX = mouseEvent.getSceneX();
+        final double sceneY = mouseEvent.getSceneY();
+        final int endPoint = findEndPoint( sceneX, sceneY );
+        if ( endPoint == 0 ) {
+            return;
+        }
+
+        // Capture the inverse of the current scaling, so that mouse movement
+        // maps to model space the same way for the whole drag, even though
+        // the preview is re-fitted to the line as it changes.
+        final Transform localToScene = _linePreviewGroup.getLocalToSceneTransform();
+        final double determinant = ( localToScene.getMxx() * localToScene.getMyy() )
+                - ( localToScene.getMxy() * localToScene.getMyx() );
+        if ( determinant == 0.0d ) {
+            return;
+        }
+        _dragInverseXX = localToScene.getMyy() / determinant;
+        _dragInverseXY = -localToScene.getMxy() / determinant;
+        _dragInverseYX = -localToScene.getMyx() / determinant;
+        _dragInverseYY = localToScene.getMxx() / determinant;
+
+        _startPointDragged = endPoint == 1;
+        _dragPressSceneX = sceneX;
+        _dragPressSceneY = sceneY;
+        _dragPressModelX = _startPointDragged ? _lineStartX : _lineStartX + _lineDeltaX;
+        _dragPressModelY = _startPointDragged ? _lineStartY : _lineStartY + _lineDeltaY;
+        _draggedModelX = _dragPressModelX;
+        _draggedModelY = _dragPressModelY;
+        _endPointDragging = true;
+
+        mouseEvent.consume();
+    }
+
+    private void dragEndPoint( final MouseEvent mouseEvent ) {
+        if ( !_endPointDragging ) {
+            return;
+        }
+
+        final double sceneDeltaX = mouseEvent.getSceneX() - _dragPressSceneX;
+        final double sceneDeltaY = mouseEvent.getSceneY() - _dragPressSceneY;
+        _draggedModelX = _dragPressModelX + ( _dragInverseXX * sceneDeltaX )
+                + ( _dragInverseXY * sceneDeltaY );
+        _draggedModelY = _dragPressModelY + ( _dragInverseYX * sceneDeltaX )
+                + ( _dragInverseYY * sceneDeltaY );
+
+        // Deliver the latest position on the next pulse, dropping any that
+        // are superseded before then.
+        _endPointDragScheduler.requestUpdate();
+
+        mouseEvent.consume();
+    }
+
+    private void dropEndPoint( final MouseEvent mouseEvent ) {
+        if ( !_endPointDragging ) {
+            return;
+        }
+
+        // Make sure the final position is delivered before the drag ends.
+        _endPointDragScheduler.cancel();
+        deliverDraggedEndPoint();
+        _endPointDragging = false;
+
+        mouseEvent.consume();
+    }
+
+    private void deliverDraggedEndPoint() {
+        if ( _endPointDragHandler != null ) {
+            _endPointDragHandler.endPointDragged( _startPointDragged,
+                                                  _draggedModelX,
+                                                  _draggedModelY );
+        }
     }
 
     @Override
@@ -117,6 +368,11 @@ public final class GraphicalObjectPreviewPane extends StackPane {
 
     /**
      * This method updates the preview, based on a supplied graphical object.
+     * <p>
+     * Lines are previewed via a single long-lived line node whose geometry is
+     * updated in place, so that live editing doesn't rebuild the scene graph,
+     * and as only their extent matters, they need not be zeroed first. Other
+     * graphical objects are previewed via their own vector graphics.
      *
      * @param graphicalObject
      *            produces a {@link Node} to draw
@@ -125,6 +381,25 @@ public final class GraphicalObjectPreviewPane extends StackPane {
      */
     public void updatePreview( final GraphicalObject graphicalObject,
                                final double scaleFactorAdjustment ) {
+        updatePreview( graphicalObject, null, scaleFactorAdjustment );
+    }
+
+    /**
+     * This method updates the preview, based on a supplied graphical object,
+     * along with the Projection Zone tick marks if the object is a Projector
+     * line.
+     *
+     * @param graphicalObject
+     *            produces a {@link Node} to draw
+     * @param projectionZones
+     *            The Projection Zone geometry of the line, or {@code null} if
+     *            the object is not a Projector line
+     * @param scaleFactorAdjustment
+     *            Adjustment to the scale factor; necessary in some contexts
+     */
+    public void updatePreview( final GraphicalObject graphicalObject,
+                               final ProjectionZoneGeometry projectionZones,
+                               final double scaleFactorAdjustment ) {
         // If the window/stage is actually showing, the parent bounds will not
         // be zero. Since the preview node is generated anew on each call to
         // getVectorGraphics it's good to skip the rest of the method otherwise.
@@ -135,6 +410,170 @@ public final class GraphicalObjectPreviewPane extends StackPane {
             return;
         }
 
+        if ( graphicalObject instanceof CartesianLine ) {
+            final CartesianLine cartesianLine = ( CartesianLine ) graphicalObject;
+            updateLinePreview( cartesianLine,
+                               cartesianLine.getX1(),
+                               cartesianLine.getY1(),
+                               cartesianLine.getX2() - cartesianLine.getX1(),
+                               cartesianLine.getY2() - cartesianLine.getY1(),
+                               projectionZones,
+                               parentBounds,
+                               scaleFactorAdjustment );
+        }
+        else if ( graphicalObject instanceof PolarLine ) {
+            final PolarLine polarLine = ( PolarLine ) graphicalObject;
+            updateLinePreview( polarLine,
+                               polarLine.getX1(),
+                               polarLine.getY1(),
+                               polarLine.getX2() - polarLine.getX1(),
+                               polarLine.getY2() - polarLine.getY1(),
+                               projectionZones,
+                               parentBounds,
+                               scaleFactorAdjustment );
+        }
+        else {
+            updateShapePreview( graphicalObject, parentBounds, scaleFactorAdjustment );
+        }
+    }
+
+    /*
+     * Updates the long-lived line preview in place, from the origin to the
+     * given end point, only making the line node when switching to it. The
+     * Projection Zone tick marks, if any, are offset by the line's start.
+     * The line is stroked in its Layer Color on every update, so that the
+     * preview follows a change of the previewed line or of its Layer.
+     */
+    private void updateLinePreview( final LinearObject linearObject,
+                                    final double startX,
+                                    final double startY,
+                                    final double deltaX,
+                                    final double deltaY,
+                                    final ProjectionZoneGeometry projectionZones,
+                                    final Bounds parentBounds,
+                                    final double scaleFactorAdjustment ) {
+        // If the line is degenerate, nothing to do, but not an error.
+        // TODO: Switch to more of a "fuzzyEQ" strategy here.
+        final double lineGeometryWidth = FastMath.abs( deltaX );
+        final double lineGeometryHeight = FastMath.abs( deltaY );
+        if ( ( ( ( float ) lineGeometryHeight ) == 0f )
+                && ( ( ( float ) lineGeometryWidth ) == 0f ) ) {
+            return;
+        }
+
+        final double scaleFactor = getScaleFactor( parentBounds,
+                                                   lineGeometryWidth,
+                                                   lineGeometryHeight,
+                                                   scaleFactorAdjustment );
+        if ( ( float ) scaleFactor == 0f ) {
+            return;
+        }
+
+        _lineStartX = startX;
+        _lineStartY = startY;
+        _lineDeltaX = deltaX;
+        _lineDeltaY = deltaY;
+
+        if ( _linePreviewGroup == null ) {
+            _linePreview = new Line();
+            _zoneTickPreview = new Path();
+            _linePreviewGroup = new Group( _linePreview, _zoneTickPreview );
+        }
+        updateLineStyle( linearObject );
+        _linePreview.setStartX( 0.0d );
+        _linePreview.setStartY( 0.0d );
+        _linePreview.setEndX( deltaX );
+        _linePreview.setEndY( deltaY );
+
+        updateZoneTickPreview( startX, startY, projectionZones, scaleFactor );
+
+        // Apply the scale factors for model space to screen coordinates, with
+        // the y-axis flipped for Cartesian Space vs. screen coordinates.
+        // NOTE: The tick marks are symmetric about the line's midpoint, so
+        // the group scales about the same center as the line alone would.
+        _linePreviewGroup.setScaleX( scaleFactor );
+        _linePreviewGroup.setScaleY( -scaleFactor );
+        _linePreview.setStrokeWidth( 0.5 / scaleFactor );
+        _zoneTickPreview.setStrokeWidth( 0.5 / scaleFactor );
+
+        showPreviewNode( _linePreviewGroup );
+    }
+
+    /*
+     * Strokes the line and tick mark previews in the Layer Color of the line,
+     * which is what the line's own vector graphics are drawn in. This goes
+     * straight to the Layer, as the line or its Layer may have changed since
+     * the last update, and the Layer Color may have been edited in place. The
+     * stroke width is left alone, as it is always set from the current scale
+     * factor.
+     */
+    private void updateLineStyle( final LinearObject linearObject ) {
+        final Layer layer = linearObject.getLayer();
+        final Color layerColor = ( layer != null ) ? layer.getLayerColor() : Color.BLACK;
+
+        _linePreview.setStroke( layerColor );
+        _zoneTickPreview.setStroke( layerColor );
+    }
+
+    /*
+     * Moves the tick marks to each Projection Zone subdivision point, drawn
+     * along the line's normal to either side of it, or clears them if there
+     * are no Projection Zones to show. The existing Move To and Line To pairs
+     * are reused, so that only a change in the number of Projection Zones
+     * adds or removes elements.
+     */
+    private void updateZoneTickPreview( final double startX,
+                                        final double startY,
+                                        final ProjectionZoneGeometry projectionZones,
+                                        final double scaleFactor ) {
+        final ObservableList< PathElement > tickElements = _zoneTickPreview.getElements();
+        if ( projectionZones == null ) {
+            tickElements.clear();
+            return;
+        }
+
+        // Keep the tick marks the same on-screen length regardless of zoom.
+        final double tickHalfLength = ZONE_TICK_HALF_LENGTH / scaleFactor;
+        final double tickOffsetX = tickHalfLength * projectionZones.getNormalX();
+        final double tickOffsetY = tickHalfLength * projectionZones.getNormalY();
+
+        // Match the number of tick marks first, adding or removing pairs of
+        // elements in one batch, for a single change notification.
+        final int numberOfPoints = projectionZones.getNumberOfProjectionZones() + 1;
+        final int numberOfElements = 2 * numberOfPoints;
+        final int numberOfExistingElements = tickElements.size();
+        if ( numberOfExistingElements > numberOfElements ) {
+            tickElements.remove( numberOfElements, numberOfExistingElements );
+        }
+        else if ( numberOfExistingElements < numberOfElements ) {
+            final PathElement[] addedTickElements =
+                    new PathElement[ numberOfElements - numberOfExistingElements ];
+            for ( int i = 0; i < addedTickElements.length; i += 2 ) {
+                addedTickElements[ i ] = new MoveTo();
+                addedTickElements[ i + 1 ] = new LineTo();
+            }
+            tickElements.addAll( addedTickElements );
+        }
+
+        for ( int i = 0; i < numberOfPoints; i++ ) {
+            final double pointX = projectionZones.getSubdivisionX( i ) - startX;
+            final double pointY = projectionZones.getSubdivisionY( i ) - startY;
+            final MoveTo tickStart = ( MoveTo ) tickElements.get( 2 * i );
+            tickStart.setX( pointX - tickOffsetX );
+            tickStart.setY( pointY - tickOffsetY );
+            final LineTo tickEnd = ( LineTo ) tickElements.get( ( 2 * i ) + 1 );
+            tickEnd.setX( pointX + tickOffsetX );
+            tickEnd.setY( pointY + tickOffsetY );
+        }
+    }
+
+    /*
+     * Rebuilds the preview from the graphical object's own vector graphics,
+     * for graphical object types without an in-place preview.
+     */
+    private void updateShapePreview( final GraphicalObject graphicalObject,
+                                     final Bounds parentBounds,
+                                     final double scaleFactorAdjustment ) {
         // Now that we've checked the parent bounds, generate graphical object
         // vector graphics, checking for missing implementations (null results).
         _shapeFx = graphicalObject.getVectorGraphics( true );
@@ -155,6 +594,40 @@ public final class GraphicalObjectPreviewPane extends StackPane {
             return;
         }
 
+        final double scaleFactor = getScaleFactor( parentBounds,
+                                                   graphicalObjectGeometryWidth,
+                                                   graphicalObjectGeometryHeight,
+                                                   scaleFactorAdjustment );
+        if ( ( float ) scaleFactor == 0f ) {
+            return;
+        }
+
+        // Apply the scale factors for model space to screen coordinates.
+        // NOTE: It seems simpler and safer to modify the x-axis and y-axis
+        // scale factors than to add a Scale Transform (as we did previously),
+        // as these scale factors are applied after other transforms and apply
+        // to the node rather than to its layout bounds.
+        // NOTE: The y-axis is always flipped, to account for bottom-to-top for
+        // Cartesian Space vs. top-to-bottom for screen coordinates.
+        final double scaleX = _shapeFx.getScaleX();
+        _shapeFx.setScaleX( scaleX * scaleFactor );
+        final double scaleY = _shapeFx.getScaleY();
+        _shapeFx.setScaleY( -scaleY * scaleFactor );
+
+        // Set the stroke width based on current scale factors.
+        _shapeFx.setStrokeWidth( 0.5 / scaleFactor );
+
+        showPreviewNode( _shapeFx );
+    }
+
+    /*
+     * Computes the pixel mapping from object geometry to the on-screen preview
+     * node, returning zero if the geometry can't be previewed.
+     */
+    private double getScaleFactor( final Bounds parentBounds,
+                                   final double geometryWidth,
+                                   final double geometryHeight,
+                                   final double scaleFactorAdjustment ) {
         // As parent bounds change when geometry bounds change, we need to work
         // based on just the first relevant view of the parent bounds.
         if ( _parentBounds == null ) {
@@ -169,8 +642,14 @@ public final class GraphicalObjectPreviewPane extends StackPane {
 
         // Pick the smaller of the height ratio and width ratio to use as the
         // pixel mapping from object geometry to on-screen preview node.
-        final double widthRatio = maxNodeWidth / FastMath.abs( graphicalObjectGeometryWidth );
-        final double heightRatio = maxNodeHeight / FastMath.abs( graphicalObjectGeometryHeight );
+        // NOTE: A zero extent along one axis, such as for an axis-aligned
+        // line, leaves the other axis to determine the scale factor.
+        final double widthRatio = ( geometryWidth == 0.0d )
+            ? Double.POSITIVE_INFINITY
+            : maxNodeWidth / FastMath.abs( geometryWidth );
+        final double heightRatio = ( geometryHeight == 0.0d )
+            ? Double.POSITIVE_INFINITY
+            : maxNodeHeight / FastMath.abs( geometryHeight );
         double scaleFactor = FastMath.min( widthRatio, heightRatio );
 
         // This is a hack to deal with issues with Loudspeaker and Microphone
@@ -184,36 +663,33 @@ public final class GraphicalObjectPreviewPane extends StackPane {
         if ( ( float ) scaleFactor == 0f ) {
             new Throwable( "WARNING: zero-scaled graphical object geometry preview" ) //$NON-NLS-1$
                     .printStackTrace();
-            return;
         }
 
-        // Apply the scale factors for model space to screen coordinates.
-        // NOTE: It seems simpler and safer to modify the x-axis and y-axis
-        // scale factors than to add a Scale Transform (as we did previously),
-        // as these scale factors are applied after other transforms and apply
-        // to the node rather than to its layout bounds.
-        // NOTE: The y-axis is always flipped, to account for bottom-to-top for
-        // Cartesian Space vs. top-to-bottom for screen coordinates.
-        final double scaleX = _shapeFx.getScaleX();
-        _shapeFx.setScaleX( scaleX * scaleFactor );
-        final double scaleY = _shapeFx.getScaleY();
-        _shapeFx.setScaleY( -scaleY * scaleFactor );
-
-        // Set the stroke width based on current scale factors.
-        _shapeFx.setStrokeWidth( 0.5 / scaleFactor );
+        return scaleFactor;
+    }
 
+    /*
+     * Shows the given node as the sole preview content, only touching the
+     * scene graph when the node changes, and keeping the clip in sync with
+     * the container's bounds.
+     */
+    private void showPreviewNode( final Node previewNode ) {
         // Replace the layout's contents with just the new graphical node.
         final ObservableList< Node > nodes = _drawingPane.getChildren();
-        nodes.setAll( _shapeFx );
+        if ( ( nodes.size() != 1 ) || ( nodes.get( 0 ) != previewNode ) ) {
+            nodes.setAll( previewNode );
+        }
 
         // Clip to the container's bounds to avoid painting over other controls.
         final double clipWidth = _parentBounds.getWidth();
         final double clipHeight = _parentBounds.getHeight();
-        final Rectangle outputClip = new Rectangle( -0.5d * clipWidth,
-                                                    -0.5d * clipHeight,
-                                                    clipWidth,
-                                                    clipHeight );
-        _drawingPane.setClip( outputClip );
+        _outputClip.setX( -0.5d * clipWidth );
+        _outputClip.setY( -0.5d * clipHeight );
+        _outputClip.setWidth( clipWidth );
+        _outputClip.setHeight( clipHeight );
+        if ( _drawingPane.getClip() != _outputClip ) {
+            _drawingPane.setClip( _outputClip );
+        }
     }
 
 }
@@ -32,12 +32,16 @@ package com.mhschmieder.fxcadgui.layout;
 
 import com.mhschmieder.fxcadcontrols.control.LinearObjectPropertiesControls;
 import com.mhschmieder.fxcadcontrols.model.LinearObjectProperties;
+import com.mhschmieder.fxcadgui.util.GraphicalObjectLabelIndex;
+import com.mhschmieder.fxcadgui.util.LayerIndex;
 import com.mhschmieder.fxgraphics.geometry.GraphicalObject;
 import com.mhschmieder.fxgraphics.collections.GraphicalObjectCollection;
 import com.mhschmieder.fxgraphics.geometry.LinearObject;
 import com.mhschmieder.fxgui.util.GuiUtilities;
 import com.mhschmieder.fxcontrols.util.LayerPropertiesManager;
 import com.mhschmieder.fxgraphics.layers.Layer;
+import com.mhschmieder.fxgraphics.layers.LayerManager;
+import com.mhschmieder.jcommons.text.NumberFormatUtilities;
 import com.mhschmieder.jcommons.util.ClientProperties;
 import javafx.geometry.HPos;
 import javafx.geometry.Insets;
@@ -87,6 +91,12 @@ public class LinearObjectPropertiesPane extends BorderPane {
     // Cache the Linear Object Properties, for data binding.
     protected LinearObjectProperties _linearObjectProperties;
 
+    // Index the Layer Collection, for constant-time Layer lookups on edits.
+    protected final LayerIndex       _layerIndex;
+
+    // Index the labels in use, for constant-time label uniqueness checks.
+    protected final GraphicalObjectLabelIndex _labelIndex;
+
     public LinearObjectPropertiesPane( final ClientProperties pClientProperties,
                                        final String linearObjectLabelDefault,
                                        final GraphicalObjectCollection< ? extends LinearObject > linearObjectCollection ) {
@@ -115,6 +125,13 @@ public class LinearObjectPropertiesPane extends BorderPane {
                 LinearObject.USE_AS_PROJECTOR_DEFAULT,
                 LinearObject.NUMBER_OF_PROJECTION_ZONES_DEFAULT );
 
+        // Avoid chicken-or-egg null pointer problems during startup.
+        _layerIndex = new LayerIndex( LayerManager.makeLayerCollection() );
+
+        // Index the labels in use by the collection, once it is attached.
+        _labelIndex = new GraphicalObjectLabelIndex( NumberFormatUtilities
+                .getUniquefierNumberFormat( pClientProperties.locale ) );
+
         try {
             initPane( pClientProperties, 
                       linearObjectLabelDefault, 
@@ -128,6 +145,14 @@ public class LinearObjectPropertiesPane extends BorderPane {
         }
     }
 
+    // Index the labels in use by the collection, following its changes. This
+    // hooks the live collection, so must be called on the JavaFX Application
+    // Thread.
+    public final void attachLinearObjectCollection(
+            final GraphicalObjectCollection< ? extends LinearObject > linearObjectCollection ) {
+        _labelIndex.setGraphicalObjects( linearObjectCollection.getCollection() );
+    }
+
     private final void bindProperties() {
         // Bind the Linear Object Properties to their respective controls.
         // NOTE: Bind the label property to our custom value property vs. the
@@ -148,9 +173,43 @@ public class LinearObjectPropertiesPane extends BorderPane {
         return _linearObjectPropertiesControls.getNewLinearObjectLabelDefault();
     }
 
+    public final Layer getLayerByName( final String layerName ) {
+        // Forward this method to the Layer Index.
+        return _layerIndex.getLayerByName( layerName );
+    }
+
+    public final int getLayerIndex( final Layer layer ) {
+        // Forward this method to the Layer Index.
+        return _layerIndex.getLayerIndex( layer );
+    }
+
     public final String getUniqueLinearObjectLabel( final String linearObjectLabelCandidate ) {
-        // Forward this method to the Linear Object Properties Group.
-        return _linearObjectPropertiesControls.getUniqueLinearObjectLabel( linearObjectLabelCandidate );
+        // Until the collection is attached, fall back to scanning it via the
+        // Linear Object Properties Group, as the Label Index is still empty.
+        if ( !_labelIndex.isAttached() ) {
+            return _linearObjectPropertiesControls
+                    .getUniqueLinearObjectLabel( linearObjectLabelCandidate );
+        }
+
+        // Forward this method to the Label Index, rather than scanning the
+        // collection via the Linear Object Properties Group.
+        return _labelIndex.getUniqueLabel( linearObjectLabelCandidate );
+    }
+
+    public final String getUniqueLinearObjectLabel( final String linearObjectLabelCandidate,
+                                                    final LinearObject linearObject ) {
+        // Until the collection is attached, fall back to scanning it, keeping
+        // the label that the Linear Object itself already has.
+        if ( !_labelIndex.isAttached() ) {
+            return linearObjectLabelCandidate.equals( linearObject.getLabel() )
+                ? linearObjectLabelCandidate
+                : _linearObjectPropertiesControls
+                        .getUniqueLinearObjectLabel( linearObjectLabelCandidate );
+        }
+
+        // Forward this method to the Label Index, ignoring the label that the
+        // Linear Object itself already has.
+        return _labelIndex.getUniqueLabel( linearObjectLabelCandidate, linearObject );
     }
 
     public final LinearObjectProperties getLinearObjectProperties() {
@@ -230,11 +289,34 @@ public class LinearObjectPropertiesPane extends BorderPane {
 
     // Find out if the candidate label is unique.
     public final boolean isLinearObjectLabelUnique( final String linearObjectLabelCandidate ) {
-        // Forward this method to the Linear Object Properties Group.
-        return _linearObjectPropertiesControls.isLinearObjectLabelUnique( linearObjectLabelCandidate );
+        // Until the collection is attached, fall back to scanning it via the
+        // Linear Object Properties Group, as the Label Index is still empty.
+        if ( !_labelIndex.isAttached() ) {
+            return _linearObjectPropertiesControls
+                    .isLinearObjectLabelUnique( linearObjectLabelCandidate );
+        }
+
+        // Forward this method to the Label Index, rather than scanning the
+        // collection via the Linear Object Properties Group.
+        return !_labelIndex.containsLabel( linearObjectLabelCandidate );
+    }
+
+    // Keep the Label Index in sync after a label is changed in place.
+    public final void relabelLinearObject( final GraphicalObject linearObject ) {
+        // Forward this method to the Label Index.
+        _labelIndex.relabelGraphicalObject( linearObject );
+    }
+
+    // Lock the label while batch editing, as labels must stay unique per
+    // Linear Object and so are never batch edited.
+    public final void setBatchEditMode( final boolean batchEditMode ) {
+        _linearObjectPropertiesControls._linearObjectLabelEditor.setDisable( batchEditMode );
     }
 
     public final void setLayerCollection( final List<Layer> layerCollection ) {
+        // Keep the Layer Index in sync with the new Layer Collection.
+        _layerIndex.setLayerCollection( layerCollection );
+
         // Forward this method to the Linear Object Properties Group.
         _linearObjectPropertiesControls.setLayerCollection( layerCollection );
     }
@@ -264,6 +346,9 @@ public class LinearObjectPropertiesPane extends BorderPane {
 
     public final void updateLayerNames( final boolean preserveSelectedLayerByIndex,
                                         final boolean preserveSelectedLayerByName ) {
+        // Layer Names may have been edited in place, so re-index them.
+        _layerIndex.invalidate();
+
         // Forward this method to the Linear Object Properties Group.
         _linearObjectPropertiesControls._layerSelector.updateLayerNames( preserveSelectedLayerByIndex,
                                                                          preserveSelectedLayerByName );
@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.layout;
+
+import com.mhschmieder.fxcadgui.util.MaterialCatalog;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+/**
+ * This is a table cell for editing a material via a type-ahead material
+ * selector, where every cell filters against the same shared catalog.
+ * <p>
+ * The material selector is only made the first time a cell is edited, so
+ * cells that are just being scrolled through carry nothing but a label.
+ *
+ * @param <S>
+ *            The row type of the table
+ * @param <M>
+ *            The material type
+ */
+public final class MaterialTableCell< S, M > extends TableCell< S, M > {
+
+    // Cache a reference to the shared material catalog.
+    private final MaterialCatalog< M > _materialCatalog;
+
+    // Declare the material selector, which is made on first edit.
+    private ComboBox< M >              _materialSelector;
+
+    public MaterialTableCell( final MaterialCatalog< M > materialCatalog ) {
+        // Always call the superclass constructor first!
+        super();
+
+        _materialCatalog = materialCatalog;
+    }
+
+    /**
+     * Returns a cell factory for material table cells that all share the
+     * given material catalog.
+     *
+     * @param materialCatalog
+     *            The shared material catalog
+     * @param <S>
+     *            The row type of the table
+     * @param <M>
+     *            The material type
+     * @return A cell factory for material table cells
+     */
+    public static < S, M > Callback< TableColumn< S, M >, TableCell< S, M > > forTableColumn(
+            final MaterialCatalog< M > materialCatalog ) {
+        return tableColumn -> new MaterialTableCell<>( materialCatalog );
+    }
+
+    @Override
+    public void cancelEdit() {
+        super.cancelEdit();
+
+        setText( _materialCatalog.getMaterialName( getItem() ) );
+        setGraphic( null );
+    }
+
+    @Override
+    public void startEdit() {
+        if ( !isEditable() || !getTableView().isEditable() || !getTableColumn().isEditable() ) {
+            return;
+        }
+
+        super.startEdit();
+        if ( !isEditing() ) {
+            return;
+        }
+
+        if ( _materialSelector == null ) {
+            initMaterialSelector();
+        }
+
+        _materialSelector.setValue( getItem() );
+
+        setText( null );
+        setGraphic( _materialSelector );
+        _materialSelector.getEditor().requestFocus();
+        _materialSelector.getEditor().selectAll();
+    }
+
+    @Override
+    protected void updateItem( final M item, final boolean empty ) {
+        super.updateItem( item, empty );
+
+        if ( empty ) {
+            setText( null );
+            setGraphic( null );
+        }
+        else if ( isEditing() && ( _materialSelector != null ) ) {
+            _materialSelector.setValue( item );
+            setText( null );
+            setGraphic( _materialSelector );
+        }
+        else {
+            setText( _materialCatalog.getMaterialName( item ) );
+            setGraphic( null );
+        }
+    }
+
+    private void initMaterialSelector() {
+        _materialSelector = new ComboBox<>();
+        _materialSelector.setMaxWidth( Double.MAX_VALUE );
+        _materialSelector.setEditable( true );
+        MaterialTypeAhead.install( _materialSelector, _materialCatalog );
+
+        // Commit once a different material is chosen, ignoring the value
+        // syncs from starting an edit.
+        _materialSelector.setOnAction( actionEvent -> {
+            final M material = _materialSelector.getValue();
+            if ( isEditing() && ( material != null ) && ( material != getItem() ) ) {
+                commitEdit( material );
+            }
+        } );
+    }
+}
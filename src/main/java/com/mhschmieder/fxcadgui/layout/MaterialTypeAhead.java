@@ -0,0 +1,292 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.layout;
+
+import com.mhschmieder.fxcadgui.util.MaterialCatalog;
+import javafx.collections.ObservableList;
+import javafx.geometry.Point2D;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.ListView;
+import javafx.scene.control.cell.TextFieldListCell;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.stage.Popup;
+import javafx.util.StringConverter;
+
+import java.util.List;
+
+/**
+ * This adds type-ahead filtering against a shared {@link MaterialCatalog} to a
+ * material selector, so that large material libraries can be searched by name
+ * rather than scrolled through.
+ * <p>
+ * The matches are shown in a separate pop-up list rather than by switching the
+ * selector's items, so that the selector's value, which is often bound to a
+ * model, is never disturbed while typing. The selector's items are the shared
+ * catalog, and the pop-up list's items are views of it, so no selector ever
+ * holds its own copy of the material list, and both lists are virtualized so
+ * only the visible materials get cells.
+ * <p>
+ * An editable selector is filtered by its editor text, and any other selector
+ * by the characters typed while it has focus; either way the selector's own
+ * editability is left to the host.
+ *
+ * @param <M>
+ *            The material type
+ */
+public final class MaterialTypeAhead< M > {
+
+    /** The fixed height of each cell in the pop-up list of matches. */
+    private static final double MATCH_CELL_HEIGHT = 24.0d;
+
+    // Cache a reference to the material selector being filtered.
+    private final ComboBox< M >        _materialSelector;
+
+    // Cache a reference to the shared material catalog.
+    private final MaterialCatalog< M > _materialCatalog;
+
+    // The pop-up list of the materials that match the typed text.
+    private final ListView< M >        _matchesView;
+    private final Popup                _matchesPopup;
+
+    // The text typed into a selector that has no editor of its own.
+    private final StringBuilder        _typedText;
+
+    private MaterialTypeAhead( final ComboBox< M > materialSelector,
+                               final MaterialCatalog< M > materialCatalog ) {
+        _materialSelector = materialSelector;
+        _materialCatalog = materialCatalog;
+        _typedText = new StringBuilder();
+
+        // Switching to the catalog is done only once, and the value is put
+        // back in case that disturbed it, as it may be bound to a model.
+        final M material = _materialSelector.getValue();
+        _materialSelector.setItems( _materialCatalog.getMaterials() );
+        if ( _materialSelector.getValue() != material ) {
+            _materialSelector.setValue( material );
+        }
+
+        _materialSelector.setConverter( new StringConverter< M >() {
+            @Override
+            public String toString( final M material ) {
+                return _materialCatalog.getMaterialName( material );
+            }
+
+            @Override
+            public M fromString( final String materialName ) {
+                return getMaterial( materialName );
+            }
+        } );
+
+        _matchesView = new ListView<>();
+        _matchesView.setCellFactory( TextFieldListCell
+                .forListView( _materialSelector.getConverter() ) );
+        _matchesView.setFixedCellSize( MATCH_CELL_HEIGHT );
+        _matchesView.prefWidthProperty().bind( _materialSelector.widthProperty() );
+        _matchesView.addEventHandler( MouseEvent.MOUSE_CLICKED, mouseEvent -> {
+            if ( mouseEvent.getButton() == MouseButton.PRIMARY ) {
+                commitMatch();
+            }
+        } );
+
+        _matchesPopup = new Popup();
+        _matchesPopup.setAutoHide( true );
+        _matchesPopup.getContent().add( _matchesView );
+        _matchesPopup.setOnHidden( event -> _typedText.setLength( 0 ) );
+
+        // Filter the pop-up list as the user types into the editor.
+        _materialSelector.getEditor().textProperty()
+                .addListener( ( observableValue, oldValue, newValue ) -> editorTextChanged(
+                        newValue ) );
+
+        // Filter the pop-up list as the user types into a selector that has
+        // no editor, and let the arrow keys, ENTER and ESCAPE drive it.
+        _materialSelector.addEventHandler( KeyEvent.KEY_TYPED, this::keyTyped );
+        _materialSelector.addEventFilter( KeyEvent.KEY_PRESSED, this::keyPressed );
+
+        // Dismiss the pop-up list once the selector loses focus.
+        _materialSelector.focusedProperty().addListener( ( observableValue,
+                                                           wasFocused,
+                                                           isFocused ) -> {
+            if ( !isFocused ) {
+                _matchesPopup.hide();
+            }
+        } );
+    }
+
+    /**
+     * Adds type-ahead filtering against the shared catalog to a material
+     * selector, replacing its items with the catalog.
+     *
+     * @param materialSelector
+     *            The material selector to add type-ahead filtering to
+     * @param materialCatalog
+     *            The shared material catalog
+     * @param <M>
+     *            The material type
+     * @return The type-ahead filter that was installed
+     */
+    public static < M > MaterialTypeAhead< M > install( final ComboBox< M > materialSelector,
+                                                        final MaterialCatalog< M > materialCatalog ) {
+        return new MaterialTypeAhead<>( materialSelector, materialCatalog );
+    }
+
+    // Choose the highlighted match, which is the only way that typing ever
+    // changes the selector's value.
+    private void commitMatch() {
+        final M material = _matchesView.getSelectionModel().getSelectedItem();
+        _matchesPopup.hide();
+
+        if ( ( material != null ) && ( material != _materialSelector.getValue() ) ) {
+            _materialSelector.setValue( material );
+        }
+    }
+
+    private void editorTextChanged( final String typedText ) {
+        if ( !_materialSelector.isEditable() || !_materialSelector.getEditor().isFocused() ) {
+            return;
+        }
+
+        // Don't filter when the editor is just being synced to the value.
+        if ( ( typedText == null ) || typedText.equals( _materialCatalog
+                .getMaterialName( _materialSelector.getValue() ) ) ) {
+            _matchesPopup.hide();
+            return;
+        }
+
+        showMatches( typedText );
+    }
+
+    /*
+     * Resolves typed text to a material, preferring an exact match and then
+     * the first prefix match, and otherwise keeping the current material so
+     * that a partial or mistyped name never clears the selection.
+     */
+    private M getMaterial( final String materialName ) {
+        if ( materialName == null ) {
+            return _materialSelector.getValue();
+        }
+
+        final M material = _materialCatalog.getMaterial( materialName );
+        if ( material != null ) {
+            return material;
+        }
+
+        final List< M > materials = _materialCatalog.getMaterialsByPrefix( materialName );
+        return materials.isEmpty() ? _materialSelector.getValue() : materials.get( 0 );
+    }
+
+    private void keyPressed( final KeyEvent keyEvent ) {
+        switch ( keyEvent.getCode() ) {
+        case BACK_SPACE:
+            if ( !_materialSelector.isEditable() && ( _typedText.length() > 0 ) ) {
+                _typedText.setLength( _typedText.length() - 1 );
+                if ( _typedText.length() > 0 ) {
+                    showMatches( _typedText.toString() );
+                }
+                else {
+                    _matchesPopup.hide();
+                }
+                keyEvent.consume();
+            }
+            break;
+        case DOWN:
+            if ( _matchesPopup.isShowing() ) {
+                _matchesView.getSelectionModel().selectNext();
+                _matchesView.scrollTo( _matchesView.getSelectionModel().getSelectedIndex() );
+                keyEvent.consume();
+            }
+            break;
+        case UP:
+            if ( _matchesPopup.isShowing() ) {
+                _matchesView.getSelectionModel().selectPrevious();
+                _matchesView.scrollTo( _matchesView.getSelectionModel().getSelectedIndex() );
+                keyEvent.consume();
+            }
+            break;
+        case ENTER:
+            if ( _matchesPopup.isShowing() ) {
+                commitMatch();
+                keyEvent.consume();
+            }
+            break;
+        case ESCAPE:
+            if ( _matchesPopup.isShowing() ) {
+                _matchesPopup.hide();
+                keyEvent.consume();
+            }
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void keyTyped( final KeyEvent keyEvent ) {
+        if ( _materialSelector.isEditable() ) {
+            return;
+        }
+
+        final String character = keyEvent.getCharacter();
+        if ( ( character == null ) || character.isEmpty()
+                || Character.isISOControl( character.charAt( 0 ) ) ) {
+            return;
+        }
+
+        _typedText.append( character );
+        showMatches( _typedText.toString() );
+        keyEvent.consume();
+    }
+
+    private void showMatches( final String typedText ) {
+        final ObservableList< M > matches = _materialCatalog.getMaterialsByPrefix( typedText );
+        if ( matches.isEmpty() ) {
+            _matchesPopup.hide();
+            return;
+        }
+
+        _matchesView.setItems( matches );
+        _matchesView.getSelectionModel().selectFirst();
+        _matchesView.scrollTo( 0 );
+        _matchesView.setPrefHeight( ( Math.min( matches.size(),
+                                                _materialSelector.getVisibleRowCount() )
+                * MATCH_CELL_HEIGHT ) + 2.0d );
+
+        // Drop the list down from the bottom left corner of the selector.
+        if ( !_matchesPopup.isShowing() && ( _materialSelector.getScene() != null ) ) {
+            final Point2D anchor = _materialSelector
+                    .localToScreen( 0.0d, _materialSelector.getHeight() );
+            if ( anchor != null ) {
+                _matchesPopup.show( _materialSelector, anchor.getX(), anchor.getY() );
+            }
+        }
+    }
+}
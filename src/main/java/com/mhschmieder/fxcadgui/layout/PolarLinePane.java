@@ -31,17 +31,20 @@
 package com.mhschmieder.fxcadgui.layout;
 
 import com.mhschmieder.fxcadcontrols.model.LinearObjectProperties;
+import com.mhschmieder.fxcadgui.util.ProjectionZoneEngine;
+import com.mhschmieder.fxcadgui.util.PulseUpdateScheduler;
 import com.mhschmieder.fxgraphics.collections.GraphicalObjectCollection;
 import com.mhschmieder.fxgraphics.geometry.PolarLine;
 import com.mhschmieder.fxgraphics.layers.Layer;
-import com.mhschmieder.fxgraphics.layers.LayerManager;
 import com.mhschmieder.jcommons.util.ClientProperties;
 import com.mhschmieder.jgraphics.input.ScrollingSensitivity;
 import com.mhschmieder.jphysics.measure.AngleUnit;
 import com.mhschmieder.jphysics.measure.DistanceUnit;
+import javafx.beans.value.ChangeListener;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
+import javafx.scene.control.Slider;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 
@@ -52,11 +55,26 @@ public final class PolarLinePane extends VBox {
     public LinearObjectPropertiesPane _linearObjectPropertiesPane;
     public PolarLinePlacementPane     _polarLinePlacementPane;
 
-    /** Layer Collection reference. */
-    private List< Layer > _layerCollection;
-
     /** Client Properties (System Type, Locale, etc.). */
-    public ClientProperties                 _clientProperties;
+    public ClientProperties                         _clientProperties;
+
+    /**
+     * Scratch Polar Line, re-used as the intermediary for all edits so that
+     * interactive editing doesn't allocate a new line for every event.
+     */
+    private final PolarLine                         _scratchPolarLine;
+
+    /** Scheduler for coalescing model updates to once per pulse. */
+    private final PulseUpdateScheduler              _modelUpdateScheduler;
+
+    /** Engine for the Projection Zones of the collection's Projector lines. */
+    private final ProjectionZoneEngine< PolarLine > _projectionZoneEngine;
+
+    /** The lines in the Polar Line collection. */
+    private List< PolarLine >                       _polarLines;
+
+    /** The Polar Line collection, once the pane has been attached to it. */
+    private final GraphicalObjectCollection< PolarLine > _polarLineCollection;
 
     public PolarLinePane( final ClientProperties pClientProperties,
                           final GraphicalObjectCollection< PolarLine > polarLineCollection,
@@ -64,24 +82,81 @@ public final class PolarLinePane extends VBox {
                           final String projectorType,
                           final String projectionZonesType,
                           final String projectionZonesUsageContext ) {
+        this( pClientProperties,
+              polarLineCollection,
+              polarLineType,
+              projectorType,
+              projectionZonesType,
+              projectionZonesUsageContext,
+              true );
+    }
+
+    /**
+     * Builds the pane, optionally leaving it detached from the collection.
+     * <p>
+     * A detached pane only builds its node tree, so it may be constructed on a
+     * worker thread, but {@link #attachPolarLineCollection()} must then be
+     * called on the JavaFX Application Thread before the pane is used.
+     */
+    public PolarLinePane( final ClientProperties pClientProperties,
+                          final GraphicalObjectCollection< PolarLine > polarLineCollection,
+                          final String polarLineType,
+                          final String projectorType,
+                          final String projectionZonesType,
+                          final String projectionZonesUsageContext,
+                          final boolean attachCollection ) {
         // Always call the superclass constructor first!
         super();
 
         _clientProperties = pClientProperties;
+        _polarLineCollection = polarLineCollection;
 
-        // Avoid chicken-or-egg null pointer problems during startup.
-        _layerCollection = LayerManager.makeLayerCollection();
+        _scratchPolarLine = new PolarLine();
+        _modelUpdateScheduler = new PulseUpdateScheduler(
+                () -> updatePolarLineModel( _scratchPolarLine ) );
+        _projectionZoneEngine = ProjectionZoneEngine.forPolarLines();
+        _polarLines = null;
 
         try {
-            initPane( polarLineCollection, 
+            initPane( polarLineCollection,
                       polarLineType,
-                      projectorType, 
-                      projectionZonesType, 
+                      projectorType,
+                      projectionZonesType,
                       projectionZonesUsageContext );
         }
         catch ( final Exception ex ) {
             ex.printStackTrace();
         }
+
+        if ( attachCollection ) {
+            attachPolarLineCollection();
+        }
+    }
+
+    // Hook the label index and the Projection Zones up to the live
+    // collection. This must be called on the JavaFX Application Thread.
+    public void attachPolarLineCollection() {
+        _linearObjectPropertiesPane.attachLinearObjectCollection( _polarLineCollection );
+
+        // Preview the Projection Zones of Projector lines, computing them up
+        // front for the whole collection.
+        _polarLines = _polarLineCollection.getCollection();
+        updateProjectionZones();
+    }
+
+    /**
+     * Adds a listener for whether a slider is being dragged, such as for
+     * merging all of the edits of a drag into a single undo entry.
+     *
+     * @param valueChangingListener
+     *            The listener to add
+     */
+    public void addValueChangingListener( final ChangeListener< Boolean > valueChangingListener ) {
+        // Forward this method to the angle sliders of both Position Panes.
+        _polarLinePlacementPane._startPolarPositionPane._anglePane._angleSlider
+                .valueChangingProperty().addListener( valueChangingListener );
+        _polarLinePlacementPane._endPolarPositionPane._anglePane._angleSlider
+                .valueChangingProperty().addListener( valueChangingListener );
     }
 
     public String getNewPolarLineLabelDefault() {
@@ -95,11 +170,27 @@ public final class PolarLinePane extends VBox {
                 .getUniqueLinearObjectLabel( polarLineLabelCandidate );
     }
 
+    public String getUniquePolarLineLabel( final String polarLineLabelCandidate,
+                                            final PolarLine polarLine ) {
+        // Forward this method to the Linear Object Properties Pane.
+        return _linearObjectPropertiesPane
+                .getUniqueLinearObjectLabel( polarLineLabelCandidate, polarLine );
+    }
+
+    public Layer getLayerByName( final String layerName ) {
+        // Forward this method to the Linear Object Properties Pane.
+        return _linearObjectPropertiesPane.getLayerByName( layerName );
+    }
+
     public LinearObjectProperties getLinearObjectProperties() {
         // Forward this method to the Linear Object Properties Pane.
         return _linearObjectPropertiesPane.getLinearObjectProperties();
     }
 
+    public ProjectionZoneEngine< PolarLine > getProjectionZoneEngine() {
+        return _projectionZoneEngine;
+    }
+
     private void initPane( final GraphicalObjectCollection< PolarLine > polarLineCollection,
                            final String polarLineType,
                            final String projectorType,
@@ -115,6 +206,10 @@ public final class PolarLinePane extends VBox {
 
         _polarLinePlacementPane = new PolarLinePlacementPane( _clientProperties );
 
+        // Preview the Projection Zones; the engine is only filled once the
+        // pane is attached to the collection.
+        _polarLinePlacementPane.setProjectionZoneEngine( _projectionZoneEngine );
+
         final ObservableList< Node > layout = getChildren();
         layout.addAll( _linearObjectPropertiesPane, _polarLinePlacementPane );
 
@@ -127,63 +222,117 @@ public final class PolarLinePane extends VBox {
         // If the Projector status changes in any way, update the Preview.
         _linearObjectPropertiesPane._linearObjectPropertiesControls._useAsProjectorCheckBox
                 .selectedProperty().addListener( ( observable, oldValue, newValue ) -> {
-                    final PolarLine polarLine = new PolarLine();
-                    updatePolarLineModel( polarLine );
+                    updatePolarLineModel();
                 } );
         _linearObjectPropertiesPane._linearObjectPropertiesControls._projectionZonesSelector
                 .setOnAction( evt -> {
-                    final PolarLine polarLine = new PolarLine();
-                    updatePolarLineModel( polarLine );
+                    updatePolarLineModel();
                 } );
 
         // Make sure that any edits to any of the coordinates or angles, update
         // the model so that the preview stays in sync.
-        // NOTE: We make a dummy object to serve as an intermediary for now,
+        // NOTE: We use a scratch object to serve as an intermediary for now,
         // until we move the coordinate system transform code to a utility
         // class, so that we don't prematurely apply changes and prevent
         // reversion to a previous state.
+        // NOTE: Edits are only committed once focus is lost, so there is no
+        // work to do when focus is gained.
         _polarLinePlacementPane._inclinometerPositionPane._xPositionEditor
                 .focusedProperty().addListener( ( observable, oldValue, newValue ) -> {
-                    final PolarLine polarLine = new PolarLine();
-                    updatePolarLineModel( polarLine );
+                    if ( !newValue ) {
+                        updatePolarLineModel();
+                    }
                 } );
         _polarLinePlacementPane._inclinometerPositionPane._yPositionEditor
                 .focusedProperty().addListener( ( observable, oldValue, newValue ) -> {
-                    final PolarLine polarLine = new PolarLine();
-                    updatePolarLineModel( polarLine );
+                    if ( !newValue ) {
+                        updatePolarLineModel();
+                    }
                 } );
         _polarLinePlacementPane._startPolarPositionPane._anglePane._angleEditor
                 .focusedProperty().addListener( ( observable, oldValue, newValue ) -> {
-                    final PolarLine polarLine = new PolarLine();
-                    updatePolarLineModel( polarLine );
-                } );
-        _polarLinePlacementPane._startPolarPositionPane._anglePane._angleSlider
-                .valueProperty().addListener( ( observable, oldValue, newValue ) -> {
-                    final PolarLine polarLine = new PolarLine();
-                    updatePolarLineModel( polarLine );
+                    if ( !newValue ) {
+                        updatePolarLineModel();
+                    }
                 } );
-        _polarLinePlacementPane._startPolarPositionPane._distanceEditor.focusedProperty()
-                .addListener( ( observable, oldValue, newValue ) -> {
-                    final PolarLine polarLine = new PolarLine();
-                    updatePolarLineModel( polarLine );
+        _polarLinePlacementPane._startPolarPositionPane._distanceEditor
+                .focusedProperty().addListener( ( observable, oldValue, newValue ) -> {
+                    if ( !newValue ) {
+                        updatePolarLineModel();
+                    }
                 } );
         _polarLinePlacementPane._endPolarPositionPane._anglePane._angleEditor
                 .focusedProperty().addListener( ( observable, oldValue, newValue ) -> {
-                    final PolarLine polarLine = new PolarLine();
-                    updatePolarLineModel( polarLine );
+                    if ( !newValue ) {
+                        updatePolarLineModel();
+                    }
                 } );
-        _polarLinePlacementPane._endPolarPositionPane._anglePane._angleSlider
-                .valueProperty().addListener( ( observable, oldValue, newValue ) -> {
-                    final PolarLine polarLine = new PolarLine();
-                    updatePolarLineModel( polarLine );
+        _polarLinePlacementPane._endPolarPositionPane._distanceEditor
+                .focusedProperty().addListener( ( observable, oldValue, newValue ) -> {
+                    if ( !newValue ) {
+                        updatePolarLineModel();
+                    }
                 } );
-        _polarLinePlacementPane._endPolarPositionPane._distanceEditor.focusedProperty()
-                .addListener( ( observable, oldValue, newValue ) -> {
-                    final PolarLine polarLine = new PolarLine();
-                    updatePolarLineModel( polarLine );
+
+        // While an angle slider is being dragged, update at most once per
+        // pulse, and commit the drag only once it is released.
+        addSliderListeners( _polarLinePlacementPane._startPolarPositionPane._anglePane._angleSlider );
+        addSliderListeners( _polarLinePlacementPane._endPolarPositionPane._anglePane._angleSlider );
+    }
+
+    // Discrete slider changes, such as from the keyboard, are committed
+    // directly, as there is nothing to coalesce them with.
+    private void addSliderListeners( final Slider slider ) {
+        slider.valueProperty().addListener( ( observable, oldValue, newValue ) -> {
+            if ( slider.isValueChanging() ) {
+                _modelUpdateScheduler.requestUpdate();
+                return;
+            }
+
+            updatePolarLineModel();
+        } );
+        slider.valueChangingProperty()
+                .addListener( ( observable, wasValueChanging, isValueChanging ) -> {
+                    if ( wasValueChanging && !isValueChanging ) {
+                        // Drop the pending drag update, as it is superseded.
+                        _modelUpdateScheduler.cancel();
+                        updatePolarLineModel();
+                    }
                 } );
     }
 
+    /**
+     * Returns the number of model updates that were coalesced into other
+     * updates, such as during a slider drag, rather than run on their own.
+     *
+     * @return The number of coalesced model updates
+     */
+    public long getCoalescedModelUpdateCount() {
+        return _modelUpdateScheduler.getCoalescedUpdateCount();
+    }
+
+    /**
+     * Returns the number of model updates that were actually run.
+     *
+     * @return The number of performed model updates
+     */
+    public long getPerformedModelUpdateCount() {
+        return _modelUpdateScheduler.getPerformedUpdateCount();
+    }
+
+    /**
+     * Returns the number of model updates that were requested.
+     *
+     * @return The number of requested model updates
+     */
+    public long getRequestedModelUpdateCount() {
+        return _modelUpdateScheduler.getRequestedUpdateCount();
+    }
+
+    public void resetModelUpdateStatistics() {
+        _modelUpdateScheduler.resetStatistics();
+    }
+
     public boolean isPolarLineLabelUnique( final String polarLineLabelCandidate ) {
         // Forward this method to the Linear Object Properties Pane.
         return _linearObjectPropertiesPane.isLinearObjectLabelUnique( polarLineLabelCandidate );
@@ -194,17 +343,29 @@ public final class PolarLinePane extends VBox {
         _polarLinePlacementPane.saveEdits();
     }
 
+    // Lock the label and the geometry while batch editing, as those are
+    // specific to each Polar Line and so are never batch edited.
+    public void setBatchEditMode( final boolean batchEditMode ) {
+        // Forward this method to the Linear Object Properties Pane.
+        _linearObjectPropertiesPane.setBatchEditMode( batchEditMode );
+
+        _polarLinePlacementPane.setDisable( batchEditMode );
+    }
+
     public void setGesturesEnabled( final boolean gesturesEnabled ) {
         // Forward this method to the Polar Line Placement Pane.
         _polarLinePlacementPane.setGesturesEnabled( gesturesEnabled );
     }
 
     public void setLayerCollection( final List< Layer > layerCollection ) {
-        // Cache a local copy of the Layer Collection.
-        _layerCollection = layerCollection;
+        // Forward this method to the Linear Object Properties Pane, which
+        // also keeps the Layer Index in sync with the Layer Collection.
+        _linearObjectPropertiesPane.setLayerCollection( layerCollection );
+    }
 
+    public void relabelPolarLine( final PolarLine polarLine ) {
         // Forward this method to the Linear Object Properties Pane.
-        _linearObjectPropertiesPane.setLayerCollection( layerCollection );
+        _linearObjectPropertiesPane.relabelLinearObject( polarLine );
     }
 
     /**
@@ -218,15 +379,23 @@ public final class PolarLinePane extends VBox {
         _polarLinePlacementPane.setScrollingSensitivity( scrollingSensitivity );
     }
 
+    // Update the Preview via the scratch Polar Line, superseding any update
+    // that is still pending for the next pulse.
+    private void updatePolarLineModel() {
+        _modelUpdateScheduler.cancel();
+        _modelUpdateScheduler.recordDirectUpdate();
+        updatePolarLineModel( _scratchPolarLine );
+    }
+
     public void updatePolarLineModel( final PolarLine polarLine ) {
         // Get all the Linear Object Properties.
         final LinearObjectProperties linearObjectProperties = getLinearObjectProperties();
         polarLine.setLabel( linearObjectProperties.getLabel() );
+        _linearObjectPropertiesPane.relabelLinearObject( polarLine );
 
-        // Cache the current Layer selection via Layer Name lookup.
+        // Cache the current Layer selection via indexed Layer Name lookup.
         final String layerName = linearObjectProperties.getLayerName();
-        final Layer layer = LayerManager.getLayerByName(
-                _layerCollection, layerName );
+        final Layer layer = _linearObjectPropertiesPane.getLayerByName( layerName );
         polarLine.setLayer( layer );
 
         // Update the Projector values.
@@ -273,14 +442,41 @@ public final class PolarLinePane extends VBox {
     }
 
     public void updateLayerNames( final Layer currentLayer ) {
-        final List< Layer > layerCollection = _layerCollection;
-        final int currentLayerIndex = LayerManager.getLayerIndex(
-                layerCollection, currentLayer );
+        final int currentLayerIndex = _linearObjectPropertiesPane.getLayerIndex( currentLayer );
 
         // Forward this method to the Linear Object Properties Pane.
         _linearObjectPropertiesPane.updateLayerNames( currentLayerIndex );
     }
 
+    /**
+     * Recomputes the Projection Zones of the collection's Projector lines,
+     * such as after a bulk import or other batch edit, skipping the lines
+     * whose geometry and number of Projection Zones have not changed.
+     *
+     * @return The number of lines whose Projection Zones were recomputed
+     */
+    public int updateProjectionZones() {
+        return _projectionZoneEngine.update( _polarLines );
+    }
+
+    /**
+     * Recomputes the Projection Zones of a single line in the collection
+     * after it was edited, if its geometry or number of Projection Zones
+     * changed.
+     *
+     * @param polarLine
+     *            The edited Polar Line, which must be in the collection
+     */
+    public void updateProjectionZones( final PolarLine polarLine ) {
+        // Forward this method to the Projection Zone Engine.
+        _projectionZoneEngine.updateLinearObject( polarLine );
+    }
+
+    public void setEditedPolarLine( final PolarLine editedPolarLine ) {
+        // Forward this method to the Polar Line Placement Pane.
+        _polarLinePlacementPane.setEditedPolarLine( editedPolarLine );
+    }
+
     public void updatePositioning( final PolarLine polarLine ) {
         // Forward this method to the Polar Line Placement Pane.
         _polarLinePlacementPane.updatePositioning( polarLine );
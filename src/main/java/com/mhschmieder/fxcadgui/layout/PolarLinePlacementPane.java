@@ -30,6 +30,7 @@
  */
 package com.mhschmieder.fxcadgui.layout;
 
+import com.mhschmieder.fxcadgui.util.ProjectionZoneEngine;
 import com.mhschmieder.fxgraphics.geometry.PolarLine;
 import com.mhschmieder.fxgui.util.GuiUtilities;
 import com.mhschmieder.fxphysicsgui.layout.CartesianPositionPane;
@@ -50,10 +51,20 @@ public final class PolarLinePlacementPane extends HBox {
     public PolarPositionPane _startPolarPositionPane;
     public PolarPositionPane             _endPolarPositionPane;
 
+    // Engine for the Projection Zones previewed on Projector lines.
+    private ProjectionZoneEngine< PolarLine > _projectionZoneEngine;
+
+    // The line being edited, whose cached Projection Zones are used for the
+    // preview.
+    private PolarLine _editedPolarLine;
+
     public PolarLinePlacementPane( final ClientProperties pClientProperties ) {
         // Always call the superclass constructor first!
         super();
 
+        _projectionZoneEngine = null;
+        _editedPolarLine = null;
+
         try {
             initPane( pClientProperties );
         }
@@ -185,16 +196,26 @@ public final class PolarLinePlacementPane extends HBox {
     }
 
     public void updatePreview( final PolarLine polarLineCurrent ) {
-        // Forward this to the preview pane, at the origin.
-        final PolarLine polarLine =
-                                                      new PolarLine( polarLineCurrent );
-        final double x1 = 0.0d;
-        final double y1 = 0.0d;
-        final double x2 = polarLine.getX2() - polarLine.getX1();
-        final double y2 = polarLine.getY2() - polarLine.getY1();
-        polarLine.setLine( x1, y1, x2, y2 );
-
-        _previewPane.updatePreview( polarLine, 2.0d );
+        // Forward this to the preview pane, which previews lines at the origin,
+        // along with the Projection Zones if the line is a Projector.
+        // NOTE: The current line is usually a scratch copy of the edited line,
+        // so the Projection Zones are looked up via the edited line.
+        _previewPane.updatePreview( polarLineCurrent,
+                                    ( _projectionZoneEngine != null )
+                                        ? _projectionZoneEngine
+                                                .getProjectionZones( _editedPolarLine,
+                                                                     polarLineCurrent )
+                                        : null,
+                                    2.0d );
+    }
+
+    public void setProjectionZoneEngine(
+            final ProjectionZoneEngine< PolarLine > projectionZoneEngine ) {
+        _projectionZoneEngine = projectionZoneEngine;
+    }
+
+    public void setEditedPolarLine( final PolarLine editedPolarLine ) {
+        _editedPolarLine = editedPolarLine;
     }
 
 }
@@ -36,6 +36,7 @@ import com.mhschmieder.fxcontrols.util.RegionUtilities;
 import com.mhschmieder.fxgraphics.paint.ColorUtilities;
 import com.mhschmieder.fxgui.util.GuiUtilities;
 import com.mhschmieder.jcommons.util.ClientProperties;
+import javafx.application.Platform;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -43,9 +44,16 @@ import javafx.scene.control.Label;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
+import org.apache.commons.math3.util.FastMath;
+
+import java.util.BitSet;
 
 /**
  * This is an information pane for a 2D Region's Surfaces/Materials.
+ * <p>
+ * Surface changes only mark the affected rows as dirty, and the labels for
+ * the dirty rows are then refreshed together once per pulse, so that a bulk
+ * change such as a reset doesn't rebuild every label once per property.
  */
 public final class SurfacesInformationPane extends VBox {
 
@@ -57,19 +65,49 @@ public final class SurfacesInformationPane extends VBox {
     private static final String SURFACE3_LABEL_DEFAULT = SURFACE_LABEL_LABEL + " 3 = Bypassed"; //$NON-NLS-1$
     private static final String SURFACE4_LABEL_DEFAULT = SURFACE_LABEL_LABEL + " 4 = Bypassed"; //$NON-NLS-1$
 
-    private Label               _surface1Label;
-    private Label               _surface2Label;
-    private Label               _surface3Label;
-    private Label               _surface4Label;
+    // Keep the default label text in surface order, for indexed access.
+    private static final String[] SURFACE_LABEL_DEFAULTS = new String[] {
+                                                                          SURFACE1_LABEL_DEFAULT,
+                                                                          SURFACE2_LABEL_DEFAULT,
+                                                                          SURFACE3_LABEL_DEFAULT,
+                                                                          SURFACE4_LABEL_DEFAULT };
+
+    private Label[]             _surfaceLabels;
+
+    // Keep track of which Surfaces have changed since the last refresh.
+    private final BitSet        _dirtySurfaces;
+
+    // Keep track of whether a refresh is already scheduled for this pulse.
+    private boolean             _refreshPending;
+
+    // Cache the last committed Surface Names, to find out which one changed.
+    private String[]            _surfaceNames;
+
+    // Reuse a single String Builder for all label text formatting.
+    private final StringBuilder _labelBuilder;
 
     // Keep a cached copy of the Region2D reference, as it is global per
     // session and can be used to update status and Surface Materials.
     private Region2DProperties _region2DProperties;
 
+    // Track the listeners on the current Region2D, for release on re-binding.
+    private final BindingScope  _region2DBindings;
+
+    // Track the listeners on the current Surfaces, for release whenever the
+    // Surface List changes.
+    private final BindingScope  _surfaceBindings;
+
     public SurfacesInformationPane( final ClientProperties pClientProperties ) {
         // Always call the superclass constructor first!
         super();
 
+        _dirtySurfaces = new BitSet( SURFACE_LABEL_DEFAULTS.length );
+        _refreshPending = false;
+        _surfaceNames = new String[ SURFACE_LABEL_DEFAULTS.length ];
+        _labelBuilder = new StringBuilder( 64 );
+        _region2DBindings = new BindingScope();
+        _surfaceBindings = new BindingScope();
+
         try {
             initPane( pClientProperties );
         }
@@ -79,22 +117,25 @@ public final class SurfacesInformationPane extends VBox {
     }
 
     private void initPane( final ClientProperties pClientProperties ) {
-        _surface1Label = GuiUtilities.getStatusLabel( SURFACE1_LABEL_DEFAULT );
-        _surface2Label = GuiUtilities.getStatusLabel( SURFACE2_LABEL_DEFAULT );
-        _surface3Label = GuiUtilities.getStatusLabel( SURFACE3_LABEL_DEFAULT );
-        _surface4Label = GuiUtilities.getStatusLabel( SURFACE4_LABEL_DEFAULT );
+        _surfaceLabels = new Label[ SURFACE_LABEL_DEFAULTS.length ];
+        for ( int surfaceIndex = 0; surfaceIndex < _surfaceLabels.length; surfaceIndex++ ) {
+            _surfaceLabels[ surfaceIndex ] = GuiUtilities
+                    .getStatusLabel( SURFACE_LABEL_DEFAULTS[ surfaceIndex ] );
+        }
 
-        getChildren().addAll( _surface1Label, _surface2Label, _surface3Label, _surface4Label );
+        getChildren().addAll( _surfaceLabels );
         setAlignment( Pos.CENTER_LEFT );
 
         setPadding( new Insets( 6.0d ) );
     }
 
     public void reset() {
-        _surface1Label.setText( SURFACE1_LABEL_DEFAULT );
-        _surface2Label.setText( SURFACE2_LABEL_DEFAULT );
-        _surface3Label.setText( SURFACE3_LABEL_DEFAULT );
-        _surface4Label.setText( SURFACE4_LABEL_DEFAULT );
+        // Any pending refresh is now moot, as all labels go back to defaults.
+        _dirtySurfaces.clear();
+        for ( int surfaceIndex = 0; surfaceIndex < _surfaceLabels.length; surfaceIndex++ ) {
+            _surfaceLabels[ surfaceIndex ].setText( SURFACE_LABEL_DEFAULTS[ surfaceIndex ] );
+            _surfaceNames[ surfaceIndex ] = null;
+        }
     }
 
     public void setForegroundFromBackground( final Color backColor ) {
@@ -103,82 +144,165 @@ public final class SurfacesInformationPane extends VBox {
         setBackground( background );
 
         final Color foregroundColor = ColorUtilities.getForegroundFromBackground( backColor );
-        _surface1Label.setTextFill( foregroundColor );
-        _surface2Label.setTextFill( foregroundColor );
-        _surface3Label.setTextFill( foregroundColor );
-        _surface4Label.setTextFill( foregroundColor );
+        for ( final Label surfaceLabel : _surfaceLabels ) {
+            surfaceLabel.setTextFill( foregroundColor );
+        }
     }
 
     // Set and propagate the Region2D reference.
-    // NOTE: This should be done only once, to avoid breaking bindings.
+    // NOTE: Any listeners on the previous Region2D are released first, so
+    // that re-binding doesn't accumulate listeners.
     public void setRegion2D( final Region2DProperties region2DProperties ) {
+        _surfaceBindings.release();
+        _region2DBindings.release();
+
         // Cache the current Region2D reference, for Surface Materials.
         _region2DProperties = region2DProperties;
 
         // Load the invalidation listener for the "Surface Name Changed"
-        // binding.
-        _region2DProperties.surfaceNameChangedProperty().addListener(
-            invalidationListener -> updateLabels() );
-
-        // Load the invalidation listener for the "Surface Value Changed"
-        // binding.
-        _region2DProperties.surfaceValueChangedProperty().addListener(
-            invalidationListener -> updateLabels() );
+        // binding. As this doesn't say which Surface changed, we compare
+        // against the cached names so that only the renamed rows are dirty.
+        _region2DBindings.addInvalidationListener(
+            _region2DProperties.surfaceNameChangedProperty(),
+            invalidationListener -> markRenamedSurfacesDirty() );
+
+        // Load the invalidation listener for the Surface List itself, so that
+        // swapping or replacing Surface beans re-targets the per-Surface
+        // listeners and marks every row as dirty.
+        _region2DBindings.addInvalidationListener(
+            _region2DProperties.getSurfaceProperties(),
+            invalidationListener -> bindSurfaceProperties() );
+
+        bindSurfaceProperties();
+    }
+
+    // Load the invalidation listeners for each Surface's values, so that we
+    // know exactly which Surface changed.
+    // NOTE: This is re-run whenever the Surface List changes, so that the
+    // listeners always track the beans that are currently in the list.
+    private void bindSurfaceProperties() {
+        _surfaceBindings.release();
+
+        final ObservableList< SurfaceProperties > numberedSurfaceProperties
+                = _region2DProperties.getSurfaceProperties();
+        final int numberOfSurfaces = FastMath.min( numberedSurfaceProperties.size(),
+                                                      _surfaceLabels.length );
+        for ( int surfaceIndex = 0; surfaceIndex < numberOfSurfaces; surfaceIndex++ ) {
+            final SurfaceProperties surfaceProperties = numberedSurfaceProperties
+                    .get( surfaceIndex );
+
+            // NOTE: Need a final variable to pass to registered listeners.
+            final int currentSurfaceIndex = surfaceIndex;
+            _surfaceBindings.addInvalidationListener(
+                surfaceProperties.surfaceBypassedProperty(),
+                invalidationListener -> markSurfaceDirty( currentSurfaceIndex ) );
+            _surfaceBindings.addInvalidationListener(
+                surfaceProperties.surfaceMaterialProperty(),
+                invalidationListener -> markSurfaceDirty( currentSurfaceIndex ) );
+        }
+
+        // Any row may now be backed by a different bean, so refresh them all.
+        _dirtySurfaces.set( 0, _surfaceLabels.length );
+        scheduleRefresh();
     }
 
     public void updateView() {
         updateLabels();
     }
 
-    // Update the cached Surface Materials and Bypassed/Enabled status.
+    // Update the cached Surface Materials and Bypassed/Enabled status for all
+    // Surfaces, immediately.
     public void updateLabels() {
+        _dirtySurfaces.set( 0, _surfaceLabels.length );
+        refreshDirtyLabels();
+    }
+
+    // Mark a single Surface as dirty and schedule a refresh for this pulse.
+    private void markSurfaceDirty( final int surfaceIndex ) {
+        _dirtySurfaces.set( surfaceIndex );
+        scheduleRefresh();
+    }
+
+    // Mark any Surfaces whose names differ from the cached names as dirty.
+    private void markRenamedSurfacesDirty() {
         final ObservableList< SurfaceProperties > numberedSurfaceProperties
                 = _region2DProperties.getSurfaceProperties();
+        final int numberOfSurfaces = FastMath.min( numberedSurfaceProperties.size(),
+                                                      _surfaceLabels.length );
+        for ( int surfaceIndex = 0; surfaceIndex < numberOfSurfaces; surfaceIndex++ ) {
+            final String surfaceName = numberedSurfaceProperties.get( surfaceIndex )
+                    .getSurfaceName();
+            if ( ( surfaceName == null )
+                    || !surfaceName.equals( _surfaceNames[ surfaceIndex ] ) ) {
+                _dirtySurfaces.set( surfaceIndex );
+            }
+        }
+
+        scheduleRefresh();
+    }
 
-        final SurfaceProperties surface1Properties
-                = numberedSurfaceProperties.get( 0 );
-        final String sSurface1Status = surface1Properties.isSurfaceBypassed()
-            ? "Bypassed" //$NON-NLS-1$
-            : surface1Properties.getSurfaceMaterial().abbreviation();
-        final String surface1Label = "Surface " + surface1Properties.getSurfaceNumber() + ": " //$NON-NLS-1$ //$NON-NLS-2$
-                + surface1Properties.getSurfaceName() + " = " + sSurface1Status; //$NON-NLS-1$
-
-        final SurfaceProperties surface2Properties = numberedSurfaceProperties.get( 1 );
-        final String sSurface2Status = surface2Properties.isSurfaceBypassed()
-            ? "Bypassed" //$NON-NLS-1$
-            : surface2Properties.getSurfaceMaterial().abbreviation();
-        final String surface2Label = "Surface " + surface2Properties.getSurfaceNumber() + ": " //$NON-NLS-1$ //$NON-NLS-2$
-                + surface2Properties.getSurfaceName() + " = " + sSurface2Status; //$NON-NLS-1$
-
-        final SurfaceProperties surface3Properties = numberedSurfaceProperties.get( 2 );
-        final String sSurface3Status = surface3Properties.isSurfaceBypassed()
-            ? "Bypassed" //$NON-NLS-1$
-            : surface3Properties.getSurfaceMaterial().abbreviation();
-        final String surface3Label = "Surface " + surface3Properties.getSurfaceNumber() + ": " //$NON-NLS-1$ //$NON-NLS-2$
-                + surface3Properties.getSurfaceName() + " = " + sSurface3Status; //$NON-NLS-1$
-
-        final SurfaceProperties surface4Properties = numberedSurfaceProperties.get( 3 );
-        final String sSurface4Status = surface4Properties.isSurfaceBypassed()
-            ? "Bypassed" //$NON-NLS-1$
-            : surface4Properties.getSurfaceMaterial().abbreviation();
-        final String surface4Label = "Surface " + surface4Properties.getSurfaceNumber() + ": " //$NON-NLS-1$ //$NON-NLS-2$
-                + surface4Properties.getSurfaceName() + " = " + sSurface4Status; //$NON-NLS-1$
-
-        // Update the associated labels in the information pane.
-        _surface1Label.setText( surface1Label );
-        _surface2Label.setText( surface2Label );
-        _surface3Label.setText( surface3Label );
-        _surface4Label.setText( surface4Label );
+    // Coalesce all changes within a pulse into a single refresh.
+    private void scheduleRefresh() {
+        if ( _refreshPending || _dirtySurfaces.isEmpty() ) {
+            return;
+        }
+
+        _refreshPending = true;
+        Platform.runLater( this::refreshDirtyLabels );
+    }
+
+    // Update the labels for just the Surfaces that changed.
+    private void refreshDirtyLabels() {
+        _refreshPending = false;
+
+        if ( _region2DProperties == null ) {
+            _dirtySurfaces.clear();
+            return;
+        }
+
+        final ObservableList< SurfaceProperties > numberedSurfaceProperties
+                = _region2DProperties.getSurfaceProperties();
+        for ( int surfaceIndex = _dirtySurfaces.nextSetBit( 0 ); ( surfaceIndex >= 0 )
+                && ( surfaceIndex < _surfaceLabels.length ); surfaceIndex = _dirtySurfaces
+                        .nextSetBit( surfaceIndex + 1 ) ) {
+            if ( surfaceIndex >= numberedSurfaceProperties.size() ) {
+                break;
+            }
+
+            final SurfaceProperties surfaceProperties = numberedSurfaceProperties
+                    .get( surfaceIndex );
+            _surfaceNames[ surfaceIndex ] = surfaceProperties.getSurfaceName();
+
+            _labelBuilder.setLength( 0 );
+            _labelBuilder.append( "Surface " ) //$NON-NLS-1$
+                    .append( surfaceProperties.getSurfaceNumber() ).append( ": " ) //$NON-NLS-1$
+                    .append( _surfaceNames[ surfaceIndex ] ).append( " = " ); //$NON-NLS-1$
+            if ( surfaceProperties.isSurfaceBypassed() ) {
+                _labelBuilder.append( "Bypassed" ); //$NON-NLS-1$
+            }
+            else {
+                _labelBuilder.append( surfaceProperties.getSurfaceMaterial().abbreviation() );
+            }
+
+            // Update the associated label in the information pane.
+            _surfaceLabels[ surfaceIndex ].setText( _labelBuilder.toString() );
+        }
+
+        _dirtySurfaces.clear();
     }
 
     public String[] getSurfaceInformation() {
+        // Make sure any changes still waiting on the next pulse are reflected
+        // in the snapshot, so it is always consistent with the model.
+        if ( !_dirtySurfaces.isEmpty() ) {
+            refreshDirtyLabels();
+        }
+
         // Collect the information fields to render to a single-column table.
-        final String[] information = new String[ 4 ];
-        int i = 0;
-        information[ i++ ] = _surface1Label.getText();
-        information[ i++ ] = _surface2Label.getText();
-        information[ i++ ] = _surface3Label.getText();
-        information[ i++ ] = _surface4Label.getText();
+        final String[] information = new String[ _surfaceLabels.length ];
+        for ( int surfaceIndex = 0; surfaceIndex < _surfaceLabels.length; surfaceIndex++ ) {
+            information[ surfaceIndex ] = _surfaceLabels[ surfaceIndex ].getText();
+        }
         return information;
     }
 }
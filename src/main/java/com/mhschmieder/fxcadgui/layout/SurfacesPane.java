@@ -32,18 +32,23 @@ package com.mhschmieder.fxcadgui.layout;
 
 import com.mhschmieder.fxcadcontrols.control.SurfaceSelectorControls;
 import com.mhschmieder.fxcadcontrols.model.SurfaceProperties;
-import com.mhschmieder.fxcadcontrols.util.SurfacePropertiesNameManager;
+import com.mhschmieder.fxcadgui.util.MaterialCatalog;
+import com.mhschmieder.fxcadgui.util.SurfacesPresetRegistry;
+import com.mhschmieder.fxcadgui.util.SurfacesSnapshot;
+import com.mhschmieder.fxcadgui.util.UniqueNameRegistry;
 import com.mhschmieder.fxgraphics.geometry.Region2D;
 import com.mhschmieder.fxgraphics.geometry.Surface;
 import com.mhschmieder.fxcontrols.util.RegionUtilities;
 import com.mhschmieder.fxgraphics.paint.ColorUtilities;
 import com.mhschmieder.fxgui.util.GuiUtilities;
+import com.mhschmieder.jacoustics.SurfaceMaterial;
 import com.mhschmieder.jcommons.text.NumberFormatUtilities;
 import com.mhschmieder.jcommons.util.ClientProperties;
 import javafx.collections.ObservableList;
 import javafx.geometry.HPos;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyCodeCombination;
@@ -53,10 +58,18 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.paint.Color;
+import org.apache.commons.math3.util.FastMath;
 
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public final class SurfacesPane extends BorderPane {
 
@@ -107,6 +120,13 @@ public final class SurfacesPane extends BorderPane {
     // controls directly without casting from Node via getChildren().
     protected List< SurfaceSelectorControls >     _surfaceSelectorGroups;
 
+    // Declare the virtualized table that replaces the grid of Surface Selector
+    // Groups when the Surface Count is arbitrary vs. fixed.
+    protected SurfacesTableView                   _surfacesTableView;
+
+    // Flag for whether to use the virtualized table vs. the fixed grid.
+    protected final boolean                       _useTableView;
+
     // Cache a reference to the Surface Properties.
     protected ObservableList< SurfaceProperties > _surfaceProperties;
 
@@ -114,14 +134,43 @@ public final class SurfacesPane extends BorderPane {
     // uniquefier appendices.
     protected NumberFormat                        _uniquefierNumberFormat;
 
+    // Registry of Surface Names in use, indexed by base name, so that name
+    // uniqueness doesn't require a scan of all the Surface Properties.
+    protected UniqueNameRegistry                  _surfaceNameRegistry;
+
     // Cache the full Client Properties (System Type, Locale, etc.).
     protected ClientProperties                  _clientProperties;
 
+    // Keep track of nested batch edits, so that only the outermost batch
+    // re-syncs the view and notifies the listeners.
+    private int                                   _surfaceEditDepth;
+
+    // Collect the Surfaces changed by the current batch edit.
+    // NOTE: This is identity-based, as the Surfaces are mutable.
+    private final Set< SurfaceProperties >        _changedSurfaces;
+
+    // Listeners for the single consolidated change event per batch edit.
+    private final List< Consumer< Set< SurfaceProperties > > > _surfacesChangedListeners;
+
+    // Registry of named Surface configuration presets, for quick switching.
+    private final SurfacesPresetRegistry          _surfacesPresetRegistry;
+
     public SurfacesPane( final ClientProperties pClientProperties ) {
+        this( pClientProperties, false );
+    }
+
+    public SurfacesPane( final ClientProperties pClientProperties,
+                         final boolean useTableView ) {
         // Always call the superclass constructor first!
         super();
 
         _clientProperties = pClientProperties;
+        _useTableView = useTableView;
+
+        _surfaceEditDepth = 0;
+        _changedSurfaces = Collections.newSetFromMap( new IdentityHashMap<>() );
+        _surfacesChangedListeners = new ArrayList<>();
+        _surfacesPresetRegistry = new SurfacesPresetRegistry();
 
         // TODO: Find and use an existing symbolic constant for Surface Count.
         _surfaceSelectorGroups = new ArrayList<>( 4 );
@@ -134,7 +183,264 @@ public final class SurfacesPane extends BorderPane {
         }
     }
 
+    /**
+     * Adds a listener for the single consolidated change event that is sent
+     * at the end of each batch edit, with the set of Surfaces that changed.
+     * <p>
+     * Expensive downstream work, such as acoustic recomputation, should
+     * listen here rather than on the individual Surface Properties, as the
+     * latter still fire once per edited property during a batch edit.
+     *
+     * @param surfacesChangedListener
+     *            The listener to add
+     */
+    public void addSurfacesChangedListener(
+            final Consumer< Set< SurfaceProperties > > surfacesChangedListener ) {
+        _surfacesChangedListeners.add( surfacesChangedListener );
+    }
+
+    /**
+     * Applies an edit to each of the selected Surfaces as a single batch, with
+     * the view re-synced once and one consolidated change event at the end.
+     * <p>
+     * For example, to apply one Surface Material to a selection of Surfaces:
+     * {@code applySurfaceEdits( selection, s -> s.setSurfaceMaterial( m ) )}.
+     *
+     * @param selectedSurfaces
+     *            The Surfaces to edit
+     * @param surfaceEdit
+     *            The edit to apply to each selected Surface
+     */
+    public void applySurfaceEdits( final Collection< SurfaceProperties > selectedSurfaces,
+                                   final Consumer< SurfaceProperties > surfaceEdit ) {
+        beginSurfaceEdits();
+        try {
+            for ( final SurfaceProperties surfaceProperties : selectedSurfaces ) {
+                applySurfaceEdit( surfaceProperties, surfaceEdit );
+            }
+        }
+        finally {
+            endSurfaceEdits();
+        }
+    }
+
+    /**
+     * Applies an edit to a single Surface, recording it as changed if any of
+     * its values actually changed. This must be called between
+     * {@link #beginSurfaceEdits()} and {@link #endSurfaceEdits()}.
+     *
+     * @param surfaceProperties
+     *            The Surface to edit
+     * @param surfaceEdit
+     *            The edit to apply to the Surface
+     */
+    public void applySurfaceEdit( final SurfaceProperties surfaceProperties,
+                                  final Consumer< SurfaceProperties > surfaceEdit ) {
+        final String oldSurfaceName = surfaceProperties.getSurfaceName();
+        final boolean oldSurfaceBypassed = surfaceProperties.isSurfaceBypassed();
+        final SurfaceMaterial oldSurfaceMaterial = surfaceProperties.getSurfaceMaterial();
+
+        surfaceEdit.accept( surfaceProperties );
+
+        final String newSurfaceName = surfaceProperties.getSurfaceName();
+        if ( !Objects.equals( oldSurfaceName, newSurfaceName ) ) {
+            _surfaceNameRegistry.renameName( oldSurfaceName, newSurfaceName );
+            _changedSurfaces.add( surfaceProperties );
+        }
+        else if ( ( oldSurfaceBypassed != surfaceProperties.isSurfaceBypassed() )
+                || !Objects.equals( oldSurfaceMaterial,
+                                    surfaceProperties.getSurfaceMaterial() ) ) {
+            _changedSurfaces.add( surfaceProperties );
+        }
+    }
+
+    /**
+     * Restores the named Surface configuration preset, as a single batch edit.
+     *
+     * @param presetName
+     *            The name of the preset to restore
+     * @return {@code true} if a preset was registered under the given name
+     */
+    public boolean applySurfacesPreset( final String presetName ) {
+        final SurfacesSnapshot< SurfaceMaterial > surfacesPreset = _surfacesPresetRegistry
+                .getPreset( presetName );
+        if ( surfacesPreset == null ) {
+            return false;
+        }
+
+        applySurfacesSnapshot( surfacesPreset );
+        return true;
+    }
+
+    /**
+     * Restores a snapshot of the Surface configuration, such as a preset, as
+     * a single batch edit, so that the view is re-synced at most once and
+     * only the Surfaces that actually differ are touched.
+     *
+     * @param surfacesSnapshot
+     *            The Surface configuration to restore
+     */
+    public void applySurfacesSnapshot(
+            final SurfacesSnapshot< SurfaceMaterial > surfacesSnapshot ) {
+        if ( ( _surfaceProperties == null ) || ( surfacesSnapshot == null ) ) {
+            return;
+        }
+
+        final int numberOfSurfaces = FastMath.min( surfacesSnapshot.size(),
+                                                   _surfaceProperties.size() );
+        beginSurfaceEdits();
+        try {
+            for ( int surfaceIndex = 0; surfaceIndex < numberOfSurfaces; surfaceIndex++ ) {
+                final int snapshotIndex = surfaceIndex;
+                applySurfaceEdit( _surfaceProperties.get( surfaceIndex ),
+                                  surfaceProperties -> surfacesSnapshot
+                                          .applyTo( snapshotIndex, surfaceProperties ) );
+            }
+        }
+        finally {
+            endSurfaceEdits();
+        }
+    }
+
+    /**
+     * Starts a batch edit of the Surfaces. The view is detached from the data
+     * model until the matching {@link #endSurfaceEdits()}, so that individual
+     * edits don't round-trip through the bound controls. Batches may nest.
+     * <p>
+     * Only the listeners owned by this pane are suspended; listeners that
+     * other components add to the Surface Properties still fire per edit, so
+     * they should use {@link #addSurfacesChangedListener(Consumer)} instead.
+     */
+    public void beginSurfaceEdits() {
+        if ( _surfaceEditDepth++ == 0 ) {
+            _changedSurfaces.clear();
+
+            // Detach the controls, so they don't respond to each edit.
+            // NOTE: The virtualized table's visible cells observe the Surface
+            // Properties directly, so they are detached as well.
+            if ( _useTableView ) {
+                _surfacesTableView.suspendCellBindings();
+            }
+            else {
+                unbindProperties();
+            }
+        }
+    }
+
+    /**
+     * Takes a snapshot of the current Surface configuration, such as for
+     * storing as a preset.
+     *
+     * @return An immutable snapshot of the Surface configuration, or
+     *         {@code null} if there are no Surface Properties yet
+     */
+    public SurfacesSnapshot< SurfaceMaterial > captureSurfacesSnapshot() {
+        return ( _surfaceProperties != null )
+            ? SurfacesSnapshot.of( _surfaceProperties,
+                                   SurfaceProperties::surfaceMaterialProperty )
+            : null;
+    }
+
+    /**
+     * Returns the registry of named Surface configuration presets, such as
+     * for listing the preset names in a menu.
+     *
+     * @return The registry of named Surface configuration presets
+     */
+    public SurfacesPresetRegistry getSurfacesPresetRegistry() {
+        return _surfacesPresetRegistry;
+    }
+
+    /**
+     * Ends a batch edit of the Surfaces. When the outermost batch ends, the
+     * view is re-synced and re-bound once, and a single change event is sent
+     * to the listeners with the set of Surfaces that changed (if any).
+     */
+    public void endSurfaceEdits() {
+        if ( _surfaceEditDepth <= 0 ) {
+            return;
+        }
+        if ( --_surfaceEditDepth > 0 ) {
+            return;
+        }
+
+        // Re-sync the controls to the edited data model, and re-attach them.
+        if ( _useTableView ) {
+            _surfacesTableView.resumeCellBindings();
+        }
+        else {
+            syncSurfaceControls();
+            bindProperties();
+        }
+
+        if ( _changedSurfaces.isEmpty() ) {
+            return;
+        }
+
+        // Send one consolidated change event for the whole batch.
+        final Set< SurfaceProperties > changedSurfaces = Collections
+                .newSetFromMap( new IdentityHashMap<>( _changedSurfaces.size() ) );
+        changedSurfaces.addAll( _changedSurfaces );
+        _changedSurfaces.clear();
+        final Set< SurfaceProperties > changedSurfacesView = Collections
+                .unmodifiableSet( changedSurfaces );
+        for ( final Consumer< Set< SurfaceProperties > > surfacesChangedListener
+                : new ArrayList<>( _surfacesChangedListeners ) ) {
+            surfacesChangedListener.accept( changedSurfacesView );
+        }
+    }
+
+    /**
+     * Removes a listener for the consolidated batch edit change event.
+     *
+     * @param surfacesChangedListener
+     *            The listener to remove
+     */
+    public void removeSurfacesChangedListener(
+            final Consumer< Set< SurfaceProperties > > surfacesChangedListener ) {
+        _surfacesChangedListeners.remove( surfacesChangedListener );
+    }
+
+    /**
+     * Stores the current Surface configuration as a named preset, replacing
+     * any existing preset of the same name.
+     *
+     * @param presetName
+     *            The name of the preset
+     * @return {@code true} if there were Surface Properties to store
+     */
+    public boolean saveSurfacesPreset( final String presetName ) {
+        final SurfacesSnapshot< SurfaceMaterial > surfacesSnapshot = captureSurfacesSnapshot();
+        if ( surfacesSnapshot == null ) {
+            return false;
+        }
+
+        _surfacesPresetRegistry.putPreset( presetName, surfacesSnapshot );
+        return true;
+    }
+
+    /**
+     * Sets the Bypassed status of each of the selected Surfaces, as a single
+     * batch edit.
+     *
+     * @param selectedSurfaces
+     *            The Surfaces to edit
+     * @param surfaceBypassed
+     *            {@code true} if the Surfaces should be Bypassed
+     */
+    public void setSurfacesBypassed( final Collection< SurfaceProperties > selectedSurfaces,
+                                     final boolean surfaceBypassed ) {
+        applySurfaceEdits( selectedSurfaces,
+                           surfaceProperties -> surfaceProperties
+                                   .setSurfaceBypassed( surfaceBypassed ) );
+    }
+
     private void bindProperties() {
+        // NOTE: The virtualized table binds each visible cell on its own.
+        if ( _useTableView ) {
+            return;
+        }
+
         if ( _surfaceProperties != null ) {
             int surfaceIndex = 0;
             for ( final SurfaceProperties numberedSurfaceProperties : _surfaceProperties ) {
@@ -156,11 +462,17 @@ public final class SurfacesPane extends BorderPane {
     private void initPane() {
         _uniquefierNumberFormat = NumberFormatUtilities
                 .getUniquefierNumberFormat( _clientProperties.locale );
+        _surfaceNameRegistry = new UniqueNameRegistry( _uniquefierNumberFormat );
 
         // Use banner style headlining for the overall title.
         _surfaceSelectorTitle = GuiUtilities.getTitleLabel( "Surfaces" ); //$NON-NLS-1$
         final HBox titlePane = GuiUtilities.getTitlePane( _surfaceSelectorTitle );
 
+        if ( _useTableView ) {
+            initTableView( titlePane );
+            return;
+        }
+
         // Make the array of individual Surface Selector controls.
         _surfaceSelectorGrid = new GridPane();
 
@@ -185,6 +497,10 @@ public final class SurfacesPane extends BorderPane {
         _surfaceSelectorGrid.add( _statusLabel, COLUMN_STATUS, ROW_HEADER );
         _surfaceSelectorGrid.add( _materialNameLabel, COLUMN_MATERIAL_NAME, ROW_HEADER );
 
+        // Index the Surface Material choices in one catalog that all rows
+        // share, rather than each row holding its own copy of the list.
+        Consumer< SurfaceSelectorControls > materialCatalogInstaller = null;
+
         // TODO: Find and use an existing symbolic constant for Surface Count.
         // NOTE: We do not register callbacks here because we are instead using
         // data binding as we did earlier in the table-based implementation.
@@ -195,6 +511,16 @@ public final class SurfacesPane extends BorderPane {
                                                                                                true,
                                                                                                surfaceRowIndex );
 
+            // Switch the Surface Material Selector over to the shared catalog
+            // straight away, so that its own copy of the choices is dropped
+            // as soon as it is made. The first row supplies the catalog.
+            if ( materialCatalogInstaller == null ) {
+                materialCatalogInstaller = makeMaterialCatalogInstaller(
+                        surfaceSelectorControls,
+                        surfaceSelectorGroup -> surfaceSelectorGroup._surfaceMaterialSelector );
+            }
+            materialCatalogInstaller.accept( surfaceSelectorControls );
+
             // NOTE: Need a final variable to pass to registered listeners.
             final int currentSurfaceIndex = surfaceIndex;
 
@@ -252,12 +578,51 @@ public final class SurfacesPane extends BorderPane {
         setAlignment( _surfaceSelectorGrid, Pos.CENTER );
     }
 
+    private static < M > Consumer< SurfaceSelectorControls > makeMaterialCatalogInstaller(
+            final SurfaceSelectorControls surfaceSelectorPrototype,
+            final Function< SurfaceSelectorControls, ComboBox< M > > materialSelectorAccessor ) {
+        final MaterialCatalog< M > materialCatalog = new MaterialCatalog<>(
+                materialSelectorAccessor.apply( surfaceSelectorPrototype ).getItems(),
+                String::valueOf );
+        return surfaceSelectorControls -> MaterialTypeAhead
+                .install( materialSelectorAccessor.apply( surfaceSelectorControls ),
+                          materialCatalog );
+    }
+
+    private void initTableView( final HBox titlePane ) {
+        // Make the virtualized table of Surfaces, which only instantiates
+        // cells for the visible rows.
+        _surfacesTableView = new SurfacesTableView( _clientProperties );
+
+        // Uniquefy the Surface Name (if necessary) and commit, once editing
+        // is committed via ENTER or focus loss.
+        _surfacesTableView._surfaceNameColumn.setOnEditCommit( cellEditEvent -> {
+            final SurfaceProperties surfaceProperties = cellEditEvent.getRowValue();
+            updateSurfaceName( surfaceProperties, cellEditEvent.getNewValue() );
+
+            // Re-sync the edited row, as Surface Names are not bound.
+            _surfacesTableView.refresh();
+        } );
+
+        // Stack the two panes with sufficient gaps to distinguish purpose.
+        setTop( titlePane );
+        setCenter( _surfacesTableView );
+
+        setPadding( new Insets( 6.0d ) );
+    }
+
     // Reset all fields to the default values.
+    // NOTE: This is done as a single batch edit, so that downstream listeners
+    // get one consolidated change event rather than one per property.
     public void reset() {
-        for ( final SurfaceProperties numberedSurfaceProperties : _surfaceProperties ) {
-            numberedSurfaceProperties.setSurfaceBypassed( Surface.SURFACE_BYPASSED_DEFAULT);
-            numberedSurfaceProperties.setSurfaceMaterial( Surface.SURFACE_MATERIAL_DEFAULT);
+        if ( _surfaceProperties == null ) {
+            return;
         }
+
+        applySurfaceEdits( _surfaceProperties, numberedSurfaceProperties -> {
+            numberedSurfaceProperties.setSurfaceBypassed( Surface.SURFACE_BYPASSED_DEFAULT );
+            numberedSurfaceProperties.setSurfaceMaterial( Surface.SURFACE_MATERIAL_DEFAULT );
+        } );
     }
 
     public void setForegroundFromBackground( final Color backColor ) {
@@ -270,6 +635,11 @@ public final class SurfacesPane extends BorderPane {
 
         _surfaceSelectorTitle.setTextFill( foregroundColor );
 
+        // NOTE: The virtualized table is styled via CSS vs. grid labels.
+        if ( _useTableView ) {
+            return;
+        }
+
         // Set the column header label foreground.
         GuiUtilities.setColumnHeaderLabelForeground( _surfaceSelectorGrid,
                                                      COLUMN_FIRST,
@@ -294,10 +664,38 @@ public final class SurfacesPane extends BorderPane {
         // Cache the new Surface Properties.
         _surfaceProperties = surfaceProperties;
 
+        // Re-index the Surface Names for the new Surface Properties.
+        updateSurfaceNameRegistry();
+
+        // The virtualized table works directly off of the observable list.
+        if ( _useTableView ) {
+            _surfacesTableView.setItems( surfaceProperties );
+            return;
+        }
+
+        // Update the GUI with the new values.
+        syncSurfaceControls();
+
+        // Bind the data model to the respective GUI components.
+        bindProperties();
+    }
+
+    // Push the current data model values to the Surface Selector Groups.
+    private void syncSurfaceControls() {
+        if ( _surfaceProperties == null ) {
+            return;
+        }
+
+        // The virtualized table only needs to re-sync its visible cells.
+        if ( _useTableView ) {
+            _surfacesTableView.refresh();
+            return;
+        }
+
         // Update the GUI with the new values, since we have too many
         // complexities to be able to use data binding here.
         int surfaceIndex = 0;
-        for ( final SurfaceProperties numberedSurfaceProperties : surfaceProperties ) {
+        for ( final SurfaceProperties numberedSurfaceProperties : _surfaceProperties ) {
             final SurfaceSelectorControls surfaceSelectorGroup = _surfaceSelectorGroups
                     .get( surfaceIndex++ );
 
@@ -308,9 +706,6 @@ public final class SurfacesPane extends BorderPane {
             surfaceSelectorGroup._surfaceMaterialSelector
                     .setValue( numberedSurfaceProperties.getSurfaceMaterial() );
         }
-
-        // Bind the data model to the respective GUI components.
-        bindProperties();
     }
 
     private void updateSurfaceNameView( final int surfaceIndex ) {
@@ -325,27 +720,44 @@ public final class SurfacesPane extends BorderPane {
 
         final SurfaceProperties surfaceProperties = _surfaceProperties.get( surfaceIndex );
 
-        // Get a unique Surface Name from the candidate name.
-        final String correctedSurfaceName = SurfacePropertiesNameManager
-                .getUniqueSurfaceName( _surfaceProperties,
-                                       surfaceProperties,
-                                       newSurfaceName,
-                                       _uniquefierNumberFormat );
+        final boolean surfaceNameChanged = updateSurfaceName( surfaceProperties,
+                                                              newSurfaceName );
 
+        if ( surfaceNameChanged ) {
+            // Re-sync the GUI as well, as we don't use bindings for this due to
+            // the complexities and re-entrancy of name uniqueness algorithms.
+            surfaceSelectorGroup._surfaceNameEditor
+                    .setValue( surfaceProperties.getSurfaceName() );
+        }
+    }
+
+    // Uniquefy the candidate Surface Name and commit it if it changed.
+    private boolean updateSurfaceName( final SurfaceProperties surfaceProperties,
+                                       final String newSurfaceName ) {
+        // Get a unique Surface Name from the candidate name, via the index of
+        // Surface Names in use rather than by scanning all the Surfaces.
         final String oldSurfaceName = surfaceProperties.getSurfaceName();
+        final String correctedSurfaceName = _surfaceNameRegistry
+                .getUniqueName( newSurfaceName, oldSurfaceName );
+
         final boolean surfaceNameChanged = !correctedSurfaceName.equals( oldSurfaceName );
 
         if ( surfaceNameChanged ) {
-            // Update the Surface Name if it changed.
+            // Update the Surface Name if it changed, keeping the index of
+            // Surface Names in use up-to-date.
             surfaceProperties.setSurfaceName( correctedSurfaceName );
-
-            // Re-sync the GUI as well, as we don't use bindings for this due to
-            // the complexities and re-entrancy of name uniqueness algorithms.
-            surfaceSelectorGroup._surfaceNameEditor.setValue( correctedSurfaceName );
+            _surfaceNameRegistry.renameName( oldSurfaceName, correctedSurfaceName );
         }
+
+        return surfaceNameChanged;
     }
 
     private void unbindProperties() {
+        // NOTE: The virtualized table binds each visible cell on its own.
+        if ( _useTableView ) {
+            return;
+        }
+
         if ( _surfaceProperties != null ) {
             int surfaceIndex = 0;
             for ( final SurfaceProperties numberedSurfaceProperties : _surfaceProperties ) {
@@ -362,7 +774,28 @@ public final class SurfacesPane extends BorderPane {
         }
     }
 
+    // Re-index all the Surface Names, as they may have changed externally.
+    private void updateSurfaceNameRegistry() {
+        _surfaceNameRegistry.clear();
+
+        if ( _surfaceProperties != null ) {
+            for ( final SurfaceProperties numberedSurfaceProperties : _surfaceProperties ) {
+                _surfaceNameRegistry.addName( numberedSurfaceProperties.getSurfaceName() );
+            }
+        }
+    }
+
     public void updateSurfaceNames() {
+        // Surface Names may have changed outside this pane, such as from a
+        // file load, so re-index them before the next uniqueness check.
+        updateSurfaceNameRegistry();
+
+        // The virtualized table only needs to re-sync its visible cells.
+        if ( _useTableView ) {
+            _surfacesTableView.refresh();
+            return;
+        }
+
         if ( _surfaceProperties != null ) {
             int surfaceIndex = 0;
             for ( final SurfaceProperties numberedSurfaceProperties : _surfaceProperties ) {
@@ -0,0 +1,183 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.layout;
+
+import com.mhschmieder.fxcadcontrols.control.SurfaceSelectorControls;
+import com.mhschmieder.fxcadcontrols.model.SurfaceProperties;
+import com.mhschmieder.fxcadgui.util.MaterialCatalog;
+import com.mhschmieder.jacoustics.SurfaceMaterial;
+import com.mhschmieder.jcommons.util.ClientProperties;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableColumn.CellDataFeatures;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.CheckBoxTableCell;
+import javafx.scene.control.cell.TextFieldTableCell;
+import javafx.util.Callback;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This is a virtualized table view of a 2D Region's Surfaces/Materials, for
+ * regions that have far more Surfaces than can be managed via a fixed grid of
+ * live controls per Surface.
+ * <p>
+ * The table only creates cells for the visible rows and reuses them as the
+ * user scrolls, so memory use and layout time depend on the number of visible
+ * rows rather than on the total number of Surfaces.
+ */
+public final class SurfacesTableView extends TableView< SurfaceProperties > {
+
+    // Declare the table columns that need to be accessed after
+    // initialization time.
+    public TableColumn< SurfaceProperties, String >          _surfaceIdColumn;
+    public TableColumn< SurfaceProperties, String >          _surfaceNameColumn;
+    public TableColumn< SurfaceProperties, Boolean >         _statusColumn;
+    public TableColumn< SurfaceProperties, SurfaceMaterial > _materialNameColumn;
+
+    // Restore the live cell value factories once cell bindings are resumed.
+    private final List< Runnable >                           _cellBindingRestorers;
+
+    public SurfacesTableView( final ClientProperties pClientProperties ) {
+        // Always call the superclass constructor first!
+        super();
+
+        _cellBindingRestorers = new ArrayList<>( 2 );
+
+        try {
+            initTable( pClientProperties );
+        }
+        catch ( final Exception ex ) {
+            ex.printStackTrace();
+        }
+    }
+
+    private void initTable( final ClientProperties pClientProperties ) {
+        setEditable( true );
+        setColumnResizePolicy( CONSTRAINED_RESIZE_POLICY );
+
+        _surfaceIdColumn = new TableColumn<>( SurfacesPane.COLUMN_HEADER_SURFACE_ID );
+        _surfaceIdColumn.setEditable( false );
+        _surfaceIdColumn.setSortable( false );
+        _surfaceIdColumn.setCellValueFactory( cellDataFeatures -> new ReadOnlyStringWrapper(
+                String.valueOf( cellDataFeatures.getValue().getSurfaceNumber() ) ) );
+
+        // NOTE: Surface Names are not bound, due to the complexities and
+        // re-entrancy of name uniqueness algorithms, so edits are committed by
+        // the host pane and the table is then refreshed.
+        _surfaceNameColumn = new TableColumn<>( SurfacesPane.COLUMN_HEADER_SURFACE_NAME );
+        _surfaceNameColumn.setSortable( false );
+        _surfaceNameColumn.setCellValueFactory( cellDataFeatures -> new ReadOnlyStringWrapper(
+                cellDataFeatures.getValue().getSurfaceName() ) );
+        _surfaceNameColumn.setCellFactory( TextFieldTableCell.forTableColumn() );
+
+        _statusColumn = new TableColumn<>( SurfacesPane.COLUMN_HEADER_STATUS );
+        _statusColumn.setSortable( false );
+        _statusColumn.setCellValueFactory( cellDataFeatures -> cellDataFeatures.getValue()
+                .surfaceBypassedProperty() );
+        _statusColumn.setCellFactory( CheckBoxTableCell.forTableColumn( _statusColumn ) );
+
+        // Borrow the Surface Material choices from a single prototype set of
+        // Surface Selector Controls, and index them in one catalog that every
+        // visible cell shares for type-ahead filtering.
+        final SurfaceSelectorControls surfaceSelectorPrototype =
+                new SurfaceSelectorControls( pClientProperties, true, 0 );
+        _materialNameColumn = makeMaterialNameColumn(
+                surfaceSelectorPrototype._surfaceMaterialSelector.getItems() );
+
+        getColumns().add( _surfaceIdColumn );
+        getColumns().add( _surfaceNameColumn );
+        getColumns().add( _statusColumn );
+        getColumns().add( _materialNameColumn );
+    }
+
+    /**
+     * Detaches the visible cells from the Surface Properties, such as for the
+     * duration of a batch edit, by showing a snapshot of the current values
+     * in place of the live properties. Does nothing if already detached.
+     */
+    public void suspendCellBindings() {
+        if ( !_cellBindingRestorers.isEmpty() ) {
+            return;
+        }
+
+        _cellBindingRestorers.add( freezeCellValues( _statusColumn ) );
+        _cellBindingRestorers.add( freezeCellValues( _materialNameColumn ) );
+        refresh();
+    }
+
+    /**
+     * Re-attaches the visible cells to the Surface Properties, and re-syncs
+     * them to the current values. Does nothing if not detached.
+     */
+    public void resumeCellBindings() {
+        if ( _cellBindingRestorers.isEmpty() ) {
+            return;
+        }
+
+        for ( final Runnable cellBindingRestorer : _cellBindingRestorers ) {
+            cellBindingRestorer.run();
+        }
+        _cellBindingRestorers.clear();
+        refresh();
+    }
+
+    // Swap the column's live cell values for read-only copies, returning the
+    // action that restores the live cell value factory.
+    private static < T > Runnable freezeCellValues(
+            final TableColumn< SurfaceProperties, T > tableColumn ) {
+        final Callback< CellDataFeatures< SurfaceProperties, T >,
+                ObservableValue< T > > liveCellValueFactory = tableColumn.getCellValueFactory();
+        tableColumn.setCellValueFactory( cellDataFeatures -> new ReadOnlyObjectWrapper<>(
+                liveCellValueFactory.call( cellDataFeatures ).getValue() ) );
+        return () -> tableColumn.setCellValueFactory( liveCellValueFactory );
+    }
+
+    private static TableColumn< SurfaceProperties, SurfaceMaterial > makeMaterialNameColumn(
+            final ObservableList< SurfaceMaterial > materialChoices ) {
+        final MaterialCatalog< SurfaceMaterial > materialCatalog = new MaterialCatalog<>(
+                materialChoices,
+                String::valueOf );
+
+        final TableColumn< SurfaceProperties, SurfaceMaterial > materialNameColumn =
+                new TableColumn<>( SurfacesPane.COLUMN_HEADER_MATERIAL_NAME );
+        materialNameColumn.setSortable( false );
+        materialNameColumn.setCellValueFactory( cellDataFeatures -> cellDataFeatures.getValue()
+                .surfaceMaterialProperty() );
+        materialNameColumn.setCellFactory( MaterialTableCell.forTableColumn( materialCatalog ) );
+        return materialNameColumn;
+    }
+
+}
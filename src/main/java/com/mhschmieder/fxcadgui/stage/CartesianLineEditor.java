@@ -32,7 +32,13 @@ package com.mhschmieder.fxcadgui.stage;
 
 import com.mhschmieder.fxgraphics.geometry.CartesianLine;
 import com.mhschmieder.fxgraphics.collections.GraphicalObjectCollection;
+import com.mhschmieder.fxcadcontrols.model.LinearObjectProperties;
 import com.mhschmieder.fxcadgui.layout.CartesianLinePane;
+import com.mhschmieder.fxcadgui.layout.DeferredContentPane;
+import com.mhschmieder.fxcadgui.util.CartesianLineImporter.LineImportReport;
+import com.mhschmieder.fxcadgui.util.LineEditHistory;
+import com.mhschmieder.fxcadgui.util.LineIntersectionIndex;
+import com.mhschmieder.fxcadgui.util.LinearObjectBatchEdit;
 import com.mhschmieder.fxgui.stage.ObjectPropertiesEditor;
 import com.mhschmieder.fxgraphics.layers.Layer;
 import com.mhschmieder.jcommons.branding.ProductBranding;
@@ -40,19 +46,53 @@ import com.mhschmieder.jcommons.util.ClientProperties;
 import com.mhschmieder.jgraphics.input.ScrollingSensitivity;
 import com.mhschmieder.jphysics.measure.AngleUnit;
 import com.mhschmieder.jphysics.measure.DistanceUnit;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.scene.Node;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 public final class CartesianLineEditor extends ObjectPropertiesEditor {
 
     // Declare the main content pane.
     protected CartesianLinePane _cartesianLinePane;
 
+    // Declare the placeholder for the main content pane, when it is built on
+    // a worker thread, so that opening the editor never blocks.
+    protected DeferredContentPane< CartesianLinePane > _deferredContentPane;
+
+    // Flag for whether to build the main content pane on a worker thread.
+    protected final boolean _deferContentConstruction;
+
     // Maintain a reference to the current Cartesian Line object.
     protected CartesianLine                              _cartesianLineReference;
 
     // Maintain a reference to the Cartesian Line collection.
     protected GraphicalObjectCollection< CartesianLine > _cartesianLineCollection;
+
+    // Maintain the selection of Cartesian Lines being batch edited, if any.
+    protected List< CartesianLine > _cartesianLineSelection;
+
+    // Cache the Linear Object Properties at the start of batch editing, so
+    // that only the fields that were edited get applied to the selection.
+    protected LinearObjectProperties _batchStartProperties;
+
+    // Listeners for the single collection-level notification per batch edit.
+    private final List< Consumer< LinearObjectBatchEdit< CartesianLine > > > _batchEditListeners;
+
+    // Undo/redo log of the field-level changes made via this editor.
+    private LineEditHistory< CartesianLine > _editHistory;
+
+    // Grid index of the Cartesian Line collection, for crossing checks.
+    private final LineIntersectionIndex _lineIntersectionIndex;
+
+    // Listeners for Projectors that cross other lines when committed.
+    private final List< Consumer< List< CartesianLine > > > _projectorCrossingListeners;
     
     // Allow for customization of Cartesian Line Type (name identifier, not behavior).
     protected String _cartesianLineType;
@@ -66,7 +106,6 @@ public final class CartesianLineEditor extends ObjectPropertiesEditor {
     // Projection Zones usage context, for constructing tooltips.
     protected String _projectionZonesUsageContext;
 
-    @SuppressWarnings("nls")
     public CartesianLineEditor( final boolean insertMode,
                                 final GraphicalObjectCollection< CartesianLine > cartesianLineCollection,
                                 final ProductBranding productBranding,
@@ -76,6 +115,29 @@ public final class CartesianLineEditor extends ObjectPropertiesEditor {
                                 final String projectorType,
                                 final String projectionZonesType,
                                 final String projectionZonesUsageContext ) {
+        this( insertMode,
+              cartesianLineCollection,
+              productBranding,
+              pClientProperties,
+              pResetApplicable,
+              cartesianLineType,
+              projectorType,
+              projectionZonesType,
+              projectionZonesUsageContext,
+              false );
+    }
+
+    @SuppressWarnings("nls")
+    public CartesianLineEditor( final boolean insertMode,
+                                final GraphicalObjectCollection< CartesianLine > cartesianLineCollection,
+                                final ProductBranding productBranding,
+                                final ClientProperties pClientProperties,
+                                final boolean pResetApplicable,
+                                final String cartesianLineType,
+                                final String projectorType,
+                                final String projectionZonesType,
+                                final String projectionZonesUsageContext,
+                                final boolean deferContentConstruction ) {
         // Always call the superclass constructor first!
         super( insertMode, 
                cartesianLineType, 
@@ -84,7 +146,22 @@ public final class CartesianLineEditor extends ObjectPropertiesEditor {
                pClientProperties,
                pResetApplicable );
 
+        _deferContentConstruction = deferContentConstruction;
         _cartesianLineCollection = cartesianLineCollection;
+        _cartesianLineSelection = null;
+        _batchStartProperties = null;
+        _batchEditListeners = new ArrayList<>();
+        _editHistory = makeEditHistory( LineEditHistory.DEFAULT_MEMORY_CAP_BYTES );
+
+        // Drop the undo/redo history of lines removed from the collection.
+        final List< CartesianLine > cartesianLines = _cartesianLineCollection.getCollection();
+        if ( cartesianLines instanceof ObservableList ) {
+            ( ( ObservableList< CartesianLine > ) cartesianLines )
+                    .addListener( this::cartesianLinesChanged );
+        }
+        _lineIntersectionIndex = new LineIntersectionIndex();
+        _lineIntersectionIndex.setCartesianLines( _cartesianLineCollection.getCollection() );
+        _projectorCrossingListeners = new ArrayList<>();
         
         _cartesianLineType = cartesianLineType;
         _projectorType = projectorType;
@@ -102,11 +179,247 @@ public final class CartesianLineEditor extends ObjectPropertiesEditor {
         }
     }
 
+    /**
+     * Adds a listener for the single collection-level notification that is
+     * sent when a batch edit is applied. The batch edit doubles as the undo
+     * entry for the whole selection.
+     *
+     * @param batchEditListener
+     *            The listener to add
+     */
+    public void addBatchEditListener(
+            final Consumer< LinearObjectBatchEdit< CartesianLine > > batchEditListener ) {
+        _batchEditListeners.add( batchEditListener );
+    }
+
+    /**
+     * Adds a listener for warnings that a Projector crosses other lines, which
+     * is sent whenever a Projector is committed while crossing any other line
+     * in the collection.
+     *
+     * @param projectorCrossingListener
+     *            The listener to add, which is given the crossed lines
+     */
+    public void addProjectorCrossingListener(
+            final Consumer< List< CartesianLine > > projectorCrossingListener ) {
+        _projectorCrossingListeners.add( projectorCrossingListener );
+    }
+
+    // Apply only the edited fields to the whole selection, in a single pass,
+    // recording the batch as one undo entry covering every selected line.
+    private void applyBatchEdit() {
+        _editHistory.beginGroupEdit( _cartesianLineSelection );
+        final LinearObjectBatchEdit< CartesianLine > batchEdit = LinearObjectBatchEdit
+                .applyBatchEdit( _cartesianLineSelection,
+                                 _batchStartProperties,
+                                 _cartesianLinePane.getLinearObjectProperties(),
+                                 _cartesianLinePane::getLayerByName,
+                                 _batchEditListeners );
+        _editHistory.endEdit();
+
+        // A refused Layer Name leaves the selection's Layers alone, so show
+        // the Layer that the first of the selection still has.
+        if ( batchEdit.isLayerRefused() ) {
+            updateLayerNameSelection();
+        }
+
+        // Bring the cached Projection Zones in line with the whole selection.
+        _cartesianLinePane.updateProjectionZones();
+
+        // Further edits in this session are relative to what was just applied.
+        cacheBatchStartProperties();
+    }
+
+    private void cacheBatchStartProperties() {
+        withCartesianLinePane( cartesianLinePane -> _batchStartProperties = LinearObjectBatchEdit
+                .copyLinearObjectProperties( cartesianLinePane.getLinearObjectProperties() ) );
+    }
+
+    /**
+     * Returns {@code true} if there is an edit that can be redone.
+     *
+     * @return {@code true} if there is an edit that can be redone
+     */
+    public boolean canRedo() {
+        return _editHistory.canRedo();
+    }
+
+    /**
+     * Returns {@code true} if there is an edit that can be undone.
+     *
+     * @return {@code true} if there is an edit that can be undone
+     */
+    public boolean canUndo() {
+        return _editHistory.canUndo();
+    }
+
+    /**
+     * Drops all undo/redo history, such as when the collection is replaced.
+     */
+    public void clearEditHistory() {
+        _editHistory.clear();
+    }
+
+    // Drop the undo/redo history of lines removed from the collection, so
+    // that it doesn't keep them alive, unless they were put straight back.
+    private void cartesianLinesChanged(
+            final ListChangeListener.Change< ? extends CartesianLine > change ) {
+        while ( change.next() ) {
+            if ( !change.wasRemoved() ) {
+                continue;
+            }
+            final List< ? extends CartesianLine > addedCartesianLines = change.getAddedSubList();
+            for ( final CartesianLine cartesianLine : change.getRemoved() ) {
+                if ( addedCartesianLines.stream()
+                        .noneMatch( addedCartesianLine -> addedCartesianLine == cartesianLine ) ) {
+                    _editHistory.removeTarget( cartesianLine );
+                }
+            }
+        }
+    }
+
+    private LineEditHistory< CartesianLine > makeEditHistory( final long memoryCapBytes ) {
+        final LineEditHistory< CartesianLine > editHistory = new LineEditHistory<>(
+                memoryCapBytes,
+                this::restoreCartesianLine );
+
+        // Register the editable fields; geometry is set as a whole, so each
+        // coordinate is restored by re-setting the line with the others.
+        editHistory.addNumericField( CartesianLine::getX1,
+                                     ( line, value ) -> setLineCoordinate( line, 0, value ) );
+        editHistory.addNumericField( CartesianLine::getY1,
+                                     ( line, value ) -> setLineCoordinate( line, 1, value ) );
+        editHistory.addNumericField( CartesianLine::getX2,
+                                     ( line, value ) -> setLineCoordinate( line, 2, value ) );
+        editHistory.addNumericField( CartesianLine::getY2,
+                                     ( line, value ) -> setLineCoordinate( line, 3, value ) );
+        editHistory.addReferenceField( CartesianLine::getLabel, this::setUniqueLabel );
+        editHistory.addReferenceField( CartesianLine::getLayer, CartesianLine::setLayer );
+        editHistory.addNumericField( line -> line.isUseAsProjector() ? 1.0d : 0.0d,
+                                     ( line, useAsProjector ) -> line
+                                             .setUseAsProjector( useAsProjector != 0.0d ) );
+        editHistory.addNumericField( CartesianLine::getNumberOfProjectionZones,
+                                     ( line, numberOfProjectionZones ) -> line
+                                             .setNumberOfProjectionZones(
+                                                     ( int ) numberOfProjectionZones ) );
+
+        return editHistory;
+    }
+
+    /**
+     * Re-applies the most recently undone edit.
+     *
+     * @return The Cartesian Line that was changed, or the first of the selection
+     *         for a batch edit, or {@code null} if there was nothing to redo
+     */
+    public CartesianLine redo() {
+        return _editHistory.redo();
+    }
+
+    // Keep the indices and the view in sync after an undo or redo.
+    private void restoreCartesianLine( final CartesianLine cartesianLine ) {
+        withCartesianLinePane( cartesianLinePane -> {
+            cartesianLinePane.relabelCartesianLine( cartesianLine );
+            cartesianLinePane.reindexCartesianLine( cartesianLine );
+            cartesianLinePane.updateProjectionZones( cartesianLine );
+        } );
+        _lineIntersectionIndex.updateCartesianLine( cartesianLine );
+        if ( cartesianLine == _cartesianLineReference ) {
+            updateView();
+        }
+    }
+
+    // Merge all of the edits made during a slider drag into one undo entry.
+    private void sliderValueChangingChanged( final ObservableValue< ? extends Boolean > observable,
+                                             final Boolean wasValueChanging,
+                                             final Boolean isValueChanging ) {
+        _editHistory.setMerging( isValueChanging );
+    }
+
+    // Re-set the whole line with one of its coordinates replaced.
+    private static void setLineCoordinate( final CartesianLine cartesianLine,
+                                           final int coordinateIndex,
+                                           final double coordinate ) {
+        final double[] coordinates = new double[] {
+                cartesianLine.getX1(),
+                cartesianLine.getY1(),
+                cartesianLine.getX2(),
+                cartesianLine.getY2() };
+        coordinates[ coordinateIndex ] = coordinate;
+        cartesianLine.setLine( coordinates[ 0 ],
+                               coordinates[ 1 ],
+                               coordinates[ 2 ],
+                               coordinates[ 3 ] );
+    }
+
+    // Restore labels via the Label Index, as the restored label may have been
+    // taken by another Cartesian Line since.
+    private void setUniqueLabel( final CartesianLine cartesianLine, final String label ) {
+        cartesianLine.setLabel( ( _cartesianLinePane != null )
+            ? _cartesianLinePane.getUniqueCartesianLineLabel( label, cartesianLine )
+            : label );
+    }
+
+    /**
+     * Sets the memory budget for the undo/redo history, which drops the
+     * current history.
+     *
+     * @param memoryCapBytes
+     *            The approximate memory budget, in bytes
+     */
+    public void setEditHistoryMemoryCap( final long memoryCapBytes ) {
+        _editHistory = makeEditHistory( memoryCapBytes );
+    }
+
+    /**
+     * Reverts the most recently applied edit.
+     *
+     * @return The Cartesian Line that was changed, or the first of the selection
+     *         for a batch edit, or {@code null} if there was nothing to undo
+     */
+    public CartesianLine undo() {
+        return _editHistory.undo();
+    }
+
+    /**
+     * Opens the editor for a selection of Cartesian Lines, showing the first one's
+     * values, so that edits to the Layer and Projector fields can be applied
+     * to the whole selection at once.
+     *
+     * @param cartesianLineSelection
+     *            The Cartesian Lines to batch edit
+     */
+    public void editCartesianLines( final List< CartesianLine > cartesianLineSelection ) {
+        if ( cartesianLineSelection.isEmpty() ) {
+            return;
+        }
+
+        editCartesianLine( cartesianLineSelection.get( 0 ) );
+        if ( cartesianLineSelection.size() == 1 ) {
+            return;
+        }
+
+        // Make sure the view matches the first of the selection, even if it
+        // was already the current Cartesian Line Reference.
+        updateView();
+
+        _cartesianLineSelection = new ArrayList<>( cartesianLineSelection );
+        cacheBatchStartProperties();
+
+        // Only the Layer and Projector fields apply to the whole selection.
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane.setBatchEditMode( true ) );
+    }
+
     // Open the textField initialized to a mouse-selected Cartesian Line.
     public void editCartesianLine( final CartesianLine cartesianLine ) {
         // Make sure an active editing session is always enabled when visible.
         setDisable( false );
 
+        // Editing a single Cartesian Line ends any batch editing session.
+        _cartesianLineSelection = null;
+        _batchStartProperties = null;
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane.setBatchEditMode( false ) );
+
         // Make sure the Layer Names are up-to-date, and that we avoid any side
         // effects against the selected Layer for the new Cartesian Line Reference.
         final Layer currentLayer = cartesianLine.getLayer();
@@ -118,6 +431,9 @@ public final class CartesianLineEditor extends ObjectPropertiesEditor {
             return;
         }
 
+        // Edits to a different Cartesian Line never merge with earlier ones.
+        _editHistory.breakMerge();
+
         // Replace the current Cartesian Line reference with the one selected
         // for the Edit action when opening this window.
         setCartesianLineReference( cartesianLine );
@@ -126,13 +442,74 @@ public final class CartesianLineEditor extends ObjectPropertiesEditor {
         updateView();
     }
 
+    /**
+     * Ends the editing session, such as when the editor is hidden and then
+     * recycled for another caller, by ending any batch editing, dropping the
+     * undo/redo history, and replacing the edited Cartesian Line with a default one,
+     * so that nothing from the previous session is kept alive or carried over.
+     */
+    public void endEditingSession() {
+        _cartesianLineSelection = null;
+        _batchStartProperties = null;
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane.setBatchEditMode( false ) );
+
+        clearEditHistory();
+        setCartesianLineReference( CartesianLine.getDefaultCartesianLine() );
+        updateView();
+    }
+
     public CartesianLine getCartesianLineReference() {
         return _cartesianLineReference;
     }
 
+    /**
+     * Returns the other lines in the collection that the current Cartesian
+     * Line crosses, whether or not it is in the collection yet.
+     *
+     * @return The lines that the current Cartesian Line crosses
+     */
+    public List< CartesianLine > getCrossingCartesianLines() {
+        return _lineIntersectionIndex.findCrossingCartesianLines( _cartesianLineReference );
+    }
+
+    /**
+     * Returns the intersection index of the Cartesian Line collection, such as
+     * for finding all crossings in the collection at once.
+     *
+     * @return The intersection index of the Cartesian Line collection
+     */
+    public LineIntersectionIndex getLineIntersectionIndex() {
+        return _lineIntersectionIndex;
+    }
+
+    /**
+     * Imports Cartesian Lines from delimited text, such as a CSV or TSV survey
+     * export, into the collection being edited.
+     *
+     * @param reader
+     *            The source of the delimited text, which is not closed
+     * @return The report of the import, or {@code null} if the editor content
+     *         is still being built
+     * @throws IOException
+     *             If the text could not be read
+     */
+    public LineImportReport importCartesianLines( final Reader reader ) throws IOException {
+        // Forward this method to the Cartesian Line Pane.
+        return ( _cartesianLinePane != null )
+            ? _cartesianLinePane.importCartesianLines( reader )
+            : null;
+    }
+
+    public boolean isBatchEditMode() {
+        return _cartesianLineSelection != null;
+    }
+
     public String getNewCartesianLineLabelDefault() {
         // Forward this method to the Cartesian Line Pane.
-        return _cartesianLinePane.getNewCartesianLineLabelDefault();
+        // The Label Default is the Line Type until the content is ready.
+        return ( _cartesianLinePane != null )
+            ? _cartesianLinePane.getNewCartesianLineLabelDefault()
+            : _cartesianLineType;
     }
 
     @SuppressWarnings("nls")
@@ -149,13 +526,43 @@ public final class CartesianLineEditor extends ObjectPropertiesEditor {
 
     @Override
     protected Node loadContent() {
+        // Optionally build the custom Content Node on a worker thread, showing
+        // a placeholder until it is ready to attach.
+        if ( _deferContentConstruction ) {
+            _deferredContentPane = new DeferredContentPane<>(
+                    () -> new CartesianLinePane( clientProperties,
+                                                 _cartesianLineCollection,
+                                                 _cartesianLineType,
+                                                 _projectorType,
+                                                 _projectionZonesType,
+                                                 _projectionZonesUsageContext,
+                                                 _lineIntersectionIndex,
+                                                 false ) );
+
+            // Only the node tree is built off-thread; hook the pane up to the
+            // live collection once it is back on the JavaFX Application Thread.
+            _deferredContentPane.whenContentReady( cartesianLinePane -> {
+                cartesianLinePane.attachCartesianLineCollection();
+                cartesianLinePane.addValueChangingListener( this::sliderValueChangingChanged );
+                cartesianLinePane.setEditedCartesianLine( _cartesianLineReference );
+                _cartesianLinePane = cartesianLinePane;
+            } );
+            return _deferredContentPane;
+        }
+
         // Instantiate and return the custom Content Node.
+        // NOTE: The pane snaps to crossings found via the shared index, so
+        // that the crossings of the collection are only binned once.
         _cartesianLinePane = new CartesianLinePane( clientProperties,
                                                     _cartesianLineCollection,
                                                     _cartesianLineType,
                                                     _projectorType,
                                                     _projectionZonesType,
-                                                    _projectionZonesUsageContext );
+                                                    _projectionZonesUsageContext,
+                                                    _lineIntersectionIndex,
+                                                    true );
+        _cartesianLinePane.addValueChangingListener( this::sliderValueChangingChanged );
+        _cartesianLinePane.setEditedCartesianLine( _cartesianLineReference );
         return _cartesianLinePane;
     }
 
@@ -181,8 +588,35 @@ public final class CartesianLineEditor extends ObjectPropertiesEditor {
         updateView();
     }
 
+    /**
+     * Removes a listener for the batch edit notification.
+     *
+     * @param batchEditListener
+     *            The listener to remove
+     */
+    public void removeBatchEditListener(
+            final Consumer< LinearObjectBatchEdit< CartesianLine > > batchEditListener ) {
+        _batchEditListeners.remove( batchEditListener );
+    }
+
+    /**
+     * Removes a listener for Projector crossing warnings.
+     *
+     * @param projectorCrossingListener
+     *            The listener to remove
+     */
+    public void removeProjectorCrossingListener(
+            final Consumer< List< CartesianLine > > projectorCrossingListener ) {
+        _projectorCrossingListeners.remove( projectorCrossingListener );
+    }
+
     public void setCartesianLineReference( final CartesianLine cartesianLine ) {
         _cartesianLineReference = cartesianLine;
+
+        // Never snap the Cartesian Line's end points to its own features, and
+        // preview its Projection Zones from the engine's cache.
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane
+                .setEditedCartesianLine( cartesianLine ) );
     }
 
     @Override
@@ -192,17 +626,32 @@ public final class CartesianLineEditor extends ObjectPropertiesEditor {
         super.setDisable( disable );
 
         // Forward this method to the Cartesian Line Pane.
-        _cartesianLinePane.setDisable( disable );
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane.setDisable( disable ) );
     }
 
     public void setGesturesEnabled( final boolean gesturesEnabled ) {
         // Forward this method to the Cartesian Line Pane.
-        _cartesianLinePane.setGesturesEnabled( gesturesEnabled );
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane
+                .setGesturesEnabled( gesturesEnabled ) );
     }
 
     public void setLayerCollection( final ObservableList< Layer > layerCollection ) {
         // Forward this method to the Cartesian Line Pane.
-        _cartesianLinePane.setLayerCollection( layerCollection );
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane
+                .setLayerCollection( layerCollection ) );
+    }
+
+    /**
+     * Set the distance within which end points snap to the endpoints,
+     * midpoints and crossings of other Cartesian Lines.
+     *
+     * @param snapDistance
+     *            The snap distance, or zero to turn snapping off
+     */
+    public void setSnapDistance( final double snapDistance ) {
+        // Forward this method to the Cartesian Line Pane.
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane
+                .setSnapDistance( snapDistance ) );
     }
 
     /**
@@ -213,34 +662,66 @@ public final class CartesianLineEditor extends ObjectPropertiesEditor {
      */
     public void setScrollingSensitivity( final ScrollingSensitivity scrollingSensitivity ) {
         // Forward this method to the Cartesian Line Pane.
-        _cartesianLinePane.setScrollingSensitivity( scrollingSensitivity );
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane
+                .setScrollingSensitivity( scrollingSensitivity ) );
     }
 
     @Override
     protected void updateObjectPropertiesView() {
         // Forward this method to the Cartesian Line Pane.
-        _cartesianLinePane.updateCartesianLineView( _cartesianLineReference );
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane
+                .updateCartesianLineView( _cartesianLineReference ) );
     }
 
     @Override
     protected void updateObjectPropertiesModel() {
-        // Forward this method to the Cartesian Line Pane.
+        // Nothing can have been edited before the content is ready.
+        if ( _cartesianLinePane == null ) {
+            return;
+        }
+
+        // In batch mode, apply the edited fields to the whole selection.
+        if ( isBatchEditMode() ) {
+            applyBatchEdit();
+            return;
+        }
+
+        // Forward this method to the Cartesian Line Pane, recording the changes
+        // for undo.
+        _editHistory.beginEdit( _cartesianLineReference );
         _cartesianLinePane.updateCartesianLineModel( _cartesianLineReference );
+        _editHistory.endEdit();
+
+        // Refresh the cached Projection Zones of the edited line, re-bin it,
+        // and warn if it is a Projector that crosses any other line.
+        _cartesianLinePane.updateProjectionZones( _cartesianLineReference );
+        _lineIntersectionIndex.updateCartesianLine( _cartesianLineReference );
+        if ( _cartesianLineReference.isUseAsProjector() ) {
+            final List< CartesianLine > crossingCartesianLines = getCrossingCartesianLines();
+            if ( !crossingCartesianLines.isEmpty() ) {
+                for ( final Consumer< List< CartesianLine > > projectorCrossingListener
+                        : new ArrayList<>( _projectorCrossingListeners ) ) {
+                    projectorCrossingListener.accept( crossingCartesianLines );
+                }
+            }
+        }
     }
 
     public void updateLayerNameSelection() {
         // Forward this method to the Cartesian Line Pane.
-        _cartesianLinePane.updateLayerNameSelection( _cartesianLineReference );
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane
+                .updateLayerNameSelection( _cartesianLineReference ) );
     }
 
     public void toggleGestures() {
         // Forward this method to the Cartesian Line Pane.
-        _cartesianLinePane.toggleGestures();
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane.toggleGestures() );
     }
 
     public void updateAngleUnit( final AngleUnit angleUnit ) {
         // Forward this method to the Cartesian Line Pane.
-        _cartesianLinePane.updateAngleUnit( angleUnit );
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane
+                .updateAngleUnit( angleUnit ) );
 
         // Make sure all displayed fields update to the new Angle Unit.
         // NOTE: We skip this if running as a modal dialog, as this change can
@@ -253,7 +734,8 @@ public final class CartesianLineEditor extends ObjectPropertiesEditor {
 
     public void updateDistanceUnit( final DistanceUnit distanceUnit ) {
         // Forward this method to the Cartesian Line Pane.
-        _cartesianLinePane.updateDistanceUnit( distanceUnit );
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane
+                .updateDistanceUnit( distanceUnit ) );
 
         // Make sure all displayed fields update to the new Distance Unit.
         // NOTE: We skip this if running as a modal dialog, as this change can
@@ -267,26 +749,41 @@ public final class CartesianLineEditor extends ObjectPropertiesEditor {
     public void updateLayerNames( final boolean preserveSelectedLayerByIndex,
                                   final boolean preserveSelectedLayerByName ) {
         // Forward this method to the Cartesian Line Pane.
-        _cartesianLinePane.updateLayerNames( preserveSelectedLayerByIndex,
-                                             preserveSelectedLayerByName );
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane
+                .updateLayerNames( preserveSelectedLayerByIndex,
+                                   preserveSelectedLayerByName ) );
     }
 
     public void updateLayerNames( final Layer currentLayer ) {
         // Forward this method to the Cartesian Line Pane.
-        _cartesianLinePane.updateLayerNames( currentLayer );
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane
+                .updateLayerNames( currentLayer ) );
     }
 
     // TODO: Verify whether we need to synchronize both positions.
     @Override
     public void updatePositioning() {
         // Forward this method to the Cartesian Line Pane.
-        _cartesianLinePane.updatePositioning( _cartesianLineReference );
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane
+                .updatePositioning( _cartesianLineReference ) );
     }
 
     @Override
     public void updatePreview() {
         // Forward this method to the Cartesian Line Pane.
-        _cartesianLinePane.updatePreview( _cartesianLineReference );
+        withCartesianLinePane( cartesianLinePane -> cartesianLinePane
+                .updatePreview( _cartesianLineReference ) );
+    }
+
+    // Run an action against the main content pane, deferring it until the
+    // content is ready if it is still being built on a worker thread.
+    private void withCartesianLinePane( final Consumer< CartesianLinePane > action ) {
+        if ( _cartesianLinePane != null ) {
+            action.accept( _cartesianLinePane );
+        }
+        else if ( _deferredContentPane != null ) {
+            _deferredContentPane.whenContentReady( action );
+        }
     }
 
 }
@@ -33,6 +33,7 @@ package com.mhschmieder.fxcadgui.stage;
 import com.mhschmieder.fxcadcontrols.model.DrawingLimitsProperties;
 import com.mhschmieder.fxcadcontrols.model.Extents2DProperties;
 import com.mhschmieder.fxcadgui.layout.DrawingLimitsPane;
+import com.mhschmieder.fxcadgui.util.AutoSyncBoundaryTracker;
 import com.mhschmieder.fxcontrols.action.SimulationActions;
 import com.mhschmieder.fxcontrols.control.PredictToolBar;
 import com.mhschmieder.fxgui.stage.XStage;
@@ -124,6 +125,18 @@ public final class DrawingLimitsStage extends XStage {
         return toolBar;
     }
 
+    /**
+     * Returns the tracker that maintains the Auto-Sync Boundary incrementally,
+     * for scene objects to register their extents with as they are added,
+     * moved and removed.
+     *
+     * @return The Auto-Sync Boundary tracker
+     */
+    public AutoSyncBoundaryTracker< Object > getAutoSyncBoundaryTracker() {
+        // Forward this method to the Drawing Limits Pane.
+        return drawingLimitsPane.getAutoSyncBoundaryTracker();
+    }
+
     public void setAutoSyncBoundary( final Extents2DProperties pAutoSyncBoundary ) {
         // Forward this method to the Drawing Limits Pane.
         drawingLimitsPane.setAutoSyncBoundary( pAutoSyncBoundary );
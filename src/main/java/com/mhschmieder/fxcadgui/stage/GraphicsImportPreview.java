@@ -32,7 +32,7 @@ package com.mhschmieder.fxcadgui.stage;
 
 import com.mhschmieder.fxcadcontrols.model.DrawingLimitsProperties;
 import com.mhschmieder.fxcadgui.layout.GraphicsImportPreviewPane;
-import com.mhschmieder.fxcadgui.util.CadHelpUtilities;
+import com.mhschmieder.fxcadgui.util.GraphicsImportHelpService;
 import com.mhschmieder.fxdxfimport.DxfShapeGroup;
 import com.mhschmieder.fxdxfimport.GraphicsImportOptions;
 import com.mhschmieder.fxgui.stage.NoticeBox;
@@ -225,8 +225,10 @@ public final class GraphicsImportPreview extends XStage {
     protected void loadPopups() {
         super.loadPopups();
 
-        // Instantiate the Graphics Import Help.
-        _graphicsImportHelp = CadHelpUtilities.getGraphicsImportHelp( clientProperties.systemType );
+        // Get this preview's own Graphics Import Help, which is usually the
+        // spare that was warmed up during idle time after a previous request.
+        _graphicsImportHelp = GraphicsImportHelpService
+                .getGraphicsImportHelp( clientProperties.systemType );
         _windowManager.addPopup( _graphicsImportHelp );
     }
 
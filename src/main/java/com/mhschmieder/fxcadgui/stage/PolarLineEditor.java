@@ -32,7 +32,11 @@ package com.mhschmieder.fxcadgui.stage;
 
 import com.mhschmieder.fxgraphics.collections.GraphicalObjectCollection;
 import com.mhschmieder.fxgraphics.geometry.PolarLine;
+import com.mhschmieder.fxcadcontrols.model.LinearObjectProperties;
 import com.mhschmieder.fxcadgui.layout.PolarLinePane;
+import com.mhschmieder.fxcadgui.layout.DeferredContentPane;
+import com.mhschmieder.fxcadgui.util.LineEditHistory;
+import com.mhschmieder.fxcadgui.util.LinearObjectBatchEdit;
 import com.mhschmieder.fxgui.stage.ObjectPropertiesEditor;
 import com.mhschmieder.fxgraphics.layers.Layer;
 import com.mhschmieder.jcommons.branding.ProductBranding;
@@ -40,20 +44,45 @@ import com.mhschmieder.jcommons.util.ClientProperties;
 import com.mhschmieder.jgraphics.input.ScrollingSensitivity;
 import com.mhschmieder.jphysics.measure.AngleUnit;
 import com.mhschmieder.jphysics.measure.DistanceUnit;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.scene.Node;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public final class PolarLineEditor extends ObjectPropertiesEditor {
 
     // Declare the main content pane.
     protected PolarLinePane _polarLinePane;
 
+    // Declare the placeholder for the main content pane, when it is built on
+    // a worker thread, so that opening the editor never blocks.
+    protected DeferredContentPane< PolarLinePane > _deferredContentPane;
+
+    // Flag for whether to build the main content pane on a worker thread.
+    protected final boolean _deferContentConstruction;
+
     // Maintain a reference to the current Polar Line object.
     protected PolarLine                              _polarLineReference;
 
     // Maintain a reference to the Polar Line collection.
     protected GraphicalObjectCollection< PolarLine > _polarLineCollection;
+
+    // Maintain the selection of Polar Lines being batch edited, if any.
+    protected List< PolarLine > _polarLineSelection;
+
+    // Cache the Linear Object Properties at the start of batch editing, so
+    // that only the fields that were edited get applied to the selection.
+    protected LinearObjectProperties _batchStartProperties;
+
+    // Listeners for the single collection-level notification per batch edit.
+    private final List< Consumer< LinearObjectBatchEdit< PolarLine > > > _batchEditListeners;
+
+    // Undo/redo log of the field-level changes made via this editor.
+    private LineEditHistory< PolarLine > _editHistory;
     
     // Allow for customization of Polar Line Type (name identifier, not behavior).
     protected String _polarLineType;
@@ -67,7 +96,6 @@ public final class PolarLineEditor extends ObjectPropertiesEditor {
     // Projection Zones usage context, for constructing tooltips.
     protected String _projectionZonesUsageContext;
 
-    @SuppressWarnings("nls")
     public PolarLineEditor( final boolean insertMode,
                             final GraphicalObjectCollection< PolarLine > polarLineCollection,
                             final ProductBranding productBranding,
@@ -77,6 +105,29 @@ public final class PolarLineEditor extends ObjectPropertiesEditor {
                             final String projectorType,
                             final String projectionZonesType,
                             final String projectionZonesUsageContext ) {
+        this( insertMode,
+              polarLineCollection,
+              productBranding,
+              pClientProperties,
+              pResetApplicable,
+              polarLineType,
+              projectorType,
+              projectionZonesType,
+              projectionZonesUsageContext,
+              false );
+    }
+
+    @SuppressWarnings("nls")
+    public PolarLineEditor( final boolean insertMode,
+                            final GraphicalObjectCollection< PolarLine > polarLineCollection,
+                            final ProductBranding productBranding,
+                            final ClientProperties pClientProperties,
+                            final boolean pResetApplicable,
+                            final String polarLineType,
+                            final String projectorType,
+                            final String projectionZonesType,
+                            final String projectionZonesUsageContext,
+                            final boolean deferContentConstruction ) {
         // Always call the superclass constructor first!
         super( insertMode, 
                polarLineType, 
@@ -85,7 +136,19 @@ public final class PolarLineEditor extends ObjectPropertiesEditor {
                pClientProperties,
                pResetApplicable );
         
+        _deferContentConstruction = deferContentConstruction;
         _polarLineCollection = polarLineCollection;
+        _polarLineSelection = null;
+        _batchStartProperties = null;
+        _batchEditListeners = new ArrayList<>();
+        _editHistory = makeEditHistory( LineEditHistory.DEFAULT_MEMORY_CAP_BYTES );
+
+        // Drop the undo/redo history of lines removed from the collection.
+        final List< PolarLine > polarLines = _polarLineCollection.getCollection();
+        if ( polarLines instanceof ObservableList ) {
+            ( ( ObservableList< PolarLine > ) polarLines )
+                    .addListener( this::polarLinesChanged );
+        }
         
         _polarLineType = polarLineType;
         _projectorType = projectorType;
@@ -103,11 +166,240 @@ public final class PolarLineEditor extends ObjectPropertiesEditor {
         }
     }
 
+    /**
+     * Adds a listener for the single collection-level notification that is
+     * sent when a batch edit is applied. The batch edit doubles as the undo
+     * entry for the whole selection.
+     *
+     * @param batchEditListener
+     *            The listener to add
+     */
+    public void addBatchEditListener(
+            final Consumer< LinearObjectBatchEdit< PolarLine > > batchEditListener ) {
+        _batchEditListeners.add( batchEditListener );
+    }
+
+    // Apply only the edited fields to the whole selection, in a single pass,
+    // recording the batch as one undo entry covering every selected line.
+    private void applyBatchEdit() {
+        _editHistory.beginGroupEdit( _polarLineSelection );
+        final LinearObjectBatchEdit< PolarLine > batchEdit = LinearObjectBatchEdit
+                .applyBatchEdit( _polarLineSelection,
+                                 _batchStartProperties,
+                                 _polarLinePane.getLinearObjectProperties(),
+                                 _polarLinePane::getLayerByName,
+                                 _batchEditListeners );
+        _editHistory.endEdit();
+
+        // A refused Layer Name leaves the selection's Layers alone, so show
+        // the Layer that the first of the selection still has.
+        if ( batchEdit.isLayerRefused() ) {
+            updateLayerNameSelection();
+        }
+
+        // Bring the cached Projection Zones in line with the whole selection.
+        _polarLinePane.updateProjectionZones();
+
+        // Further edits in this session are relative to what was just applied.
+        cacheBatchStartProperties();
+    }
+
+    private void cacheBatchStartProperties() {
+        withPolarLinePane( polarLinePane -> _batchStartProperties = LinearObjectBatchEdit
+                .copyLinearObjectProperties( polarLinePane.getLinearObjectProperties() ) );
+    }
+
+    /**
+     * Returns {@code true} if there is an edit that can be redone.
+     *
+     * @return {@code true} if there is an edit that can be redone
+     */
+    public boolean canRedo() {
+        return _editHistory.canRedo();
+    }
+
+    /**
+     * Returns {@code true} if there is an edit that can be undone.
+     *
+     * @return {@code true} if there is an edit that can be undone
+     */
+    public boolean canUndo() {
+        return _editHistory.canUndo();
+    }
+
+    /**
+     * Drops all undo/redo history, such as when the collection is replaced.
+     */
+    public void clearEditHistory() {
+        _editHistory.clear();
+    }
+
+    // Drop the undo/redo history of lines removed from the collection, so
+    // that it doesn't keep them alive, unless they were put straight back.
+    private void polarLinesChanged(
+            final ListChangeListener.Change< ? extends PolarLine > change ) {
+        while ( change.next() ) {
+            if ( !change.wasRemoved() ) {
+                continue;
+            }
+            final List< ? extends PolarLine > addedPolarLines = change.getAddedSubList();
+            for ( final PolarLine polarLine : change.getRemoved() ) {
+                if ( addedPolarLines.stream()
+                        .noneMatch( addedPolarLine -> addedPolarLine == polarLine ) ) {
+                    _editHistory.removeTarget( polarLine );
+                }
+            }
+        }
+    }
+
+    private LineEditHistory< PolarLine > makeEditHistory( final long memoryCapBytes ) {
+        final LineEditHistory< PolarLine > editHistory = new LineEditHistory<>(
+                memoryCapBytes,
+                this::restorePolarLine );
+
+        // Register the editable fields; geometry is set as a whole, so each
+        // coordinate is restored by re-setting the line with the others.
+        editHistory.addNumericField( PolarLine::getInclinometerPositionX,
+                                     ( line, value ) -> setLineCoordinate( line, 0, value ) );
+        editHistory.addNumericField( PolarLine::getInclinometerPositioneY,
+                                     ( line, value ) -> setLineCoordinate( line, 1, value ) );
+        editHistory.addNumericField( PolarLine::getStartAngleDegrees,
+                                     ( line, value ) -> setLineCoordinate( line, 2, value ) );
+        editHistory.addNumericField( PolarLine::getStartDistance,
+                                     ( line, value ) -> setLineCoordinate( line, 3, value ) );
+        editHistory.addNumericField( PolarLine::getEndAngleDegrees,
+                                     ( line, value ) -> setLineCoordinate( line, 4, value ) );
+        editHistory.addNumericField( PolarLine::getEndDistance,
+                                     ( line, value ) -> setLineCoordinate( line, 5, value ) );
+        editHistory.addReferenceField( PolarLine::getLabel, this::setUniqueLabel );
+        editHistory.addReferenceField( PolarLine::getLayer, PolarLine::setLayer );
+        editHistory.addNumericField( line -> line.isUseAsProjector() ? 1.0d : 0.0d,
+                                     ( line, useAsProjector ) -> line
+                                             .setUseAsProjector( useAsProjector != 0.0d ) );
+        editHistory.addNumericField( PolarLine::getNumberOfProjectionZones,
+                                     ( line, numberOfProjectionZones ) -> line
+                                             .setNumberOfProjectionZones(
+                                                     ( int ) numberOfProjectionZones ) );
+
+        return editHistory;
+    }
+
+    /**
+     * Re-applies the most recently undone edit.
+     *
+     * @return The Polar Line that was changed, or the first of the selection
+     *         for a batch edit, or {@code null} if there was nothing to redo
+     */
+    public PolarLine redo() {
+        return _editHistory.redo();
+    }
+
+    // Keep the Label Index and the view in sync after an undo or redo.
+    private void restorePolarLine( final PolarLine polarLine ) {
+        withPolarLinePane( polarLinePane -> {
+            polarLinePane.relabelPolarLine( polarLine );
+            polarLinePane.updateProjectionZones( polarLine );
+        } );
+        if ( polarLine == _polarLineReference ) {
+            updateView();
+        }
+    }
+
+    // Merge all of the edits made during a slider drag into one undo entry.
+    private void sliderValueChangingChanged( final ObservableValue< ? extends Boolean > observable,
+                                             final Boolean wasValueChanging,
+                                             final Boolean isValueChanging ) {
+        _editHistory.setMerging( isValueChanging );
+    }
+
+    // Re-set the whole line with one of its coordinates replaced.
+    private static void setLineCoordinate( final PolarLine polarLine,
+                                           final int coordinateIndex,
+                                           final double coordinate ) {
+        final double[] coordinates = new double[] {
+                polarLine.getInclinometerPositionX(),
+                polarLine.getInclinometerPositioneY(),
+                polarLine.getStartAngleDegrees(),
+                polarLine.getStartDistance(),
+                polarLine.getEndAngleDegrees(),
+                polarLine.getEndDistance() };
+        coordinates[ coordinateIndex ] = coordinate;
+        polarLine.setLine( coordinates[ 0 ],
+                           coordinates[ 1 ],
+                           coordinates[ 2 ],
+                           coordinates[ 3 ],
+                           coordinates[ 4 ],
+                           coordinates[ 5 ] );
+    }
+
+    // Restore labels via the Label Index, as the restored label may have been
+    // taken by another Polar Line since.
+    private void setUniqueLabel( final PolarLine polarLine, final String label ) {
+        polarLine.setLabel( ( _polarLinePane != null )
+            ? _polarLinePane.getUniquePolarLineLabel( label, polarLine )
+            : label );
+    }
+
+    /**
+     * Sets the memory budget for the undo/redo history, which drops the
+     * current history.
+     *
+     * @param memoryCapBytes
+     *            The approximate memory budget, in bytes
+     */
+    public void setEditHistoryMemoryCap( final long memoryCapBytes ) {
+        _editHistory = makeEditHistory( memoryCapBytes );
+    }
+
+    /**
+     * Reverts the most recently applied edit.
+     *
+     * @return The Polar Line that was changed, or the first of the selection
+     *         for a batch edit, or {@code null} if there was nothing to undo
+     */
+    public PolarLine undo() {
+        return _editHistory.undo();
+    }
+
+    /**
+     * Opens the editor for a selection of Polar Lines, showing the first one's
+     * values, so that edits to the Layer and Projector fields can be applied
+     * to the whole selection at once.
+     *
+     * @param polarLineSelection
+     *            The Polar Lines to batch edit
+     */
+    public void editPolarLines( final List< PolarLine > polarLineSelection ) {
+        if ( polarLineSelection.isEmpty() ) {
+            return;
+        }
+
+        editPolarLine( polarLineSelection.get( 0 ) );
+        if ( polarLineSelection.size() == 1 ) {
+            return;
+        }
+
+        // Make sure the view matches the first of the selection, even if it
+        // was already the current Polar Line Reference.
+        updateView();
+
+        _polarLineSelection = new ArrayList<>( polarLineSelection );
+        cacheBatchStartProperties();
+
+        // Only the Layer and Projector fields apply to the whole selection.
+        withPolarLinePane( polarLinePane -> polarLinePane.setBatchEditMode( true ) );
+    }
+
     // Open the textField initialized to a mouse-selected Polar Line.
     public void editPolarLine( final PolarLine polarLine ) {
         // Make sure an active editing session is always enabled when visible.
         setDisable( false );
 
+        // Editing a single Polar Line ends any batch editing session.
+        _polarLineSelection = null;
+        _batchStartProperties = null;
+        withPolarLinePane( polarLinePane -> polarLinePane.setBatchEditMode( false ) );
+
         // Make sure the Layer Names are up-to-date, and that we avoid any side
         // effects against the selected Layer for the new Polar Line Reference.
         final Layer currentLayer = polarLine.getLayer();
@@ -119,6 +411,9 @@ public final class PolarLineEditor extends ObjectPropertiesEditor {
             return;
         }
 
+        // Edits to a different Polar Line never merge with earlier ones.
+        _editHistory.breakMerge();
+
         // Replace the current Polar Line reference with the one selected
         // for the Edit action when opening this window.
         setPolarLineReference( polarLine );
@@ -127,13 +422,36 @@ public final class PolarLineEditor extends ObjectPropertiesEditor {
         updateView();
     }
 
+    /**
+     * Ends the editing session, such as when the editor is hidden and then
+     * recycled for another caller, by ending any batch editing, dropping the
+     * undo/redo history, and replacing the edited Polar Line with a default one,
+     * so that nothing from the previous session is kept alive or carried over.
+     */
+    public void endEditingSession() {
+        _polarLineSelection = null;
+        _batchStartProperties = null;
+        withPolarLinePane( polarLinePane -> polarLinePane.setBatchEditMode( false ) );
+
+        clearEditHistory();
+        setPolarLineReference( PolarLine.getDefaultPolarLine() );
+        updateView();
+    }
+
     public PolarLine getPolarLineReference() {
         return _polarLineReference;
     }
 
+    public boolean isBatchEditMode() {
+        return _polarLineSelection != null;
+    }
+
     public String getNewPolarLineLabelDefault() {
         // Forward this method to the Polar Line Pane.
-        return _polarLinePane.getNewPolarLineLabelDefault();
+        // The Label Default is the Line Type until the content is ready.
+        return ( _polarLinePane != null )
+            ? _polarLinePane.getNewPolarLineLabelDefault()
+            : _polarLineType;
     }
 
     private void initStage() {
@@ -149,6 +467,29 @@ public final class PolarLineEditor extends ObjectPropertiesEditor {
 
     @Override
     protected Node loadContent() {
+        // Optionally build the custom Content Node on a worker thread, showing
+        // a placeholder until it is ready to attach.
+        if ( _deferContentConstruction ) {
+            _deferredContentPane = new DeferredContentPane<>(
+                    () -> new PolarLinePane( clientProperties,
+                                             _polarLineCollection,
+                                             _polarLineType,
+                                             _projectorType,
+                                             _projectionZonesType,
+                                             _projectionZonesUsageContext,
+                                             false ) );
+
+            // Only the node tree is built off-thread; hook the pane up to the
+            // live collection once it is back on the JavaFX Application Thread.
+            _deferredContentPane.whenContentReady( polarLinePane -> {
+                polarLinePane.attachPolarLineCollection();
+                polarLinePane.addValueChangingListener( this::sliderValueChangingChanged );
+                polarLinePane.setEditedPolarLine( _polarLineReference );
+                _polarLinePane = polarLinePane;
+            } );
+            return _deferredContentPane;
+        }
+
         // Instantiate and return the custom Content Node.
         _polarLinePane = new PolarLinePane( clientProperties,
                                             _polarLineCollection,
@@ -156,6 +497,8 @@ public final class PolarLineEditor extends ObjectPropertiesEditor {
                                             _projectorType,
                                             _projectionZonesType,
                                             _projectionZonesUsageContext );
+        _polarLinePane.addValueChangingListener( this::sliderValueChangingChanged );
+        _polarLinePane.setEditedPolarLine( _polarLineReference );
         return _polarLinePane;
     }
 
@@ -187,21 +530,35 @@ public final class PolarLineEditor extends ObjectPropertiesEditor {
         super.setDisable( disable );
 
         // Forward this method to the Polar Line Pane.
-        _polarLinePane.setDisable( disable );
+        withPolarLinePane( polarLinePane -> polarLinePane.setDisable( disable ) );
     }
 
     public void setGesturesEnabled( final boolean gesturesEnabled ) {
         // Forward this method to the Polar Line Pane.
-        _polarLinePane.setGesturesEnabled( gesturesEnabled );
+        withPolarLinePane( polarLinePane -> polarLinePane.setGesturesEnabled( gesturesEnabled ) );
     }
 
     public void setLayerCollection( final List< Layer > layerCollection ) {
         // Forward this method to the Polar Line Pane.
-        _polarLinePane.setLayerCollection( layerCollection );
+        withPolarLinePane( polarLinePane -> polarLinePane.setLayerCollection( layerCollection ) );
+    }
+
+    /**
+     * Removes a listener for the batch edit notification.
+     *
+     * @param batchEditListener
+     *            The listener to remove
+     */
+    public void removeBatchEditListener(
+            final Consumer< LinearObjectBatchEdit< PolarLine > > batchEditListener ) {
+        _batchEditListeners.remove( batchEditListener );
     }
 
     public void setPolarLineReference( final PolarLine polarLine ) {
         _polarLineReference = polarLine;
+
+        // Preview the Polar Line's Projection Zones from the engine's cache.
+        withPolarLinePane( polarLinePane -> polarLinePane.setEditedPolarLine( polarLine ) );
     }
 
     /**
@@ -212,34 +569,54 @@ public final class PolarLineEditor extends ObjectPropertiesEditor {
      */
     public void setScrollingSensitivity( final ScrollingSensitivity scrollingSensitivity ) {
         // Forward this method to the Polar Line Pane.
-        _polarLinePane.setScrollingSensitivity( scrollingSensitivity );
+        withPolarLinePane( polarLinePane -> polarLinePane
+                .setScrollingSensitivity( scrollingSensitivity ) );
     }
 
     @Override
     protected void updateObjectPropertiesView() {
         // Forward this method to the Polar Line Pane.
-        _polarLinePane.updatePolarLineView( _polarLineReference );
+        withPolarLinePane( polarLinePane -> polarLinePane
+                .updatePolarLineView( _polarLineReference ) );
     }
 
     @Override
     protected void updateObjectPropertiesModel() {
-        // Forward this method to the Polar Line Pane.
+        // Nothing can have been edited before the content is ready.
+        if ( _polarLinePane == null ) {
+            return;
+        }
+
+        // In batch mode, apply the edited fields to the whole selection.
+        if ( isBatchEditMode() ) {
+            applyBatchEdit();
+            return;
+        }
+
+        // Forward this method to the Polar Line Pane, recording the changes
+        // for undo.
+        _editHistory.beginEdit( _polarLineReference );
         _polarLinePane.updatePolarLineModel( _polarLineReference );
+        _editHistory.endEdit();
+
+        // Refresh the cached Projection Zones of the edited line.
+        _polarLinePane.updateProjectionZones( _polarLineReference );
     }
 
     public void updateLayerNameSelection() {
         // Forward this method to the Polar Line Pane.
-        _polarLinePane.updateLayerNameSelection( _polarLineReference );
+        withPolarLinePane( polarLinePane -> polarLinePane
+                .updateLayerNameSelection( _polarLineReference ) );
     }
 
     public void toggleGestures() {
         // Forward this method to the Polar Line Pane.
-        _polarLinePane.toggleGestures();
+        withPolarLinePane( polarLinePane -> polarLinePane.toggleGestures() );
     }
 
     public void updateAngleUnit( final AngleUnit angleUnit ) {
         // Forward this method to the Polar Line Pane.
-        _polarLinePane.updateAngleUnit( angleUnit );
+        withPolarLinePane( polarLinePane -> polarLinePane.updateAngleUnit( angleUnit ) );
 
         // Make sure all displayed fields update to the new Angle Unit.
         // NOTE: We skip this if running as a modal dialog, as this change can
@@ -252,7 +629,7 @@ public final class PolarLineEditor extends ObjectPropertiesEditor {
 
     public void updateDistanceUnit( final DistanceUnit distanceUnit ) {
         // Forward this method to the Polar Line Pane.
-        _polarLinePane.updateDistanceUnit( distanceUnit );
+        withPolarLinePane( polarLinePane -> polarLinePane.updateDistanceUnit( distanceUnit ) );
 
         // Make sure all displayed fields update to the new Distance Unit.
         // NOTE: We skip this if running as a modal dialog, as this change can
@@ -266,26 +643,39 @@ public final class PolarLineEditor extends ObjectPropertiesEditor {
     public void updateLayerNames( final boolean preserveSelectedLayerByIndex,
                                   final boolean preserveSelectedLayerByName ) {
         // Forward this method to the Polar Line Pane.
-        _polarLinePane.updateLayerNames( preserveSelectedLayerByIndex,
-                                                   preserveSelectedLayerByName );
+        withPolarLinePane( polarLinePane -> polarLinePane
+                .updateLayerNames( preserveSelectedLayerByIndex,
+                                   preserveSelectedLayerByName ) );
     }
 
     public void updateLayerNames( final Layer currentLayer ) {
         // Forward this method to the Polar Line Pane.
-        _polarLinePane.updateLayerNames( currentLayer );
+        withPolarLinePane( polarLinePane -> polarLinePane.updateLayerNames( currentLayer ) );
     }
 
     // TODO: Verify whether we need to synchronize both positions.
     @Override
     public void updatePositioning() {
         // Forward this method to the Polar Line Pane.
-        _polarLinePane.updatePositioning( _polarLineReference );
+        withPolarLinePane( polarLinePane -> polarLinePane
+                .updatePositioning( _polarLineReference ) );
     }
 
     @Override
     public void updatePreview() {
         // Forward this method to the Polar Line Pane.
-        _polarLinePane.updatePreview( _polarLineReference );
+        withPolarLinePane( polarLinePane -> polarLinePane.updatePreview( _polarLineReference ) );
+    }
+
+    // Run an action against the main content pane, deferring it until the
+    // content is ready if it is still being built on a worker thread.
+    private void withPolarLinePane( final Consumer< PolarLinePane > action ) {
+        if ( _polarLinePane != null ) {
+            action.accept( _polarLinePane );
+        }
+        else if ( _deferredContentPane != null ) {
+            _deferredContentPane.whenContentReady( action );
+        }
     }
 
 }
@@ -232,6 +232,30 @@ public final class Region2DStage extends XStage {
         _region2DPane.updateView();
     }
 
+    /**
+     * Restores the named Surface configuration preset.
+     *
+     * @param presetName
+     *            The name of the preset to restore
+     * @return {@code true} if a preset was registered under the given name
+     */
+    public boolean applySurfacesPreset( final String presetName ) {
+        // Forward this method to the Surfaces Pane.
+        return _region2DPane._surfacesPane.applySurfacesPreset( presetName );
+    }
+
+    /**
+     * Stores the current Surface configuration as a named preset.
+     *
+     * @param presetName
+     *            The name of the preset
+     * @return {@code true} if there were Surface Properties to store
+     */
+    public boolean saveSurfacesPreset( final String presetName ) {
+        // Forward this method to the Surfaces Pane.
+        return _region2DPane._surfacesPane.saveSurfacesPreset( presetName );
+    }
+
     /**
      * Propagate the new Distance Unit to the subcomponents.
      */
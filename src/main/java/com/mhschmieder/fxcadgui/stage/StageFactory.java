@@ -0,0 +1,369 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.stage;
+
+import com.mhschmieder.fxcadgui.util.GraphicsImportHelpService;
+import com.mhschmieder.fxcadgui.util.IdleTaskScheduler;
+import javafx.animation.AnimationTimer;
+import javafx.event.EventHandler;
+import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The Stage Factory keeps one pre-built instance of each registered Stage type
+ * warm, such as the {@link CartesianLineEditor}, {@link PolarLineEditor},
+ * {@link Region2DStage} and {@link DrawingLimitsStage}, so that the slow part
+ * of opening them (building the menus, tool bars and content panes) is done
+ * during idle time after startup rather than on first open.
+ * <p>
+ * Stages can only be built on the JavaFX Application Thread, so the warm-up
+ * builds one Stage at a time, and only once the thread has been idle for a
+ * run of quiet pulses, so that it never competes with an open or with user
+ * input. A Stage that is handed out belongs to the caller until it is hidden.
+ * If its type was registered with a recycler, it is then reset by the recycler
+ * and kept as the warm instance of its type if there isn't one already, and
+ * otherwise it is left to the caller. Callers should acquire a Stage again
+ * rather than re-showing one that they have hidden, but a recycled Stage that
+ * is re-shown by its previous owner is taken back out of the pool, so that it
+ * is never handed out to two callers at once.
+ * <p>
+ * Open latency is recorded per Stage type, from the open request to the first
+ * pulse after the Stage is shown, so that it can be confirmed that Stages open
+ * within a frame.
+ * <p>
+ * This library never constructs these Stages itself, as their constructors
+ * take the host's own collections, branding and labels. The host registers a
+ * builder for each Stage type that captures those arguments, along with a
+ * recycler such as {@link CartesianLineEditor#endEditingSession()} for the
+ * Stage types that can be reset for another caller, calls
+ * {@link #prewarmStages()} once its main Stage is showing, along with
+ * {@link GraphicsImportHelpService#prewarm} for its System Type, and then
+ * opens the Stages via {@link #showStage(Class)} instead of constructing them.
+ */
+public final class StageFactory {
+
+    /** The duration of one frame at 60 Hz, in nanoseconds. */
+    public static final long FRAME_DURATION_NANOS = 16_666_667L;
+
+    /**
+     * Open latency metrics for a single Stage type.
+     */
+    public static final class StageOpenMetrics {
+
+        private long _openCount               = 0L;
+        private long _warmOpenCount           = 0L;
+        private long _withinFrameOpenCount    = 0L;
+        private long _lastOpenLatencyNanos    = 0L;
+        private long _maximumOpenLatencyNanos = 0L;
+        private long _totalOpenLatencyNanos   = 0L;
+
+        public double getAverageOpenLatencyNanos() {
+            return ( _openCount > 0L ) ? ( double ) _totalOpenLatencyNanos / _openCount : 0.0d;
+        }
+
+        public long getLastOpenLatencyNanos() {
+            return _lastOpenLatencyNanos;
+        }
+
+        public long getMaximumOpenLatencyNanos() {
+            return _maximumOpenLatencyNanos;
+        }
+
+        public long getOpenCount() {
+            return _openCount;
+        }
+
+        public long getWarmOpenCount() {
+            return _warmOpenCount;
+        }
+
+        public long getWithinFrameOpenCount() {
+            return _withinFrameOpenCount;
+        }
+
+        private void recordOpen( final long openLatencyNanos, final boolean warmOpen ) {
+            _openCount++;
+            if ( warmOpen ) {
+                _warmOpenCount++;
+            }
+            if ( openLatencyNanos <= FRAME_DURATION_NANOS ) {
+                _withinFrameOpenCount++;
+            }
+            _lastOpenLatencyNanos = openLatencyNanos;
+            _maximumOpenLatencyNanos = Math.max( _maximumOpenLatencyNanos, openLatencyNanos );
+            _totalOpenLatencyNanos += openLatencyNanos;
+        }
+    }
+
+    /** The builders for each registered Stage type, in registration order. */
+    private final Map< Class< ? extends Stage >, Supplier< ? extends Stage > > _stageBuilders;
+
+    /** The recyclers that reset hidden Stages, for the recyclable types. */
+    private final Map< Class< ? extends Stage >, Consumer< ? super Stage > >   _stageRecyclers;
+
+    /** The warm instance of each Stage type, if built or recycled yet. */
+    private final Map< Class< ? extends Stage >, Stage >                       _warmStages;
+
+    /** The open latency metrics for each Stage type. */
+    private final Map< Class< ? extends Stage >, StageOpenMetrics >            _openMetrics;
+
+    /** The Stage types with a warm-up waiting for idle time. */
+    private final Set< Class< ? extends Stage > >                              _pendingWarmUps;
+
+    /** The scheduler that runs the warm-ups during idle time. */
+    private final IdleTaskScheduler                                            _idleTaskScheduler;
+
+    public StageFactory() {
+        _stageBuilders = new LinkedHashMap<>();
+        _stageRecyclers = new HashMap<>();
+        _warmStages = new HashMap<>();
+        _openMetrics = new HashMap<>();
+        _pendingWarmUps = new HashSet<>();
+        _idleTaskScheduler = new IdleTaskScheduler();
+    }
+
+    /**
+     * Returns a Stage of the given type, handing out the warm instance if
+     * there is one, and otherwise building one on the spot. The Stage may be
+     * recycled as the warm instance once it is hidden, and either way, a
+     * replacement is only built once the thread is idle again.
+     * <p>
+     * This must be called on the JavaFX Application Thread.
+     *
+     * @param stageType
+     *            The registered Stage type
+     * @param <T>
+     *            The Stage type
+     * @return A Stage of the given type, owned by the caller until hidden
+     */
+    public < T extends Stage > T acquireStage( final Class< T > stageType ) {
+        // An open is user activity, so hold off any warm-up for a while.
+        _idleTaskScheduler.noteActivity();
+
+        final Stage warmStage = _warmStages.remove( stageType );
+        final T stage = ( warmStage != null ) ? stageType.cast( warmStage ) : buildStage( stageType );
+
+        // Take the Stage back as the warm instance once the caller is done.
+        stage.addEventHandler( WindowEvent.WINDOW_HIDDEN, new EventHandler< WindowEvent >() {
+            @Override
+            public void handle( final WindowEvent windowEvent ) {
+                stage.removeEventHandler( WindowEvent.WINDOW_HIDDEN, this );
+                recycleStage( stageType, stage );
+            }
+        } );
+
+        // Only build a replacement after a real idle period, in case this
+        // Stage stays open.
+        queueWarmUp( stageType );
+
+        return stage;
+    }
+
+    /**
+     * Returns the open latency metrics for a Stage type.
+     *
+     * @param stageType
+     *            The registered Stage type
+     * @return The open latency metrics for the Stage type
+     */
+    public StageOpenMetrics getOpenMetrics( final Class< ? extends Stage > stageType ) {
+        return _openMetrics.computeIfAbsent( stageType, key -> new StageOpenMetrics() );
+    }
+
+    /**
+     * Returns {@code true} if a warm instance of the Stage type is available.
+     *
+     * @param stageType
+     *            The registered Stage type
+     * @return {@code true} if a warm instance is available
+     */
+    public boolean isStageWarm( final Class< ? extends Stage > stageType ) {
+        return _warmStages.containsKey( stageType );
+    }
+
+    /**
+     * Starts warming up one instance of every registered Stage type, one at a
+     * time during idle time on the JavaFX Application Thread. This is meant to
+     * be called once after startup.
+     */
+    public void prewarmStages() {
+        for ( final Class< ? extends Stage > stageType : _stageBuilders.keySet() ) {
+            queueWarmUp( stageType );
+        }
+    }
+
+    /**
+     * Registers a Stage type along with how to build it.
+     *
+     * @param stageType
+     *            The Stage type
+     * @param stageBuilder
+     *            The builder for new instances of the Stage type
+     * @param <T>
+     *            The Stage type
+     */
+    public < T extends Stage > void registerStageType( final Class< T > stageType,
+                                                       final Supplier< T > stageBuilder ) {
+        _stageBuilders.put( stageType, stageBuilder );
+        _stageRecyclers.remove( stageType );
+    }
+
+    /**
+     * Registers a recyclable Stage type along with how to build it, and how
+     * to reset a hidden instance before it is handed out again, such as by
+     * dropping the objects it was editing and their undo history.
+     *
+     * @param stageType
+     *            The Stage type
+     * @param stageBuilder
+     *            The builder for new instances of the Stage type
+     * @param stageRecycler
+     *            The recycler that resets a hidden instance of the Stage type
+     * @param <T>
+     *            The Stage type
+     */
+    public < T extends Stage > void registerStageType( final Class< T > stageType,
+                                                       final Supplier< T > stageBuilder,
+                                                       final Consumer< ? super T > stageRecycler ) {
+        _stageBuilders.put( stageType, stageBuilder );
+        _stageRecyclers.put( stageType,
+                             stage -> stageRecycler.accept( stageType.cast( stage ) ) );
+    }
+
+    /**
+     * Acquires a Stage of the given type and shows it, recording the latency
+     * from this request until the first pulse after the Stage is shown, as
+     * that is the pulse that renders its first frame.
+     * <p>
+     * This must be called on the JavaFX Application Thread.
+     *
+     * @param stageType
+     *            The registered Stage type
+     * @param <T>
+     *            The Stage type
+     * @return The shown Stage, owned by the caller until hidden
+     */
+    public < T extends Stage > T showStage( final Class< T > stageType ) {
+        final long openRequestTime = System.nanoTime();
+        final boolean warmOpen = isStageWarm( stageType );
+        final T stage = acquireStage( stageType );
+
+        stage.show();
+
+        // Stop the clock on the first pulse after showing, in a one-shot timer.
+        final StageOpenMetrics openMetrics = getOpenMetrics( stageType );
+        new AnimationTimer() {
+            @Override
+            public void handle( final long now ) {
+                stop();
+                openMetrics.recordOpen( System.nanoTime() - openRequestTime, warmOpen );
+            }
+        }.start();
+
+        return stage;
+    }
+
+    private < T extends Stage > T buildStage( final Class< T > stageType ) {
+        final Supplier< ? extends Stage > stageBuilder = _stageBuilders.get( stageType );
+        if ( stageBuilder == null ) {
+            throw new IllegalArgumentException( "Unregistered Stage type: " //$NON-NLS-1$
+                    + stageType.getName() );
+        }
+
+        return stageType.cast( stageBuilder.get() );
+    }
+
+    private void queueWarmUp( final Class< ? extends Stage > stageType ) {
+        if ( !_stageBuilders.containsKey( stageType ) || _warmStages.containsKey( stageType )
+                || !_pendingWarmUps.add( stageType ) ) {
+            return;
+        }
+
+        _idleTaskScheduler.schedule( () -> warmUpStage( stageType ) );
+    }
+
+    // Reset a hidden Stage and keep it as the warm instance, unless its type
+    // isn't recyclable or there already is one.
+    private void recycleStage( final Class< ? extends Stage > stageType, final Stage stage ) {
+        final Consumer< ? super Stage > stageRecycler = _stageRecyclers.get( stageType );
+        if ( ( stageRecycler == null ) || _warmStages.containsKey( stageType ) ) {
+            return;
+        }
+
+        try {
+            stageRecycler.accept( stage );
+        }
+        catch ( final Exception ex ) {
+            ex.printStackTrace();
+            return;
+        }
+
+        _warmStages.put( stageType, stage );
+
+        // The previous owner may still show the Stage again itself, in which
+        // case it is withdrawn, as it can't also be handed out to someone else.
+        stage.addEventHandler( WindowEvent.WINDOW_SHOWING, new EventHandler< WindowEvent >() {
+            @Override
+            public void handle( final WindowEvent windowEvent ) {
+                stage.removeEventHandler( WindowEvent.WINDOW_SHOWING, this );
+                if ( _warmStages.get( stageType ) == stage ) {
+                    _warmStages.remove( stageType );
+                    queueWarmUp( stageType );
+                }
+            }
+        } );
+    }
+
+    // Build just one Stage per idle period, so the UI stays responsive.
+    private void warmUpStage( final Class< ? extends Stage > stageType ) {
+        _pendingWarmUps.remove( stageType );
+
+        // A Stage may have been recycled while this was waiting.
+        if ( _warmStages.containsKey( stageType ) ) {
+            return;
+        }
+
+        try {
+            _warmStages.put( stageType, buildStage( stageType ) );
+        }
+        catch ( final Exception ex ) {
+            ex.printStackTrace();
+        }
+    }
+}
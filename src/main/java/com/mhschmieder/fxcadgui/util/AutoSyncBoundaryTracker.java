@@ -0,0 +1,428 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import com.mhschmieder.fxcadcontrols.model.Extents2DProperties;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * An Auto-Sync Boundary Tracker maintains the union of the extents of a set
+ * of registered objects, as the objects are added, moved and removed, so that
+ * the Auto-Sync Boundary never has to be recomputed over all objects.
+ * <p>
+ * Each edge of the union is the top of an indexed binary heap of the
+ * corresponding edges of the objects, so registering, updating or removing
+ * an object is logarithmic in the number of objects, and the union is read in
+ * constant time. The boundary is only pushed to its consumer when the union
+ * actually changes.
+ * <p>
+ * This must only be used from the JavaFX Application Thread.
+ *
+ * @param <T>
+ *            The tracked object type
+ */
+public final class AutoSyncBoundaryTracker< T > {
+
+    /**
+     * An indexed binary heap of one edge per object slot, which supports
+     * changing and removing the edge of any slot via its heap position.
+     */
+    private static final class IndexedHeap {
+
+        private final boolean _maximumHeap;
+        private double[]      _edges;
+        private int[]         _heap;
+        private int[]         _positions;
+        private int           _size;
+
+        private IndexedHeap( final boolean maximumHeap, final int capacity ) {
+            _maximumHeap = maximumHeap;
+            _edges = new double[ capacity ];
+            _heap = new int[ capacity ];
+            _positions = new int[ capacity ];
+            Arrays.fill( _positions, -1 );
+            _size = 0;
+        }
+
+        private void ensureCapacity( final int capacity ) {
+            if ( capacity <= _edges.length ) {
+                return;
+            }
+
+            final int oldCapacity = _edges.length;
+            _edges = Arrays.copyOf( _edges, capacity );
+            _heap = Arrays.copyOf( _heap, capacity );
+            _positions = Arrays.copyOf( _positions, capacity );
+            Arrays.fill( _positions, oldCapacity, capacity, -1 );
+        }
+
+        private double getTop() {
+            return _edges[ _heap[ 0 ] ];
+        }
+
+        private boolean isAbove( final int slot, final int otherSlot ) {
+            return _maximumHeap
+                ? _edges[ slot ] > _edges[ otherSlot ]
+                : _edges[ slot ] < _edges[ otherSlot ];
+        }
+
+        private void moveTo( final int slot, final int position ) {
+            _heap[ position ] = slot;
+            _positions[ slot ] = position;
+        }
+
+        private void remove( final int slot ) {
+            final int position = _positions[ slot ];
+            if ( position < 0 ) {
+                return;
+            }
+
+            // Fill the hole with the last slot, which may then belong either
+            // above or below the hole.
+            _positions[ slot ] = -1;
+            _size--;
+            if ( position < _size ) {
+                final int movedSlot = _heap[ _size ];
+                moveTo( movedSlot, position );
+                siftUp( position );
+                siftDown( _positions[ movedSlot ] );
+            }
+        }
+
+        private void set( final int slot, final double edge ) {
+            _edges[ slot ] = edge;
+
+            final int position = _positions[ slot ];
+            if ( position < 0 ) {
+                moveTo( slot, _size );
+                _size++;
+                siftUp( _size - 1 );
+            }
+            else {
+                siftUp( position );
+                siftDown( _positions[ slot ] );
+            }
+        }
+
+        private void siftDown( final int startPosition ) {
+            final int slot = _heap[ startPosition ];
+            int position = startPosition;
+            while ( true ) {
+                final int leftChild = ( 2 * position ) + 1;
+                if ( leftChild >= _size ) {
+                    break;
+                }
+
+                final int rightChild = leftChild + 1;
+                final int topChild = ( ( rightChild < _size )
+                        && isAbove( _heap[ rightChild ], _heap[ leftChild ] ) )
+                            ? rightChild
+                            : leftChild;
+                if ( !isAbove( _heap[ topChild ], slot ) ) {
+                    break;
+                }
+
+                moveTo( _heap[ topChild ], position );
+                position = topChild;
+            }
+            moveTo( slot, position );
+        }
+
+        private void siftUp( final int startPosition ) {
+            final int slot = _heap[ startPosition ];
+            int position = startPosition;
+            while ( position > 0 ) {
+                final int parent = ( position - 1 ) >>> 1;
+                if ( !isAbove( slot, _heap[ parent ] ) ) {
+                    break;
+                }
+
+                moveTo( _heap[ parent ], position );
+                position = parent;
+            }
+            moveTo( slot, position );
+        }
+    }
+
+    /** The initial number of object slots. */
+    private static final int                        INITIAL_CAPACITY = 16;
+
+    /** The consumer of the Auto-Sync Boundary, when the union changes. */
+    private final Consumer< Extents2DProperties >   _boundaryConsumer;
+
+    /** The slot of each registered object, by reference. */
+    private final Map< T, Integer >                 _slots;
+
+    // The heaps for each edge of the union.
+    private final IndexedHeap                       _minimumXHeap;
+    private final IndexedHeap                       _minimumYHeap;
+    private final IndexedHeap                       _maximumXHeap;
+    private final IndexedHeap                       _maximumYHeap;
+
+    // The slots that were freed by removed objects, for re-use.
+    private int[]                                   _freeSlots;
+    private int                                     _freeSlotCount;
+
+    /** The number of slots that have ever been handed out. */
+    private int                                     _slotCount;
+
+    /** The nesting depth of batch updates, during which nothing is pushed. */
+    private int                                     _batchDepth;
+
+    // The union that was last pushed to the consumer, or NaN if none.
+    private double                                  _pushedMinimumX;
+    private double                                  _pushedMinimumY;
+    private double                                  _pushedMaximumX;
+    private double                                  _pushedMaximumY;
+
+    /** The number of times the boundary has been pushed to the consumer. */
+    private long                                    _pushCount;
+
+    public AutoSyncBoundaryTracker( final Consumer< Extents2DProperties > boundaryConsumer ) {
+        _boundaryConsumer = boundaryConsumer;
+        _slots = new IdentityHashMap<>();
+
+        _minimumXHeap = new IndexedHeap( false, INITIAL_CAPACITY );
+        _minimumYHeap = new IndexedHeap( false, INITIAL_CAPACITY );
+        _maximumXHeap = new IndexedHeap( true, INITIAL_CAPACITY );
+        _maximumYHeap = new IndexedHeap( true, INITIAL_CAPACITY );
+
+        _freeSlots = new int[ INITIAL_CAPACITY ];
+        _freeSlotCount = 0;
+        _slotCount = 0;
+        _batchDepth = 0;
+
+        _pushedMinimumX = Double.NaN;
+        _pushedMinimumY = Double.NaN;
+        _pushedMaximumX = Double.NaN;
+        _pushedMaximumY = Double.NaN;
+        _pushCount = 0L;
+    }
+
+    /**
+     * Starts a batch of registrations, such as when loading a scene, during
+     * which the boundary is not pushed. Batches may be nested, and each must
+     * be ended by a call to {@link #endBatch()}.
+     */
+    public void beginBatch() {
+        _batchDepth++;
+    }
+
+    /**
+     * Unregisters all objects. The last pushed boundary is left in place, as
+     * there is no union to replace it with.
+     */
+    public void clear() {
+        for ( final int slot : _slots.values() ) {
+            removeSlot( slot );
+        }
+        _slots.clear();
+    }
+
+    /**
+     * Ends a batch started by {@link #beginBatch()}, and once the outermost
+     * batch ends, pushes the boundary if the union changed during the batch.
+     */
+    public void endBatch() {
+        if ( _batchDepth <= 0 ) {
+            return;
+        }
+
+        _batchDepth--;
+        pushBoundaryIfChanged();
+    }
+
+    /**
+     * Returns the number of times the boundary has been pushed, which is at
+     * most once per change to the union.
+     *
+     * @return The number of boundary pushes
+     */
+    public long getPushCount() {
+        return _pushCount;
+    }
+
+    /**
+     * Returns {@code true} if no objects are registered.
+     *
+     * @return {@code true} if no objects are registered
+     */
+    public boolean isEmpty() {
+        return _slots.isEmpty();
+    }
+
+    /**
+     * Registers the extents of an object, or updates them if the object is
+     * already registered, such as after it moves.
+     *
+     * @param object
+     *            The object whose extents are tracked
+     * @param minimumX
+     *            The minimum x coordinate of the object's extents
+     * @param minimumY
+     *            The minimum y coordinate of the object's extents
+     * @param maximumX
+     *            The maximum x coordinate of the object's extents
+     * @param maximumY
+     *            The maximum y coordinate of the object's extents
+     */
+    public void registerExtents( final T object,
+                                 final double minimumX,
+                                 final double minimumY,
+                                 final double maximumX,
+                                 final double maximumY ) {
+        final Integer existingSlot = _slots.get( object );
+        final int slot;
+        if ( existingSlot != null ) {
+            slot = existingSlot;
+        }
+        else {
+            slot = allocateSlot();
+            _slots.put( object, slot );
+        }
+
+        _minimumXHeap.set( slot, Math.min( minimumX, maximumX ) );
+        _minimumYHeap.set( slot, Math.min( minimumY, maximumY ) );
+        _maximumXHeap.set( slot, Math.max( minimumX, maximumX ) );
+        _maximumYHeap.set( slot, Math.max( minimumY, maximumY ) );
+
+        pushBoundaryIfChanged();
+    }
+
+    /**
+     * Registers the extents of an object, or updates them if the object is
+     * already registered, such as after it moves.
+     *
+     * @param object
+     *            The object whose extents are tracked
+     * @param extents
+     *            The object's extents
+     */
+    public void registerExtents( final T object, final Extents2DProperties extents ) {
+        registerExtents( object,
+                         extents.getX(),
+                         extents.getY(),
+                         extents.getX() + extents.getWidth(),
+                         extents.getY() + extents.getHeight() );
+    }
+
+    /**
+     * Returns the number of registered objects.
+     *
+     * @return The number of registered objects
+     */
+    public int size() {
+        return _slots.size();
+    }
+
+    /**
+     * Unregisters an object, such as when it is deleted from the scene.
+     *
+     * @param object
+     *            The object to stop tracking
+     */
+    public void unregisterExtents( final T object ) {
+        final Integer slot = _slots.remove( object );
+        if ( slot == null ) {
+            return;
+        }
+
+        removeSlot( slot );
+
+        pushBoundaryIfChanged();
+    }
+
+    private int allocateSlot() {
+        if ( _freeSlotCount > 0 ) {
+            _freeSlotCount--;
+            return _freeSlots[ _freeSlotCount ];
+        }
+
+        final int slot = _slotCount;
+        _slotCount++;
+
+        final int capacity = _minimumXHeap._edges.length;
+        if ( _slotCount > capacity ) {
+            final int newCapacity = capacity * 2;
+            _minimumXHeap.ensureCapacity( newCapacity );
+            _minimumYHeap.ensureCapacity( newCapacity );
+            _maximumXHeap.ensureCapacity( newCapacity );
+            _maximumYHeap.ensureCapacity( newCapacity );
+        }
+
+        return slot;
+    }
+
+    private void pushBoundaryIfChanged() {
+        if ( ( _batchDepth > 0 ) || _slots.isEmpty() ) {
+            return;
+        }
+
+        final double minimumX = _minimumXHeap.getTop();
+        final double minimumY = _minimumYHeap.getTop();
+        final double maximumX = _maximumXHeap.getTop();
+        final double maximumY = _maximumYHeap.getTop();
+        if ( ( Double.compare( minimumX, _pushedMinimumX ) == 0 )
+                && ( Double.compare( minimumY, _pushedMinimumY ) == 0 )
+                && ( Double.compare( maximumX, _pushedMaximumX ) == 0 )
+                && ( Double.compare( maximumY, _pushedMaximumY ) == 0 ) ) {
+            return;
+        }
+
+        _pushedMinimumX = minimumX;
+        _pushedMinimumY = minimumY;
+        _pushedMaximumX = maximumX;
+        _pushedMaximumY = maximumY;
+        _pushCount++;
+
+        _boundaryConsumer.accept( new Extents2DProperties( minimumX,
+                                                           minimumY,
+                                                           maximumX - minimumX,
+                                                           maximumY - minimumY ) );
+    }
+
+    private void removeSlot( final int slot ) {
+        _minimumXHeap.remove( slot );
+        _minimumYHeap.remove( slot );
+        _maximumXHeap.remove( slot );
+        _maximumYHeap.remove( slot );
+
+        if ( _freeSlotCount == _freeSlots.length ) {
+            _freeSlots = Arrays.copyOf( _freeSlots, _freeSlots.length * 2 );
+        }
+        _freeSlots[ _freeSlotCount ] = slot;
+        _freeSlotCount++;
+    }
+}
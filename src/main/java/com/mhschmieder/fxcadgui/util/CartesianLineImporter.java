@@ -0,0 +1,488 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import com.mhschmieder.fxcontrols.util.LayerPropertiesManager;
+import com.mhschmieder.fxgraphics.collections.GraphicalObjectCollection;
+import com.mhschmieder.fxgraphics.geometry.CartesianLine;
+import com.mhschmieder.fxgraphics.layers.Layer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * This is a streaming importer of Cartesian Lines from delimited text, such
+ * as CSV or TSV survey exports, that parses one record at a time from a
+ * {@link Reader} rather than loading the whole file first.
+ * <p>
+ * Layers are resolved via a {@link LayerIndex}, and records whose Layer Name
+ * is missing or unknown are put on the default Layer rather than on no Layer,
+ * and are counted in the report. Labels are made unique in batch via a
+ * {@link UniqueNameRegistry} that is seeded once from the target collection,
+ * so the cost per record doesn't grow with the collection size.
+ * Lines are added to the collection in chunks, so that an observable
+ * collection sends one notification per chunk rather than one per line.
+ * <p>
+ * The delimiter is a tab if the first record contains one, and otherwise a
+ * comma. Fields may be quoted, with doubled quotes for literal quotes. An
+ * optional header row names the columns, from {@code label}, {@code layer},
+ * {@code x1}, {@code y1}, {@code x2} and {@code y2}, in any order and case.
+ * Without a header, a record of four fields is read as coordinates only, and
+ * longer records as label, layer and then coordinates. Blank lines and lines
+ * starting with {@code #} are skipped, as are records that can't be parsed.
+ * <p>
+ * As the lines are added to the collection as they are imported, this must
+ * be called on the JavaFX Application Thread if the collection is displayed.
+ */
+public final class CartesianLineImporter {
+
+    /**
+     * This is the report of a completed import, including its throughput.
+     */
+    public static final class LineImportReport {
+
+        private final long _recordCount;
+        private final long _importedLineCount;
+        private final long _skippedRecordCount;
+        private final long _defaultLayerRecordCount;
+        private final int  _chunkCount;
+        private final long _elapsedNanos;
+
+        private LineImportReport( final long recordCount,
+                                  final long importedLineCount,
+                                  final long skippedRecordCount,
+                                  final long defaultLayerRecordCount,
+                                  final int chunkCount,
+                                  final long elapsedNanos ) {
+            _recordCount = recordCount;
+            _importedLineCount = importedLineCount;
+            _skippedRecordCount = skippedRecordCount;
+            _defaultLayerRecordCount = defaultLayerRecordCount;
+            _chunkCount = chunkCount;
+            _elapsedNanos = elapsedNanos;
+        }
+
+        public int getChunkCount() {
+            return _chunkCount;
+        }
+
+        /**
+         * Returns the number of imported lines that were put on the default
+         * Layer, as their Layer Name was missing or unknown.
+         *
+         * @return The number of lines put on the default Layer
+         */
+        public long getDefaultLayerRecordCount() {
+            return _defaultLayerRecordCount;
+        }
+
+        public long getElapsedNanos() {
+            return _elapsedNanos;
+        }
+
+        public long getImportedLineCount() {
+            return _importedLineCount;
+        }
+
+        /**
+         * Returns the import throughput.
+         *
+         * @return The number of lines imported per second
+         */
+        public double getLinesPerSecond() {
+            return ( _elapsedNanos > 0L )
+                ? ( _importedLineCount * 1.0e9d ) / _elapsedNanos
+                : 0.0d;
+        }
+
+        public long getRecordCount() {
+            return _recordCount;
+        }
+
+        public long getSkippedRecordCount() {
+            return _skippedRecordCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format( Locale.ROOT,
+                                  "%d lines imported from %d records (%d skipped," //$NON-NLS-1$
+                                          + " %d on the default Layer)" //$NON-NLS-1$
+                                          + " in %d chunks, %.1f ms, %.0f lines/s", //$NON-NLS-1$
+                                  _importedLineCount,
+                                  _recordCount,
+                                  _skippedRecordCount,
+                                  _defaultLayerRecordCount,
+                                  _chunkCount,
+                                  _elapsedNanos / 1.0e6d,
+                                  getLinesPerSecond() );
+        }
+    }
+
+    /** The default number of lines added to the collection at a time. */
+    public static final int       DEFAULT_CHUNK_SIZE = 1024;
+
+    // The column indices of each field, in a record.
+    private static final int      LABEL_COLUMN       = 0;
+    private static final int      LAYER_COLUMN       = 1;
+    private static final int      X1_COLUMN          = 2;
+    private static final int      Y1_COLUMN          = 3;
+    private static final int      X2_COLUMN          = 4;
+    private static final int      Y2_COLUMN          = 5;
+    private static final int      NUMBER_OF_COLUMNS  = 6;
+
+    /** The header names of the fields, in column index order. */
+    private static final String[] COLUMN_NAMES       = { "label", //$NON-NLS-1$
+                                                         "layer", //$NON-NLS-1$
+                                                         "x1", //$NON-NLS-1$
+                                                         "y1", //$NON-NLS-1$
+                                                         "x2", //$NON-NLS-1$
+                                                         "y2" }; //$NON-NLS-1$
+
+    /** The Layer Index for resolving Layer Names. */
+    private final LayerIndex      _layerIndex;
+
+    /** Number format used for locale-specific uniquefier appendices. */
+    private final NumberFormat    _uniquefierNumberFormat;
+
+    /** The label for records that don't have one. */
+    private final String          _defaultLabel;
+
+    /** The number of lines added to the collection at a time. */
+    private final int             _chunkSize;
+
+    public CartesianLineImporter( final LayerIndex layerIndex,
+                                  final NumberFormat uniquefierNumberFormat,
+                                  final String defaultLabel ) {
+        this( layerIndex, uniquefierNumberFormat, defaultLabel, DEFAULT_CHUNK_SIZE );
+    }
+
+    public CartesianLineImporter( final LayerIndex layerIndex,
+                                  final NumberFormat uniquefierNumberFormat,
+                                  final String defaultLabel,
+                                  final int chunkSize ) {
+        _layerIndex = layerIndex;
+        _uniquefierNumberFormat = uniquefierNumberFormat;
+        _defaultLabel = defaultLabel;
+        _chunkSize = Math.max( 1, chunkSize );
+    }
+
+    /**
+     * Imports Cartesian Lines from delimited text into a collection.
+     *
+     * @param reader
+     *            The source of the delimited text, which is not closed
+     * @param cartesianLineCollection
+     *            The collection to add the imported lines to
+     * @return The report of the import
+     * @throws IOException
+     *             If the text could not be read
+     */
+    public LineImportReport importLines(
+            final Reader reader,
+            final GraphicalObjectCollection< CartesianLine > cartesianLineCollection )
+            throws IOException {
+        return importLines( reader, cartesianLineCollection.getCollection() );
+    }
+
+    /**
+     * Imports Cartesian Lines from delimited text into a list of lines, such
+     * as the backing list of a collection.
+     *
+     * @param reader
+     *            The source of the delimited text, which is not closed
+     * @param cartesianLines
+     *            The list to add the imported lines to
+     * @return The report of the import
+     * @throws IOException
+     *             If the text could not be read
+     */
+    public LineImportReport importLines( final Reader reader,
+                                         final List< CartesianLine > cartesianLines )
+            throws IOException {
+        final long startNanos = System.nanoTime();
+
+        // Seed the label registry once, so each record is uniquefied against
+        // both the existing lines and the ones imported before it.
+        final UniqueNameRegistry labelRegistry = new UniqueNameRegistry( _uniquefierNumberFormat );
+        for ( final CartesianLine cartesianLine : cartesianLines ) {
+            labelRegistry.addName( cartesianLine.getLabel() );
+        }
+
+        final BufferedReader bufferedReader = ( reader instanceof BufferedReader )
+            ? ( BufferedReader ) reader
+            : new BufferedReader( reader );
+        final List< CartesianLine > chunk = new ArrayList<>( _chunkSize );
+        final List< String > fields = new ArrayList<>( NUMBER_OF_COLUMNS );
+        final Map< String, Layer > resolvedLayers = new HashMap<>();
+        final Layer defaultLayer = getDefaultLayer();
+        int[] columnIndices = null;
+        char delimiter = ',';
+        long recordCount = 0L;
+        long importedLineCount = 0L;
+        long skippedRecordCount = 0L;
+        long defaultLayerRecordCount = 0L;
+        int chunkCount = 0;
+
+        String record;
+        while ( ( record = bufferedReader.readLine() ) != null ) {
+            if ( record.trim().isEmpty() || record.startsWith( "#" ) ) { //$NON-NLS-1$
+                continue;
+            }
+
+            // The first record determines the delimiter and the columns.
+            if ( columnIndices == null ) {
+                delimiter = ( record.indexOf( '\t' ) >= 0 ) ? '\t' : ',';
+                splitRecord( record, delimiter, fields );
+                columnIndices = getHeaderColumnIndices( fields );
+                if ( columnIndices != null ) {
+                    continue;
+                }
+                columnIndices = getDefaultColumnIndices( fields.size() );
+            }
+            else {
+                splitRecord( record, delimiter, fields );
+            }
+
+            recordCount++;
+
+            // A missing or unknown Layer Name falls back to the default Layer,
+            // as no line is ever left without a Layer.
+            final Layer resolvedLayer = resolveLayer( getField( fields,
+                                                                columnIndices[ LAYER_COLUMN ] ),
+                                                      resolvedLayers );
+            final Layer layer = ( resolvedLayer != null ) ? resolvedLayer : defaultLayer;
+            if ( layer == null ) {
+                skippedRecordCount++;
+                continue;
+            }
+
+            final CartesianLine cartesianLine = parseCartesianLine( fields,
+                                                                    columnIndices,
+                                                                    labelRegistry,
+                                                                    layer );
+            if ( cartesianLine == null ) {
+                skippedRecordCount++;
+                continue;
+            }
+            if ( resolvedLayer == null ) {
+                defaultLayerRecordCount++;
+            }
+
+            chunk.add( cartesianLine );
+            if ( chunk.size() == _chunkSize ) {
+                importedLineCount += addChunk( cartesianLines, chunk );
+                chunkCount++;
+            }
+        }
+
+        if ( !chunk.isEmpty() ) {
+            importedLineCount += addChunk( cartesianLines, chunk );
+            chunkCount++;
+        }
+
+        return new LineImportReport( recordCount,
+                                     importedLineCount,
+                                     skippedRecordCount,
+                                     defaultLayerRecordCount,
+                                     chunkCount,
+                                     System.nanoTime() - startNanos );
+    }
+
+    private static int addChunk( final List< CartesianLine > cartesianLines,
+                                 final List< CartesianLine > chunk ) {
+        // A single bulk add sends one notification for an observable list.
+        final int chunkSize = chunk.size();
+        cartesianLines.addAll( chunk );
+        chunk.clear();
+        return chunkSize;
+    }
+
+    private static int[] getDefaultColumnIndices( final int numberOfFields ) {
+        final int[] columnIndices = new int[ NUMBER_OF_COLUMNS ];
+        if ( numberOfFields == 4 ) {
+            columnIndices[ LABEL_COLUMN ] = -1;
+            columnIndices[ LAYER_COLUMN ] = -1;
+            for ( int i = X1_COLUMN; i <= Y2_COLUMN; i++ ) {
+                columnIndices[ i ] = i - X1_COLUMN;
+            }
+        }
+        else {
+            for ( int i = 0; i < NUMBER_OF_COLUMNS; i++ ) {
+                columnIndices[ i ] = i;
+            }
+        }
+        return columnIndices;
+    }
+
+    // Returns the column indices named by a header record, or null if the
+    // record isn't a header.
+    private static int[] getHeaderColumnIndices( final List< String > fields ) {
+        final int[] columnIndices = new int[ NUMBER_OF_COLUMNS ];
+        for ( int i = 0; i < NUMBER_OF_COLUMNS; i++ ) {
+            columnIndices[ i ] = -1;
+        }
+
+        boolean header = false;
+        for ( int i = 0, n = fields.size(); i < n; i++ ) {
+            final String columnName = fields.get( i ).trim();
+            for ( int j = 0; j < NUMBER_OF_COLUMNS; j++ ) {
+                if ( COLUMN_NAMES[ j ].equalsIgnoreCase( columnName ) ) {
+                    columnIndices[ j ] = i;
+                    header = true;
+                }
+            }
+        }
+
+        return header ? columnIndices : null;
+    }
+
+    // Returns the Layer named by the default Layer Name, or else the first
+    // Layer, or null if there are no Layers at all.
+    private Layer getDefaultLayer() {
+        final Layer defaultLayer = _layerIndex
+                .getLayerByName( LayerPropertiesManager.DEFAULT_LAYER_NAME );
+        if ( defaultLayer != null ) {
+            return defaultLayer;
+        }
+
+        final List< Layer > layerCollection = _layerIndex.getLayerCollection();
+        return ( ( layerCollection == null ) || layerCollection.isEmpty() )
+            ? null
+            : layerCollection.get( 0 );
+    }
+
+    private static String getField( final List< String > fields, final int columnIndex ) {
+        return ( ( columnIndex >= 0 ) && ( columnIndex < fields.size() ) )
+            ? fields.get( columnIndex ).trim()
+            : null;
+    }
+
+    private CartesianLine parseCartesianLine( final List< String > fields,
+                                              final int[] columnIndices,
+                                              final UniqueNameRegistry labelRegistry,
+                                              final Layer layer ) {
+        final double x1 = parseCoordinate( getField( fields, columnIndices[ X1_COLUMN ] ) );
+        final double y1 = parseCoordinate( getField( fields, columnIndices[ Y1_COLUMN ] ) );
+        final double x2 = parseCoordinate( getField( fields, columnIndices[ X2_COLUMN ] ) );
+        final double y2 = parseCoordinate( getField( fields, columnIndices[ Y2_COLUMN ] ) );
+        if ( Double.isNaN( x1 ) || Double.isNaN( y1 ) || Double.isNaN( x2 )
+                || Double.isNaN( y2 ) ) {
+            return null;
+        }
+
+        final String labelField = getField( fields, columnIndices[ LABEL_COLUMN ] );
+        final String labelCandidate = ( ( labelField == null ) || labelField.isEmpty() )
+            ? _defaultLabel
+            : labelField;
+        final String label = labelRegistry.getUniqueName( labelCandidate, null );
+        labelRegistry.addName( label );
+
+        final CartesianLine cartesianLine = new CartesianLine();
+        cartesianLine.setLine( x1, y1, x2, y2 );
+        cartesianLine.setLabel( label );
+        cartesianLine.setLayer( layer );
+
+        return cartesianLine;
+    }
+
+    private static double parseCoordinate( final String field ) {
+        if ( ( field == null ) || field.isEmpty() ) {
+            return Double.NaN;
+        }
+
+        try {
+            return Double.parseDouble( field );
+        }
+        catch ( final NumberFormatException nfe ) {
+            return Double.NaN;
+        }
+    }
+
+    // Cache each resolved Layer Name, including unknown ones, so that unknown
+    // names only fall back to a search of the Layer Collection once per import.
+    private Layer resolveLayer( final String layerField,
+                                final Map< String, Layer > resolvedLayers ) {
+        final String layerName = ( layerField == null ) ? "" : layerField; //$NON-NLS-1$
+        if ( resolvedLayers.containsKey( layerName ) ) {
+            return resolvedLayers.get( layerName );
+        }
+
+        final Layer layer = layerName.isEmpty() ? null : _layerIndex.getLayerByName( layerName );
+        resolvedLayers.put( layerName, layer );
+        return layer;
+    }
+
+    // Split a delimited record into fields, honoring quoted fields.
+    private static void splitRecord( final String record,
+                                     final char delimiter,
+                                     final List< String > fields ) {
+        fields.clear();
+
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for ( int i = 0, n = record.length(); i < n; i++ ) {
+            final char c = record.charAt( i );
+            if ( quoted ) {
+                if ( c == '"' ) {
+                    if ( ( ( i + 1 ) < n ) && ( record.charAt( i + 1 ) == '"' ) ) {
+                        field.append( '"' );
+                        i++;
+                    }
+                    else {
+                        quoted = false;
+                    }
+                }
+                else {
+                    field.append( c );
+                }
+            }
+            else if ( c == '"' ) {
+                quoted = true;
+            }
+            else if ( c == delimiter ) {
+                fields.add( field.toString() );
+                field.setLength( 0 );
+            }
+            else {
+                field.append( c );
+            }
+        }
+        fields.add( field.toString() );
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+/**
+ * This syncs a pair of coordinate editors for the same point -- one Cartesian
+ * and one Polar -- from a data model, without letting the two representations
+ * ping-pong via auto-rounding such as "Snap to Ticks" on sliders.
+ * <p>
+ * The representation that the user is editing is the source, and is compared
+ * against its current editor values, so that anything the data model rejects
+ * or clamps is still reflected back. The other representation is derived, and
+ * is compared against what was last pushed to it rather than against its
+ * editor values, as those may have been rounded on the way in. Either is only
+ * pushed when its values have changed by more than the tolerance, and any
+ * re-entrant sync request that is triggered by a push is suppressed.
+ * <p>
+ * This must only be used from the JavaFX Application Thread.
+ */
+public final class CoordinateSyncEngine {
+
+    /** The representations of a point that can be synced. */
+    public enum Representation {
+        CARTESIAN, POLAR
+    }
+
+    /**
+     * A setter for a pair of coordinates, such as x and y, or angle (in
+     * degrees) and distance.
+     */
+    @FunctionalInterface
+    public interface CoordinatePairSetter {
+
+        void setCoordinates( double first, double second );
+    }
+
+    /** The default tolerance, relative to the magnitude of the values. */
+    public static final double DEFAULT_TOLERANCE = 1.0e-9d;
+
+    /** The tolerance below which values are considered unchanged. */
+    private final double       _tolerance;
+
+    /** Flag for whether a sync is in progress, to suppress re-entry. */
+    private boolean            _syncing;
+
+    /** The representation that was last derived, if any. */
+    private Representation     _derivedRepresentation;
+
+    /** The first coordinate that was last pushed to the derived editor. */
+    private double             _derivedFirst;
+
+    /** The second coordinate that was last pushed to the derived editor. */
+    private double             _derivedSecond;
+
+    /** The number of times a sync has been requested. */
+    private long               _syncRequestCount;
+
+    /** The number of sync requests suppressed as being re-entrant. */
+    private long               _suppressedSyncCount;
+
+    /** The number of times coordinates have been pushed to an editor. */
+    private long               _pushCount;
+
+    /** The number of pushes skipped due to the values being unchanged. */
+    private long               _skippedPushCount;
+
+    public CoordinateSyncEngine() {
+        this( DEFAULT_TOLERANCE );
+    }
+
+    public CoordinateSyncEngine( final double tolerance ) {
+        _tolerance = tolerance;
+        _syncing = false;
+
+        invalidate();
+        resetStatistics();
+    }
+
+    /**
+     * Returns the number of times coordinates have been pushed to an editor.
+     *
+     * @return The number of pushes
+     */
+    public long getPushCount() {
+        return _pushCount;
+    }
+
+    /**
+     * Returns the number of pushes skipped due to the values being unchanged.
+     *
+     * @return The number of skipped pushes
+     */
+    public long getSkippedPushCount() {
+        return _skippedPushCount;
+    }
+
+    /**
+     * Returns the number of sync requests suppressed as being re-entrant.
+     *
+     * @return The number of suppressed sync requests
+     */
+    public long getSuppressedSyncCount() {
+        return _suppressedSyncCount;
+    }
+
+    /**
+     * Returns the number of times a sync has been requested.
+     *
+     * @return The number of sync requests
+     */
+    public long getSyncRequestCount() {
+        return _syncRequestCount;
+    }
+
+    /**
+     * Forgets what was last pushed to the derived editor, so that the next
+     * sync pushes it unconditionally.
+     */
+    public void invalidate() {
+        _derivedRepresentation = null;
+        _derivedFirst = Double.NaN;
+        _derivedSecond = Double.NaN;
+    }
+
+    /**
+     * Returns {@code true} if a sync is in progress.
+     *
+     * @return {@code true} if a sync is in progress
+     */
+    public boolean isSyncing() {
+        return _syncing;
+    }
+
+    /**
+     * Resets the sync statistics.
+     */
+    public void resetStatistics() {
+        _syncRequestCount = 0L;
+        _suppressedSyncCount = 0L;
+        _pushCount = 0L;
+        _skippedPushCount = 0L;
+    }
+
+    /**
+     * Runs a sync, unless one is already in progress, in which case this is a
+     * re-entrant request triggered by one of its own pushes and is dropped.
+     *
+     * @param syncAction
+     *            The action that syncs the editors, via the sync methods
+     * @return {@code true} if the sync was run
+     */
+    public boolean sync( final Runnable syncAction ) {
+        _syncRequestCount++;
+        if ( _syncing ) {
+            _suppressedSyncCount++;
+            return false;
+        }
+
+        _syncing = true;
+        try {
+            syncAction.run();
+        }
+        finally {
+            _syncing = false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Pushes derived coordinates to their editor, if they changed from what
+     * was last pushed to it.
+     *
+     * @param representation
+     *            The representation of the derived coordinates
+     * @param first
+     *            The new x coordinate or angle in degrees
+     * @param second
+     *            The new y coordinate or distance
+     * @param setter
+     *            The setter for the derived editor
+     * @return {@code true} if the coordinates were pushed
+     */
+    public boolean syncDerived( final Representation representation,
+                                final double first,
+                                final double second,
+                                final CoordinatePairSetter setter ) {
+        // If the derived representation swapped, what was last pushed to the
+        // other editor says nothing about this one.
+        if ( representation != _derivedRepresentation ) {
+            invalidate();
+            _derivedRepresentation = representation;
+        }
+
+        if ( !isChanged( representation, _derivedFirst, _derivedSecond, first, second ) ) {
+            _skippedPushCount++;
+            return false;
+        }
+
+        _derivedFirst = first;
+        _derivedSecond = second;
+        return push( first, second, setter );
+    }
+
+    /**
+     * Pushes source coordinates to their editor, if they changed from what it
+     * currently shows.
+     *
+     * @param representation
+     *            The representation of the source coordinates
+     * @param currentFirst
+     *            The x coordinate or angle in degrees shown in the editor
+     * @param currentSecond
+     *            The y coordinate or distance shown in the editor
+     * @param first
+     *            The new x coordinate or angle in degrees
+     * @param second
+     *            The new y coordinate or distance
+     * @param setter
+     *            The setter for the source editor
+     * @return {@code true} if the coordinates were pushed
+     */
+    public boolean syncSource( final Representation representation,
+                               final double currentFirst,
+                               final double currentSecond,
+                               final double first,
+                               final double second,
+                               final CoordinatePairSetter setter ) {
+        if ( !isChanged( representation, currentFirst, currentSecond, first, second ) ) {
+            _skippedPushCount++;
+            return false;
+        }
+
+        return push( first, second, setter );
+    }
+
+    private boolean isChanged( final Representation representation,
+                               final double oldFirst,
+                               final double oldSecond,
+                               final double newFirst,
+                               final double newSecond ) {
+        final boolean firstChanged = Representation.POLAR.equals( representation )
+            ? isAngleChanged( oldFirst, newFirst )
+            : isValueChanged( oldFirst, newFirst );
+        return firstChanged || isValueChanged( oldSecond, newSecond );
+    }
+
+    // Compare angles modulo a full turn, so that 0 and 360 degrees match.
+    private boolean isAngleChanged( final double oldAngleDegrees, final double newAngleDegrees ) {
+        if ( Double.isNaN( oldAngleDegrees ) || Double.isNaN( newAngleDegrees ) ) {
+            return true;
+        }
+
+        final double angleDifference = Math.abs( Math
+                .IEEEremainder( newAngleDegrees - oldAngleDegrees, 360.0d ) );
+        return angleDifference > ( _tolerance * 360.0d );
+    }
+
+    private boolean isValueChanged( final double oldValue, final double newValue ) {
+        if ( Double.isNaN( oldValue ) || Double.isNaN( newValue ) ) {
+            return true;
+        }
+
+        final double magnitude = Math.max( 1.0d,
+                                           Math.max( Math.abs( oldValue ),
+                                                     Math.abs( newValue ) ) );
+        return Math.abs( newValue - oldValue ) > ( _tolerance * magnitude );
+    }
+
+    private boolean push( final double first,
+                          final double second,
+                          final CoordinatePairSetter setter ) {
+        _pushCount++;
+        setter.setCoordinates( first, second );
+        return true;
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import com.mhschmieder.fxgraphics.geometry.GraphicalObject;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.text.NumberFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Graphical Object Label Index tracks the labels in use by a collection of
+ * graphical objects, indexed by base name and used uniquefier, so that label
+ * uniqueness can be checked and resolved in constant expected time rather than
+ * by scanning the whole collection for every candidate label.
+ * <p>
+ * When the collection is observable, the index follows additions and removals
+ * incrementally. Labels are edited in place on the graphical objects though,
+ * so hosts must call {@link #relabelGraphicalObject(GraphicalObject)} after
+ * changing the label of an object that may belong to the collection.
+ * <p>
+ * A collection that isn't observable can't report its changes, so it is
+ * re-indexed on every query instead, which is no faster than a scan but is
+ * always correct. Until a collection is attached, nothing is indexed, so
+ * hosts should check {@link #isAttached()} before relying on the index.
+ */
+public final class GraphicalObjectLabelIndex {
+
+    /** The graphical objects being indexed. */
+    private List< ? extends GraphicalObject >           _graphicalObjects;
+
+    /** The last indexed label of each graphical object, by reference. */
+    private final Map< GraphicalObject, String >        _indexedLabels;
+
+    /** The registry of labels in use, by base name and uniquefier. */
+    private final UniqueNameRegistry                    _labelRegistry;
+
+    /** Listener that follows additions and removals in the collection. */
+    private final ListChangeListener< GraphicalObject > _graphicalObjectsListener;
+
+    public GraphicalObjectLabelIndex( final NumberFormat uniquefierNumberFormat ) {
+        _graphicalObjects = null;
+        _indexedLabels = new IdentityHashMap<>();
+        _labelRegistry = new UniqueNameRegistry( uniquefierNumberFormat );
+        _graphicalObjectsListener = this::graphicalObjectsChanged;
+    }
+
+    /**
+     * Returns {@code true} if the label is in use by any indexed object.
+     *
+     * @param label
+     *            The label to look up
+     * @return {@code true} if the label is in use
+     */
+    public boolean containsLabel( final String label ) {
+        reindexIfUntracked();
+        return _labelRegistry.containsName( label );
+    }
+
+    /**
+     * Returns a label based on the candidate label that is not in use by any
+     * indexed object.
+     *
+     * @param labelCandidate
+     *            The requested label
+     * @return The candidate label if it is available; otherwise the candidate's
+     *         base name with the lowest free uniquefier appended
+     */
+    public String getUniqueLabel( final String labelCandidate ) {
+        reindexIfUntracked();
+        return _labelRegistry.getUniqueName( labelCandidate, null );
+    }
+
+    /**
+     * Returns a label based on the candidate label that is not in use by any
+     * indexed object other than the given object, such as when relabeling.
+     *
+     * @param labelCandidate
+     *            The requested label
+     * @param graphicalObject
+     *            The graphical object being labeled
+     * @return The candidate label if it is available; otherwise a uniquefied
+     *         form of it
+     */
+    public String getUniqueLabel( final String labelCandidate,
+                                  final GraphicalObject graphicalObject ) {
+        reindexIfUntracked();
+        return _labelRegistry.getUniqueName( labelCandidate,
+                                             _indexedLabels.get( graphicalObject ) );
+    }
+
+    /**
+     * Returns {@code true} if a collection of graphical objects is attached.
+     *
+     * @return {@code true} if a collection of graphical objects is attached
+     */
+    public boolean isAttached() {
+        return _graphicalObjects != null;
+    }
+
+    /**
+     * Re-indexes the label of a graphical object after it was changed in
+     * place. Objects that aren't in the indexed collection are ignored.
+     *
+     * @param graphicalObject
+     *            The graphical object whose label may have changed
+     */
+    public void relabelGraphicalObject( final GraphicalObject graphicalObject ) {
+        if ( !_indexedLabels.containsKey( graphicalObject ) ) {
+            return;
+        }
+
+        final String newLabel = graphicalObject.getLabel();
+        final String oldLabel = _indexedLabels.put( graphicalObject, newLabel );
+        _labelRegistry.renameName( oldLabel, newLabel );
+    }
+
+    /**
+     * Re-indexes the whole collection, such as after bulk changes to labels
+     * that weren't reported individually.
+     */
+    public void reindex() {
+        _indexedLabels.clear();
+        _labelRegistry.clear();
+
+        if ( _graphicalObjects != null ) {
+            for ( final GraphicalObject graphicalObject : _graphicalObjects ) {
+                addGraphicalObject( graphicalObject );
+            }
+        }
+    }
+
+    /**
+     * Switches the index to a new collection of graphical objects, following
+     * its additions and removals if it is observable.
+     *
+     * @param graphicalObjects
+     *            The graphical objects to index
+     */
+    @SuppressWarnings("unchecked")
+    public void setGraphicalObjects( final List< ? extends GraphicalObject > graphicalObjects ) {
+        // NOTE: The listener only reads from the list, so it is safe to treat
+        // a list of a graphical object subtype as a list of graphical objects.
+        if ( _graphicalObjects instanceof ObservableList ) {
+            ( ( ObservableList< GraphicalObject > ) _graphicalObjects )
+                    .removeListener( _graphicalObjectsListener );
+        }
+
+        _graphicalObjects = graphicalObjects;
+
+        if ( _graphicalObjects instanceof ObservableList ) {
+            ( ( ObservableList< GraphicalObject > ) _graphicalObjects )
+                    .addListener( _graphicalObjectsListener );
+        }
+
+        reindex();
+    }
+
+    /**
+     * Returns the number of indexed graphical objects.
+     *
+     * @return The number of indexed graphical objects
+     */
+    public int size() {
+        return _indexedLabels.size();
+    }
+
+    private void addGraphicalObject( final GraphicalObject graphicalObject ) {
+        if ( _indexedLabels.containsKey( graphicalObject ) ) {
+            return;
+        }
+
+        final String label = graphicalObject.getLabel();
+        _indexedLabels.put( graphicalObject, label );
+        _labelRegistry.addName( label );
+    }
+
+    private void graphicalObjectsChanged(
+            final ListChangeListener.Change< ? extends GraphicalObject > change ) {
+        while ( change.next() ) {
+            if ( change.wasPermutated() ) {
+                continue;
+            }
+            if ( change.wasUpdated() ) {
+                for ( int i = change.getFrom(); i < change.getTo(); i++ ) {
+                    relabelGraphicalObject( change.getList().get( i ) );
+                }
+                continue;
+            }
+            for ( final GraphicalObject graphicalObject : change.getRemoved() ) {
+                removeGraphicalObject( graphicalObject );
+            }
+            for ( final GraphicalObject graphicalObject : change.getAddedSubList() ) {
+                addGraphicalObject( graphicalObject );
+            }
+        }
+    }
+
+    // Re-index a collection that can't report its own changes, so that
+    // queries never see stale labels.
+    private void reindexIfUntracked() {
+        if ( ( _graphicalObjects != null )
+                && !( _graphicalObjects instanceof ObservableList ) ) {
+            reindex();
+        }
+    }
+
+    private void removeGraphicalObject( final GraphicalObject graphicalObject ) {
+        if ( !_indexedLabels.containsKey( graphicalObject ) ) {
+            return;
+        }
+
+        _labelRegistry.removeName( _indexedLabels.remove( graphicalObject ) );
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import com.mhschmieder.fxgui.stage.NoticeBox;
+import com.mhschmieder.jcommons.util.SystemType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This is a service for keeping the Graphics Import Help warm, so that the
+ * Help pop-up is ready right away instead of stalling while the HTML resource
+ * is loaded from the JAR and the renderer gets going.
+ * <p>
+ * A spare {@link NoticeBox} is built for each {@link SystemType} once the
+ * JavaFX Application Thread is idle, as it is a Stage and cannot be built
+ * elsewhere. Each spare is handed out to exactly one owner, as a pop-up Stage
+ * keeps the owner it was first shown for and so cannot be shared between
+ * Graphics Import Previews. A new spare is then warmed up for the next owner.
+ * <p>
+ * The host calls {@link #prewarm(SystemType)} once its main Stage is showing,
+ * so that even the first Graphics Import Preview finds a warm spare.
+ * <p>
+ * This must only be used from the JavaFX Application Thread.
+ */
+public final class GraphicsImportHelpService {
+
+    /**
+     * The spare Graphics Import Help pop-ups, keyed by System Type, which is
+     * what drives the pop-up's styling.
+     */
+    private static final Map< SystemType, NoticeBox > SPARE_GRAPHICS_IMPORT_HELP =
+            new HashMap<>();
+
+    /**
+     * The scheduler that builds the spare pop-ups during idle time.
+     */
+    private static IdleTaskScheduler                  idleTaskScheduler = null;
+
+    /**
+     * The default constructor is disabled, as this is a static service class.
+     */
+    private GraphicsImportHelpService() {}
+
+    /**
+     * Returns a Graphics Import Help pop-up for the given System Type, handing
+     * out the warm spare if there is one and otherwise building one on the
+     * spot, and then warms up a new spare for the next owner.
+     *
+     * @param systemType
+     *            The System Type that the Help pop-up is styled for
+     * @return A Graphics Import Help pop-up, now owned by the caller
+     */
+    public static NoticeBox getGraphicsImportHelp( final SystemType systemType ) {
+        final NoticeBox spareGraphicsImportHelp = SPARE_GRAPHICS_IMPORT_HELP.remove( systemType );
+        final NoticeBox graphicsImportHelp = ( spareGraphicsImportHelp != null )
+            ? spareGraphicsImportHelp
+            : CadHelpUtilities.getGraphicsImportHelp( systemType );
+
+        scheduleSpareGraphicsImportHelp( systemType );
+
+        return graphicsImportHelp;
+    }
+
+    /**
+     * Returns {@code true} if a warm Graphics Import Help pop-up is ready for
+     * the given System Type.
+     *
+     * @param systemType
+     *            The System Type that the Help pop-up is styled for
+     * @return {@code true} if a spare Help pop-up is already built
+     */
+    public static boolean isGraphicsImportHelpLoaded( final SystemType systemType ) {
+        return SPARE_GRAPHICS_IMPORT_HELP.containsKey( systemType );
+    }
+
+    /**
+     * Starts warming up a spare Graphics Import Help pop-up for the given
+     * System Type, to be built once the JavaFX Application Thread is idle.
+     * This is meant to be called once, after the main Stage is showing.
+     *
+     * @param systemType
+     *            The System Type that the Help pop-up is styled for
+     */
+    public static void prewarm( final SystemType systemType ) {
+        scheduleSpareGraphicsImportHelp( systemType );
+    }
+
+    // Schedule a spare Help pop-up to be built once the JavaFX Application
+    // Thread is idle, unless one is already warm by then.
+    private static void scheduleSpareGraphicsImportHelp( final SystemType systemType ) {
+        if ( idleTaskScheduler == null ) {
+            idleTaskScheduler = new IdleTaskScheduler();
+        }
+
+        idleTaskScheduler.schedule( () -> {
+            if ( !isGraphicsImportHelpLoaded( systemType ) ) {
+                SPARE_GRAPHICS_IMPORT_HELP.put( systemType,
+                                                CadHelpUtilities
+                                                        .getGraphicsImportHelp( systemType ) );
+            }
+        } );
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * This runs queued tasks on the JavaFX Application Thread one at a time, and
+ * only once the thread has actually been idle for a while, such as for
+ * warming up pop-ups and Stages after startup.
+ * <p>
+ * Idle time is detected from the pulses themselves: a pulse is quiet when it
+ * arrives within about a frame and a half of the previous one, as any event
+ * handling, layout or rendering work on the thread delays the next pulse. A
+ * task only runs after a run of consecutive quiet pulses, and the count then
+ * starts over, so back-to-back tasks never run in adjacent frames. Hosts can
+ * also report user activity, which restarts the count.
+ * <p>
+ * The scheduler only listens to pulses while tasks are pending, so it costs
+ * nothing once the queue is empty. This must only be used from the JavaFX
+ * Application Thread.
+ */
+public final class IdleTaskScheduler {
+
+    /** The longest interval between pulses for a pulse to count as quiet. */
+    public static final long QUIET_PULSE_INTERVAL_NANOS = 25_000_000L;
+
+    /** The default number of consecutive quiet pulses before a task runs. */
+    public static final int  DEFAULT_QUIET_PULSES       = 30;
+
+    /** The tasks waiting for idle time, in the order they were scheduled. */
+    private final Deque< Runnable > _pendingTasks;
+
+    /** The timer that watches the pulses while tasks are pending. */
+    private final AnimationTimer    _pulseTimer;
+
+    /** The number of consecutive quiet pulses needed before a task runs. */
+    private final int               _requiredQuietPulses;
+
+    /** The number of consecutive quiet pulses seen so far. */
+    private int                     _quietPulseCount;
+
+    /** The time of the previous pulse, or zero if none yet. */
+    private long                    _previousPulseTime;
+
+    /** Flag for whether the timer is watching the pulses. */
+    private boolean                 _running;
+
+    public IdleTaskScheduler() {
+        this( DEFAULT_QUIET_PULSES );
+    }
+
+    public IdleTaskScheduler( final int requiredQuietPulses ) {
+        _pendingTasks = new ArrayDeque<>();
+        _requiredQuietPulses = Math.max( 1, requiredQuietPulses );
+        _quietPulseCount = 0;
+        _previousPulseTime = 0L;
+        _running = false;
+
+        _pulseTimer = new AnimationTimer() {
+            @Override
+            public void handle( final long now ) {
+                handlePulse( now );
+            }
+        };
+    }
+
+    /**
+     * Drops all pending tasks.
+     */
+    public void cancelAll() {
+        _pendingTasks.clear();
+        stop();
+    }
+
+    /**
+     * Returns the number of tasks waiting for idle time.
+     *
+     * @return The number of pending tasks
+     */
+    public int getPendingTaskCount() {
+        return _pendingTasks.size();
+    }
+
+    /**
+     * Reports user activity, such as opening a window, so that the next task
+     * waits for another full run of quiet pulses.
+     */
+    public void noteActivity() {
+        _quietPulseCount = 0;
+        _previousPulseTime = 0L;
+    }
+
+    /**
+     * Queues a task to run once the JavaFX Application Thread is idle.
+     *
+     * @param task
+     *            The task to run
+     */
+    public void schedule( final Runnable task ) {
+        _pendingTasks.add( task );
+        if ( !_running ) {
+            _running = true;
+            noteActivity();
+            _pulseTimer.start();
+        }
+    }
+
+    private void handlePulse( final long now ) {
+        final boolean quietPulse = ( _previousPulseTime != 0L )
+                && ( ( now - _previousPulseTime ) <= QUIET_PULSE_INTERVAL_NANOS );
+        _previousPulseTime = now;
+        _quietPulseCount = quietPulse ? _quietPulseCount + 1 : 0;
+        if ( _quietPulseCount < _requiredQuietPulses ) {
+            return;
+        }
+
+        // Run just one task, and then wait for the thread to settle again.
+        _quietPulseCount = 0;
+        final Runnable task = _pendingTasks.poll();
+        if ( _pendingTasks.isEmpty() ) {
+            stop();
+        }
+        if ( task != null ) {
+            try {
+                task.run();
+            }
+            catch ( final Exception ex ) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    private void stop() {
+        _pulseTimer.stop();
+        _running = false;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import com.mhschmieder.fxgraphics.layers.Layer;
+import com.mhschmieder.fxgraphics.layers.LayerManager;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A Layer Index provides constant-time Layer Name to Layer and Layer to list
+ * index lookups for a Layer Collection, rather than scanning the collection
+ * on every edit.
+ * <p>
+ * When the Layer Collection is observable, the index is invalidated whenever
+ * the list changes, and is rebuilt once on the next lookup. As Layer Names can
+ * also be edited in place, a name lookup also checks the name of the Layer
+ * that it finds, and the index is invalidated whenever a lookup shows that a
+ * Layer has been renamed since the index was built. Hosts may still call
+ * {@link #invalidate()} directly when they know that Layer Names changed.
+ * <p>
+ * Lookups that miss the index fall back to {@link LayerManager}, so that its
+ * conventions for unknown Layers are preserved.
+ */
+public final class LayerIndex {
+
+    /** The Layer Collection being indexed. */
+    private List< Layer >                     _layerCollection;
+
+    /** The first Layer with each Layer Name, as with a linear search. */
+    private final Map< String, Layer >        _layersByName;
+
+    /** The list index of each Layer, by reference. */
+    private final Map< Layer, Integer >       _layerIndices;
+
+    /** Flag for whether the index is in sync with the Layer Collection. */
+    private boolean                           _indexValid;
+
+    /** Listener that invalidates the index when the Layer Collection changes. */
+    private final ListChangeListener< Layer > _layerCollectionListener;
+
+    public LayerIndex( final List< Layer > layerCollection ) {
+        _layersByName = new HashMap<>();
+        _layerIndices = new IdentityHashMap<>();
+        _indexValid = false;
+        _layerCollectionListener = change -> invalidate();
+
+        setLayerCollection( layerCollection );
+    }
+
+    /**
+     * Returns the Layer Collection being indexed.
+     *
+     * @return The Layer Collection being indexed
+     */
+    public List< Layer > getLayerCollection() {
+        return _layerCollection;
+    }
+
+    /**
+     * Returns the Layer with the given Layer Name.
+     *
+     * @param layerName
+     *            The Layer Name to look up
+     * @return The first Layer with the given Layer Name, or whatever
+     *         {@link LayerManager} returns for an unknown Layer Name
+     */
+    public Layer getLayerByName( final String layerName ) {
+        ensureIndexValid();
+
+        // A hit whose name no longer matches means that the Layer was renamed
+        // in place, so the index is rebuilt before trying again.
+        Layer layer = _layersByName.get( layerName );
+        if ( ( layer != null ) && !Objects.equals( layerName, layer.getLayerName() ) ) {
+            invalidate();
+            ensureIndexValid();
+
+            layer = _layersByName.get( layerName );
+        }
+        if ( layer != null ) {
+            return layer;
+        }
+
+        // A miss that the linear search resolves to a Layer with this name
+        // means that a Layer was renamed in place to this name, so the index
+        // is rebuilt on the next lookup.
+        final Layer unindexedLayer = LayerManager.getLayerByName( _layerCollection, layerName );
+        if ( ( unindexedLayer != null )
+                && Objects.equals( layerName, unindexedLayer.getLayerName() ) ) {
+            invalidate();
+        }
+
+        return unindexedLayer;
+    }
+
+    /**
+     * Returns the list index of the given Layer.
+     *
+     * @param layer
+     *            The Layer to look up
+     * @return The list index of the Layer, or whatever {@link LayerManager}
+     *         returns for an unknown Layer
+     */
+    public int getLayerIndex( final Layer layer ) {
+        ensureIndexValid();
+
+        final Integer layerIndex = _layerIndices.get( layer );
+        return ( layerIndex != null )
+            ? layerIndex
+            : LayerManager.getLayerIndex( _layerCollection, layer );
+    }
+
+    /**
+     * Marks the index as out of sync, so that it is rebuilt on next lookup.
+     */
+    public void invalidate() {
+        _indexValid = false;
+    }
+
+    /**
+     * Switches the index to a new Layer Collection, tracking its changes if it
+     * is observable.
+     *
+     * @param layerCollection
+     *            The Layer Collection to index
+     */
+    public void setLayerCollection( final List< Layer > layerCollection ) {
+        if ( layerCollection == _layerCollection ) {
+            return;
+        }
+
+        if ( _layerCollection instanceof ObservableList ) {
+            ( ( ObservableList< Layer > ) _layerCollection )
+                    .removeListener( _layerCollectionListener );
+        }
+
+        _layerCollection = layerCollection;
+
+        if ( _layerCollection instanceof ObservableList ) {
+            ( ( ObservableList< Layer > ) _layerCollection )
+                    .addListener( _layerCollectionListener );
+        }
+
+        invalidate();
+    }
+
+    private void ensureIndexValid() {
+        if ( _indexValid ) {
+            return;
+        }
+
+        _layersByName.clear();
+        _layerIndices.clear();
+
+        if ( _layerCollection != null ) {
+            int layerIndex = 0;
+            for ( final Layer layer : _layerCollection ) {
+                _layersByName.putIfAbsent( layer.getLayerName(), layer );
+                _layerIndices.putIfAbsent( layer, layerIndex++ );
+            }
+        }
+
+        _indexValid = true;
+    }
+}
@@ -0,0 +1,753 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * This is an undo/redo log for edits to a graphical object type, that records
+ * only the fields that actually changed in each edit, as deltas in a ring
+ * buffer of parallel primitive arrays rather than as full copies of objects.
+ * <p>
+ * The editor registers the fields that make up the editable state of the
+ * object type, then brackets each model update with {@link #beginEdit} and
+ * {@link #endEdit}. Each edit that changes at least one field becomes a single
+ * undoable entry. While merging is turned on, such as for the duration of a
+ * slider drag, consecutive edits to the same fields of the same object are
+ * merged into the previous entry rather than adding another one.
+ * <p>
+ * An edit to a whole selection of objects, such as a batch edit, is bracketed
+ * with {@link #beginGroupEdit} instead, and becomes a single entry covering
+ * every object in the selection, so that it is undone and redone as a whole.
+ * <p>
+ * Deltas refer to the edited objects and to the values of reference fields by
+ * number, via a side table that holds each distinct reference only once, for
+ * as long as any delta still uses it. Objects that are removed from the edited
+ * collection should be reported via {@link #removeTarget}, so that their
+ * entries are dropped rather than keeping the objects alive.
+ * <p>
+ * The log is capped at a fixed number of deltas, derived from a memory budget,
+ * and the oldest entries are dropped whole once the cap is reached. An entry
+ * that is larger than the whole log can't be recorded, and as the entries
+ * before it could no longer be undone consistently, the log is then flushed.
+ * <p>
+ * This must only be used from the JavaFX Application Thread.
+ *
+ * @param <T>
+ *            The object type whose edits are recorded
+ */
+public final class LineEditHistory< T > {
+
+    /** The approximate memory used per delta, excluding the side table. */
+    public static final int  BYTES_PER_DELTA          = 40;
+
+    /** The default memory budget for the log. */
+    public static final long DEFAULT_MEMORY_CAP_BYTES = 1024L * 1024L;
+
+    /** The reference number that stands for {@code null}. */
+    private static final int NULL_REFERENCE           = -1;
+
+    /** The registered numeric fields, indexed by field number. */
+    private final List< ToDoubleFunction< ? super T > >   _numericGetters;
+    private final List< ObjDoubleConsumer< ? super T > >  _numericSetters;
+
+    /** The registered reference fields, indexed by field number. */
+    private final List< Function< ? super T, ? > >        _referenceGetters;
+    private final List< BiConsumer< ? super T, Object > > _referenceSetters;
+
+    /** The action to run on an object after its fields are restored. */
+    private final Consumer< ? super T >                   _restoreAction;
+
+    // The ring buffer of deltas, as parallel arrays. Reference fields are
+    // numbered after the numeric fields, and only they use the reference
+    // value slots. Targets and reference values are reference numbers.
+    private final int[]                                   _fieldNumbers;
+    private final double[]                                _oldValues;
+    private final double[]                                _newValues;
+    private final int[]                                   _oldReferences;
+    private final int[]                                   _newReferences;
+    private final int[]                                   _targets;
+    private final long[]                                  _entryNumbers;
+
+    // The side table of references used by the deltas, with the number of
+    // deltas using each one, and the reference numbers free for re-use.
+    private final List< Object >                          _referenceTable;
+    private final Map< Object, Integer >                  _referenceNumbers;
+    private int[]                                         _referenceUseCounts;
+    private final List< Integer >                         _freeReferenceNumbers;
+
+    /** The physical index of the oldest delta. */
+    private int                                           _firstDelta;
+
+    /** The number of deltas in the log, whether applied or undone. */
+    private int                                           _deltaCount;
+
+    /** The number of deltas that are applied, and so can be undone. */
+    private int                                           _appliedDeltaCount;
+
+    /** The number of the most recently recorded entry. */
+    private long                                          _lastEntryNumber;
+
+    /** Flag for whether consecutive edits are currently being merged. */
+    private boolean                                       _merging;
+
+    /** Flag for whether the most recent entry may be merged into. */
+    private boolean                                       _mergeable;
+
+    // The state of the objects at the start of the edit in progress, with the
+    // old values of each object stored one after the other.
+    private final List< T >                               _editTargets;
+    private double[]                                      _editOldValues;
+    private Object[]                                      _editOldReferences;
+
+    public LineEditHistory( final long memoryCapBytes, final Consumer< ? super T > restoreAction ) {
+        _numericGetters = new ArrayList<>();
+        _numericSetters = new ArrayList<>();
+        _referenceGetters = new ArrayList<>();
+        _referenceSetters = new ArrayList<>();
+        _restoreAction = restoreAction;
+
+        final int capacity = ( int ) Math.max( 1L,
+                                               Math.min( Integer.MAX_VALUE - 8,
+                                                         memoryCapBytes / BYTES_PER_DELTA ) );
+        _fieldNumbers = new int[ capacity ];
+        _oldValues = new double[ capacity ];
+        _newValues = new double[ capacity ];
+        _oldReferences = new int[ capacity ];
+        _newReferences = new int[ capacity ];
+        _targets = new int[ capacity ];
+        _entryNumbers = new long[ capacity ];
+
+        _referenceTable = new ArrayList<>();
+        _referenceNumbers = new IdentityHashMap<>();
+        _referenceUseCounts = new int[ 16 ];
+        _freeReferenceNumbers = new ArrayList<>();
+
+        _lastEntryNumber = 0L;
+        _merging = false;
+        _editTargets = new ArrayList<>();
+        _editOldValues = new double[ 0 ];
+        _editOldReferences = new Object[ 0 ];
+
+        clear();
+    }
+
+    /**
+     * Registers a numeric field of the object type.
+     *
+     * @param getter
+     *            The getter for the field
+     * @param setter
+     *            The setter for the field
+     */
+    public void addNumericField( final ToDoubleFunction< ? super T > getter,
+                                 final ObjDoubleConsumer< ? super T > setter ) {
+        _numericGetters.add( getter );
+        _numericSetters.add( setter );
+    }
+
+    /**
+     * Registers a reference field of the object type, such as a label, which
+     * is compared for equality rather than identity.
+     *
+     * @param getter
+     *            The getter for the field
+     * @param setter
+     *            The setter for the field
+     * @param <V>
+     *            The value type of the field
+     */
+    @SuppressWarnings("unchecked")
+    public < V > void addReferenceField( final Function< ? super T, V > getter,
+                                         final BiConsumer< ? super T, V > setter ) {
+        _referenceGetters.add( getter );
+        _referenceSetters.add( ( target, value ) -> setter.accept( target, ( V ) value ) );
+    }
+
+    /**
+     * Caches the state of an object before it is edited.
+     *
+     * @param target
+     *            The object about to be edited
+     */
+    public void beginEdit( final T target ) {
+        beginGroupEdit( Collections.singletonList( target ) );
+    }
+
+    /**
+     * Caches the state of a selection of objects before they are edited
+     * together, so that the edit is recorded as a single entry covering them
+     * all. Such an entry is never merged with other edits.
+     *
+     * @param targets
+     *            The objects about to be edited
+     */
+    public void beginGroupEdit( final Collection< ? extends T > targets ) {
+        _editTargets.clear();
+        _editTargets.addAll( targets );
+
+        final int numberOfTargets = _editTargets.size();
+        final int numberOfNumericFields = _numericGetters.size();
+        final int numberOfReferenceFields = _referenceGetters.size();
+        if ( _editOldValues.length < ( numberOfTargets * numberOfNumericFields ) ) {
+            _editOldValues = new double[ numberOfTargets * numberOfNumericFields ];
+        }
+        if ( _editOldReferences.length < ( numberOfTargets * numberOfReferenceFields ) ) {
+            _editOldReferences = new Object[ numberOfTargets * numberOfReferenceFields ];
+        }
+
+        for ( int targetNumber = 0; targetNumber < numberOfTargets; targetNumber++ ) {
+            final T target = _editTargets.get( targetNumber );
+            for ( int i = 0; i < numberOfNumericFields; i++ ) {
+                _editOldValues[ ( targetNumber * numberOfNumericFields ) + i ] = _numericGetters
+                        .get( i ).applyAsDouble( target );
+            }
+            for ( int i = 0; i < numberOfReferenceFields; i++ ) {
+                _editOldReferences[ ( targetNumber * numberOfReferenceFields ) + i ] =
+                        _referenceGetters.get( i ).apply( target );
+            }
+        }
+    }
+
+    /**
+     * Stops the most recent entry from absorbing further edits, such as when
+     * a different object is selected.
+     */
+    public void breakMerge() {
+        _mergeable = false;
+    }
+
+    /**
+     * Returns {@code true} if there is an entry that can be redone.
+     *
+     * @return {@code true} if there is an entry that can be redone
+     */
+    public boolean canRedo() {
+        return _appliedDeltaCount < _deltaCount;
+    }
+
+    /**
+     * Returns {@code true} if there is an entry that can be undone.
+     *
+     * @return {@code true} if there is an entry that can be undone
+     */
+    public boolean canUndo() {
+        return _appliedDeltaCount > 0;
+    }
+
+    /**
+     * Drops all entries, such as when the edited collection is replaced.
+     */
+    public void clear() {
+        _firstDelta = 0;
+        _deltaCount = 0;
+        _appliedDeltaCount = 0;
+        _mergeable = false;
+
+        _referenceTable.clear();
+        _referenceNumbers.clear();
+        Arrays.fill( _referenceUseCounts, 0 );
+        _freeReferenceNumbers.clear();
+    }
+
+    /**
+     * Records the changes made to the objects since {@link #beginEdit} or
+     * {@link #beginGroupEdit}, as a single entry, or merges them into the
+     * previous entry.
+     *
+     * @return {@code true} if anything was recorded
+     */
+    public boolean endEdit() {
+        final int numberOfTargets = _editTargets.size();
+        if ( numberOfTargets == 0 ) {
+            return false;
+        }
+
+        try {
+            return recordEdit( numberOfTargets );
+        }
+        finally {
+            // Don't keep the edited objects or their old values alive.
+            _editTargets.clear();
+            Arrays.fill( _editOldReferences, null );
+        }
+    }
+
+    /**
+     * Returns the maximum number of deltas the log can hold.
+     *
+     * @return The maximum number of deltas
+     */
+    public int getCapacity() {
+        return _fieldNumbers.length;
+    }
+
+    /**
+     * Returns the number of deltas in the log, whether applied or undone.
+     *
+     * @return The number of deltas
+     */
+    public int getDeltaCount() {
+        return _deltaCount;
+    }
+
+    /**
+     * Returns the number of distinct references held for the deltas, whether
+     * edited objects or values of reference fields.
+     *
+     * @return The number of references in the side table
+     */
+    public int getReferenceCount() {
+        return _referenceNumbers.size();
+    }
+
+    /**
+     * Returns {@code true} if consecutive edits are currently being merged.
+     *
+     * @return {@code true} if consecutive edits are being merged
+     */
+    public boolean isMerging() {
+        return _merging;
+    }
+
+    /**
+     * Re-applies the most recently undone entry. Every object changed by the
+     * entry is passed to the restore action.
+     *
+     * @return The object that was changed, or the first of them for an entry
+     *         covering several objects, or {@code null} if there was nothing
+     *         to redo
+     */
+    @SuppressWarnings("unchecked")
+    public T redo() {
+        if ( !canRedo() ) {
+            return null;
+        }
+
+        _mergeable = false;
+
+        final int firstIndex = getIndex( _appliedDeltaCount );
+        final long entryNumber = _entryNumbers[ firstIndex ];
+        final T target = ( T ) getReference( _targets[ firstIndex ] );
+        final List< T > restoredTargets = new ArrayList<>();
+        final Set< T > restoredTargetSet = Collections.newSetFromMap( new IdentityHashMap<>() );
+        while ( ( _appliedDeltaCount < _deltaCount )
+                && ( _entryNumbers[ getIndex( _appliedDeltaCount ) ] == entryNumber ) ) {
+            addRestoredTarget( restoredTargets,
+                               restoredTargetSet,
+                               restoreDelta( getIndex( _appliedDeltaCount ), false ) );
+            _appliedDeltaCount++;
+        }
+
+        restoredTargets.forEach( _restoreAction );
+        return target;
+    }
+
+    /**
+     * Drops every entry for an object, such as when it is removed from the
+     * edited collection, so that the log no longer keeps it alive. Entries for
+     * other objects are kept, as they never depend on the dropped ones.
+     *
+     * @param target
+     *            The object whose entries are to be dropped
+     * @return {@code true} if any entries were dropped
+     */
+    public boolean removeTarget( final T target ) {
+        final Integer targetReference = _referenceNumbers.get( target );
+        if ( targetReference == null ) {
+            return false;
+        }
+
+        // Compact the remaining deltas towards the oldest end of the buffer.
+        final int appliedDeltaCount = _appliedDeltaCount;
+        int keptDeltaCount = 0;
+        int keptAppliedDeltaCount = 0;
+        for ( int i = 0; i < _deltaCount; i++ ) {
+            final int index = getIndex( i );
+            if ( _targets[ index ] == targetReference.intValue() ) {
+                releaseDelta( index );
+                continue;
+            }
+
+            final int keptIndex = getIndex( keptDeltaCount );
+            if ( keptIndex != index ) {
+                _fieldNumbers[ keptIndex ] = _fieldNumbers[ index ];
+                _oldValues[ keptIndex ] = _oldValues[ index ];
+                _newValues[ keptIndex ] = _newValues[ index ];
+                _oldReferences[ keptIndex ] = _oldReferences[ index ];
+                _newReferences[ keptIndex ] = _newReferences[ index ];
+                _targets[ keptIndex ] = _targets[ index ];
+                _entryNumbers[ keptIndex ] = _entryNumbers[ index ];
+            }
+            keptDeltaCount++;
+            if ( i < appliedDeltaCount ) {
+                keptAppliedDeltaCount++;
+            }
+        }
+
+        _deltaCount = keptDeltaCount;
+        _appliedDeltaCount = keptAppliedDeltaCount;
+        _mergeable = false;
+        return true;
+    }
+
+    /**
+     * Turns merging of consecutive edits on or off, such as when a slider
+     * drag starts or ends. Either way, the next edit starts a new entry.
+     *
+     * @param merging
+     *            {@code true} to merge consecutive edits to the same fields of
+     *            the same object into a single entry
+     */
+    public void setMerging( final boolean merging ) {
+        _merging = merging;
+        _mergeable = false;
+    }
+
+    /**
+     * Reverts the most recently applied entry. Every object changed by the
+     * entry is passed to the restore action.
+     *
+     * @return The object that was changed, or the first of them for an entry
+     *         covering several objects, or {@code null} if there was nothing
+     *         to undo
+     */
+    public T undo() {
+        if ( !canUndo() ) {
+            return null;
+        }
+
+        _mergeable = false;
+
+        final long entryNumber = _entryNumbers[ getIndex( _appliedDeltaCount - 1 ) ];
+        final List< T > restoredTargets = new ArrayList<>();
+        final Set< T > restoredTargetSet = Collections.newSetFromMap( new IdentityHashMap<>() );
+        T target = null;
+        while ( ( _appliedDeltaCount > 0 )
+                && ( _entryNumbers[ getIndex( _appliedDeltaCount - 1 ) ] == entryNumber ) ) {
+            _appliedDeltaCount--;
+            target = restoreDelta( getIndex( _appliedDeltaCount ), true );
+            addRestoredTarget( restoredTargets, restoredTargetSet, target );
+        }
+
+        restoredTargets.forEach( _restoreAction );
+        return target;
+    }
+
+    // Add a use of a reference to the side table, returning its number.
+    private int acquireReference( final Object reference ) {
+        if ( reference == null ) {
+            return NULL_REFERENCE;
+        }
+
+        Integer referenceNumber = _referenceNumbers.get( reference );
+        if ( referenceNumber == null ) {
+            if ( _freeReferenceNumbers.isEmpty() ) {
+                referenceNumber = _referenceTable.size();
+                _referenceTable.add( reference );
+            }
+            else {
+                referenceNumber = _freeReferenceNumbers.remove( _freeReferenceNumbers.size() - 1 );
+                _referenceTable.set( referenceNumber, reference );
+            }
+            _referenceNumbers.put( reference, referenceNumber );
+
+            if ( referenceNumber >= _referenceUseCounts.length ) {
+                _referenceUseCounts = Arrays.copyOf( _referenceUseCounts,
+                                                     2 * _referenceUseCounts.length );
+            }
+        }
+
+        _referenceUseCounts[ referenceNumber ]++;
+        return referenceNumber;
+    }
+
+    // Add an object to those restored by an entry, in order, unless already
+    // there. Objects are compared by identity rather than by value.
+    private void addRestoredTarget( final List< T > restoredTargets,
+                                    final Set< T > restoredTargetSet,
+                                    final T target ) {
+        if ( restoredTargetSet.add( target ) ) {
+            restoredTargets.add( target );
+        }
+    }
+
+    private void appendDelta( final long entryNumber,
+                              final T target,
+                              final int fieldNumber,
+                              final double oldValue,
+                              final double newValue,
+                              final Object oldReference,
+                              final Object newReference ) {
+        final int index = getIndex( _deltaCount );
+        _fieldNumbers[ index ] = fieldNumber;
+        _oldValues[ index ] = oldValue;
+        _newValues[ index ] = newValue;
+        _oldReferences[ index ] = acquireReference( oldReference );
+        _newReferences[ index ] = acquireReference( newReference );
+        _targets[ index ] = acquireReference( target );
+        _entryNumbers[ index ] = entryNumber;
+
+        _deltaCount++;
+        _appliedDeltaCount++;
+    }
+
+    private void dropFirstEntry() {
+        final long oldestEntryNumber = _entryNumbers[ _firstDelta ];
+        while ( ( _deltaCount > 0 ) && ( _entryNumbers[ _firstDelta ] == oldestEntryNumber ) ) {
+            releaseDelta( _firstDelta );
+
+            _firstDelta = ( _firstDelta + 1 ) % _fieldNumbers.length;
+            _deltaCount--;
+            _appliedDeltaCount--;
+        }
+    }
+
+    private int getIndex( final int deltaNumber ) {
+        return ( _firstDelta + deltaNumber ) % _fieldNumbers.length;
+    }
+
+    private Object getReference( final int referenceNumber ) {
+        return ( referenceNumber == NULL_REFERENCE )
+            ? null
+            : _referenceTable.get( referenceNumber );
+    }
+
+    private boolean isFieldChanged( final int targetNumber,
+                                    final int fieldNumber,
+                                    final int numberOfNumericFields ) {
+        final T target = _editTargets.get( targetNumber );
+        if ( fieldNumber < numberOfNumericFields ) {
+            final double newValue = _numericGetters.get( fieldNumber ).applyAsDouble( target );
+            return Double.compare( newValue, getEditOldValue( targetNumber, fieldNumber ) ) != 0;
+        }
+
+        final int referenceNumber = fieldNumber - numberOfNumericFields;
+        final Object newReference = _referenceGetters.get( referenceNumber ).apply( target );
+        return !Objects.equals( newReference,
+                                getEditOldReference( targetNumber, referenceNumber ) );
+    }
+
+    private double getEditOldValue( final int targetNumber, final int fieldNumber ) {
+        return _editOldValues[ ( targetNumber * _numericGetters.size() ) + fieldNumber ];
+    }
+
+    private Object getEditOldReference( final int targetNumber, final int referenceNumber ) {
+        return _editOldReferences[ ( targetNumber * _referenceGetters.size() ) + referenceNumber ];
+    }
+
+    // Record the changes to every edited object under one entry number, or
+    // merge a single object's changes into the previous entry.
+    private boolean recordEdit( final int numberOfTargets ) {
+        final boolean mergeable = _merging && _mergeable && !canRedo() && ( numberOfTargets == 1 );
+        final int numberOfNumericFields = _numericGetters.size();
+
+        // Merge if the edit changes exactly the fields of the previous entry.
+        if ( mergeable && tryMerge( numberOfNumericFields ) ) {
+            return true;
+        }
+
+        final int numberOfFields = numberOfNumericFields + _referenceGetters.size();
+        int numberOfDeltas = 0;
+        for ( int targetNumber = 0; targetNumber < numberOfTargets; targetNumber++ ) {
+            for ( int fieldNumber = 0; fieldNumber < numberOfFields; fieldNumber++ ) {
+                if ( isFieldChanged( targetNumber, fieldNumber, numberOfNumericFields ) ) {
+                    numberOfDeltas++;
+                }
+            }
+        }
+        if ( numberOfDeltas == 0 ) {
+            return false;
+        }
+
+        // An entry larger than the whole log can't be recorded, and undoing
+        // the entries before it would then skip over its changes, so flush.
+        if ( numberOfDeltas > _fieldNumbers.length ) {
+            clear();
+            return false;
+        }
+
+        // Editing after undoing discards everything that could be redone.
+        truncateRedo();
+
+        // When full, drop the oldest entries as a whole, so that no entry is
+        // ever left partially undoable.
+        while ( ( _deltaCount + numberOfDeltas ) > _fieldNumbers.length ) {
+            dropFirstEntry();
+        }
+
+        final long entryNumber = _lastEntryNumber + 1L;
+        for ( int targetNumber = 0; targetNumber < numberOfTargets; targetNumber++ ) {
+            final T target = _editTargets.get( targetNumber );
+            for ( int i = 0; i < numberOfNumericFields; i++ ) {
+                if ( isFieldChanged( targetNumber, i, numberOfNumericFields ) ) {
+                    final double newValue = _numericGetters.get( i ).applyAsDouble( target );
+                    appendDelta( entryNumber,
+                                 target,
+                                 i,
+                                 getEditOldValue( targetNumber, i ),
+                                 newValue,
+                                 null,
+                                 null );
+                }
+            }
+            for ( int i = 0, n = _referenceGetters.size(); i < n; i++ ) {
+                final int fieldNumber = numberOfNumericFields + i;
+                if ( isFieldChanged( targetNumber, fieldNumber, numberOfNumericFields ) ) {
+                    final Object newReference = _referenceGetters.get( i ).apply( target );
+                    appendDelta( entryNumber,
+                                 target,
+                                 fieldNumber,
+                                 0.0d,
+                                 0.0d,
+                                 getEditOldReference( targetNumber, i ),
+                                 newReference );
+                }
+            }
+        }
+
+        _lastEntryNumber = entryNumber;
+        _mergeable = numberOfTargets == 1;
+        return true;
+    }
+
+    private void releaseDelta( final int index ) {
+        releaseReference( _oldReferences[ index ] );
+        releaseReference( _newReferences[ index ] );
+        releaseReference( _targets[ index ] );
+    }
+
+    // Remove a use of a reference from the side table, freeing its number
+    // once no delta uses it anymore.
+    private void releaseReference( final int referenceNumber ) {
+        if ( referenceNumber == NULL_REFERENCE ) {
+            return;
+        }
+
+        _referenceUseCounts[ referenceNumber ]--;
+        if ( _referenceUseCounts[ referenceNumber ] == 0 ) {
+            _referenceNumbers.remove( _referenceTable.get( referenceNumber ) );
+            _referenceTable.set( referenceNumber, null );
+            _freeReferenceNumbers.add( referenceNumber );
+        }
+    }
+
+    private T restoreDelta( final int index, final boolean undo ) {
+        @SuppressWarnings("unchecked") final T target = ( T ) getReference( _targets[ index ] );
+        final int fieldNumber = _fieldNumbers[ index ];
+        final int numberOfNumericFields = _numericSetters.size();
+        if ( fieldNumber < numberOfNumericFields ) {
+            _numericSetters.get( fieldNumber )
+                    .accept( target, undo ? _oldValues[ index ] : _newValues[ index ] );
+        }
+        else {
+            _referenceSetters.get( fieldNumber - numberOfNumericFields )
+                    .accept( target,
+                             getReference( undo
+                                 ? _oldReferences[ index ]
+                                 : _newReferences[ index ] ) );
+        }
+
+        return target;
+    }
+
+    private void truncateRedo() {
+        while ( _deltaCount > _appliedDeltaCount ) {
+            releaseDelta( getIndex( _deltaCount - 1 ) );
+            _deltaCount--;
+        }
+    }
+
+    // Merge the edit into the previous entry if it changed exactly the same
+    // fields of the same object, keeping the previous entry's old values.
+    private boolean tryMerge( final int numberOfNumericFields ) {
+        final T target = _editTargets.get( 0 );
+        final long entryNumber = _lastEntryNumber;
+        int firstDeltaOfEntry = _deltaCount;
+        while ( ( firstDeltaOfEntry > 0 )
+                && ( _entryNumbers[ getIndex( firstDeltaOfEntry - 1 ) ] == entryNumber ) ) {
+            firstDeltaOfEntry--;
+        }
+        if ( ( firstDeltaOfEntry == _deltaCount )
+                || ( getReference( _targets[ getIndex( firstDeltaOfEntry ) ] ) != target ) ) {
+            return false;
+        }
+
+        // Deltas are recorded in field order, so the changed fields of this
+        // edit can be walked in step with the deltas of the previous entry.
+        int deltaNumber = firstDeltaOfEntry;
+        final int numberOfFields = numberOfNumericFields + _referenceGetters.size();
+        for ( int fieldNumber = 0; fieldNumber < numberOfFields; fieldNumber++ ) {
+            if ( !isFieldChanged( 0, fieldNumber, numberOfNumericFields ) ) {
+                continue;
+            }
+            if ( ( deltaNumber == _deltaCount )
+                    || ( _fieldNumbers[ getIndex( deltaNumber ) ] != fieldNumber ) ) {
+                return false;
+            }
+            deltaNumber++;
+        }
+        if ( deltaNumber != _deltaCount ) {
+            return false;
+        }
+
+        // Only the new values move, as the entry still reverts to its start.
+        for ( int i = firstDeltaOfEntry; i < _deltaCount; i++ ) {
+            final int index = getIndex( i );
+            final int fieldNumber = _fieldNumbers[ index ];
+            if ( fieldNumber < numberOfNumericFields ) {
+                _newValues[ index ] = _numericGetters.get( fieldNumber ).applyAsDouble( target );
+            }
+            else {
+                final Object newReference = _referenceGetters
+                        .get( fieldNumber - numberOfNumericFields ).apply( target );
+                final int oldNewReference = _newReferences[ index ];
+                _newReferences[ index ] = acquireReference( newReference );
+                releaseReference( oldNewReference );
+            }
+        }
+
+        return true;
+    }
+}
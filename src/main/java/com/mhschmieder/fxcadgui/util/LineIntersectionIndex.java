@@ -0,0 +1,618 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import com.mhschmieder.fxgraphics.geometry.CartesianLine;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * A Line Intersection Index finds crossings between Cartesian Lines via a
+ * uniform grid, so that checking one line against a collection only tests the
+ * lines that share grid cells with it, rather than every line in the
+ * collection, and finding all crossings in a collection avoids testing every
+ * pair of lines.
+ * <p>
+ * Each line is binned into exactly the grid cells that it passes through, and
+ * only lines that share a cell are tested against each other. Each pair of
+ * lines is tested once, even when they share several cells.
+ * <p>
+ * The cell size is the median line extent, so that a few very long lines
+ * don't coarsen the grid for all of the others, but never so small that the
+ * grid spans more than a fixed number of cells per axis across the bounds of
+ * the collection. Lines that would still pass through more than a fixed
+ * number of cells, such as very long lines or lines added far outside the
+ * bounds, are kept in an overflow list instead, and are tested against every
+ * other line.
+ * <p>
+ * Only proper crossings are reported, where the interiors of two lines cross,
+ * as lines that merely touch at an endpoint are usually connected on purpose.
+ * <p>
+ * When the collection is observable, the index follows additions and removals
+ * incrementally. Lines are edited in place though, so hosts must call
+ * {@link #updateCartesianLine(CartesianLine)} after changing the geometry of a
+ * line that may belong to the collection.
+ */
+public final class LineIntersectionIndex {
+
+    /**
+     * A crossing between two Cartesian Lines.
+     */
+    public static final class LineCrossing {
+
+        private final CartesianLine _firstCartesianLine;
+        private final CartesianLine _secondCartesianLine;
+        private final double        _x;
+        private final double        _y;
+
+        private LineCrossing( final CartesianLine firstCartesianLine,
+                              final CartesianLine secondCartesianLine,
+                              final double x,
+                              final double y ) {
+            _firstCartesianLine = firstCartesianLine;
+            _secondCartesianLine = secondCartesianLine;
+            _x = x;
+            _y = y;
+        }
+
+        public CartesianLine getFirstCartesianLine() {
+            return _firstCartesianLine;
+        }
+
+        public CartesianLine getSecondCartesianLine() {
+            return _secondCartesianLine;
+        }
+
+        public double getX() {
+            return _x;
+        }
+
+        public double getY() {
+            return _y;
+        }
+    }
+
+    /**
+     * The indexed state of a single line, so that it can be removed from the
+     * cells it was binned into even after it was edited in place.
+     */
+    private static final class IndexedLine {
+
+        private final CartesianLine _cartesianLine;
+        private final int           _lineNumber;
+        private final double[]      _coordinates;
+
+        private IndexedLine( final CartesianLine cartesianLine, final int lineNumber ) {
+            _cartesianLine = cartesianLine;
+            _lineNumber = lineNumber;
+            _coordinates = getCoordinates( cartesianLine );
+        }
+    }
+
+    /** The maximum cell index, so that cell indices can be packed. */
+    private static final double                       MAXIMUM_CELL_INDEX     = 1.0e9d;
+
+    /** The maximum number of cells across the bounds of the collection. */
+    public static final int                           MAXIMUM_CELLS_PER_AXIS = 1024;
+
+    /** The maximum number of cells a line is binned into before overflow. */
+    public static final int                           MAXIMUM_CELLS_PER_LINE = 64;
+
+    /** The Cartesian Lines being indexed. */
+    private List< CartesianLine >                     _cartesianLines;
+
+    /** The indexed state of each line, by reference. */
+    private final Map< CartesianLine, IndexedLine >   _indexedLines;
+
+    /** The lines that pass through each grid cell, by packed cell key. */
+    private final Map< Long, List< IndexedLine > >    _gridCells;
+
+    /** The lines that pass through too many cells to be binned. */
+    private final List< IndexedLine >                 _overflowLines;
+
+    /** The number to give the next indexed line. */
+    private int                                       _nextLineNumber;
+
+    /** The width and height of each grid cell. */
+    private double                                    _cellSize;
+
+    /** The number of lines when the cell size was last chosen. */
+    private int                                       _cellSizeLineCount;
+
+    /** Listener that follows additions and removals in the collection. */
+    private final ListChangeListener< CartesianLine > _cartesianLinesListener;
+
+    public LineIntersectionIndex() {
+        _cartesianLines = null;
+        _indexedLines = new IdentityHashMap<>();
+        _gridCells = new HashMap<>();
+        _overflowLines = new ArrayList<>();
+        _nextLineNumber = 0;
+        _cellSize = 1.0d;
+        _cellSizeLineCount = 0;
+        _cartesianLinesListener = this::cartesianLinesChanged;
+    }
+
+    /**
+     * Returns all crossings between the indexed lines.
+     *
+     * @return The crossings between the indexed lines, each reported once
+     */
+    public List< LineCrossing > findAllCrossings() {
+        final List< LineCrossing > lineCrossings = new ArrayList<>();
+        final Set< Long > testedPairs = new HashSet<>();
+        final double[] crossingPoint = new double[ 2 ];
+        for ( final List< IndexedLine > cellLines : _gridCells.values() ) {
+            for ( int i = 0, n = cellLines.size(); i < n; i++ ) {
+                final IndexedLine first = cellLines.get( i );
+                for ( int j = i + 1; j < n; j++ ) {
+                    final IndexedLine second = cellLines.get( j );
+                    if ( testedPairs.add( packPairKey( first._lineNumber, second._lineNumber ) )
+                            && getCrossingPoint( first._coordinates,
+                                                 second._coordinates,
+                                                 crossingPoint ) ) {
+                        lineCrossings.add( new LineCrossing( first._cartesianLine,
+                                                             second._cartesianLine,
+                                                             crossingPoint[ 0 ],
+                                                             crossingPoint[ 1 ] ) );
+                    }
+                }
+            }
+        }
+
+        // Overflow lines aren't binned, so test them against every line.
+        for ( final IndexedLine overflowLine : _overflowLines ) {
+            for ( final IndexedLine indexedLine : _indexedLines.values() ) {
+                if ( ( indexedLine != overflowLine )
+                        && testedPairs.add( packPairKey( overflowLine._lineNumber,
+                                                         indexedLine._lineNumber ) )
+                        && getCrossingPoint( overflowLine._coordinates,
+                                             indexedLine._coordinates,
+                                             crossingPoint ) ) {
+                    lineCrossings.add( new LineCrossing( overflowLine._cartesianLine,
+                                                         indexedLine._cartesianLine,
+                                                         crossingPoint[ 0 ],
+                                                         crossingPoint[ 1 ] ) );
+                }
+            }
+        }
+
+        return lineCrossings;
+    }
+
+    /**
+     * Returns the crossings of the given line with the indexed lines, which
+     * need not be in the index, such as a new line that is still being edited.
+     *
+     * @param cartesianLine
+     *            The line to check
+     * @return The crossings with the indexed lines other than the given line,
+     *         with the given line as the first line of each crossing
+     */
+    public List< LineCrossing > findCrossings( final CartesianLine cartesianLine ) {
+        final double[] coordinates = getCoordinates( cartesianLine );
+        final List< LineCrossing > lineCrossings = new ArrayList<>();
+        final Set< IndexedLine > testedLines = Collections.newSetFromMap( new IdentityHashMap<>() );
+        final double[] crossingPoint = new double[ 2 ];
+        final Consumer< IndexedLine > lineTester = indexedLine -> {
+            if ( ( indexedLine._cartesianLine != cartesianLine ) && testedLines.add( indexedLine )
+                    && getCrossingPoint( coordinates, indexedLine._coordinates, crossingPoint ) ) {
+                lineCrossings.add( new LineCrossing( cartesianLine,
+                                                     indexedLine._cartesianLine,
+                                                     crossingPoint[ 0 ],
+                                                     crossingPoint[ 1 ] ) );
+            }
+        };
+
+        // A line too long to bin is cheaper to test against every line than
+        // to walk through all of the cells that it passes through.
+        if ( isOverflowLine( coordinates ) ) {
+            _indexedLines.values().forEach( lineTester );
+            return lineCrossings;
+        }
+
+        forEachCell( coordinates, cellKey -> {
+            final List< IndexedLine > cellLines = _gridCells.get( cellKey );
+            if ( cellLines != null ) {
+                cellLines.forEach( lineTester );
+            }
+        } );
+        _overflowLines.forEach( lineTester );
+
+        return lineCrossings;
+    }
+
+    /**
+     * Returns the indexed lines that cross the given line, which need not be
+     * in the index, such as a new line that is still being edited.
+     *
+     * @param cartesianLine
+     *            The line to check
+     * @return The indexed lines, other than the given line, that cross it
+     */
+    public List< CartesianLine > findCrossingCartesianLines( final CartesianLine cartesianLine ) {
+        final List< LineCrossing > lineCrossings = findCrossings( cartesianLine );
+        final List< CartesianLine > crossingCartesianLines = new ArrayList<>( lineCrossings
+                .size() );
+        for ( final LineCrossing lineCrossing : lineCrossings ) {
+            crossingCartesianLines.add( lineCrossing.getSecondCartesianLine() );
+        }
+
+        return crossingCartesianLines;
+    }
+
+    /**
+     * Returns the Cartesian Lines being indexed.
+     *
+     * @return The indexed Cartesian Lines, or {@code null} if there are none
+     */
+    public List< CartesianLine > getCartesianLines() {
+        return _cartesianLines;
+    }
+
+    /**
+     * Returns the width and height of each grid cell.
+     *
+     * @return The grid cell size
+     */
+    public double getCellSize() {
+        return _cellSize;
+    }
+
+    /**
+     * Returns the number of grid cells that have any lines binned into them.
+     *
+     * @return The number of occupied grid cells
+     */
+    public int getGridCellCount() {
+        return _gridCells.size();
+    }
+
+    /**
+     * Returns the number of lines that pass through too many cells to be
+     * binned, and so are tested against every other line.
+     *
+     * @return The number of overflow lines
+     */
+    public int getOverflowLineCount() {
+        return _overflowLines.size();
+    }
+
+    /**
+     * Re-indexes the whole collection, re-choosing the grid cell size to
+     * suit the current lines.
+     */
+    public void reindex() {
+        _indexedLines.clear();
+        _gridCells.clear();
+        _overflowLines.clear();
+        _nextLineNumber = 0;
+
+        if ( _cartesianLines == null ) {
+            return;
+        }
+
+        _cellSize = chooseCellSize( _cartesianLines );
+        _cellSizeLineCount = _cartesianLines.size();
+
+        for ( final CartesianLine cartesianLine : _cartesianLines ) {
+            addCartesianLine( cartesianLine );
+        }
+    }
+
+    /**
+     * Switches the index to a new collection of Cartesian Lines, following
+     * its additions and removals if it is observable.
+     *
+     * @param cartesianLines
+     *            The Cartesian Lines to index
+     */
+    @SuppressWarnings("unchecked")
+    public void setCartesianLines( final List< CartesianLine > cartesianLines ) {
+        if ( _cartesianLines instanceof ObservableList ) {
+            ( ( ObservableList< CartesianLine > ) _cartesianLines )
+                    .removeListener( _cartesianLinesListener );
+        }
+
+        _cartesianLines = cartesianLines;
+
+        if ( _cartesianLines instanceof ObservableList ) {
+            ( ( ObservableList< CartesianLine > ) _cartesianLines )
+                    .addListener( _cartesianLinesListener );
+        }
+
+        reindex();
+    }
+
+    /**
+     * Returns the number of indexed Cartesian Lines.
+     *
+     * @return The number of indexed Cartesian Lines
+     */
+    public int size() {
+        return _indexedLines.size();
+    }
+
+    /**
+     * Re-bins a line after its geometry was changed in place. Lines that
+     * aren't in the indexed collection are ignored.
+     *
+     * @param cartesianLine
+     *            The Cartesian Line whose geometry may have changed
+     */
+    public void updateCartesianLine( final CartesianLine cartesianLine ) {
+        final IndexedLine indexedLine = _indexedLines.get( cartesianLine );
+        if ( indexedLine == null ) {
+            return;
+        }
+
+        final double[] coordinates = getCoordinates( cartesianLine );
+        for ( int i = 0; i < 4; i++ ) {
+            if ( Double.compare( coordinates[ i ], indexedLine._coordinates[ i ] ) != 0 ) {
+                removeCartesianLine( cartesianLine );
+                addCartesianLine( cartesianLine );
+                return;
+            }
+        }
+    }
+
+    private void addCartesianLine( final CartesianLine cartesianLine ) {
+        if ( _indexedLines.containsKey( cartesianLine ) ) {
+            return;
+        }
+
+        final IndexedLine indexedLine = new IndexedLine( cartesianLine, _nextLineNumber++ );
+        _indexedLines.put( cartesianLine, indexedLine );
+        if ( isOverflowLine( indexedLine._coordinates ) ) {
+            _overflowLines.add( indexedLine );
+            return;
+        }
+        forEachCell( indexedLine._coordinates, cellKey -> _gridCells
+                .computeIfAbsent( cellKey, key -> new ArrayList<>( 4 ) ).add( indexedLine ) );
+    }
+
+    private void cartesianLinesChanged(
+            final ListChangeListener.Change< ? extends CartesianLine > change ) {
+        while ( change.next() ) {
+            if ( change.wasPermutated() ) {
+                continue;
+            }
+            if ( change.wasUpdated() ) {
+                for ( int i = change.getFrom(); i < change.getTo(); i++ ) {
+                    updateCartesianLine( change.getList().get( i ) );
+                }
+                continue;
+            }
+            for ( final CartesianLine cartesianLine : change.getRemoved() ) {
+                removeCartesianLine( cartesianLine );
+            }
+            for ( final CartesianLine cartesianLine : change.getAddedSubList() ) {
+                addCartesianLine( cartesianLine );
+            }
+        }
+
+        // Re-choose the cell size once the collection has grown a lot, such
+        // as after a bulk import, as the old size may no longer suit it.
+        if ( _indexedLines.size() > ( 2 * Math.max( 16, _cellSizeLineCount ) ) ) {
+            reindex();
+        }
+    }
+
+    /*
+     * Chooses the cell size as the median line extent, so that a typical line
+     * only passes through a few cells, but no smaller than keeps the grid to
+     * a bounded number of cells per axis across the bounds of the lines.
+     */
+    private static double chooseCellSize( final List< CartesianLine > cartesianLines ) {
+        final double[] extents = new double[ cartesianLines.size() ];
+        int numberOfExtents = 0;
+        double minimumX = Double.POSITIVE_INFINITY;
+        double minimumY = Double.POSITIVE_INFINITY;
+        double maximumX = Double.NEGATIVE_INFINITY;
+        double maximumY = Double.NEGATIVE_INFINITY;
+        for ( final CartesianLine cartesianLine : cartesianLines ) {
+            final double[] coordinates = getCoordinates( cartesianLine );
+            if ( !isFinite( coordinates ) ) {
+                continue;
+            }
+
+            final double extent = Math.max( Math.abs( coordinates[ 2 ] - coordinates[ 0 ] ),
+                                            Math.abs( coordinates[ 3 ] - coordinates[ 1 ] ) );
+            if ( ( extent > 0.0d ) && !Double.isInfinite( extent ) ) {
+                extents[ numberOfExtents++ ] = extent;
+            }
+
+            minimumX = Math.min( minimumX, Math.min( coordinates[ 0 ], coordinates[ 2 ] ) );
+            minimumY = Math.min( minimumY, Math.min( coordinates[ 1 ], coordinates[ 3 ] ) );
+            maximumX = Math.max( maximumX, Math.max( coordinates[ 0 ], coordinates[ 2 ] ) );
+            maximumY = Math.max( maximumY, Math.max( coordinates[ 1 ], coordinates[ 3 ] ) );
+        }
+        if ( numberOfExtents == 0 ) {
+            return 1.0d;
+        }
+
+        Arrays.sort( extents, 0, numberOfExtents );
+        final double medianExtent = extents[ numberOfExtents / 2 ];
+        final double boundsExtent = Math.max( maximumX - minimumX, maximumY - minimumY );
+        final double minimumCellSize = Double.isInfinite( boundsExtent )
+            ? Double.MAX_VALUE / MAXIMUM_CELL_INDEX
+            : boundsExtent / MAXIMUM_CELLS_PER_AXIS;
+        return Math.max( medianExtent, minimumCellSize );
+    }
+
+    /*
+     * Visits the packed keys of the grid cells that a line passes through,
+     * column by column, using the range of y values that the line covers
+     * within each column.
+     */
+    private void forEachCell( final double[] coordinates,
+                              final LongConsumer cellVisitor ) {
+        final double x1 = getCellCoordinate( coordinates[ 0 ] );
+        final double y1 = getCellCoordinate( coordinates[ 1 ] );
+        final double x2 = getCellCoordinate( coordinates[ 2 ] );
+        final double y2 = getCellCoordinate( coordinates[ 3 ] );
+        final double minimumX = Math.min( x1, x2 );
+        final double maximumX = Math.max( x1, x2 );
+        final long firstColumn = ( long ) Math.floor( minimumX );
+        final long lastColumn = ( long ) Math.floor( maximumX );
+        final double slope = ( x2 != x1 ) ? ( y2 - y1 ) / ( x2 - x1 ) : 0.0d;
+
+        for ( long column = firstColumn; column <= lastColumn; column++ ) {
+            // Clip the line to the part of it that is within this column.
+            final double columnMinimumX = Math.max( minimumX, column );
+            final double columnMaximumX = Math.min( maximumX, column + 1.0d );
+            final double columnY1 = ( x2 != x1 ) ? y1 + ( slope * ( columnMinimumX - x1 ) ) : y1;
+            final double columnY2 = ( x2 != x1 ) ? y1 + ( slope * ( columnMaximumX - x1 ) ) : y2;
+            final long firstRow = ( long ) Math.floor( Math.min( columnY1, columnY2 ) );
+            final long lastRow = ( long ) Math.floor( Math.max( columnY1, columnY2 ) );
+            for ( long row = firstRow; row <= lastRow; row++ ) {
+                cellVisitor.accept( packCellKey( column, row ) );
+            }
+        }
+    }
+
+    // Convert a coordinate to grid cell units, clamped to the packable range.
+    private double getCellCoordinate( final double coordinate ) {
+        final double cellCoordinate = coordinate / _cellSize;
+        return Math.max( -MAXIMUM_CELL_INDEX, Math.min( MAXIMUM_CELL_INDEX, cellCoordinate ) );
+    }
+
+    private static boolean isFinite( final double[] coordinates ) {
+        for ( final double coordinate : coordinates ) {
+            if ( Double.isNaN( coordinate ) || Double.isInfinite( coordinate ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Returns true if a line can't be binned, as it isn't finite or would pass
+     * through more cells than the cap. A line never passes through more cells
+     * than the number of columns and rows it spans, less one.
+     */
+    private boolean isOverflowLine( final double[] coordinates ) {
+        if ( !isFinite( coordinates ) ) {
+            return true;
+        }
+
+        final double columnSpan = Math.abs( Math.floor( getCellCoordinate( coordinates[ 2 ] ) )
+                - Math.floor( getCellCoordinate( coordinates[ 0 ] ) ) );
+        final double rowSpan = Math.abs( Math.floor( getCellCoordinate( coordinates[ 3 ] ) )
+                - Math.floor( getCellCoordinate( coordinates[ 1 ] ) ) );
+        return ( columnSpan + rowSpan + 1.0d ) > MAXIMUM_CELLS_PER_LINE;
+    }
+
+    private static double[] getCoordinates( final CartesianLine cartesianLine ) {
+        return new double[] { cartesianLine.getX1(),
+                              cartesianLine.getY1(),
+                              cartesianLine.getX2(),
+                              cartesianLine.getY2() };
+    }
+
+    /*
+     * Computes the point where the interiors of two lines cross, if they do,
+     * via the parametric form of both lines. Parallel lines, including
+     * collinear overlaps, and lines that only touch at an endpoint are not
+     * considered to cross.
+     */
+    private static boolean getCrossingPoint( final double[] first,
+                                             final double[] second,
+                                             final double[] crossingPoint ) {
+        final double firstDeltaX = first[ 2 ] - first[ 0 ];
+        final double firstDeltaY = first[ 3 ] - first[ 1 ];
+        final double secondDeltaX = second[ 2 ] - second[ 0 ];
+        final double secondDeltaY = second[ 3 ] - second[ 1 ];
+        final double denominator = ( firstDeltaX * secondDeltaY ) - ( firstDeltaY * secondDeltaX );
+        if ( denominator == 0.0d ) {
+            return false;
+        }
+
+        final double offsetX = second[ 0 ] - first[ 0 ];
+        final double offsetY = second[ 1 ] - first[ 1 ];
+        final double firstParameter = ( ( offsetX * secondDeltaY ) - ( offsetY * secondDeltaX ) )
+                / denominator;
+        final double secondParameter = ( ( offsetX * firstDeltaY ) - ( offsetY * firstDeltaX ) )
+                / denominator;
+        if ( ( firstParameter <= 0.0d ) || ( firstParameter >= 1.0d ) || ( secondParameter <= 0.0d )
+                || ( secondParameter >= 1.0d ) ) {
+            return false;
+        }
+
+        crossingPoint[ 0 ] = first[ 0 ] + ( firstParameter * firstDeltaX );
+        crossingPoint[ 1 ] = first[ 1 ] + ( firstParameter * firstDeltaY );
+        return true;
+    }
+
+    // Pack a pair of line numbers into a key, in a canonical order.
+    private static long packPairKey( final int firstLineNumber, final int secondLineNumber ) {
+        return ( ( long ) Math.min( firstLineNumber, secondLineNumber ) << 32 )
+                | ( Math.max( firstLineNumber, secondLineNumber ) & 0xFFFFFFFFL );
+    }
+
+    private static long packCellKey( final long column, final long row ) {
+        return ( column << 32 ) | ( row & 0xFFFFFFFFL );
+    }
+
+    private void removeCartesianLine( final CartesianLine cartesianLine ) {
+        final IndexedLine indexedLine = _indexedLines.remove( cartesianLine );
+        if ( indexedLine == null ) {
+            return;
+        }
+        if ( _overflowLines.remove( indexedLine ) ) {
+            return;
+        }
+
+        // Remove by reference, as lines may compare equal by value.
+        forEachCell( indexedLine._coordinates, cellKey -> {
+            final List< IndexedLine > cellLines = _gridCells.get( cellKey );
+            if ( cellLines == null ) {
+                return;
+            }
+            cellLines.remove( indexedLine );
+            if ( cellLines.isEmpty() ) {
+                _gridCells.remove( cellKey );
+            }
+        } );
+    }
+}
@@ -0,0 +1,642 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import com.mhschmieder.fxcadgui.util.LineIntersectionIndex.LineCrossing;
+import com.mhschmieder.fxgraphics.geometry.CartesianLine;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Line Snap Index finds the nearest snapping feature of a collection of
+ * Cartesian Lines to a given point -- their endpoints, midpoints and mutual
+ * crossings -- via a 2D k-d tree, so that it is cheap enough to query on every
+ * cursor move or keystroke.
+ * <p>
+ * The tree is kept in parallel primitive arrays. Features of inserted or
+ * edited lines are inserted into the tree directly, and features of removed
+ * or edited lines are marked as deleted, so that updates don't rebuild the
+ * tree. The tree is rebuilt balanced once deleted features outnumber live
+ * ones, or once insertions have made it too deep.
+ * <p>
+ * When the collection is observable, the index follows additions and removals
+ * incrementally. Lines are edited in place though, so hosts must call
+ * {@link #updateCartesianLine(CartesianLine)} after changing the geometry of a
+ * line that may belong to the collection.
+ * <p>
+ * This must only be used from the JavaFX Application Thread.
+ */
+public final class LineSnapIndex {
+
+    /** The kinds of features that can be snapped to. */
+    public enum SnapFeatureType {
+        ENDPOINT, MIDPOINT, INTERSECTION
+    }
+
+    /**
+     * A feature that a point was snapped to.
+     */
+    public static final class SnapFeature {
+
+        private final SnapFeatureType _snapFeatureType;
+        private final double          _x;
+        private final double          _y;
+
+        private SnapFeature( final SnapFeatureType snapFeatureType,
+                             final double x,
+                             final double y ) {
+            _snapFeatureType = snapFeatureType;
+            _x = x;
+            _y = y;
+        }
+
+        public SnapFeatureType getSnapFeatureType() {
+            return _snapFeatureType;
+        }
+
+        public double getX() {
+            return _x;
+        }
+
+        public double getY() {
+            return _y;
+        }
+    }
+
+    /** The types of features, indexed by ordinal. */
+    private static final SnapFeatureType[]            SNAP_FEATURE_TYPES = SnapFeatureType
+            .values();
+
+    /** The initial capacity of the feature arrays. */
+    private static final int                          INITIAL_CAPACITY   = 64;
+
+    /** The marker for a missing child node. */
+    private static final int                          NO_NODE            = -1;
+
+    /** The Cartesian Lines being indexed. */
+    private List< CartesianLine >                     _cartesianLines;
+
+    /** The index of crossings between the lines, for intersection features. */
+    private final LineIntersectionIndex               _lineIntersectionIndex;
+
+    /** The features of each line, by reference, as lists of feature numbers. */
+    private final Map< CartesianLine, int[] >         _lineFeatures;
+
+    // The features, and the k-d tree nodes that hold them, as parallel arrays.
+    private double[]                                  _featureX;
+    private double[]                                  _featureY;
+    private byte[]                                    _featureTypes;
+    private CartesianLine[]                           _firstOwners;
+    private CartesianLine[]                           _secondOwners;
+    private int[]                                     _leftChildren;
+    private int[]                                     _rightChildren;
+
+    /** The features that have been deleted but are still in the tree. */
+    private final BitSet                              _deletedFeatures;
+
+    /** The number of features in the arrays, including deleted ones. */
+    private int                                       _featureCount;
+
+    /** The number of deleted features. */
+    private int                                       _deletedFeatureCount;
+
+    /** The root node of the k-d tree. */
+    private int                                       _rootNode;
+
+    /** The depth of the deepest node in the k-d tree. */
+    private int                                       _treeDepth;
+
+    /** Flag for whether features are being bulk loaded, prior to a rebuild. */
+    private boolean                                   _bulkLoading;
+
+    // The state of the nearest feature query in progress.
+    private double                                    _queryX;
+    private double                                    _queryY;
+    private CartesianLine                             _queryExcludedLine;
+    private int                                       _nearestFeature;
+    private double                                    _nearestDistanceSquared;
+
+    /** Listener that follows additions and removals in the collection. */
+    private final ListChangeListener< CartesianLine > _cartesianLinesListener;
+
+    public LineSnapIndex() {
+        this( new LineIntersectionIndex() );
+    }
+
+    /**
+     * Builds an index that finds its intersection features via an index of
+     * line crossings that is shared with the host, so that the crossings of
+     * the collection are only binned once.
+     *
+     * @param lineIntersectionIndex
+     *            The index of crossings between the lines, which this index
+     *            switches to its own collection if it isn't indexing it yet
+     */
+    public LineSnapIndex( final LineIntersectionIndex lineIntersectionIndex ) {
+        _cartesianLines = null;
+        _lineIntersectionIndex = lineIntersectionIndex;
+        _lineFeatures = new IdentityHashMap<>();
+        _deletedFeatures = new BitSet();
+        _cartesianLinesListener = this::cartesianLinesChanged;
+        _bulkLoading = false;
+
+        allocateFeatures( INITIAL_CAPACITY );
+    }
+
+    /**
+     * Returns the nearest feature to a point, within a maximum distance.
+     *
+     * @param x
+     *            The x coordinate of the point
+     * @param y
+     *            The y coordinate of the point
+     * @param maximumDistance
+     *            The maximum distance to snap across
+     * @param excludedCartesianLine
+     *            A line whose own features must not be snapped to, such as the
+     *            line being edited, or {@code null}
+     * @return The nearest feature, or {@code null} if there is none within the
+     *         maximum distance
+     */
+    public SnapFeature findNearestFeature( final double x,
+                                           final double y,
+                                           final double maximumDistance,
+                                           final CartesianLine excludedCartesianLine ) {
+        _queryX = x;
+        _queryY = y;
+        _queryExcludedLine = excludedCartesianLine;
+        _nearestFeature = NO_NODE;
+        _nearestDistanceSquared = maximumDistance * maximumDistance;
+
+        findNearestFeature( _rootNode, 0 );
+
+        _queryExcludedLine = null;
+        if ( _nearestFeature == NO_NODE ) {
+            return null;
+        }
+
+        return new SnapFeature( SNAP_FEATURE_TYPES[ _featureTypes[ _nearestFeature ] ],
+                                _featureX[ _nearestFeature ],
+                                _featureY[ _nearestFeature ] );
+    }
+
+    /**
+     * Re-indexes the whole collection, rebuilding the k-d tree balanced.
+     */
+    public void reindex() {
+        _lineFeatures.clear();
+        clearFeatures();
+
+        if ( _cartesianLines == null ) {
+            return;
+        }
+
+        // Skip inserting into the tree one feature at a time, as it is about
+        // to be rebuilt balanced from all of the features at once.
+        _bulkLoading = true;
+        for ( final CartesianLine cartesianLine : _cartesianLines ) {
+            addLineFeatures( cartesianLine );
+        }
+        for ( final LineCrossing lineCrossing : _lineIntersectionIndex.findAllCrossings() ) {
+            addCrossingFeature( lineCrossing );
+        }
+        _bulkLoading = false;
+
+        rebuildTree();
+    }
+
+    /**
+     * Switches the index to a new collection of Cartesian Lines, following
+     * its additions and removals if it is observable.
+     *
+     * @param cartesianLines
+     *            The Cartesian Lines to index
+     */
+    @SuppressWarnings("unchecked")
+    public void setCartesianLines( final List< CartesianLine > cartesianLines ) {
+        if ( _cartesianLines instanceof ObservableList ) {
+            ( ( ObservableList< CartesianLine > ) _cartesianLines )
+                    .removeListener( _cartesianLinesListener );
+        }
+
+        // NOTE: The intersection index must see changes to the collection
+        // before this index does, so its listener is registered first. A
+        // shared intersection index may already follow this collection.
+        if ( _lineIntersectionIndex.getCartesianLines() != cartesianLines ) {
+            _lineIntersectionIndex.setCartesianLines( cartesianLines );
+        }
+        _cartesianLines = cartesianLines;
+
+        if ( _cartesianLines instanceof ObservableList ) {
+            ( ( ObservableList< CartesianLine > ) _cartesianLines )
+                    .addListener( _cartesianLinesListener );
+        }
+
+        reindex();
+    }
+
+    /**
+     * Returns the number of live features in the index.
+     *
+     * @return The number of live features
+     */
+    public int size() {
+        return _featureCount - _deletedFeatureCount;
+    }
+
+    /**
+     * Re-indexes the features of a line after its geometry was changed in
+     * place. Lines that aren't in the indexed collection are ignored.
+     *
+     * @param cartesianLine
+     *            The Cartesian Line whose geometry may have changed
+     */
+    public void updateCartesianLine( final CartesianLine cartesianLine ) {
+        if ( !_lineFeatures.containsKey( cartesianLine ) ) {
+            return;
+        }
+
+        _lineIntersectionIndex.updateCartesianLine( cartesianLine );
+        removeCartesianLine( cartesianLine );
+        addCartesianLine( cartesianLine );
+    }
+
+    private void addCartesianLine( final CartesianLine cartesianLine ) {
+        if ( _lineFeatures.containsKey( cartesianLine ) ) {
+            return;
+        }
+
+        // Only add crossings with lines that are already indexed here, so that
+        // lines added together don't each add the same crossing.
+        addLineFeatures( cartesianLine );
+        for ( final LineCrossing lineCrossing : _lineIntersectionIndex
+                .findCrossings( cartesianLine ) ) {
+            if ( _lineFeatures.containsKey( lineCrossing.getSecondCartesianLine() ) ) {
+                addCrossingFeature( lineCrossing );
+            }
+        }
+
+        rebuildTreeIfUnbalanced();
+    }
+
+    private void addCrossingFeature( final LineCrossing lineCrossing ) {
+        final int feature = addFeature( SnapFeatureType.INTERSECTION,
+                                        lineCrossing.getX(),
+                                        lineCrossing.getY(),
+                                        lineCrossing.getFirstCartesianLine(),
+                                        lineCrossing.getSecondCartesianLine() );
+        addLineFeature( lineCrossing.getFirstCartesianLine(), feature );
+        addLineFeature( lineCrossing.getSecondCartesianLine(), feature );
+    }
+
+    private int addFeature( final SnapFeatureType snapFeatureType,
+                            final double x,
+                            final double y,
+                            final CartesianLine firstOwner,
+                            final CartesianLine secondOwner ) {
+        if ( _featureCount == _featureX.length ) {
+            growFeatures();
+        }
+
+        final int feature = _featureCount++;
+        _featureX[ feature ] = x;
+        _featureY[ feature ] = y;
+        _featureTypes[ feature ] = ( byte ) snapFeatureType.ordinal();
+        _firstOwners[ feature ] = firstOwner;
+        _secondOwners[ feature ] = secondOwner;
+        _leftChildren[ feature ] = NO_NODE;
+        _rightChildren[ feature ] = NO_NODE;
+
+        if ( !_bulkLoading ) {
+            insertNode( feature );
+        }
+        return feature;
+    }
+
+    // Append a feature number to a line's feature list, whose first slot
+    // holds the number of features in use.
+    private void addLineFeature( final CartesianLine cartesianLine, final int feature ) {
+        int[] features = _lineFeatures.get( cartesianLine );
+        if ( features == null ) {
+            features = new int[ 4 ];
+        }
+        else if ( features[ 0 ] == ( features.length - 1 ) ) {
+            features = Arrays.copyOf( features, features.length * 2 );
+        }
+        features[ ++features[ 0 ] ] = feature;
+        _lineFeatures.put( cartesianLine, features );
+    }
+
+    private void addLineFeatures( final CartesianLine cartesianLine ) {
+        final double x1 = cartesianLine.getX1();
+        final double y1 = cartesianLine.getY1();
+        final double x2 = cartesianLine.getX2();
+        final double y2 = cartesianLine.getY2();
+
+        addLineFeature( cartesianLine,
+                        addFeature( SnapFeatureType.ENDPOINT, x1, y1, cartesianLine, null ) );
+        addLineFeature( cartesianLine,
+                        addFeature( SnapFeatureType.ENDPOINT, x2, y2, cartesianLine, null ) );
+        addLineFeature( cartesianLine,
+                        addFeature( SnapFeatureType.MIDPOINT,
+                                    0.5d * ( x1 + x2 ),
+                                    0.5d * ( y1 + y2 ),
+                                    cartesianLine,
+                                    null ) );
+    }
+
+    private void allocateFeatures( final int capacity ) {
+        _featureX = new double[ capacity ];
+        _featureY = new double[ capacity ];
+        _featureTypes = new byte[ capacity ];
+        _firstOwners = new CartesianLine[ capacity ];
+        _secondOwners = new CartesianLine[ capacity ];
+        _leftChildren = new int[ capacity ];
+        _rightChildren = new int[ capacity ];
+        _featureCount = 0;
+        _deletedFeatureCount = 0;
+        _deletedFeatures.clear();
+        _rootNode = NO_NODE;
+        _treeDepth = 0;
+    }
+
+    private void cartesianLinesChanged(
+            final ListChangeListener.Change< ? extends CartesianLine > change ) {
+        while ( change.next() ) {
+            if ( change.wasPermutated() ) {
+                continue;
+            }
+            if ( change.wasUpdated() ) {
+                for ( int i = change.getFrom(); i < change.getTo(); i++ ) {
+                    updateCartesianLine( change.getList().get( i ) );
+                }
+                continue;
+            }
+            for ( final CartesianLine cartesianLine : change.getRemoved() ) {
+                removeCartesianLine( cartesianLine );
+            }
+            for ( final CartesianLine cartesianLine : change.getAddedSubList() ) {
+                addCartesianLine( cartesianLine );
+            }
+        }
+    }
+
+    private void clearFeatures() {
+        Arrays.fill( _firstOwners, 0, _featureCount, null );
+        Arrays.fill( _secondOwners, 0, _featureCount, null );
+        _featureCount = 0;
+        _deletedFeatureCount = 0;
+        _deletedFeatures.clear();
+        _rootNode = NO_NODE;
+        _treeDepth = 0;
+    }
+
+    // Build a balanced subtree from a range of features, splitting at the
+    // median along alternating axes, and return its root node.
+    private int buildSubtree( final int[] features,
+                              final int from,
+                              final int to,
+                              final int depth ) {
+        if ( from >= to ) {
+            return NO_NODE;
+        }
+
+        _treeDepth = Math.max( _treeDepth, depth );
+        final int median = ( from + to ) >>> 1;
+        selectMedian( features, from, to - 1, median, ( depth & 1 ) == 0 );
+
+        final int node = features[ median ];
+        _leftChildren[ node ] = buildSubtree( features, from, median, depth + 1 );
+        _rightChildren[ node ] = buildSubtree( features, median + 1, to, depth + 1 );
+        return node;
+    }
+
+    private void findNearestFeature( final int node, final int depth ) {
+        if ( node == NO_NODE ) {
+            return;
+        }
+
+        // NOTE: Single-line features have no second owner, so only compare
+        // the owners when there is a line to exclude.
+        final boolean excluded = ( _queryExcludedLine != null )
+                && ( ( _firstOwners[ node ] == _queryExcludedLine )
+                        || ( _secondOwners[ node ] == _queryExcludedLine ) );
+        if ( !_deletedFeatures.get( node ) && !excluded ) {
+            final double deltaX = _featureX[ node ] - _queryX;
+            final double deltaY = _featureY[ node ] - _queryY;
+            final double distanceSquared = ( deltaX * deltaX ) + ( deltaY * deltaY );
+            if ( distanceSquared <= _nearestDistanceSquared ) {
+                _nearestFeature = node;
+                _nearestDistanceSquared = distanceSquared;
+            }
+        }
+
+        // Search the side of the split that holds the query point first, and
+        // only search the other side if it could hold something nearer.
+        final double splitDistance = ( ( depth & 1 ) == 0 )
+            ? _queryX - _featureX[ node ]
+            : _queryY - _featureY[ node ];
+        final int nearChild = ( splitDistance < 0.0d )
+            ? _leftChildren[ node ]
+            : _rightChildren[ node ];
+        final int farChild = ( splitDistance < 0.0d )
+            ? _rightChildren[ node ]
+            : _leftChildren[ node ];
+
+        findNearestFeature( nearChild, depth + 1 );
+        if ( ( splitDistance * splitDistance ) <= _nearestDistanceSquared ) {
+            findNearestFeature( farChild, depth + 1 );
+        }
+    }
+
+    private double getCoordinate( final int feature, final boolean xAxis ) {
+        return xAxis ? _featureX[ feature ] : _featureY[ feature ];
+    }
+
+    private void growFeatures() {
+        final int capacity = _featureX.length * 2;
+        _featureX = Arrays.copyOf( _featureX, capacity );
+        _featureY = Arrays.copyOf( _featureY, capacity );
+        _featureTypes = Arrays.copyOf( _featureTypes, capacity );
+        _firstOwners = Arrays.copyOf( _firstOwners, capacity );
+        _secondOwners = Arrays.copyOf( _secondOwners, capacity );
+        _leftChildren = Arrays.copyOf( _leftChildren, capacity );
+        _rightChildren = Arrays.copyOf( _rightChildren, capacity );
+    }
+
+    private void insertNode( final int feature ) {
+        if ( _rootNode == NO_NODE ) {
+            _rootNode = feature;
+            return;
+        }
+
+        int node = _rootNode;
+        int depth = 0;
+        while ( true ) {
+            final boolean xAxis = ( depth & 1 ) == 0;
+            final boolean left = getCoordinate( feature, xAxis ) < getCoordinate( node, xAxis );
+            final int child = left ? _leftChildren[ node ] : _rightChildren[ node ];
+            depth++;
+            if ( child == NO_NODE ) {
+                if ( left ) {
+                    _leftChildren[ node ] = feature;
+                }
+                else {
+                    _rightChildren[ node ] = feature;
+                }
+                _treeDepth = Math.max( _treeDepth, depth );
+                return;
+            }
+            node = child;
+        }
+    }
+
+    // Rebuild the tree balanced from the live features only, compacting the
+    // feature arrays and renumbering the features of every line.
+    private void rebuildTree() {
+        final int liveFeatureCount = _featureCount - _deletedFeatureCount;
+        final int[] renumbering = new int[ _featureCount ];
+        int liveFeature = 0;
+        for ( int feature = 0; feature < _featureCount; feature++ ) {
+            if ( _deletedFeatures.get( feature ) ) {
+                renumbering[ feature ] = NO_NODE;
+                continue;
+            }
+            renumbering[ feature ] = liveFeature;
+            _featureX[ liveFeature ] = _featureX[ feature ];
+            _featureY[ liveFeature ] = _featureY[ feature ];
+            _featureTypes[ liveFeature ] = _featureTypes[ feature ];
+            _firstOwners[ liveFeature ] = _firstOwners[ feature ];
+            _secondOwners[ liveFeature ] = _secondOwners[ feature ];
+            liveFeature++;
+        }
+        Arrays.fill( _firstOwners, liveFeatureCount, _featureCount, null );
+        Arrays.fill( _secondOwners, liveFeatureCount, _featureCount, null );
+
+        for ( final int[] features : _lineFeatures.values() ) {
+            int numberOfFeatures = 0;
+            for ( int i = 1; i <= features[ 0 ]; i++ ) {
+                final int renumberedFeature = renumbering[ features[ i ] ];
+                if ( renumberedFeature != NO_NODE ) {
+                    features[ ++numberOfFeatures ] = renumberedFeature;
+                }
+            }
+            features[ 0 ] = numberOfFeatures;
+        }
+
+        _featureCount = liveFeatureCount;
+        _deletedFeatureCount = 0;
+        _deletedFeatures.clear();
+        _treeDepth = 0;
+
+        final int[] features = new int[ liveFeatureCount ];
+        for ( int feature = 0; feature < liveFeatureCount; feature++ ) {
+            features[ feature ] = feature;
+        }
+        _rootNode = buildSubtree( features, 0, liveFeatureCount, 0 );
+    }
+
+    private void rebuildTreeIfUnbalanced() {
+        // A balanced tree is about log2(n) deep; allow some slack for direct
+        // insertions before paying for a rebuild.
+        final int liveFeatureCount = _featureCount - _deletedFeatureCount;
+        final int balancedDepth = 32 - Integer.numberOfLeadingZeros( liveFeatureCount + 1 );
+        if ( ( _deletedFeatureCount > liveFeatureCount )
+                || ( _treeDepth > ( ( 3 * balancedDepth ) + 8 ) ) ) {
+            rebuildTree();
+        }
+    }
+
+    private void removeCartesianLine( final CartesianLine cartesianLine ) {
+        final int[] features = _lineFeatures.remove( cartesianLine );
+        if ( features == null ) {
+            return;
+        }
+
+        // Crossing features are shared with other lines, which may still list
+        // them; they are dropped from those lists at the next rebuild.
+        for ( int i = 1; i <= features[ 0 ]; i++ ) {
+            final int feature = features[ i ];
+            if ( !_deletedFeatures.get( feature ) ) {
+                _deletedFeatures.set( feature );
+                _deletedFeatureCount++;
+            }
+        }
+
+        rebuildTreeIfUnbalanced();
+    }
+
+    // Partially sort a range of features so that the median one is in place,
+    // with no greater features before it and no lesser features after it.
+    private void selectMedian( final int[] features,
+                               final int from,
+                               final int to,
+                               final int median,
+                               final boolean xAxis ) {
+        int low = from;
+        int high = to;
+        while ( low < high ) {
+            final double pivot = getCoordinate( features[ ( low + high ) >>> 1 ], xAxis );
+            int i = low;
+            int j = high;
+            while ( i <= j ) {
+                while ( getCoordinate( features[ i ], xAxis ) < pivot ) {
+                    i++;
+                }
+                while ( getCoordinate( features[ j ], xAxis ) > pivot ) {
+                    j--;
+                }
+                if ( i <= j ) {
+                    final int feature = features[ i ];
+                    features[ i ] = features[ j ];
+                    features[ j ] = feature;
+                    i++;
+                    j--;
+                }
+            }
+            if ( median <= j ) {
+                high = j;
+            }
+            else if ( median >= i ) {
+                low = i;
+            }
+            else {
+                return;
+            }
+        }
+    }
+}
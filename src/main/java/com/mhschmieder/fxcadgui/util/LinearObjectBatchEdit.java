@@ -0,0 +1,269 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import com.mhschmieder.fxcadcontrols.model.LinearObjectProperties;
+import com.mhschmieder.fxgraphics.geometry.LinearObject;
+import com.mhschmieder.fxgraphics.layers.Layer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A Linear Object Batch Edit applies the same property edits to a selection of
+ * Linear Objects in a single pass, touching only the fields that were actually
+ * edited. Undo is left to the editor, which brackets the batch as a single
+ * grouped entry in its {@link LineEditHistory}.
+ * <p>
+ * Labels are never batch edited, as they must stay unique per object, and
+ * neither is the geometry, as that is specific to each object.
+ * <p>
+ * A Layer Name that doesn't resolve to a Layer is refused rather than applied
+ * as a {@code null} Layer, and is reported via {@link #getRefusedLayerName()}.
+ *
+ * @param <T>
+ *            The Linear Object type
+ */
+public final class LinearObjectBatchEdit< T extends LinearObject > {
+
+    /** The Linear Objects that the batch applies to. */
+    private final List< T >  _linearObjects;
+
+    /** The new Layer, or {@code null} if the Layer wasn't edited. */
+    private final Layer      _layer;
+
+    /** The edited Layer Name that didn't resolve, or {@code null} if none. */
+    private final String     _refusedLayerName;
+
+    /** The new Projector status, or {@code null} if it wasn't edited. */
+    private final Boolean    _useAsProjector;
+
+    /** The new Projection Zone count, or {@code null} if it wasn't edited. */
+    private final Integer    _numberOfProjectionZones;
+
+    private LinearObjectBatchEdit( final List< T > linearObjects,
+                                   final Layer layer,
+                                   final String refusedLayerName,
+                                   final Boolean useAsProjector,
+                                   final Integer numberOfProjectionZones ) {
+        _linearObjects = Collections.unmodifiableList( new ArrayList<>( linearObjects ) );
+        _layer = layer;
+        _refusedLayerName = refusedLayerName;
+        _useAsProjector = useAsProjector;
+        _numberOfProjectionZones = numberOfProjectionZones;
+    }
+
+    /**
+     * Makes a batch edit from the difference between the Linear Object
+     * Properties at the start of editing and the edited Linear Object
+     * Properties, so that only the edited fields are applied.
+     *
+     * @param linearObjects
+     *            The selection of Linear Objects to apply the edits to
+     * @param startProperties
+     *            The Linear Object Properties at the start of editing
+     * @param editedProperties
+     *            The edited Linear Object Properties
+     * @param layerLookup
+     *            The Layer lookup by Layer Name
+     * @param <T>
+     *            The Linear Object type
+     * @return The batch edit, which may be empty if nothing was edited
+     */
+    public static < T extends LinearObject > LinearObjectBatchEdit< T > makeBatchEdit(
+            final List< T > linearObjects,
+            final LinearObjectProperties startProperties,
+            final LinearObjectProperties editedProperties,
+            final Function< String, Layer > layerLookup ) {
+        // Only the fields that differ from the start of editing are applied.
+        // NOTE: An edited Layer Name that doesn't resolve is refused, so that
+        // no Linear Object is ever left without a Layer.
+        final String layerName = editedProperties.getLayerName();
+        final boolean layerEdited = !Objects.equals( startProperties.getLayerName(), layerName );
+        final Layer layer = layerEdited ? layerLookup.apply( layerName ) : null;
+        final String refusedLayerName = ( layerEdited && ( layer == null ) ) ? layerName : null;
+
+        final boolean useAsProjector = editedProperties.isUseAsProjector();
+        final Boolean useAsProjectorEdit = ( startProperties.isUseAsProjector() == useAsProjector )
+            ? null
+            : Boolean.valueOf( useAsProjector );
+
+        final int numberOfProjectionZones = editedProperties.getNumberOfProjectionZones();
+        final Integer numberOfProjectionZonesEdit =
+                ( startProperties.getNumberOfProjectionZones() == numberOfProjectionZones )
+                    ? null
+                    : Integer.valueOf( numberOfProjectionZones );
+
+        return new LinearObjectBatchEdit<>( linearObjects,
+                                            layer,
+                                            refusedLayerName,
+                                            useAsProjectorEdit,
+                                            numberOfProjectionZonesEdit );
+    }
+
+    /**
+     * Makes a batch edit from the difference between the Linear Object
+     * Properties at the start of editing and the edited Linear Object
+     * Properties, applies it to the selection if anything was edited, and
+     * then sends one collection-level notification for the whole selection.
+     * <p>
+     * A refused Layer Name is reported as a warning, and the rest of the
+     * edited fields are still applied.
+     *
+     * @param linearObjects
+     *            The selection of Linear Objects to apply the edits to
+     * @param startProperties
+     *            The Linear Object Properties at the start of editing
+     * @param editedProperties
+     *            The edited Linear Object Properties
+     * @param layerLookup
+     *            The Layer lookup by Layer Name
+     * @param batchEditListeners
+     *            The listeners for the collection-level notification
+     * @param <T>
+     *            The Linear Object type
+     * @return The batch edit, which may be empty if nothing was edited
+     */
+    public static < T extends LinearObject > LinearObjectBatchEdit< T > applyBatchEdit(
+            final List< T > linearObjects,
+            final LinearObjectProperties startProperties,
+            final LinearObjectProperties editedProperties,
+            final Function< String, Layer > layerLookup,
+            final List< Consumer< LinearObjectBatchEdit< T > > > batchEditListeners ) {
+        final LinearObjectBatchEdit< T > batchEdit = makeBatchEdit( linearObjects,
+                                                                    startProperties,
+                                                                    editedProperties,
+                                                                    layerLookup );
+
+        if ( batchEdit.isLayerRefused() ) {
+            System.err.println( "WARNING: Layer \"" + batchEdit.getRefusedLayerName() //$NON-NLS-1$
+                    + "\" not found; the Layer of the selection was left unchanged" ); //$NON-NLS-1$
+        }
+
+        if ( batchEdit.isEmpty() ) {
+            return batchEdit;
+        }
+
+        batchEdit.apply();
+
+        // Send one collection-level notification for the whole selection.
+        for ( final Consumer< LinearObjectBatchEdit< T > > batchEditListener
+                : new ArrayList<>( batchEditListeners ) ) {
+            batchEditListener.accept( batchEdit );
+        }
+
+        return batchEdit;
+    }
+
+    /**
+     * Copies the Linear Object Properties, such as for caching the values at
+     * the start of batch editing.
+     *
+     * @param linearObjectProperties
+     *            The Linear Object Properties to copy
+     * @return A detached copy of the Linear Object Properties
+     */
+    public static LinearObjectProperties copyLinearObjectProperties(
+            final LinearObjectProperties linearObjectProperties ) {
+        return new LinearObjectProperties( linearObjectProperties.getLabel(),
+                                           linearObjectProperties.getLayerName(),
+                                           linearObjectProperties.isUseAsProjector(),
+                                           linearObjectProperties.getNumberOfProjectionZones() );
+    }
+
+    /**
+     * Applies the edited fields to every Linear Object in the selection, in a
+     * single pass.
+     */
+    public void apply() {
+        for ( final T linearObject : _linearObjects ) {
+            if ( _layer != null ) {
+                linearObject.setLayer( _layer );
+            }
+            if ( _useAsProjector != null ) {
+                linearObject.setUseAsProjector( _useAsProjector );
+            }
+            if ( _numberOfProjectionZones != null ) {
+                linearObject.setNumberOfProjectionZones( _numberOfProjectionZones );
+            }
+        }
+    }
+
+    /**
+     * Returns the Linear Objects that the batch applies to.
+     *
+     * @return An unmodifiable list of the Linear Objects, in selection order
+     */
+    public List< T > getLinearObjects() {
+        return _linearObjects;
+    }
+
+    /**
+     * Returns {@code true} if no fields were edited, so there is nothing to
+     * apply or notify.
+     *
+     * @return {@code true} if no fields were edited
+     */
+    public boolean isEmpty() {
+        return ( _layer == null ) && ( _useAsProjector == null )
+                && ( _numberOfProjectionZones == null );
+    }
+
+    /**
+     * Returns the edited Layer Name that didn't resolve to a Layer, and so
+     * was refused rather than applied.
+     *
+     * @return The refused Layer Name, or {@code null} if none was refused
+     */
+    public String getRefusedLayerName() {
+        return _refusedLayerName;
+    }
+
+    public boolean isLayerEdited() {
+        return _layer != null;
+    }
+
+    public boolean isLayerRefused() {
+        return _refusedLayerName != null;
+    }
+
+    public boolean isNumberOfProjectionZonesEdited() {
+        return _numberOfProjectionZones != null;
+    }
+
+    public boolean isUseAsProjectorEdited() {
+        return _useAsProjector != null;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A Material Catalog is an immutable, prefix-indexed catalog of materials,
+ * meant to be shared by every material selector in a layout, so that memory
+ * use stays flat regardless of how many selectors there are.
+ * <p>
+ * The materials are kept sorted by case-insensitive display name, so that the
+ * materials matching a typed prefix form a contiguous range that is found via
+ * binary search, and is handed out as a view rather than as a copy.
+ *
+ * @param <M>
+ *            The material type
+ */
+public final class MaterialCatalog< M > {
+
+    /** The case-insensitive sort keys, in the same order as the materials. */
+    private final String[]                      _materialKeys;
+
+    /** The materials, sorted by case-insensitive display name. */
+    private final List< M >                     _sortedMaterials;
+
+    /** The full catalog, as an unmodifiable observable list. */
+    private final ObservableList< M >           _materials;
+
+    /** Exact display name lookup, such as for string conversion. */
+    private final Map< String, M >              _materialsByName;
+
+    /** The function that gets the display name for a material. */
+    private final Function< ? super M, String > _materialNameFunction;
+
+    public MaterialCatalog( final Collection< ? extends M > materials,
+                            final Function< ? super M, String > materialNameFunction ) {
+        _materialNameFunction = materialNameFunction;
+
+        // Sort the materials by their case-insensitive key, carrying the keys
+        // along so they don't have to be recomputed on every query.
+        final int numberOfMaterials = materials.size();
+        final List< M > materialList = new ArrayList<>( materials );
+        final String[] materialKeys = new String[ numberOfMaterials ];
+        final Integer[] sortOrder = new Integer[ numberOfMaterials ];
+        for ( int i = 0; i < numberOfMaterials; i++ ) {
+            materialKeys[ i ] = getMaterialKey( materialNameFunction.apply( materialList.get( i ) ) );
+            sortOrder[ i ] = i;
+        }
+        Arrays.sort( sortOrder, ( i1, i2 ) -> materialKeys[ i1 ].compareTo( materialKeys[ i2 ] ) );
+
+        _materialKeys = new String[ numberOfMaterials ];
+        _sortedMaterials = new ArrayList<>( numberOfMaterials );
+        _materialsByName = new HashMap<>( numberOfMaterials * 2 );
+        for ( int i = 0; i < numberOfMaterials; i++ ) {
+            final M material = materialList.get( sortOrder[ i ] );
+            _materialKeys[ i ] = materialKeys[ sortOrder[ i ] ];
+            _sortedMaterials.add( material );
+            _materialsByName.putIfAbsent( materialNameFunction.apply( material ), material );
+        }
+
+        _materials = FXCollections.unmodifiableObservableList(
+                FXCollections.observableList( Collections.unmodifiableList( _sortedMaterials ) ) );
+    }
+
+    /**
+     * Returns the material with the exact given display name, if any.
+     *
+     * @param materialName
+     *            The display name of the material
+     * @return The material with the given display name, or {@code null}
+     */
+    public M getMaterial( final String materialName ) {
+        return _materialsByName.get( materialName );
+    }
+
+    /**
+     * Returns the display name of the given material.
+     *
+     * @param material
+     *            The material to get the display name for
+     * @return The display name of the material, or an empty string if
+     *         {@code null}
+     */
+    public String getMaterialName( final M material ) {
+        return ( material == null ) ? "" : _materialNameFunction.apply( material ); //$NON-NLS-1$
+    }
+
+    /**
+     * Returns the full catalog, sorted by display name.
+     *
+     * @return The full catalog, as an unmodifiable observable list
+     */
+    public ObservableList< M > getMaterials() {
+        return _materials;
+    }
+
+    /**
+     * Returns the materials whose display names start with the given prefix,
+     * ignoring case, as a view of the shared catalog rather than as a copy.
+     *
+     * @param prefix
+     *            The prefix to match
+     * @return The matching materials, in display name order
+     */
+    public ObservableList< M > getMaterialsByPrefix( final String prefix ) {
+        if ( ( prefix == null ) || prefix.isEmpty() ) {
+            return _materials;
+        }
+
+        final String prefixKey = getMaterialKey( prefix );
+        final int firstIndex = getLowerBound( prefixKey );
+        final int lastIndex = getLowerBound( prefixKey + Character.MAX_VALUE );
+
+        return FXCollections.unmodifiableObservableList( FXCollections
+                .observableList( Collections
+                        .unmodifiableList( _sortedMaterials.subList( firstIndex, lastIndex ) ) ) );
+    }
+
+    /**
+     * Returns the number of materials in the catalog.
+     *
+     * @return The number of materials in the catalog
+     */
+    public int size() {
+        return _materialKeys.length;
+    }
+
+    // Find the index of the first key that is not less than the given key.
+    private int getLowerBound( final String key ) {
+        int low = 0;
+        int high = _materialKeys.length;
+        while ( low < high ) {
+            final int middle = ( low + high ) >>> 1;
+            if ( _materialKeys[ middle ].compareTo( key ) < 0 ) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String getMaterialKey( final String materialName ) {
+        return ( materialName == null ) ? "" : materialName.toLowerCase( Locale.ROOT ); //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import com.mhschmieder.fxgraphics.geometry.CartesianLine;
+import com.mhschmieder.fxgraphics.geometry.LinearObject;
+import com.mhschmieder.fxgraphics.geometry.PolarLine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A Projection Zone Engine computes the Projection Zone geometry of every
+ * Projector line in a collection, caching it per line so that each update
+ * only recomputes the lines whose geometry or number of Projection Zones has
+ * changed since the last update.
+ * <p>
+ * The inputs of the changed lines are read on the calling thread, and their
+ * geometry is then computed in parallel on the common Fork/Join pool, so that
+ * the lines are never read concurrently with edits to them.
+ * <p>
+ * This must only be used from the JavaFX Application Thread.
+ *
+ * @param <T>
+ *            The linear object type
+ */
+public final class ProjectionZoneEngine< T extends LinearObject > {
+
+    /**
+     * The inputs that a line's Projection Zone geometry was computed from,
+     * along with the computed geometry.
+     */
+    private static final class CachedProjectionZones {
+
+        private final double[]         _inputs;
+        private ProjectionZoneGeometry _projectionZoneGeometry;
+
+        private CachedProjectionZones( final double[] inputs ) {
+            _inputs = inputs;
+            _projectionZoneGeometry = null;
+        }
+    }
+
+    /**
+     * Computes the Projection Zone geometry for a range of changed lines,
+     * splitting the range in half until it is small enough to compute
+     * directly.
+     */
+    private static final class ProjectionZoneTask extends RecursiveAction {
+
+        private static final long                   serialVersionUID = 1L;
+
+        private final List< CachedProjectionZones > _changedLines;
+        private final int                           _from;
+        private final int                           _to;
+
+        private ProjectionZoneTask( final List< CachedProjectionZones > changedLines,
+                                    final int from,
+                                    final int to ) {
+            _changedLines = changedLines;
+            _from = from;
+            _to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if ( ( _to - _from ) <= SEQUENTIAL_THRESHOLD ) {
+                for ( int i = _from; i < _to; i++ ) {
+                    final CachedProjectionZones cachedProjectionZones = _changedLines.get( i );
+                    cachedProjectionZones._projectionZoneGeometry =
+                            computeProjectionZones( cachedProjectionZones._inputs );
+                }
+                return;
+            }
+
+            final int middle = ( _from + _to ) >>> 1;
+            invokeAll( new ProjectionZoneTask( _changedLines, _from, middle ),
+                       new ProjectionZoneTask( _changedLines, middle, _to ) );
+        }
+    }
+
+    /** The number of lines below which a task computes sequentially. */
+    private static final int                         SEQUENTIAL_THRESHOLD = 256;
+
+    /** The number of inputs per line: four coordinates and the zone count. */
+    private static final int                         NUMBER_OF_INPUTS     = 5;
+
+    // The accessors for the line geometry.
+    private final ToDoubleFunction< ? super T >      _x1Accessor;
+    private final ToDoubleFunction< ? super T >      _y1Accessor;
+    private final ToDoubleFunction< ? super T >      _x2Accessor;
+    private final ToDoubleFunction< ? super T >      _y2Accessor;
+
+    /** The cached Projection Zones of each Projector line, by reference. */
+    private final Map< T, CachedProjectionZones >    _projectionZones;
+
+    /** The number of line computations over the lifetime of the engine. */
+    private long                                     _recomputedLineCount;
+
+    public ProjectionZoneEngine( final ToDoubleFunction< ? super T > x1Accessor,
+                                 final ToDoubleFunction< ? super T > y1Accessor,
+                                 final ToDoubleFunction< ? super T > x2Accessor,
+                                 final ToDoubleFunction< ? super T > y2Accessor ) {
+        _x1Accessor = x1Accessor;
+        _y1Accessor = y1Accessor;
+        _x2Accessor = x2Accessor;
+        _y2Accessor = y2Accessor;
+        _projectionZones = new IdentityHashMap<>();
+        _recomputedLineCount = 0L;
+    }
+
+    public static ProjectionZoneEngine< CartesianLine > forCartesianLines() {
+        return new ProjectionZoneEngine<>( CartesianLine::getX1,
+                                           CartesianLine::getY1,
+                                           CartesianLine::getX2,
+                                           CartesianLine::getY2 );
+    }
+
+    public static ProjectionZoneEngine< PolarLine > forPolarLines() {
+        return new ProjectionZoneEngine<>( PolarLine::getX1,
+                                           PolarLine::getY1,
+                                           PolarLine::getX2,
+                                           PolarLine::getY2 );
+    }
+
+    /**
+     * Drops all cached Projection Zones.
+     */
+    public void clear() {
+        _projectionZones.clear();
+    }
+
+    /**
+     * Returns the Projection Zone geometry of a line, from the cache if it is
+     * up-to-date, and otherwise computed directly. Lines that were not part
+     * of the last update are computed without being cached.
+     *
+     * @param linearObject
+     *            The line to get the Projection Zones for
+     * @return The Projection Zone geometry, or {@code null} if the line is not
+     *         a Projector
+     */
+    public ProjectionZoneGeometry getProjectionZones( final T linearObject ) {
+        return getProjectionZones( linearObject, linearObject );
+    }
+
+    /**
+     * Returns the Projection Zone geometry of a copy of a line that is being
+     * edited, such as an editor's scratch line, from the cache entry of the
+     * line that it was copied from. The entry is refreshed if the copy's
+     * geometry differs, so that committing the copy's values to the line
+     * doesn't compute them again.
+     *
+     * @param cachedLinearObject
+     *            The line whose cache entry to use, or {@code null} if the
+     *            copy is not of a line in the collection
+     * @param linearObject
+     *            The line to get the Projection Zones for
+     * @return The Projection Zone geometry, or {@code null} if the line is not
+     *         a Projector
+     */
+    public ProjectionZoneGeometry getProjectionZones( final T cachedLinearObject,
+                                                      final T linearObject ) {
+        if ( !linearObject.isUseAsProjector() ) {
+            return null;
+        }
+
+        final double[] inputs = getInputs( linearObject );
+        final CachedProjectionZones cachedProjectionZones = ( cachedLinearObject != null )
+            ? _projectionZones.get( cachedLinearObject )
+            : null;
+        if ( cachedProjectionZones == null ) {
+            return computeProjectionZones( inputs );
+        }
+
+        if ( !isUpToDate( cachedProjectionZones, inputs ) ) {
+            System.arraycopy( inputs, 0, cachedProjectionZones._inputs, 0, NUMBER_OF_INPUTS );
+            cachedProjectionZones._projectionZoneGeometry = computeProjectionZones( inputs );
+            _recomputedLineCount++;
+        }
+
+        return cachedProjectionZones._projectionZoneGeometry;
+    }
+
+    /**
+     * Returns the number of line computations made by batch updates and by
+     * cache refreshes, over the lifetime of the engine.
+     *
+     * @return The number of recomputed lines
+     */
+    public long getRecomputedLineCount() {
+        return _recomputedLineCount;
+    }
+
+    /**
+     * Returns the number of Projector lines with cached Projection Zones.
+     *
+     * @return The number of cached Projector lines
+     */
+    public int size() {
+        return _projectionZones.size();
+    }
+
+    /**
+     * Brings the cached Projection Zones of a single line in the collection
+     * up-to-date after it was edited in place, caching it if it became a
+     * Projector and dropping it if it no longer is one.
+     *
+     * @param linearObject
+     *            The edited line, which must be in the collection
+     * @return {@code true} if the line's Projection Zones were recomputed
+     */
+    public boolean updateLinearObject( final T linearObject ) {
+        if ( !linearObject.isUseAsProjector() ) {
+            _projectionZones.remove( linearObject );
+            return false;
+        }
+
+        final double[] inputs = getInputs( linearObject );
+        CachedProjectionZones cachedProjectionZones = _projectionZones.get( linearObject );
+        if ( cachedProjectionZones == null ) {
+            cachedProjectionZones = new CachedProjectionZones( inputs );
+            _projectionZones.put( linearObject, cachedProjectionZones );
+        }
+        else if ( isUpToDate( cachedProjectionZones, inputs ) ) {
+            return false;
+        }
+        else {
+            System.arraycopy( inputs, 0, cachedProjectionZones._inputs, 0, NUMBER_OF_INPUTS );
+        }
+
+        cachedProjectionZones._projectionZoneGeometry = computeProjectionZones( inputs );
+        _recomputedLineCount++;
+        return true;
+    }
+
+    /**
+     * Brings the cached Projection Zones in line with a collection, computing
+     * only the Projector lines that are new or whose geometry or number of
+     * Projection Zones changed, and dropping lines that are no longer
+     * Projectors or are no longer in the collection.
+     *
+     * @param linearObjects
+     *            The lines in the collection
+     * @return The number of lines that were recomputed
+     */
+    public int update( final List< ? extends T > linearObjects ) {
+        final Set< T > currentProjectors = Collections
+                .newSetFromMap( new IdentityHashMap<>( linearObjects.size() ) );
+        final List< CachedProjectionZones > changedLines = new ArrayList<>();
+        for ( final T linearObject : linearObjects ) {
+            if ( !linearObject.isUseAsProjector() ) {
+                continue;
+            }
+            currentProjectors.add( linearObject );
+
+            final double[] inputs = getInputs( linearObject );
+            final CachedProjectionZones cachedProjectionZones =
+                    _projectionZones.get( linearObject );
+            if ( cachedProjectionZones == null ) {
+                final CachedProjectionZones newProjectionZones =
+                        new CachedProjectionZones( inputs );
+                _projectionZones.put( linearObject, newProjectionZones );
+                changedLines.add( newProjectionZones );
+            }
+            else if ( !isUpToDate( cachedProjectionZones, inputs ) ) {
+                System.arraycopy( inputs, 0, cachedProjectionZones._inputs, 0, NUMBER_OF_INPUTS );
+                changedLines.add( cachedProjectionZones );
+            }
+        }
+
+        _projectionZones.keySet().retainAll( currentProjectors );
+
+        // Only pay for the Fork/Join pool when there is enough work to split.
+        final int numberOfChangedLines = changedLines.size();
+        final ProjectionZoneTask projectionZoneTask =
+                new ProjectionZoneTask( changedLines, 0, numberOfChangedLines );
+        if ( numberOfChangedLines > SEQUENTIAL_THRESHOLD ) {
+            ForkJoinPool.commonPool().invoke( projectionZoneTask );
+        }
+        else {
+            projectionZoneTask.compute();
+        }
+
+        _recomputedLineCount += numberOfChangedLines;
+        return numberOfChangedLines;
+    }
+
+    private static ProjectionZoneGeometry computeProjectionZones( final double[] inputs ) {
+        return ProjectionZoneGeometry.compute( inputs[ 0 ],
+                                               inputs[ 1 ],
+                                               inputs[ 2 ],
+                                               inputs[ 3 ],
+                                               ( int ) inputs[ 4 ] );
+    }
+
+    private double[] getInputs( final T linearObject ) {
+        return new double[] { _x1Accessor.applyAsDouble( linearObject ),
+                              _y1Accessor.applyAsDouble( linearObject ),
+                              _x2Accessor.applyAsDouble( linearObject ),
+                              _y2Accessor.applyAsDouble( linearObject ),
+                              linearObject.getNumberOfProjectionZones() };
+    }
+
+    private static boolean isUpToDate( final CachedProjectionZones cachedProjectionZones,
+                                       final double[] inputs ) {
+        if ( cachedProjectionZones._projectionZoneGeometry == null ) {
+            return false;
+        }
+
+        for ( int i = 0; i < NUMBER_OF_INPUTS; i++ ) {
+            if ( Double.compare( cachedProjectionZones._inputs[ i ], inputs[ i ] ) != 0 ) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+/**
+ * This is the computed geometry of the Projection Zones of a single Projector
+ * line: the points that subdivide the line into equal zones, the unit normal
+ * of the line, and the extents of each zone.
+ * <p>
+ * The geometry is immutable once computed, so it can be shared freely between
+ * the computing threads and the JavaFX Application Thread.
+ */
+public final class ProjectionZoneGeometry {
+
+    /** The number of Projection Zones. */
+    private final int      _numberOfProjectionZones;
+
+    /** The subdivision points, as interleaved x and y coordinates. */
+    private final double[] _subdivisionPoints;
+
+    /** The zone extents, as interleaved minimum x/y and maximum x/y. */
+    private final double[] _zoneExtents;
+
+    /** The x component of the unit normal, to the left of the line. */
+    private final double   _normalX;
+
+    /** The y component of the unit normal, to the left of the line. */
+    private final double   _normalY;
+
+    /** The length of each zone. */
+    private final double   _zoneLength;
+
+    private ProjectionZoneGeometry( final int numberOfProjectionZones,
+                                    final double[] subdivisionPoints,
+                                    final double[] zoneExtents,
+                                    final double normalX,
+                                    final double normalY,
+                                    final double zoneLength ) {
+        _numberOfProjectionZones = numberOfProjectionZones;
+        _subdivisionPoints = subdivisionPoints;
+        _zoneExtents = zoneExtents;
+        _normalX = normalX;
+        _normalY = normalY;
+        _zoneLength = zoneLength;
+    }
+
+    /**
+     * Computes the Projection Zone geometry of a line.
+     *
+     * @param x1
+     *            The x coordinate of the start of the line
+     * @param y1
+     *            The y coordinate of the start of the line
+     * @param x2
+     *            The x coordinate of the end of the line
+     * @param y2
+     *            The y coordinate of the end of the line
+     * @param numberOfProjectionZones
+     *            The number of Projection Zones, which is at least one
+     * @return The Projection Zone geometry of the line
+     */
+    public static ProjectionZoneGeometry compute( final double x1,
+                                                  final double y1,
+                                                  final double x2,
+                                                  final double y2,
+                                                  final int numberOfProjectionZones ) {
+        final int numberOfZones = Math.max( 1, numberOfProjectionZones );
+        final double deltaX = x2 - x1;
+        final double deltaY = y2 - y1;
+        final double length = Math.hypot( deltaX, deltaY );
+
+        // A degenerate line has no direction, and so no normal.
+        final double normalX = ( length > 0.0d ) ? -deltaY / length : 0.0d;
+        final double normalY = ( length > 0.0d ) ? deltaX / length : 0.0d;
+
+        final double[] subdivisionPoints = new double[ 2 * ( numberOfZones + 1 ) ];
+        for ( int i = 0; i <= numberOfZones; i++ ) {
+            // Pin the last point to the end of the line, to avoid round-off.
+            final double fraction = ( i == numberOfZones ) ? 1.0d : ( double ) i / numberOfZones;
+            subdivisionPoints[ 2 * i ] = x1 + ( fraction * deltaX );
+            subdivisionPoints[ ( 2 * i ) + 1 ] = y1 + ( fraction * deltaY );
+        }
+
+        final double[] zoneExtents = new double[ 4 * numberOfZones ];
+        for ( int i = 0; i < numberOfZones; i++ ) {
+            final double zoneX1 = subdivisionPoints[ 2 * i ];
+            final double zoneY1 = subdivisionPoints[ ( 2 * i ) + 1 ];
+            final double zoneX2 = subdivisionPoints[ 2 * ( i + 1 ) ];
+            final double zoneY2 = subdivisionPoints[ ( 2 * ( i + 1 ) ) + 1 ];
+            zoneExtents[ 4 * i ] = Math.min( zoneX1, zoneX2 );
+            zoneExtents[ ( 4 * i ) + 1 ] = Math.min( zoneY1, zoneY2 );
+            zoneExtents[ ( 4 * i ) + 2 ] = Math.max( zoneX1, zoneX2 );
+            zoneExtents[ ( 4 * i ) + 3 ] = Math.max( zoneY1, zoneY2 );
+        }
+
+        return new ProjectionZoneGeometry( numberOfZones,
+                                           subdivisionPoints,
+                                           zoneExtents,
+                                           normalX,
+                                           normalY,
+                                           length / numberOfZones );
+    }
+
+    public double getNormalX() {
+        return _normalX;
+    }
+
+    public double getNormalY() {
+        return _normalY;
+    }
+
+    public int getNumberOfProjectionZones() {
+        return _numberOfProjectionZones;
+    }
+
+    /**
+     * Returns the x coordinate of a subdivision point, where point zero is the
+     * start of the line and the last point is the end of the line.
+     *
+     * @param pointIndex
+     *            The index of the subdivision point
+     * @return The x coordinate of the subdivision point
+     */
+    public double getSubdivisionX( final int pointIndex ) {
+        return _subdivisionPoints[ 2 * pointIndex ];
+    }
+
+    /**
+     * Returns the y coordinate of a subdivision point, where point zero is the
+     * start of the line and the last point is the end of the line.
+     *
+     * @param pointIndex
+     *            The index of the subdivision point
+     * @return The y coordinate of the subdivision point
+     */
+    public double getSubdivisionY( final int pointIndex ) {
+        return _subdivisionPoints[ ( 2 * pointIndex ) + 1 ];
+    }
+
+    public double getZoneLength() {
+        return _zoneLength;
+    }
+
+    public double getZoneMaximumX( final int zoneIndex ) {
+        return _zoneExtents[ ( 4 * zoneIndex ) + 2 ];
+    }
+
+    public double getZoneMaximumY( final int zoneIndex ) {
+        return _zoneExtents[ ( 4 * zoneIndex ) + 3 ];
+    }
+
+    public double getZoneMinimumX( final int zoneIndex ) {
+        return _zoneExtents[ 4 * zoneIndex ];
+    }
+
+    public double getZoneMinimumY( final int zoneIndex ) {
+        return _zoneExtents[ ( 4 * zoneIndex ) + 1 ];
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * This schedules an update to run at most once per JavaFX pulse, no matter
+ * how many times it is requested in between, such as from every tick of a
+ * slider drag.
+ * <p>
+ * The update runs on the next pulse after it is requested, and the scheduler
+ * then goes idle until the next request, so it costs nothing while nothing is
+ * being edited. This must only be used from the JavaFX Application Thread.
+ */
+public final class PulseUpdateScheduler {
+
+    /** The update to run once per pulse. */
+    private final Runnable       _update;
+
+    /** The timer that runs the pending update on the next pulse. */
+    private final AnimationTimer _pulseTimer;
+
+    /** Flag for whether an update is pending for the next pulse. */
+    private boolean              _updatePending;
+
+    /** The number of times an update has been requested. */
+    private long                 _requestedUpdateCount;
+
+    /** The number of times the update has actually run. */
+    private long                 _performedUpdateCount;
+
+    public PulseUpdateScheduler( final Runnable update ) {
+        _update = update;
+        _updatePending = false;
+        _requestedUpdateCount = 0L;
+        _performedUpdateCount = 0L;
+
+        _pulseTimer = new AnimationTimer() {
+            @Override
+            public void handle( final long now ) {
+                // Go idle before running the update, in case it requests
+                // another one for the following pulse.
+                stop();
+                runPendingUpdate();
+            }
+        };
+    }
+
+    /**
+     * Drops the pending update, if any, such as when a final update is about
+     * to be made directly.
+     */
+    public void cancel() {
+        if ( _updatePending ) {
+            _updatePending = false;
+            _pulseTimer.stop();
+        }
+    }
+
+    /**
+     * Runs the pending update right away, if any, rather than waiting for the
+     * next pulse.
+     */
+    public void flush() {
+        if ( _updatePending ) {
+            _pulseTimer.stop();
+            runPendingUpdate();
+        }
+    }
+
+    /**
+     * Returns the number of requested updates that were coalesced into other
+     * updates rather than run on their own.
+     *
+     * @return The number of coalesced updates
+     */
+    public long getCoalescedUpdateCount() {
+        return _requestedUpdateCount - _performedUpdateCount - ( _updatePending ? 1L : 0L );
+    }
+
+    /**
+     * Returns the number of times the update has actually run.
+     *
+     * @return The number of performed updates
+     */
+    public long getPerformedUpdateCount() {
+        return _performedUpdateCount;
+    }
+
+    /**
+     * Returns the number of times an update has been requested, whether run
+     * via the scheduler or directly via {@link #recordDirectUpdate()}.
+     *
+     * @return The number of requested updates
+     */
+    public long getRequestedUpdateCount() {
+        return _requestedUpdateCount;
+    }
+
+    /**
+     * Returns {@code true} if an update is pending for the next pulse.
+     *
+     * @return {@code true} if an update is pending for the next pulse
+     */
+    public boolean isUpdatePending() {
+        return _updatePending;
+    }
+
+    /**
+     * Records an update that the host ran directly rather than via the
+     * scheduler, so that the statistics reflect all of the work done.
+     */
+    public void recordDirectUpdate() {
+        _requestedUpdateCount++;
+        _performedUpdateCount++;
+    }
+
+    /**
+     * Requests that the update be run on the next pulse, coalescing this with
+     * any other request that is already pending.
+     */
+    public void requestUpdate() {
+        _requestedUpdateCount++;
+        if ( !_updatePending ) {
+            _updatePending = true;
+            _pulseTimer.start();
+        }
+    }
+
+    /**
+     * Resets the update statistics.
+     */
+    public void resetStatistics() {
+        _requestedUpdateCount = _updatePending ? 1L : 0L;
+        _performedUpdateCount = 0L;
+    }
+
+    private void runPendingUpdate() {
+        if ( !_updatePending ) {
+            return;
+        }
+
+        _updatePending = false;
+        _performedUpdateCount++;
+        _update.run();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import com.mhschmieder.jacoustics.SurfaceMaterial;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This is a registry of named Surface configuration presets, such as
+ * "all bypassed", "as-built" and "treated", each stored as an immutable
+ * {@link SurfacesSnapshot} so that presets can be looked up in constant time
+ * and shared freely.
+ * <p>
+ * Presets are kept in the order that they were first added, for presentation
+ * in menus and selectors.
+ */
+public final class SurfacesPresetRegistry {
+
+    /** The Surface configuration presets, keyed by preset name. */
+    private final Map< String, SurfacesSnapshot< SurfaceMaterial > > _surfacesPresets;
+
+    public SurfacesPresetRegistry() {
+        _surfacesPresets = new LinkedHashMap<>();
+    }
+
+    /**
+     * Removes all presets.
+     */
+    public void clear() {
+        _surfacesPresets.clear();
+    }
+
+    /**
+     * Returns {@code true} if a preset is registered under the given name.
+     *
+     * @param presetName
+     *            The name of the preset
+     * @return {@code true} if a preset is registered under the given name
+     */
+    public boolean containsPreset( final String presetName ) {
+        return _surfacesPresets.containsKey( presetName );
+    }
+
+    /**
+     * Returns the preset registered under the given name, if any.
+     *
+     * @param presetName
+     *            The name of the preset
+     * @return The preset snapshot, or {@code null} if there is none
+     */
+    public SurfacesSnapshot< SurfaceMaterial > getPreset( final String presetName ) {
+        return _surfacesPresets.get( presetName );
+    }
+
+    /**
+     * Returns the names of all registered presets, in the order added.
+     *
+     * @return An unmodifiable view of the preset names
+     */
+    public Set< String > getPresetNames() {
+        return Collections.unmodifiableSet( _surfacesPresets.keySet() );
+    }
+
+    /**
+     * Registers a preset under the given name, replacing any existing preset
+     * of the same name.
+     *
+     * @param presetName
+     *            The name of the preset
+     * @param surfacesSnapshot
+     *            The Surface configuration to store as the preset
+     */
+    public void putPreset( final String presetName,
+                           final SurfacesSnapshot< SurfaceMaterial > surfacesSnapshot ) {
+        _surfacesPresets.put( presetName, surfacesSnapshot );
+    }
+
+    /**
+     * Removes the preset registered under the given name, if any.
+     *
+     * @param presetName
+     *            The name of the preset
+     * @return The removed preset snapshot, or {@code null} if there was none
+     */
+    public SurfacesSnapshot< SurfaceMaterial > removePreset( final String presetName ) {
+        return _surfacesPresets.remove( presetName );
+    }
+
+    /**
+     * Returns the number of registered presets.
+     *
+     * @return The number of registered presets
+     */
+    public int size() {
+        return _surfacesPresets.size();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import com.mhschmieder.fxcadcontrols.model.SurfaceProperties;
+import javafx.beans.property.Property;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A Surfaces Snapshot is a compact, immutable copy of the editable state of a
+ * list of Surface Properties: the Surface Name, the Bypassed status, and the
+ * Surface Material of each Surface, in list order.
+ * <p>
+ * Snapshots are meant for switching between whole Surface configurations,
+ * such as "all bypassed", "as-built" and "treated", so they are stored as
+ * parallel values by list index rather than as copies of the Surface
+ * Properties.
+ *
+ * @param <M>
+ *            The material type
+ */
+public final class SurfacesSnapshot< M > {
+
+    /** The Surface Names, in list order. */
+    private final String[]                                     _surfaceNames;
+
+    /** The Bypassed status of each Surface, by list index. */
+    private final BitSet                                       _surfacesBypassed;
+
+    /** The Surface Materials, in list order. */
+    private final List< M >                                    _surfaceMaterials;
+
+    /** The accessor for the Surface Material property of each Surface. */
+    private final Function< SurfaceProperties, Property< M > > _surfaceMaterialAccessor;
+
+    private SurfacesSnapshot(
+            final String[] surfaceNames,
+            final BitSet surfacesBypassed,
+            final List< M > surfaceMaterials,
+            final Function< SurfaceProperties, Property< M > > surfaceMaterialAccessor ) {
+        _surfaceNames = surfaceNames;
+        _surfacesBypassed = surfacesBypassed;
+        _surfaceMaterials = surfaceMaterials;
+        _surfaceMaterialAccessor = surfaceMaterialAccessor;
+    }
+
+    /**
+     * Takes a snapshot of the current state of a list of Surface Properties.
+     *
+     * @param surfaceProperties
+     *            The Surface Properties to take a snapshot of
+     * @param surfaceMaterialAccessor
+     *            The accessor for the Surface Material property of each
+     *            Surface, usually {@code SurfaceProperties::surfaceMaterialProperty}
+     * @param <M>
+     *            The material type
+     * @return An immutable snapshot of the Surface Properties
+     */
+    public static < M > SurfacesSnapshot< M > of(
+            final List< SurfaceProperties > surfaceProperties,
+            final Function< SurfaceProperties, Property< M > > surfaceMaterialAccessor ) {
+        final int numberOfSurfaces = surfaceProperties.size();
+        final String[] surfaceNames = new String[ numberOfSurfaces ];
+        final BitSet surfacesBypassed = new BitSet( numberOfSurfaces );
+        final List< M > surfaceMaterials = new ArrayList<>( numberOfSurfaces );
+
+        for ( int surfaceIndex = 0; surfaceIndex < numberOfSurfaces; surfaceIndex++ ) {
+            final SurfaceProperties numberedSurfaceProperties = surfaceProperties
+                    .get( surfaceIndex );
+            surfaceNames[ surfaceIndex ] = numberedSurfaceProperties.getSurfaceName();
+            surfacesBypassed.set( surfaceIndex, numberedSurfaceProperties.isSurfaceBypassed() );
+            surfaceMaterials.add( surfaceMaterialAccessor.apply( numberedSurfaceProperties )
+                    .getValue() );
+        }
+
+        return new SurfacesSnapshot<>( surfaceNames,
+                                       surfacesBypassed,
+                                       surfaceMaterials,
+                                       surfaceMaterialAccessor );
+    }
+
+    /**
+     * Restores the snapshot state of one Surface onto the given Surface
+     * Properties, only setting the values that differ.
+     *
+     * @param surfaceIndex
+     *            The list index of the Surface in the snapshot
+     * @param surfaceProperties
+     *            The Surface Properties to restore the snapshot state onto
+     */
+    public void applyTo( final int surfaceIndex, final SurfaceProperties surfaceProperties ) {
+        final String surfaceName = _surfaceNames[ surfaceIndex ];
+        if ( !Objects.equals( surfaceName, surfaceProperties.getSurfaceName() ) ) {
+            surfaceProperties.setSurfaceName( surfaceName );
+        }
+
+        final boolean surfaceBypassed = _surfacesBypassed.get( surfaceIndex );
+        if ( surfaceBypassed != surfaceProperties.isSurfaceBypassed() ) {
+            surfaceProperties.setSurfaceBypassed( surfaceBypassed );
+        }
+
+        final Property< M > surfaceMaterialProperty = _surfaceMaterialAccessor
+                .apply( surfaceProperties );
+        final M surfaceMaterial = _surfaceMaterials.get( surfaceIndex );
+        if ( !Objects.equals( surfaceMaterial, surfaceMaterialProperty.getValue() ) ) {
+            surfaceMaterialProperty.setValue( surfaceMaterial );
+        }
+    }
+
+    public String getSurfaceName( final int surfaceIndex ) {
+        return _surfaceNames[ surfaceIndex ];
+    }
+
+    public M getSurfaceMaterial( final int surfaceIndex ) {
+        return _surfaceMaterials.get( surfaceIndex );
+    }
+
+    public boolean isSurfaceBypassed( final int surfaceIndex ) {
+        return _surfacesBypassed.get( surfaceIndex );
+    }
+
+    /**
+     * Returns the number of Surfaces in the snapshot.
+     *
+     * @return The number of Surfaces in the snapshot
+     */
+    public int size() {
+        return _surfaceNames.length;
+    }
+}
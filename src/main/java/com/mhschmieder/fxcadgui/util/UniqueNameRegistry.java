@@ -0,0 +1,284 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import java.text.NumberFormat;
+import java.text.ParsePosition;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This is a registry of names that are in use, indexed by base name, so that
+ * a unique name can be found for a candidate name in constant expected time
+ * rather than by scanning every name in use for a free uniquefier.
+ * <p>
+ * A name is treated as a base name followed by an optional uniquefier, which
+ * is a space and a non-negative integer in the supplied number format, such as
+ * "Wall 3". A bare base name occupies uniquefier slot zero.
+ * <p>
+ * The registry must be kept up-to-date incrementally by its host as names are
+ * added, removed and changed.
+ */
+public final class UniqueNameRegistry {
+
+    /**
+     * The uniquefiers in use for a single base name, along with the lowest
+     * free uniquefier above the bare base name, so that it never has to be
+     * searched for at query time.
+     */
+    private static final class UniquefierSlots {
+
+        private final BitSet _usedUniquefiers      = new BitSet();
+        private int          _lowestFreeUniquefier = 1;
+
+        private void clear( final int uniquefier ) {
+            _usedUniquefiers.clear( uniquefier );
+            if ( ( uniquefier > 0 ) && ( uniquefier < _lowestFreeUniquefier ) ) {
+                _lowestFreeUniquefier = uniquefier;
+            }
+        }
+
+        private boolean isEmpty() {
+            return _usedUniquefiers.isEmpty();
+        }
+
+        private void set( final int uniquefier ) {
+            _usedUniquefiers.set( uniquefier );
+
+            // Uniquefiers are usually taken in ascending order, so advancing
+            // the lowest free slot is amortized constant time.
+            if ( uniquefier == _lowestFreeUniquefier ) {
+                _lowestFreeUniquefier = _usedUniquefiers.nextClearBit( uniquefier + 1 );
+            }
+        }
+    }
+
+    /** The separator between the base name and the uniquefier. */
+    private static final String          UNIQUEFIER_SEPARATOR = " "; //$NON-NLS-1$
+
+    /**
+     * The number of times each exact name is in use, as a collection may
+     * contain duplicates before it is first uniquefied.
+     */
+    private final Map< String, Integer >         _nameCounts;
+
+    /** The set of uniquefiers in use for each base name. */
+    private final Map< String, UniquefierSlots > _usedUniquefiers;
+
+    /** Number format used for locale-specific uniquefier appendices. */
+    private final NumberFormat                   _uniquefierNumberFormat;
+
+    public UniqueNameRegistry( final NumberFormat uniquefierNumberFormat ) {
+        _nameCounts = new HashMap<>();
+        _usedUniquefiers = new HashMap<>();
+        _uniquefierNumberFormat = uniquefierNumberFormat;
+    }
+
+    /**
+     * Registers a name as being in use.
+     *
+     * @param name
+     *            The name to register
+     */
+    public void addName( final String name ) {
+        if ( name == null ) {
+            return;
+        }
+
+        final int nameCount = _nameCounts.merge( name, 1, Integer::sum );
+        if ( nameCount > 1 ) {
+            return;
+        }
+
+        final ParsePosition parsePosition = new ParsePosition( 0 );
+        final int uniquefier = parseUniquefier( name, parsePosition );
+        final String baseName = getBaseName( name, uniquefier, parsePosition );
+        _usedUniquefiers.computeIfAbsent( baseName, key -> new UniquefierSlots() ).set( uniquefier );
+    }
+
+    /**
+     * Unregisters all names, such as when the host collection is replaced.
+     */
+    public void clear() {
+        _nameCounts.clear();
+        _usedUniquefiers.clear();
+    }
+
+    /**
+     * Returns {@code true} if the name is currently in use.
+     *
+     * @param name
+     *            The name to look up
+     * @return {@code true} if the name is in use
+     */
+    public boolean containsName( final String name ) {
+        return _nameCounts.containsKey( name );
+    }
+
+    /**
+     * Returns a name based on the candidate name, that is unique amongst all
+     * registered names other than the current name of the object being named.
+     *
+     * @param candidateName
+     *            The requested name
+     * @param currentName
+     *            The current name of the object being named, or {@code null}
+     *            if the object is new
+     * @return The candidate name if it is available; otherwise the candidate's
+     *         base name with the lowest free uniquefier appended
+     */
+    public String getUniqueName( final String candidateName, final String currentName ) {
+        final Integer nameCount = _nameCounts.get( candidateName );
+        final int otherNameCount = ( nameCount == null )
+            ? 0
+            : candidateName.equals( currentName ) ? nameCount - 1 : nameCount;
+        if ( otherNameCount <= 0 ) {
+            return candidateName;
+        }
+
+        final ParsePosition parsePosition = new ParsePosition( 0 );
+        final int candidateUniquefier = parseUniquefier( candidateName, parsePosition );
+        final String baseName = getBaseName( candidateName, candidateUniquefier, parsePosition );
+
+        // If the object already has a uniquefied form of the same base name,
+        // it is better to leave it alone than to hop to a different slot.
+        if ( currentName != null ) {
+            final ParsePosition currentPosition = new ParsePosition( 0 );
+            final int currentUniquefier = parseUniquefier( currentName, currentPosition );
+            if ( ( currentUniquefier > 0 ) && baseName
+                    .equals( getBaseName( currentName, currentUniquefier, currentPosition ) ) ) {
+                return currentName;
+            }
+        }
+
+        // Take the lowest free uniquefier above the bare base name.
+        // NOTE: Every registered name sets a slot for its base name, so the
+        // base name always has an entry once the candidate is known in use.
+        final UniquefierSlots uniquefierSlots = _usedUniquefiers.get( baseName );
+
+        return makeName( baseName, uniquefierSlots._lowestFreeUniquefier );
+    }
+
+    /**
+     * Unregisters a name that is no longer in use.
+     *
+     * @param name
+     *            The name to unregister
+     */
+    public void removeName( final String name ) {
+        if ( name == null ) {
+            return;
+        }
+
+        final Integer nameCount = _nameCounts.get( name );
+        if ( nameCount == null ) {
+            return;
+        }
+        if ( nameCount > 1 ) {
+            _nameCounts.put( name, nameCount - 1 );
+            return;
+        }
+        _nameCounts.remove( name );
+
+        final ParsePosition parsePosition = new ParsePosition( 0 );
+        final int uniquefier = parseUniquefier( name, parsePosition );
+        final String baseName = getBaseName( name, uniquefier, parsePosition );
+        final UniquefierSlots uniquefierSlots = _usedUniquefiers.get( baseName );
+        if ( uniquefierSlots != null ) {
+            uniquefierSlots.clear( uniquefier );
+            if ( uniquefierSlots.isEmpty() ) {
+                _usedUniquefiers.remove( baseName );
+            }
+        }
+    }
+
+    /**
+     * Updates the registry for a name change.
+     *
+     * @param oldName
+     *            The name that is no longer in use
+     * @param newName
+     *            The name that is now in use
+     */
+    public void renameName( final String oldName, final String newName ) {
+        if ( ( oldName != null ) && oldName.equals( newName ) ) {
+            return;
+        }
+
+        removeName( oldName );
+        addName( newName );
+    }
+
+    private String getBaseName( final String name,
+                                final int uniquefier,
+                                final ParsePosition parsePosition ) {
+        // The parse position is left at the start of the uniquefier separator
+        // when a uniquefier is present.
+        return ( uniquefier > 0 ) ? name.substring( 0, parsePosition.getIndex() ) : name;
+    }
+
+    private String makeName( final String baseName, final int uniquefier ) {
+        return baseName + UNIQUEFIER_SEPARATOR + _uniquefierNumberFormat.format( uniquefier );
+    }
+
+    /*
+     * Parses the trailing uniquefier of a name, if present, returning zero
+     * if the name is a bare base name. On success, the parse position is set
+     * to the index of the uniquefier separator.
+     */
+    private int parseUniquefier( final String name, final ParsePosition parsePosition ) {
+        final int separatorIndex = name.lastIndexOf( UNIQUEFIER_SEPARATOR );
+        if ( ( separatorIndex <= 0 ) || ( separatorIndex == ( name.length() - 1 ) ) ) {
+            return 0;
+        }
+
+        final int uniquefierIndex = separatorIndex + UNIQUEFIER_SEPARATOR.length();
+        if ( !Character.isDigit( name.charAt( uniquefierIndex ) ) ) {
+            return 0;
+        }
+
+        final ParsePosition numberPosition = new ParsePosition( uniquefierIndex );
+        final Number uniquefier = _uniquefierNumberFormat.parse( name, numberPosition );
+        if ( ( uniquefier == null ) || ( numberPosition.getIndex() != name.length() ) ) {
+            return 0;
+        }
+
+        final double uniquefierValue = uniquefier.doubleValue();
+        if ( ( uniquefierValue < 1.0d ) || ( uniquefierValue > Integer.MAX_VALUE - 1 )
+                || ( uniquefierValue != Math.floor( uniquefierValue ) ) ) {
+            return 0;
+        }
+
+        parsePosition.setIndex( separatorIndex );
+        return ( int ) uniquefierValue;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.stage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import javafx.application.Platform;
+import javafx.embed.swing.JFXPanel;
+import javafx.stage.Stage;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.awt.GraphicsEnvironment;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link StageFactory}, which run on the JavaFX Application
+ * Thread, as Stages can't be built or shown anywhere else.
+ */
+public final class StageFactoryTest {
+
+    // A Stage type that is registered with a recycler.
+    private static final class RecyclableStage extends Stage {
+
+        int recycleCount = 0;
+    }
+
+    // A Stage type that is registered without a recycler.
+    private static final class PlainStage extends Stage {}
+
+    private StageFactory _stageFactory;
+
+    private int          _buildCount;
+
+    @BeforeClass
+    public static void startToolkit() {
+        Assume.assumeFalse( GraphicsEnvironment.isHeadless() );
+
+        // Making a JFXPanel is the way to start the JavaFX toolkit on Java 8.
+        new JFXPanel();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        _buildCount = 0;
+        _stageFactory = onFxThread( () -> {
+            final StageFactory stageFactory = new StageFactory();
+            stageFactory.registerStageType( RecyclableStage.class, () -> {
+                _buildCount++;
+                return new RecyclableStage();
+            }, stage -> stage.recycleCount++ );
+            stageFactory.registerStageType( PlainStage.class, () -> {
+                _buildCount++;
+                return new PlainStage();
+            } );
+            return stageFactory;
+        } );
+    }
+
+    // Run a task on the JavaFX Application Thread, and wait for its result.
+    private static < V > V onFxThread( final Callable< V > task ) throws Exception {
+        final FutureTask< V > futureTask = new FutureTask<>( task );
+        Platform.runLater( futureTask );
+        return futureTask.get( 5L, TimeUnit.SECONDS );
+    }
+
+    @Test
+    public void acquiredStagesAreBuiltOnDemandAndRecycledOnceHidden() throws Exception {
+        onFxThread( () -> {
+            final RecyclableStage stage = _stageFactory.acquireStage( RecyclableStage.class );
+            assertEquals( 1, _buildCount );
+            assertFalse( _stageFactory.isStageWarm( RecyclableStage.class ) );
+
+            stage.show();
+            stage.hide();
+            assertEquals( 1, stage.recycleCount );
+            assertTrue( _stageFactory.isStageWarm( RecyclableStage.class ) );
+
+            assertSame( stage, _stageFactory.acquireStage( RecyclableStage.class ) );
+            assertEquals( 1, _buildCount );
+            return null;
+        } );
+    }
+
+    @Test
+    public void stagesWithoutRecyclerAreLeftToTheCaller() throws Exception {
+        onFxThread( () -> {
+            final PlainStage stage = _stageFactory.acquireStage( PlainStage.class );
+            stage.show();
+            stage.hide();
+            assertFalse( _stageFactory.isStageWarm( PlainStage.class ) );
+
+            assertNotSame( stage, _stageFactory.acquireStage( PlainStage.class ) );
+            assertEquals( 2, _buildCount );
+            return null;
+        } );
+    }
+
+    @Test
+    public void reShownStagesAreWithdrawnFromThePool() throws Exception {
+        onFxThread( () -> {
+            final RecyclableStage stage = _stageFactory.acquireStage( RecyclableStage.class );
+            stage.show();
+            stage.hide();
+            assertTrue( _stageFactory.isStageWarm( RecyclableStage.class ) );
+
+            // The previous owner shows its own Stage again.
+            stage.show();
+            assertFalse( _stageFactory.isStageWarm( RecyclableStage.class ) );
+
+            final RecyclableStage otherStage = _stageFactory
+                    .acquireStage( RecyclableStage.class );
+            assertNotSame( stage, otherStage );
+            stage.hide();
+            return null;
+        } );
+    }
+
+    @Test
+    public void prewarmBuildsOneStagePerTypeDuringIdleTime() throws Exception {
+        onFxThread( () -> {
+            _stageFactory.prewarmStages();
+            assertEquals( 0, _buildCount );
+            return null;
+        } );
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( 5L );
+        while ( !onFxThread( () -> _stageFactory.isStageWarm( RecyclableStage.class )
+                && _stageFactory.isStageWarm( PlainStage.class ) ) ) {
+            assertTrue( System.nanoTime() < deadline );
+            Thread.sleep( 50L );
+        }
+
+        onFxThread( () -> {
+            assertEquals( 2, _buildCount );
+
+            _stageFactory.acquireStage( PlainStage.class );
+            assertEquals( 2, _buildCount );
+            return null;
+        } );
+    }
+}
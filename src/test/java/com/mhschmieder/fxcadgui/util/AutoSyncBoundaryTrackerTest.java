@@ -0,0 +1,204 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import static com.mhschmieder.fxcadgui.util.LineTestUtilities.makeRandom;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.mhschmieder.fxcadcontrols.model.Extents2DProperties;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit tests for {@link AutoSyncBoundaryTracker}, checking the pushed
+ * boundary against a brute force union of the registered extents.
+ */
+public final class AutoSyncBoundaryTrackerTest {
+
+    private Random                                  _random;
+
+    private List< Extents2DProperties >             _pushedBoundaries;
+
+    private AutoSyncBoundaryTracker< Object >       _autoSyncBoundaryTracker;
+
+    @Before
+    public void setUp() {
+        _random = makeRandom();
+        _pushedBoundaries = new ArrayList<>();
+        _autoSyncBoundaryTracker = new AutoSyncBoundaryTracker<>( _pushedBoundaries::add );
+    }
+
+    private Extents2DProperties getLastPushedBoundary() {
+        return _pushedBoundaries.isEmpty()
+            ? null
+            : _pushedBoundaries.get( _pushedBoundaries.size() - 1 );
+    }
+
+    private static void assertBoundary( final double minimumX,
+                                        final double minimumY,
+                                        final double maximumX,
+                                        final double maximumY,
+                                        final Extents2DProperties boundary ) {
+        assertEquals( minimumX, boundary.getX(), 0.0d );
+        assertEquals( minimumY, boundary.getY(), 0.0d );
+        assertEquals( maximumX - minimumX, boundary.getWidth(), 0.0d );
+        assertEquals( maximumY - minimumY, boundary.getHeight(), 0.0d );
+    }
+
+    @Test
+    public void unionFollowsRegistrationsAndRemovals() {
+        final Object first = new Object();
+        final Object second = new Object();
+        _autoSyncBoundaryTracker.registerExtents( first, 0.0d, 0.0d, 10.0d, 10.0d );
+        _autoSyncBoundaryTracker.registerExtents( second, 5.0d, -5.0d, 20.0d, 5.0d );
+        assertBoundary( 0.0d, -5.0d, 20.0d, 10.0d, getLastPushedBoundary() );
+
+        // Moving an object replaces its old extents rather than growing them.
+        _autoSyncBoundaryTracker.registerExtents( second, 1.0d, 1.0d, 2.0d, 2.0d );
+        assertBoundary( 0.0d, 0.0d, 10.0d, 10.0d, getLastPushedBoundary() );
+
+        _autoSyncBoundaryTracker.unregisterExtents( first );
+        assertBoundary( 1.0d, 1.0d, 2.0d, 2.0d, getLastPushedBoundary() );
+        assertEquals( 1, _autoSyncBoundaryTracker.size() );
+    }
+
+    @Test
+    public void invertedExtentsAreNormalized() {
+        _autoSyncBoundaryTracker.registerExtents( new Object(), 10.0d, 8.0d, 2.0d, 4.0d );
+        assertBoundary( 2.0d, 4.0d, 10.0d, 8.0d, getLastPushedBoundary() );
+    }
+
+    @Test
+    public void unchangedUnionIsNotPushed() {
+        final Object outer = new Object();
+        final Object inner = new Object();
+        _autoSyncBoundaryTracker.registerExtents( outer, 0.0d, 0.0d, 100.0d, 100.0d );
+        assertEquals( 1L, _autoSyncBoundaryTracker.getPushCount() );
+
+        // Objects inside the union never change it, however they move.
+        for ( int i = 0; i < 100; i++ ) {
+            _autoSyncBoundaryTracker.registerExtents( inner, i * 0.5d, i * 0.5d, 50.0d, 50.0d );
+        }
+        _autoSyncBoundaryTracker.unregisterExtents( inner );
+        _autoSyncBoundaryTracker.unregisterExtents( new Object() );
+        assertEquals( 1L, _autoSyncBoundaryTracker.getPushCount() );
+        assertEquals( 1, _pushedBoundaries.size() );
+    }
+
+    @Test
+    public void batchesPushOnceWhenTheOutermostEnds() {
+        _autoSyncBoundaryTracker.beginBatch();
+        _autoSyncBoundaryTracker.beginBatch();
+        for ( int i = 0; i < 50; i++ ) {
+            _autoSyncBoundaryTracker.registerExtents( new Object(), -i, -i, i, i );
+        }
+        _autoSyncBoundaryTracker.endBatch();
+        assertNull( getLastPushedBoundary() );
+
+        _autoSyncBoundaryTracker.endBatch();
+        assertEquals( 1L, _autoSyncBoundaryTracker.getPushCount() );
+        assertBoundary( -49.0d, -49.0d, 49.0d, 49.0d, getLastPushedBoundary() );
+
+        // Unmatched ends are ignored.
+        _autoSyncBoundaryTracker.endBatch();
+        assertEquals( 1L, _autoSyncBoundaryTracker.getPushCount() );
+    }
+
+    @Test
+    public void clearKeepsTheLastBoundary() {
+        _autoSyncBoundaryTracker.registerExtents( new Object(), 0.0d, 0.0d, 1.0d, 1.0d );
+        _autoSyncBoundaryTracker.clear();
+        assertTrue( _autoSyncBoundaryTracker.isEmpty() );
+        assertEquals( 1, _pushedBoundaries.size() );
+
+        // Slots freed by the clear are re-used for later registrations.
+        _autoSyncBoundaryTracker.registerExtents( new Object(), 3.0d, 3.0d, 4.0d, 4.0d );
+        assertBoundary( 3.0d, 3.0d, 4.0d, 4.0d, getLastPushedBoundary() );
+    }
+
+    @Test
+    public void randomEditsMatchBruteForce() {
+        final List< Object > objects = new ArrayList<>();
+        final Map< Object, double[] > extents = new IdentityHashMap<>();
+        for ( int edit = 0; edit < 5000; edit++ ) {
+            final int choice = _random.nextInt( 3 );
+            if ( ( choice == 0 ) || objects.isEmpty() ) {
+                final Object object = new Object();
+                objects.add( object );
+                extents.put( object, registerRandomExtents( object ) );
+            }
+            else if ( choice == 1 ) {
+                final Object object = objects.get( _random.nextInt( objects.size() ) );
+                extents.put( object, registerRandomExtents( object ) );
+            }
+            else {
+                final Object object = objects.remove( _random.nextInt( objects.size() ) );
+                extents.remove( object );
+                _autoSyncBoundaryTracker.unregisterExtents( object );
+            }
+
+            if ( objects.isEmpty() ) {
+                continue;
+            }
+
+            double minimumX = Double.POSITIVE_INFINITY;
+            double minimumY = Double.POSITIVE_INFINITY;
+            double maximumX = Double.NEGATIVE_INFINITY;
+            double maximumY = Double.NEGATIVE_INFINITY;
+            for ( final double[] objectExtents : extents.values() ) {
+                minimumX = Math.min( minimumX, objectExtents[ 0 ] );
+                minimumY = Math.min( minimumY, objectExtents[ 1 ] );
+                maximumX = Math.max( maximumX, objectExtents[ 2 ] );
+                maximumY = Math.max( maximumY, objectExtents[ 3 ] );
+            }
+            assertBoundary( minimumX, minimumY, maximumX, maximumY, getLastPushedBoundary() );
+        }
+        assertEquals( objects.size(), _autoSyncBoundaryTracker.size() );
+        assertEquals( _pushedBoundaries.size(), _autoSyncBoundaryTracker.getPushCount() );
+    }
+
+    private double[] registerRandomExtents( final Object object ) {
+        final double minimumX = _random.nextDouble() * 1000.0d;
+        final double minimumY = _random.nextDouble() * 1000.0d;
+        final double maximumX = minimumX + ( _random.nextDouble() * 50.0d );
+        final double maximumY = minimumY + ( _random.nextDouble() * 50.0d );
+        _autoSyncBoundaryTracker.registerExtents( object, minimumX, minimumY, maximumX, maximumY );
+        return new double[] { minimumX, minimumY, maximumX, maximumY };
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.mhschmieder.fxcadgui.util.CartesianLineImporter.LineImportReport;
+import com.mhschmieder.fxgraphics.geometry.CartesianLine;
+import com.mhschmieder.fxgraphics.layers.Layer;
+import com.mhschmieder.fxgraphics.layers.LayerManager;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Unit tests for {@link CartesianLineImporter}.
+ */
+public final class CartesianLineImporterTest {
+
+    private List< Layer >         _layerCollection;
+
+    private CartesianLineImporter _cartesianLineImporter;
+
+    private List< CartesianLine > _cartesianLines;
+
+    @Before
+    public void setUp() {
+        _layerCollection = LayerManager.makeLayerCollection();
+        _cartesianLineImporter = makeImporter( CartesianLineImporter.DEFAULT_CHUNK_SIZE );
+        _cartesianLines = new ArrayList<>();
+    }
+
+    private CartesianLineImporter makeImporter( final int chunkSize ) {
+        final NumberFormat uniquefierNumberFormat = NumberFormat.getIntegerInstance( Locale.US );
+        uniquefierNumberFormat.setGroupingUsed( false );
+        return new CartesianLineImporter( new LayerIndex( _layerCollection ),
+                                          uniquefierNumberFormat,
+                                          "Line",
+                                          chunkSize );
+    }
+
+    private LineImportReport importLines( final String text ) throws IOException {
+        return _cartesianLineImporter.importLines( new StringReader( text ), _cartesianLines );
+    }
+
+    private static void assertLine( final CartesianLine cartesianLine,
+                                    final String label,
+                                    final double x1,
+                                    final double y1,
+                                    final double x2,
+                                    final double y2 ) {
+        assertEquals( label, cartesianLine.getLabel() );
+        assertEquals( x1, cartesianLine.getX1(), 0.0d );
+        assertEquals( y1, cartesianLine.getY1(), 0.0d );
+        assertEquals( x2, cartesianLine.getX2(), 0.0d );
+        assertEquals( y2, cartesianLine.getY2(), 0.0d );
+    }
+
+    @Test
+    public void headerColumnsAreMatchedInAnyOrderAndCase() throws IOException {
+        final LineImportReport report = importLines( "Y2,X2,Label,y1,x1\n"
+                + "4,3,Beam,2,1\n" );
+
+        assertEquals( 1L, report.getRecordCount() );
+        assertEquals( 1L, report.getImportedLineCount() );
+        assertLine( _cartesianLines.get( 0 ), "Beam", 1.0d, 2.0d, 3.0d, 4.0d );
+    }
+
+    @Test
+    public void fourFieldsWithoutHeaderAreCoordinatesOnly() throws IOException {
+        importLines( "1,2,3,4\n5,6,7,8\n" );
+
+        assertEquals( 2, _cartesianLines.size() );
+        assertLine( _cartesianLines.get( 0 ), "Line", 1.0d, 2.0d, 3.0d, 4.0d );
+        assertLine( _cartesianLines.get( 1 ), "Line 1", 5.0d, 6.0d, 7.0d, 8.0d );
+    }
+
+    @Test
+    public void tabsAndQuotedFieldsAreSplitCorrectly() throws IOException {
+        importLines( "\"Say \"\"Hi\"\", Bob\"\tWalls\t1\t2\t3\t4\n" );
+
+        final CartesianLine cartesianLine = _cartesianLines.get( 0 );
+        assertLine( cartesianLine, "Say \"Hi\", Bob", 1.0d, 2.0d, 3.0d, 4.0d );
+        assertSame( LayerManager.getLayerByName( _layerCollection, "Walls" ),
+                    cartesianLine.getLayer() );
+    }
+
+    @Test
+    public void labelsAreUniqueAgainstExistingLines() throws IOException {
+        final CartesianLine existingCartesianLine = new CartesianLine();
+        existingCartesianLine.setLabel( "Beam" );
+        _cartesianLines.add( existingCartesianLine );
+
+        importLines( "label,x1,y1,x2,y2\nBeam,0,0,1,1\nBeam,0,0,2,2\n" );
+
+        assertEquals( "Beam 1", _cartesianLines.get( 1 ).getLabel() );
+        assertEquals( "Beam 2", _cartesianLines.get( 2 ).getLabel() );
+    }
+
+    @Test
+    public void unparsableRecordsAreSkipped() throws IOException {
+        final LineImportReport report = importLines( "# Survey export\n"
+                + "\n"
+                + "1,2,3,4\n"
+                + "1,2,three,4\n"
+                + "1,2,3\n" );
+
+        assertEquals( 3L, report.getRecordCount() );
+        assertEquals( 1L, report.getImportedLineCount() );
+        assertEquals( 2L, report.getSkippedRecordCount() );
+    }
+
+    @Test
+    public void unknownLayerNamesFallBackToTheDefaultLayer() throws IOException {
+        final LineImportReport report = importLines( "label,layer,x1,y1,x2,y2\n"
+                + "A,Doors,0,0,1,1\n"
+                + "B,No Such Layer,0,0,1,1\n"
+                + "C,,0,0,1,1\n" );
+
+        assertEquals( 3L, report.getImportedLineCount() );
+        assertEquals( 2L, report.getDefaultLayerRecordCount() );
+        assertEquals( "Doors", _cartesianLines.get( 0 ).getLayer().getLayerName() );
+
+        final Layer defaultLayer = _layerCollection.get( 0 );
+        assertSame( defaultLayer, _cartesianLines.get( 1 ).getLayer() );
+        assertSame( defaultLayer, _cartesianLines.get( 2 ).getLayer() );
+    }
+
+    @Test
+    public void recordsAreSkippedWhenThereAreNoLayers() throws IOException {
+        _layerCollection.clear();
+        final LineImportReport report = importLines( "A,Doors,0,0,1,1\n" );
+
+        assertEquals( 0L, report.getImportedLineCount() );
+        assertEquals( 1L, report.getSkippedRecordCount() );
+        assertTrue( _cartesianLines.isEmpty() );
+    }
+
+    @Test
+    public void linesAreAddedOneChunkAtATime() throws IOException {
+        final ObservableList< CartesianLine > cartesianLines = FXCollections
+                .observableArrayList();
+        final int[] numberOfChanges = new int[ 1 ];
+        final ListChangeListener< CartesianLine > changeCounter =
+                change -> numberOfChanges[ 0 ]++;
+        cartesianLines.addListener( changeCounter );
+
+        final LineImportReport report = makeImporter( 2 )
+                .importLines( new StringReader( "1,1,2,2\n2,2,3,3\n3,3,4,4\n"
+                        + "4,4,5,5\n5,5,6,6\n" ), cartesianLines );
+
+        assertEquals( 5, cartesianLines.size() );
+        assertEquals( 3, report.getChunkCount() );
+        assertEquals( 3, numberOfChanges[ 0 ] );
+    }
+
+}
@@ -0,0 +1,229 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import static com.mhschmieder.fxcadgui.util.LineTestUtilities.makeRandom;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.mhschmieder.fxcadgui.util.CoordinateSyncEngine.Representation;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Unit tests for {@link CoordinateSyncEngine}.
+ */
+public final class CoordinateSyncEngineTest {
+
+    private static final int    NUMBER_OF_RANDOM_EDITS = 10000;
+
+    private static final double TICK_SIZE              = 0.5d;
+
+    private static final double MAXIMUM_COORDINATE     = 100.0d;
+
+    private CoordinateSyncEngine _coordinateSyncEngine;
+
+    // The Cartesian (source) editor values.
+    private double               _x;
+    private double               _y;
+
+    // The Polar (derived) editor values, which snap to ticks when set.
+    private double               _angleDegrees;
+    private double               _distance;
+
+    // The depth of nested syncs, and the deepest that it has been.
+    private int                  _syncDepth;
+    private int                  _maximumSyncDepth;
+
+    // The number of sync requests fired by the editor change listeners.
+    private long                 _listenerSyncCount;
+
+    @Before
+    public void setUp() {
+        _coordinateSyncEngine = new CoordinateSyncEngine();
+        _x = 0.0d;
+        _y = 0.0d;
+        _angleDegrees = 0.0d;
+        _distance = 0.0d;
+        _syncDepth = 0;
+        _maximumSyncDepth = 0;
+        _listenerSyncCount = 0L;
+    }
+
+    @Test
+    public void unchangedValuesAreNotPushed() {
+        final int[] pushes = new int[ 1 ];
+        assertTrue( _coordinateSyncEngine.syncSource( Representation.CARTESIAN,
+                                                      1.0d,
+                                                      2.0d,
+                                                      1.0d,
+                                                      3.0d,
+                                                      ( first, second ) -> pushes[ 0 ]++ ) );
+        assertFalse( _coordinateSyncEngine.syncSource( Representation.CARTESIAN,
+                                                       1.0d,
+                                                       3.0d,
+                                                       1.0d,
+                                                       3.0d,
+                                                       ( first, second ) -> pushes[ 0 ]++ ) );
+        assertEquals( 1, pushes[ 0 ] );
+        assertEquals( 1L, _coordinateSyncEngine.getSkippedPushCount() );
+    }
+
+    @Test
+    public void anglesMatchModuloFullTurn() {
+        assertTrue( _coordinateSyncEngine.syncDerived( Representation.POLAR,
+                                                       0.0d,
+                                                       5.0d,
+                                                       ( first, second ) -> {} ) );
+        assertFalse( _coordinateSyncEngine.syncDerived( Representation.POLAR,
+                                                        360.0d,
+                                                        5.0d,
+                                                        ( first, second ) -> {} ) );
+    }
+
+    @Test
+    public void derivedRepresentationSwapForcesPush() {
+        assertTrue( _coordinateSyncEngine.syncDerived( Representation.POLAR,
+                                                       45.0d,
+                                                       5.0d,
+                                                       ( first, second ) -> {} ) );
+        assertTrue( _coordinateSyncEngine.syncDerived( Representation.CARTESIAN,
+                                                       45.0d,
+                                                       5.0d,
+                                                       ( first, second ) -> {} ) );
+    }
+
+    @Test
+    public void reentrantSyncIsSuppressed() {
+        final boolean[] nestedSyncRun = new boolean[ 1 ];
+        assertTrue( _coordinateSyncEngine.sync( () -> {
+            assertTrue( _coordinateSyncEngine.isSyncing() );
+            nestedSyncRun[ 0 ] = _coordinateSyncEngine.sync( () -> {} );
+        } ) );
+        assertFalse( nestedSyncRun[ 0 ] );
+        assertFalse( _coordinateSyncEngine.isSyncing() );
+        assertEquals( 2L, _coordinateSyncEngine.getSyncRequestCount() );
+        assertEquals( 1L, _coordinateSyncEngine.getSuppressedSyncCount() );
+    }
+
+    @Test
+    public void randomEditsDoBoundedWorkWithoutRecursion() {
+        final Random random = makeRandom();
+        for ( int i = 0; i < NUMBER_OF_RANDOM_EDITS; i++ ) {
+            // Edit the source out to beyond the range that the model accepts,
+            // so that some edits are clamped.
+            final double editedX = ( random.nextDouble() - 0.5d ) * 3.0d * MAXIMUM_COORDINATE;
+            final double editedY = ( random.nextDouble() - 0.5d ) * 3.0d * MAXIMUM_COORDINATE;
+            final double modelX = clamp( editedX );
+            final double modelY = clamp( editedY );
+
+            final long pushCountBefore = _coordinateSyncEngine.getPushCount();
+            requestSync( modelX, modelY );
+            assertTrue( _coordinateSyncEngine.getPushCount() - pushCountBefore <= 2L );
+
+            // The source shows what the model accepted, and the derived editor
+            // shows the derived values as rounded on the way in.
+            assertEquals( modelX, _x, 0.0d );
+            assertEquals( modelY, _y, 0.0d );
+            assertEquals( snapToTicks( toAngleDegrees( modelX, modelY ) ),
+                          _angleDegrees,
+                          0.0d );
+
+            // Syncing the same model again must not ping-pong the rounding.
+            final long pushCountSettled = _coordinateSyncEngine.getPushCount();
+            requestSync( modelX, modelY );
+            assertEquals( pushCountSettled, _coordinateSyncEngine.getPushCount() );
+        }
+
+        assertEquals( 1, _maximumSyncDepth );
+        assertEquals( _listenerSyncCount, _coordinateSyncEngine.getSuppressedSyncCount() );
+        assertEquals( ( 2L * NUMBER_OF_RANDOM_EDITS ) + _listenerSyncCount,
+                      _coordinateSyncEngine.getSyncRequestCount() );
+    }
+
+    private static double clamp( final double value ) {
+        return Math.max( -MAXIMUM_COORDINATE, Math.min( MAXIMUM_COORDINATE, value ) );
+    }
+
+    private static double toAngleDegrees( final double x, final double y ) {
+        return Math.toDegrees( Math.atan2( y, x ) );
+    }
+
+    private static double snapToTicks( final double value ) {
+        return Math.rint( value / TICK_SIZE ) * TICK_SIZE;
+    }
+
+    // Sync the editors from the model, the way the placement pane does.
+    private void requestSync( final double modelX, final double modelY ) {
+        _coordinateSyncEngine.sync( () -> {
+            _syncDepth++;
+            _maximumSyncDepth = Math.max( _maximumSyncDepth, _syncDepth );
+            try {
+                _coordinateSyncEngine.syncSource( Representation.CARTESIAN,
+                                                  _x,
+                                                  _y,
+                                                  modelX,
+                                                  modelY,
+                                                  this::setCartesianPosition );
+                _coordinateSyncEngine.syncDerived( Representation.POLAR,
+                                                   toAngleDegrees( modelX, modelY ),
+                                                   Math.hypot( modelX, modelY ),
+                                                   this::setPolarPosition );
+            }
+            finally {
+                _syncDepth--;
+            }
+        } );
+    }
+
+    // Each editor change fires a listener that asks for a re-sync, as the
+    // editor focus and value listeners do.
+    private void setCartesianPosition( final double x, final double y ) {
+        _x = x;
+        _y = y;
+        fireEditorListener();
+    }
+
+    private void setPolarPosition( final double angleDegrees, final double distance ) {
+        _angleDegrees = snapToTicks( angleDegrees );
+        _distance = snapToTicks( distance );
+        fireEditorListener();
+    }
+
+    private void fireEditorListener() {
+        _listenerSyncCount++;
+        requestSync( _x, _y );
+    }
+
+}
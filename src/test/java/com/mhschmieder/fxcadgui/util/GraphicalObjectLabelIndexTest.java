@@ -0,0 +1,185 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.mhschmieder.fxgraphics.geometry.CartesianLine;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Unit tests for {@link GraphicalObjectLabelIndex}, checking that the index
+ * follows additions, removals and relabels of the collection it is attached
+ * to.
+ */
+public final class GraphicalObjectLabelIndexTest {
+
+    private ObservableList< CartesianLine > _cartesianLines;
+
+    private GraphicalObjectLabelIndex       _labelIndex;
+
+    @Before
+    public void setUp() {
+        final NumberFormat uniquefierNumberFormat = NumberFormat.getIntegerInstance( Locale.US );
+        uniquefierNumberFormat.setGroupingUsed( false );
+        _cartesianLines = FXCollections.observableArrayList();
+        _labelIndex = new GraphicalObjectLabelIndex( uniquefierNumberFormat );
+    }
+
+    private static CartesianLine makeLabeledLine( final String label ) {
+        final CartesianLine cartesianLine = new CartesianLine();
+        cartesianLine.setLabel( label );
+        return cartesianLine;
+    }
+
+    @Test
+    public void indexIsEmptyUntilAttached() {
+        _cartesianLines.add( makeLabeledLine( "Wall" ) );
+
+        assertFalse( _labelIndex.isAttached() );
+        assertFalse( _labelIndex.containsLabel( "Wall" ) );
+
+        _labelIndex.setGraphicalObjects( _cartesianLines );
+
+        assertTrue( _labelIndex.isAttached() );
+        assertTrue( _labelIndex.containsLabel( "Wall" ) );
+        assertEquals( 1, _labelIndex.size() );
+    }
+
+    @Test
+    public void addedObjectsAreIndexed() {
+        _labelIndex.setGraphicalObjects( _cartesianLines );
+        _cartesianLines.add( makeLabeledLine( "Wall" ) );
+        _cartesianLines.add( makeLabeledLine( "Floor" ) );
+
+        assertTrue( _labelIndex.containsLabel( "Wall" ) );
+        assertTrue( _labelIndex.containsLabel( "Floor" ) );
+        assertEquals( 2, _labelIndex.size() );
+    }
+
+    @Test
+    public void removedObjectsAreUnindexed() {
+        _labelIndex.setGraphicalObjects( _cartesianLines );
+        _cartesianLines.add( makeLabeledLine( "Wall" ) );
+        _cartesianLines.add( makeLabeledLine( "Floor" ) );
+        _cartesianLines.remove( 0 );
+
+        assertFalse( _labelIndex.containsLabel( "Wall" ) );
+        assertTrue( _labelIndex.containsLabel( "Floor" ) );
+        assertEquals( 1, _labelIndex.size() );
+    }
+
+    @Test
+    public void relabeledObjectsAreReindexed() {
+        final CartesianLine cartesianLine = makeLabeledLine( "Wall" );
+        _cartesianLines.add( cartesianLine );
+        _labelIndex.setGraphicalObjects( _cartesianLines );
+
+        cartesianLine.setLabel( "Floor" );
+        _labelIndex.relabelGraphicalObject( cartesianLine );
+
+        assertFalse( _labelIndex.containsLabel( "Wall" ) );
+        assertTrue( _labelIndex.containsLabel( "Floor" ) );
+    }
+
+    @Test
+    public void objectsOutsideTheCollectionAreNotRelabeled() {
+        _labelIndex.setGraphicalObjects( _cartesianLines );
+
+        final CartesianLine cartesianLine = makeLabeledLine( "Wall" );
+        _labelIndex.relabelGraphicalObject( cartesianLine );
+
+        assertFalse( _labelIndex.containsLabel( "Wall" ) );
+        assertEquals( 0, _labelIndex.size() );
+    }
+
+    @Test
+    public void uniqueLabelsUseTheLowestFreeUniquefier() {
+        _cartesianLines.add( makeLabeledLine( "Wall" ) );
+        _cartesianLines.add( makeLabeledLine( "Wall 1" ) );
+        _cartesianLines.add( makeLabeledLine( "Wall 3" ) );
+        _labelIndex.setGraphicalObjects( _cartesianLines );
+
+        assertEquals( "Floor", _labelIndex.getUniqueLabel( "Floor" ) );
+        assertEquals( "Wall 2", _labelIndex.getUniqueLabel( "Wall" ) );
+
+        _cartesianLines.add( makeLabeledLine( "Wall 2" ) );
+
+        assertEquals( "Wall 4", _labelIndex.getUniqueLabel( "Wall" ) );
+    }
+
+    @Test
+    public void uniqueLabelIgnoresTheObjectsOwnLabel() {
+        final CartesianLine cartesianLine = makeLabeledLine( "Wall" );
+        _cartesianLines.add( cartesianLine );
+        _cartesianLines.add( makeLabeledLine( "Floor" ) );
+        _labelIndex.setGraphicalObjects( _cartesianLines );
+
+        assertEquals( "Wall", _labelIndex.getUniqueLabel( "Wall", cartesianLine ) );
+        assertEquals( "Floor 1", _labelIndex.getUniqueLabel( "Floor", cartesianLine ) );
+    }
+
+    @Test
+    public void nonObservableCollectionsAreReindexedOnQuery() {
+        final List< CartesianLine > cartesianLines = new ArrayList<>();
+        _labelIndex.setGraphicalObjects( cartesianLines );
+
+        cartesianLines.add( makeLabeledLine( "Wall" ) );
+
+        assertTrue( _labelIndex.containsLabel( "Wall" ) );
+        assertEquals( "Wall 1", _labelIndex.getUniqueLabel( "Wall" ) );
+
+        cartesianLines.clear();
+
+        assertFalse( _labelIndex.containsLabel( "Wall" ) );
+    }
+
+    @Test
+    public void switchingCollectionsStopsFollowingTheOldOne() {
+        _labelIndex.setGraphicalObjects( _cartesianLines );
+        _labelIndex.setGraphicalObjects( FXCollections.observableArrayList() );
+
+        _cartesianLines.add( makeLabeledLine( "Wall" ) );
+
+        assertFalse( _labelIndex.containsLabel( "Wall" ) );
+        assertEquals( 0, _labelIndex.size() );
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.mhschmieder.fxgraphics.layers.Layer;
+import com.mhschmieder.fxgraphics.layers.LayerManager;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for {@link LayerIndex}, checking every lookup against the
+ * linear searches in {@link LayerManager} that it replaces.
+ */
+public final class LayerIndexTest {
+
+    private ObservableList< Layer > _layerCollection;
+
+    private LayerIndex              _layerIndex;
+
+    @Before
+    public void setUp() {
+        _layerCollection = FXCollections.observableArrayList();
+        _layerCollection.addAll( LayerManager.makeLayerCollection() );
+        _layerIndex = new LayerIndex( _layerCollection );
+    }
+
+    @Test
+    public void lookupsMatchLinearSearch() {
+        assertLookupsMatchLinearSearch( _layerCollection );
+    }
+
+    @Test
+    public void unknownLayerNameFallsBackToLayerManager() {
+        final String unknownLayerName = "No Such Layer";
+        assertSame( LayerManager.getLayerByName( _layerCollection, unknownLayerName ),
+                    _layerIndex.getLayerByName( unknownLayerName ) );
+    }
+
+    @Test
+    public void observableCollectionChangesAreTracked() {
+        // Build the index first, so that the change has to invalidate it.
+        assertLookupsMatchLinearSearch( _layerCollection );
+
+        final List< Layer > reversedLayers = new ArrayList<>( _layerCollection );
+        Collections.reverse( reversedLayers );
+        _layerCollection.setAll( reversedLayers );
+        assertLookupsMatchLinearSearch( _layerCollection );
+
+        final Layer removedLayer = _layerCollection.remove( 0 );
+        assertLookupsMatchLinearSearch( _layerCollection );
+        assertEquals( LayerManager.getLayerIndex( _layerCollection, removedLayer ),
+                      _layerIndex.getLayerIndex( removedLayer ) );
+    }
+
+    @Test
+    public void switchingCollectionsStopsTrackingTheOldOne() {
+        assertLookupsMatchLinearSearch( _layerCollection );
+
+        final ObservableList< Layer > otherLayerCollection = FXCollections
+                .observableArrayList( _layerCollection );
+        Collections.reverse( otherLayerCollection );
+        _layerIndex.setLayerCollection( otherLayerCollection );
+        assertSame( otherLayerCollection, _layerIndex.getLayerCollection() );
+
+        // Changes to the old collection must no longer affect the index.
+        _layerCollection.clear();
+        assertLookupsMatchLinearSearch( otherLayerCollection );
+    }
+
+    @Test
+    public void plainListNeedsExplicitInvalidation() {
+        final List< Layer > plainLayerCollection = new ArrayList<>( _layerCollection );
+        _layerIndex.setLayerCollection( plainLayerCollection );
+        assertLookupsMatchLinearSearch( plainLayerCollection );
+
+        Collections.reverse( plainLayerCollection );
+        _layerIndex.invalidate();
+        assertLookupsMatchLinearSearch( plainLayerCollection );
+    }
+
+    private void assertLookupsMatchLinearSearch( final List< Layer > layerCollection ) {
+        for ( final Layer layer : layerCollection ) {
+            assertEquals( LayerManager.getLayerIndex( layerCollection, layer ),
+                          _layerIndex.getLayerIndex( layer ) );
+
+            final String layerName = layer.getLayerName();
+            assertSame( layerName,
+                        LayerManager.getLayerByName( layerCollection, layerName ),
+                        _layerIndex.getLayerByName( layerName ) );
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests for {@link LineEditHistory}.
+ */
+public final class LineEditHistoryTest {
+
+    // A minimal editable object, with two numeric fields and a label.
+    private static final class Point {
+
+        double x;
+        double y;
+        String label;
+
+        Point( final double x, final double y, final String label ) {
+            this.x = x;
+            this.y = y;
+            this.label = label;
+        }
+    }
+
+    private List< Point >            _restoredPoints;
+
+    private LineEditHistory< Point > _editHistory;
+
+    @Before
+    public void setUp() {
+        _restoredPoints = new ArrayList<>();
+        _editHistory = makeEditHistory( LineEditHistory.DEFAULT_MEMORY_CAP_BYTES );
+    }
+
+    private LineEditHistory< Point > makeEditHistory( final long memoryCapBytes ) {
+        final LineEditHistory< Point > editHistory = new LineEditHistory<>( memoryCapBytes,
+                                                                            _restoredPoints::add );
+        editHistory.addNumericField( point -> point.x, ( point, x ) -> point.x = x );
+        editHistory.addNumericField( point -> point.y, ( point, y ) -> point.y = y );
+        editHistory.addReferenceField( point -> point.label,
+                                       ( point, label ) -> point.label = label );
+        return editHistory;
+    }
+
+    private static void edit( final LineEditHistory< Point > editHistory,
+                              final Point point,
+                              final double x,
+                              final double y,
+                              final String label ) {
+        editHistory.beginEdit( point );
+        point.x = x;
+        point.y = y;
+        point.label = label;
+        editHistory.endEdit();
+    }
+
+    @Test
+    public void onlyChangedFieldsAreRecorded() {
+        final Point point = new Point( 1.0d, 2.0d, "A" );
+        edit( _editHistory, point, 5.0d, 2.0d, "A" );
+        assertEquals( 1, _editHistory.getDeltaCount() );
+
+        _editHistory.beginEdit( point );
+        assertFalse( _editHistory.endEdit() );
+        assertEquals( 1, _editHistory.getDeltaCount() );
+    }
+
+    @Test
+    public void undoAndRedoRestoreWholeEntries() {
+        final Point point = new Point( 1.0d, 2.0d, "A" );
+        edit( _editHistory, point, 3.0d, 4.0d, "B" );
+
+        assertSame( point, _editHistory.undo() );
+        assertEquals( 1.0d, point.x, 0.0d );
+        assertEquals( 2.0d, point.y, 0.0d );
+        assertEquals( "A", point.label );
+        assertFalse( _editHistory.canUndo() );
+
+        assertSame( point, _editHistory.redo() );
+        assertEquals( 3.0d, point.x, 0.0d );
+        assertEquals( 4.0d, point.y, 0.0d );
+        assertEquals( "B", point.label );
+        assertFalse( _editHistory.canRedo() );
+
+        assertEquals( 2, _restoredPoints.size() );
+    }
+
+    @Test
+    public void groupEditsAreOneEntryAcrossTargets() {
+        final Point first = new Point( 0.0d, 0.0d, "A" );
+        final Point second = new Point( 0.0d, 0.0d, "B" );
+        edit( _editHistory, first, 1.0d, 0.0d, "A" );
+
+        // A batch after a single edit must undo to the single edit's values.
+        _editHistory.setMerging( true );
+        _editHistory.beginGroupEdit( Arrays.asList( first, second ) );
+        first.y = 5.0d;
+        second.y = 5.0d;
+        assertTrue( _editHistory.endEdit() );
+        assertEquals( 3, _editHistory.getDeltaCount() );
+
+        assertSame( first, _editHistory.undo() );
+        assertEquals( 1.0d, first.x, 0.0d );
+        assertEquals( 0.0d, first.y, 0.0d );
+        assertEquals( 0.0d, second.y, 0.0d );
+        assertEquals( Arrays.asList( second, first ), _restoredPoints );
+        assertTrue( _editHistory.canUndo() );
+
+        assertSame( first, _editHistory.redo() );
+        assertEquals( 5.0d, first.y, 0.0d );
+        assertEquals( 5.0d, second.y, 0.0d );
+
+        // Group entries are never merged into, even while merging.
+        edit( _editHistory, first, 1.0d, 6.0d, "A" );
+        assertEquals( 4, _editHistory.getDeltaCount() );
+
+        _editHistory.undo();
+        _editHistory.undo();
+        _editHistory.undo();
+        assertEquals( 0.0d, first.x, 0.0d );
+        assertEquals( 0.0d, first.y, 0.0d );
+        assertEquals( 0.0d, second.y, 0.0d );
+        assertFalse( _editHistory.canUndo() );
+    }
+
+    @Test
+    public void editsOnlyMergeWhileMerging() {
+        final Point point = new Point( 0.0d, 0.0d, "A" );
+        edit( _editHistory, point, 1.0d, 0.0d, "A" );
+        edit( _editHistory, point, 2.0d, 0.0d, "A" );
+        assertEquals( 2, _editHistory.getDeltaCount() );
+
+        _editHistory.setMerging( true );
+        edit( _editHistory, point, 3.0d, 0.0d, "A" );
+        edit( _editHistory, point, 4.0d, 0.0d, "A" );
+        edit( _editHistory, point, 5.0d, 0.0d, "A" );
+        _editHistory.setMerging( false );
+        assertEquals( 3, _editHistory.getDeltaCount() );
+
+        // The whole drag undoes in one step, back to where it started.
+        _editHistory.undo();
+        assertEquals( 2.0d, point.x, 0.0d );
+        _editHistory.undo();
+        assertEquals( 1.0d, point.x, 0.0d );
+    }
+
+    @Test
+    public void oldestEntriesAreDroppedWhole() {
+        final LineEditHistory< Point > editHistory =
+                makeEditHistory( 3L * LineEditHistory.BYTES_PER_DELTA );
+        final Point point = new Point( 0.0d, 0.0d, "A" );
+        edit( editHistory, point, 1.0d, 1.0d, "A" );
+        edit( editHistory, point, 2.0d, 2.0d, "A" );
+        assertEquals( 2, editHistory.getDeltaCount() );
+
+        editHistory.undo();
+        assertFalse( editHistory.canUndo() );
+        assertEquals( 1.0d, point.x, 0.0d );
+        assertEquals( 1.0d, point.y, 0.0d );
+    }
+
+    @Test
+    public void oversizeEntryFlushesTheLog() {
+        final LineEditHistory< Point > editHistory =
+                makeEditHistory( 2L * LineEditHistory.BYTES_PER_DELTA );
+        final Point point = new Point( 0.0d, 0.0d, "A" );
+        edit( editHistory, point, 1.0d, 0.0d, "A" );
+        assertTrue( editHistory.canUndo() );
+
+        edit( editHistory, point, 2.0d, 2.0d, "B" );
+        assertFalse( editHistory.canUndo() );
+        assertEquals( 0, editHistory.getDeltaCount() );
+        assertEquals( 0, editHistory.getReferenceCount() );
+    }
+
+    @Test
+    public void referencesAreHeldOnceInTheSideTable() {
+        final Point point = new Point( 0.0d, 0.0d, "A" );
+        for ( int i = 1; i <= 10; i++ ) {
+            edit( _editHistory, point, i, 0.0d, "A" );
+        }
+        assertEquals( 10, _editHistory.getDeltaCount() );
+        assertEquals( 1, _editHistory.getReferenceCount() );
+    }
+
+    @Test
+    public void removedTargetsAreDropped() {
+        final Point kept = new Point( 0.0d, 0.0d, "A" );
+        final Point removed = new Point( 0.0d, 0.0d, "B" );
+        edit( _editHistory, kept, 1.0d, 0.0d, "A" );
+        edit( _editHistory, removed, 1.0d, 0.0d, "C" );
+        edit( _editHistory, kept, 2.0d, 0.0d, "A" );
+        _editHistory.undo();
+
+        assertTrue( _editHistory.removeTarget( removed ) );
+        assertFalse( _editHistory.removeTarget( removed ) );
+        assertEquals( 2, _editHistory.getDeltaCount() );
+        assertEquals( 1, _editHistory.getReferenceCount() );
+
+        // The entries of the other object are intact, and keep their order.
+        assertSame( kept, _editHistory.redo() );
+        assertEquals( 2.0d, kept.x, 0.0d );
+        _editHistory.undo();
+        assertSame( kept, _editHistory.undo() );
+        assertEquals( 0.0d, kept.x, 0.0d );
+        assertNull( _editHistory.undo() );
+    }
+
+    @Test
+    public void restoredLabelsGoThroughTheSetter() {
+        final List< String > takenLabels = new ArrayList<>();
+        final LineEditHistory< Point > editHistory = new LineEditHistory<>(
+                LineEditHistory.DEFAULT_MEMORY_CAP_BYTES,
+                point -> {} );
+        editHistory.addReferenceField( point -> point.label,
+                                       ( point, label ) -> point.label = takenLabels
+                                               .contains( label ) ? label + " (2)" : label );
+
+        final Point point = new Point( 0.0d, 0.0d, "A" );
+        edit( editHistory, point, 0.0d, 0.0d, "B" );
+        takenLabels.add( "A" );
+        editHistory.undo();
+        assertEquals( "A (2)", point.label );
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import static com.mhschmieder.fxcadgui.util.LineTestUtilities.makeLine;
+import static com.mhschmieder.fxcadgui.util.LineTestUtilities.makeRandom;
+import static com.mhschmieder.fxcadgui.util.LineTestUtilities.makeRandomLine;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.mhschmieder.fxcadgui.util.LineIntersectionIndex.LineCrossing;
+import com.mhschmieder.fxgraphics.geometry.CartesianLine;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Unit tests for {@link LineIntersectionIndex}, checking every query against
+ * a brute force test of all pairs of lines.
+ */
+public final class LineIntersectionIndexTest {
+
+    private Random                  _random;
+
+    private List< CartesianLine >   _cartesianLines;
+
+    private LineIntersectionIndex   _lineIntersectionIndex;
+
+    @Before
+    public void setUp() {
+        _random = makeRandom();
+        _cartesianLines = new ArrayList<>();
+        _lineIntersectionIndex = new LineIntersectionIndex();
+    }
+
+    private static boolean crosses( final CartesianLine first, final CartesianLine second ) {
+        final double firstDeltaX = first.getX2() - first.getX1();
+        final double firstDeltaY = first.getY2() - first.getY1();
+        final double secondDeltaX = second.getX2() - second.getX1();
+        final double secondDeltaY = second.getY2() - second.getY1();
+        final double denominator = ( firstDeltaX * secondDeltaY ) - ( firstDeltaY * secondDeltaX );
+        if ( denominator == 0.0d ) {
+            return false;
+        }
+
+        final double offsetX = second.getX1() - first.getX1();
+        final double offsetY = second.getY1() - first.getY1();
+        final double s = ( ( offsetX * secondDeltaY ) - ( offsetY * secondDeltaX ) ) / denominator;
+        final double t = ( ( offsetX * firstDeltaY ) - ( offsetY * firstDeltaX ) ) / denominator;
+        return ( s > 0.0d ) && ( s < 1.0d ) && ( t > 0.0d ) && ( t < 1.0d );
+    }
+
+    private Set< String > findAllCrossingsByBruteForce() {
+        final Set< String > crossingPairs = new HashSet<>();
+        for ( int i = 0, n = _cartesianLines.size(); i < n; i++ ) {
+            for ( int j = i + 1; j < n; j++ ) {
+                if ( crosses( _cartesianLines.get( i ), _cartesianLines.get( j ) ) ) {
+                    crossingPairs.add( i + "-" + j );
+                }
+            }
+        }
+        return crossingPairs;
+    }
+
+    private Set< String > findAllCrossingsByIndex() {
+        final Set< String > crossingPairs = new HashSet<>();
+        for ( final LineCrossing lineCrossing : _lineIntersectionIndex.findAllCrossings() ) {
+            final int first = indexOf( lineCrossing.getFirstCartesianLine() );
+            final int second = indexOf( lineCrossing.getSecondCartesianLine() );
+            assertTrue( crossingPairs.add( Math.min( first, second ) + "-"
+                    + Math.max( first, second ) ) );
+        }
+        return crossingPairs;
+    }
+
+    private int indexOf( final CartesianLine cartesianLine ) {
+        for ( int i = 0, n = _cartesianLines.size(); i < n; i++ ) {
+            if ( _cartesianLines.get( i ) == cartesianLine ) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    public void allCrossingsMatchBruteForce() {
+        for ( int i = 0; i < 500; i++ ) {
+            _cartesianLines.add( makeRandomLine( _random, 100.0d, 20.0d ) );
+        }
+        _lineIntersectionIndex.setCartesianLines( _cartesianLines );
+
+        assertEquals( findAllCrossingsByBruteForce(), findAllCrossingsByIndex() );
+    }
+
+    @Test
+    public void singleLineCrossingsMatchBruteForce() {
+        for ( int i = 0; i < 500; i++ ) {
+            _cartesianLines.add( makeRandomLine( _random, 100.0d, 20.0d ) );
+        }
+        _lineIntersectionIndex.setCartesianLines( _cartesianLines );
+
+        for ( int i = 0; i < 50; i++ ) {
+            final CartesianLine query = makeRandomLine( _random, 100.0d, 60.0d );
+            int expectedCrossings = 0;
+            for ( final CartesianLine cartesianLine : _cartesianLines ) {
+                if ( crosses( query, cartesianLine ) ) {
+                    expectedCrossings++;
+                }
+            }
+            assertEquals( expectedCrossings,
+                          _lineIntersectionIndex.findCrossingCartesianLines( query ).size() );
+        }
+    }
+
+    @Test
+    public void cellSizeIsTheMedianExtent() {
+        _cartesianLines.add( makeLine( 0.0d, 0.0d, 1.0d, 0.0d ) );
+        _cartesianLines.add( makeLine( 0.0d, 1.0d, 2.0d, 1.0d ) );
+        _cartesianLines.add( makeLine( 0.0d, 2.0d, 3.0d, 2.0d ) );
+        _cartesianLines.add( makeLine( 0.0d, 3.0d, 1000.0d, 3.0d ) );
+        _cartesianLines.add( makeLine( 0.0d, 4.0d, 2000.0d, 4.0d ) );
+        _lineIntersectionIndex.setCartesianLines( _cartesianLines );
+
+        // The two long lines don't drag the cell size up, as a mean would.
+        assertEquals( 3.0d, _lineIntersectionIndex.getCellSize(), 0.0d );
+    }
+
+    @Test
+    public void gridIsBoundedAndLongLinesOverflow() {
+        // Many short lines plus one far outlier would otherwise give a grid
+        // with far more cells per axis than the cap.
+        for ( int i = 0; i < 200; i++ ) {
+            _cartesianLines.add( makeRandomLine( _random, 10.0d, 0.01d ) );
+        }
+        _cartesianLines.add( makeLine( 1.0e7d, 1.0e7d, 1.0e7d + 0.01d, 1.0e7d ) );
+        final CartesianLine diagonal = makeLine( 0.0d, 0.0d, 1.0e7d, 1.0e7d );
+        _cartesianLines.add( diagonal );
+        _lineIntersectionIndex.setCartesianLines( _cartesianLines );
+
+        assertTrue( _lineIntersectionIndex.getCellSize() >= ( 1.0e7d
+                / LineIntersectionIndex.MAXIMUM_CELLS_PER_AXIS ) );
+        assertTrue( _lineIntersectionIndex.getGridCellCount() <= _cartesianLines.size()
+                * LineIntersectionIndex.MAXIMUM_CELLS_PER_LINE );
+        assertEquals( 1, _lineIntersectionIndex.getOverflowLineCount() );
+
+        // Overflow lines are still found by every query.
+        final CartesianLine crossing = makeLine( 0.0d, 1.0e6d, 1.0e6d, 0.0d );
+        assertEquals( 1, _lineIntersectionIndex.findCrossingCartesianLines( crossing ).size() );
+        assertEquals( findAllCrossingsByBruteForce(), findAllCrossingsByIndex() );
+    }
+
+    @Test
+    public void observableCollectionChangesAreTracked() {
+        final ObservableList< CartesianLine > cartesianLines = FXCollections
+                .observableArrayList();
+        _lineIntersectionIndex.setCartesianLines( cartesianLines );
+
+        final CartesianLine first = makeLine( 0.0d, 0.0d, 10.0d, 10.0d );
+        final CartesianLine second = makeLine( 0.0d, 10.0d, 10.0d, 0.0d );
+        cartesianLines.add( first );
+        cartesianLines.add( second );
+        assertEquals( 1, _lineIntersectionIndex.findAllCrossings().size() );
+
+        second.setLine( 20.0d, 10.0d, 30.0d, 0.0d );
+        _lineIntersectionIndex.updateCartesianLine( second );
+        assertEquals( 0, _lineIntersectionIndex.findAllCrossings().size() );
+    }
+
+}
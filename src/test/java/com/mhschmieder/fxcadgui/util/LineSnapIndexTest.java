@@ -0,0 +1,239 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import static com.mhschmieder.fxcadgui.util.LineTestUtilities.makeLine;
+import static com.mhschmieder.fxcadgui.util.LineTestUtilities.makeRandom;
+import static com.mhschmieder.fxcadgui.util.LineTestUtilities.makeRandomLine;
+import static com.mhschmieder.fxcadgui.util.LineTestUtilities.setRandomLine;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.mhschmieder.fxcadgui.util.LineSnapIndex.SnapFeature;
+import com.mhschmieder.fxcadgui.util.LineSnapIndex.SnapFeatureType;
+import com.mhschmieder.fxgraphics.geometry.CartesianLine;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for {@link LineSnapIndex}, checking nearest feature queries
+ * against a brute force search of every endpoint, midpoint and crossing.
+ */
+public final class LineSnapIndexTest {
+
+    private Random                        _random;
+
+    private ObservableList< CartesianLine > _cartesianLines;
+
+    private LineSnapIndex                 _lineSnapIndex;
+
+    @Before
+    public void setUp() {
+        _random = makeRandom();
+        _cartesianLines = FXCollections.observableArrayList();
+        _lineSnapIndex = new LineSnapIndex();
+    }
+
+    // Returns the distance to the nearest feature of the lines, or infinity.
+    private double findNearestDistanceByBruteForce( final double x,
+                                                    final double y,
+                                                    final CartesianLine excludedCartesianLine ) {
+        final List< double[] > features = new ArrayList<>();
+        for ( int i = 0, n = _cartesianLines.size(); i < n; i++ ) {
+            final CartesianLine first = _cartesianLines.get( i );
+            if ( first == excludedCartesianLine ) {
+                continue;
+            }
+            features.add( new double[] { first.getX1(), first.getY1() } );
+            features.add( new double[] { first.getX2(), first.getY2() } );
+            features.add( new double[] {
+                    0.5d * ( first.getX1() + first.getX2() ),
+                    0.5d * ( first.getY1() + first.getY2() ) } );
+            for ( int j = i + 1; j < n; j++ ) {
+                final CartesianLine second = _cartesianLines.get( j );
+                if ( second != excludedCartesianLine ) {
+                    final double[] crossing = getCrossing( first, second );
+                    if ( crossing != null ) {
+                        features.add( crossing );
+                    }
+                }
+            }
+        }
+
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        for ( final double[] feature : features ) {
+            nearestDistance = Math.min( nearestDistance,
+                                        Math.hypot( feature[ 0 ] - x, feature[ 1 ] - y ) );
+        }
+        return nearestDistance;
+    }
+
+    private static double[] getCrossing( final CartesianLine first, final CartesianLine second ) {
+        final double firstDeltaX = first.getX2() - first.getX1();
+        final double firstDeltaY = first.getY2() - first.getY1();
+        final double secondDeltaX = second.getX2() - second.getX1();
+        final double secondDeltaY = second.getY2() - second.getY1();
+        final double denominator = ( firstDeltaX * secondDeltaY ) - ( firstDeltaY * secondDeltaX );
+        if ( denominator == 0.0d ) {
+            return null;
+        }
+
+        final double offsetX = second.getX1() - first.getX1();
+        final double offsetY = second.getY1() - first.getY1();
+        final double s = ( ( offsetX * secondDeltaY ) - ( offsetY * secondDeltaX ) ) / denominator;
+        final double t = ( ( offsetX * firstDeltaY ) - ( offsetY * firstDeltaX ) ) / denominator;
+        if ( ( s <= 0.0d ) || ( s >= 1.0d ) || ( t <= 0.0d ) || ( t >= 1.0d ) ) {
+            return null;
+        }
+        return new double[] { first.getX1() + ( s * firstDeltaX ),
+                first.getY1() + ( s * firstDeltaY ) };
+    }
+
+    private void assertNearestMatchesBruteForce( final CartesianLine excludedCartesianLine ) {
+        for ( int i = 0; i < 20; i++ ) {
+            final double x = _random.nextDouble() * 100.0d;
+            final double y = _random.nextDouble() * 100.0d;
+            final double expectedDistance =
+                    findNearestDistanceByBruteForce( x, y, excludedCartesianLine );
+            final SnapFeature snapFeature =
+                    _lineSnapIndex.findNearestFeature( x, y, 5.0d, excludedCartesianLine );
+            if ( expectedDistance > 5.0d ) {
+                assertNull( snapFeature );
+            }
+            else {
+                assertNotNull( snapFeature );
+                assertEquals( expectedDistance,
+                              Math.hypot( snapFeature.getX() - x, snapFeature.getY() - y ),
+                              1.0e-9d );
+            }
+        }
+    }
+
+    @Test
+    public void featureTypesAreReported() {
+        _cartesianLines.add( makeLine( 0.0d, 0.0d, 14.0d, 14.0d ) );
+        _cartesianLines.add( makeLine( 0.0d, 10.0d, 12.0d, -2.0d ) );
+        _lineSnapIndex.setCartesianLines( _cartesianLines );
+
+        assertEquals( 7, _lineSnapIndex.size() );
+        assertEquals( SnapFeatureType.ENDPOINT,
+                      _lineSnapIndex.findNearestFeature( 0.5d, 0.0d, 1.0d, null )
+                              .getSnapFeatureType() );
+        assertEquals( SnapFeatureType.INTERSECTION,
+                      _lineSnapIndex.findNearestFeature( 5.0d, 4.6d, 1.0d, null )
+                              .getSnapFeatureType() );
+        assertNull( _lineSnapIndex.findNearestFeature( 5.0d, 2.0d, 1.0d, null ) );
+    }
+
+    @Test
+    public void excludedLineFeaturesAreSkipped() {
+        final CartesianLine edited = makeLine( 0.0d, 0.0d, 14.0d, 14.0d );
+        _cartesianLines.add( edited );
+        _cartesianLines.add( makeLine( 0.0d, 10.0d, 12.0d, -2.0d ) );
+        _cartesianLines.add( makeLine( 20.0d, 0.0d, 30.0d, 0.0d ) );
+        _lineSnapIndex.setCartesianLines( _cartesianLines );
+
+        // Neither the edited line's own endpoints nor its crossings count, but
+        // the features of the other lines still do.
+        assertNull( _lineSnapIndex.findNearestFeature( 0.5d, 0.0d, 1.0d, edited ) );
+        assertNull( _lineSnapIndex.findNearestFeature( 5.0d, 5.0d, 1.0d, edited ) );
+        assertEquals( SnapFeatureType.MIDPOINT,
+                      _lineSnapIndex.findNearestFeature( 25.0d, 0.5d, 1.0d, edited )
+                              .getSnapFeatureType() );
+    }
+
+    @Test
+    public void incrementalUpdatesMatchBruteForce() {
+        for ( int i = 0; i < 200; i++ ) {
+            _cartesianLines.add( makeRandomLine( _random, 100.0d, 20.0d ) );
+        }
+        _lineSnapIndex.setCartesianLines( _cartesianLines );
+        assertNearestMatchesBruteForce( null );
+
+        // Mix additions, removals and in-place edits, as an editing session
+        // would, so that the tree sees deletions and unbalanced insertions.
+        for ( int edit = 0; edit < 300; edit++ ) {
+            final int choice = _random.nextInt( 3 );
+            if ( choice == 0 ) {
+                _cartesianLines.add( makeRandomLine( _random, 100.0d, 20.0d ) );
+            }
+            else if ( choice == 1 ) {
+                _cartesianLines.remove( _random.nextInt( _cartesianLines.size() ) );
+            }
+            else {
+                final CartesianLine cartesianLine =
+                        _cartesianLines.get( _random.nextInt( _cartesianLines.size() ) );
+                setRandomLine( _random, cartesianLine, 100.0d, 20.0d );
+                _lineSnapIndex.updateCartesianLine( cartesianLine );
+            }
+
+            if ( ( edit % 25 ) == 0 ) {
+                assertNearestMatchesBruteForce( null );
+                assertNearestMatchesBruteForce( _cartesianLines.get( 0 ) );
+            }
+        }
+        assertNearestMatchesBruteForce( null );
+    }
+
+    @Test
+    public void sharedIntersectionIndexIsNotRebound() {
+        final CartesianLine first = makeLine( 0.0d, 0.0d, 14.0d, 14.0d );
+        final CartesianLine second = makeLine( 0.0d, 10.0d, 12.0d, -2.0d );
+        _cartesianLines.add( first );
+        _cartesianLines.add( second );
+
+        final LineIntersectionIndex lineIntersectionIndex = new LineIntersectionIndex();
+        lineIntersectionIndex.setCartesianLines( _cartesianLines );
+        _lineSnapIndex = new LineSnapIndex( lineIntersectionIndex );
+        _lineSnapIndex.setCartesianLines( _cartesianLines );
+
+        assertSame( _cartesianLines, lineIntersectionIndex.getCartesianLines() );
+        assertEquals( 1, lineIntersectionIndex.findAllCrossings().size() );
+
+        // Removals reach the shared index before the snap index, so the
+        // crossing goes away along with the removed line.
+        _cartesianLines.remove( second );
+        assertEquals( 0, lineIntersectionIndex.findAllCrossings().size() );
+        assertEquals( 3, _lineSnapIndex.size() );
+        assertNull( _lineSnapIndex.findNearestFeature( 4.0d, 5.0d, 0.5d, null ) );
+        assertEquals( SnapFeatureType.MIDPOINT,
+                      _lineSnapIndex.findNearestFeature( 7.0d, 7.5d, 1.0d, null )
+                              .getSnapFeatureType() );
+    }
+}
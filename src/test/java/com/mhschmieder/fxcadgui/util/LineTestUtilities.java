@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import com.mhschmieder.fxgraphics.geometry.CartesianLine;
+
+import java.util.Random;
+
+/**
+ * Utilities shared by the unit tests for making lines, whether at fixed
+ * coordinates or at random from a seeded source, so that randomized tests are
+ * repeatable.
+ */
+final class LineTestUtilities {
+
+    /** The seed for every randomized test, so that failures reproduce. */
+    static final long RANDOM_SEED = 20261018L;
+
+    /**
+     * The default constructor is disabled, as this is a static utilities class.
+     */
+    private LineTestUtilities() {}
+
+    /**
+     * Returns a new source of random numbers, seeded with {@link #RANDOM_SEED}.
+     *
+     * @return A new seeded source of random numbers
+     */
+    static Random makeRandom() {
+        return new Random( RANDOM_SEED );
+    }
+
+    static CartesianLine makeLine( final double x1,
+                                   final double y1,
+                                   final double x2,
+                                   final double y2 ) {
+        final CartesianLine cartesianLine = new CartesianLine();
+        cartesianLine.setLine( x1, y1, x2, y2 );
+        return cartesianLine;
+    }
+
+    /**
+     * Returns a line that starts at a random point in a square that is
+     * anchored at the origin, with a random offset to its end point.
+     *
+     * @param random
+     *            The source of random numbers
+     * @param range
+     *            The size of the square that the line starts in
+     * @param maximumLength
+     *            The size of the square, centered on the start point, that the
+     *            line ends in
+     * @return A new random line
+     */
+    static CartesianLine makeRandomLine( final Random random,
+                                         final double range,
+                                         final double maximumLength ) {
+        final CartesianLine cartesianLine = new CartesianLine();
+        setRandomLine( random, cartesianLine, range, maximumLength );
+        return cartesianLine;
+    }
+
+    /**
+     * Moves an existing line to random coordinates, as for
+     * {@link #makeRandomLine(Random, double, double)}.
+     *
+     * @param random
+     *            The source of random numbers
+     * @param cartesianLine
+     *            The line to move
+     * @param range
+     *            The size of the square that the line starts in
+     * @param maximumLength
+     *            The size of the square, centered on the start point, that the
+     *            line ends in
+     */
+    static void setRandomLine( final Random random,
+                               final CartesianLine cartesianLine,
+                               final double range,
+                               final double maximumLength ) {
+        final double x = random.nextDouble() * range;
+        final double y = random.nextDouble() * range;
+        cartesianLine.setLine( x,
+                               y,
+                               x + ( ( random.nextDouble() - 0.5d ) * maximumLength ),
+                               y + ( ( random.nextDouble() - 0.5d ) * maximumLength ) );
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Unit tests for {@link MaterialCatalog}.
+ */
+public final class MaterialCatalogTest {
+
+    private MaterialCatalog< String > _materialCatalog;
+
+    @Before
+    public void setUp() {
+        _materialCatalog = new MaterialCatalog<>( Arrays.asList( "Plywood",
+                                                                 "carpet",
+                                                                 "Brick",
+                                                                 "Plaster",
+                                                                 "Concrete",
+                                                                 "Carpet On Concrete" ),
+                                                  Function.identity() );
+    }
+
+    @Test
+    public void materialsAreSortedIgnoringCase() {
+        assertEquals( Arrays.asList( "Brick",
+                                     "carpet",
+                                     "Carpet On Concrete",
+                                     "Concrete",
+                                     "Plaster",
+                                     "Plywood" ),
+                      _materialCatalog.getMaterials() );
+        assertEquals( 6, _materialCatalog.size() );
+    }
+
+    @Test
+    public void prefixMatchesContiguousRangeIgnoringCase() {
+        assertEquals( Arrays.asList( "carpet", "Carpet On Concrete" ),
+                      _materialCatalog.getMaterialsByPrefix( "CAR" ) );
+        assertEquals( Arrays.asList( "Plaster", "Plywood" ),
+                      _materialCatalog.getMaterialsByPrefix( "pl" ) );
+        assertEquals( Arrays.asList( "Plywood" ),
+                      _materialCatalog.getMaterialsByPrefix( "Ply" ) );
+    }
+
+    @Test
+    public void unmatchedPrefixIsEmpty() {
+        assertTrue( _materialCatalog.getMaterialsByPrefix( "Zinc" ).isEmpty() );
+        assertTrue( _materialCatalog.getMaterialsByPrefix( "A" ).isEmpty() );
+    }
+
+    @Test
+    public void emptyPrefixReturnsSharedCatalog() {
+        assertSame( _materialCatalog.getMaterials(), _materialCatalog.getMaterialsByPrefix( "" ) );
+        assertSame( _materialCatalog.getMaterials(),
+                    _materialCatalog.getMaterialsByPrefix( null ) );
+    }
+
+    @Test
+    public void exactNameLookupIsCaseSensitive() {
+        assertEquals( "Brick", _materialCatalog.getMaterial( "Brick" ) );
+        assertNull( _materialCatalog.getMaterial( "brick" ) );
+        assertEquals( "", _materialCatalog.getMaterialName( null ) );
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void catalogIsUnmodifiable() {
+        _materialCatalog.getMaterials().add( "Glass" );
+    }
+
+    @Test
+    public void prefixMatchesAgreeWithLinearScan() {
+        final List< String > materials = new ArrayList<>();
+        for ( int i = 0; i < 2000; i++ ) {
+            materials.add( Integer.toString( i * 7919, 36 ) );
+        }
+        final MaterialCatalog< String > materialCatalog = new MaterialCatalog<>(
+                materials, Function.identity() );
+
+        for ( final String prefix : new String[] { "1", "a", "z", "10", "3f", "zz" } ) {
+            final List< String > expectedMatches = new ArrayList<>();
+            for ( final String material : materials ) {
+                if ( material.startsWith( prefix ) ) {
+                    expectedMatches.add( material );
+                }
+            }
+            expectedMatches.sort( null );
+
+            assertEquals( prefix, expectedMatches,
+                          new ArrayList<>( materialCatalog.getMaterialsByPrefix( prefix ) ) );
+        }
+    }
+}
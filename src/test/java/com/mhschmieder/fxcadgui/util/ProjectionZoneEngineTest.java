@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import static com.mhschmieder.fxcadgui.util.LineTestUtilities.makeLine;
+import static com.mhschmieder.fxcadgui.util.LineTestUtilities.makeRandom;
+import static com.mhschmieder.fxcadgui.util.LineTestUtilities.makeRandomLine;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.mhschmieder.fxgraphics.geometry.CartesianLine;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for {@link ProjectionZoneEngine}, checking that only changed
+ * Projector lines are recomputed, and that the parallel update computes the
+ * same Projection Zones as a sequential one.
+ */
+public final class ProjectionZoneEngineTest {
+
+    // NOTE: This must exceed the engine's sequential threshold of 256 lines,
+    // so that the update is split across the Fork/Join pool.
+    private static final int                      NUMBER_OF_PARALLEL_LINES = 1000;
+
+    private Random                                _random;
+
+    private List< CartesianLine >                 _cartesianLines;
+
+    private ProjectionZoneEngine< CartesianLine > _projectionZoneEngine;
+
+    @Before
+    public void setUp() {
+        _random = makeRandom();
+        _cartesianLines = new ArrayList<>();
+        _projectionZoneEngine = ProjectionZoneEngine.forCartesianLines();
+    }
+
+    private CartesianLine makeRandomProjector() {
+        final CartesianLine cartesianLine = makeRandomLine( _random, 100.0d, 20.0d );
+        cartesianLine.setUseAsProjector( true );
+        cartesianLine.setNumberOfProjectionZones( 1 + _random.nextInt( 8 ) );
+        return cartesianLine;
+    }
+
+    private static void assertSameGeometry( final ProjectionZoneGeometry expected,
+                                            final ProjectionZoneGeometry actual ) {
+        assertNotNull( actual );
+        final int numberOfProjectionZones = expected.getNumberOfProjectionZones();
+        assertEquals( numberOfProjectionZones, actual.getNumberOfProjectionZones() );
+        assertEquals( expected.getNormalX(), actual.getNormalX(), 0.0d );
+        assertEquals( expected.getNormalY(), actual.getNormalY(), 0.0d );
+        assertEquals( expected.getZoneLength(), actual.getZoneLength(), 0.0d );
+        for ( int pointIndex = 0; pointIndex <= numberOfProjectionZones; pointIndex++ ) {
+            assertEquals( expected.getSubdivisionX( pointIndex ),
+                          actual.getSubdivisionX( pointIndex ),
+                          0.0d );
+            assertEquals( expected.getSubdivisionY( pointIndex ),
+                          actual.getSubdivisionY( pointIndex ),
+                          0.0d );
+        }
+    }
+
+    @Test
+    public void onlyChangedLinesAreRecomputed() {
+        for ( int i = 0; i < 10; i++ ) {
+            _cartesianLines.add( makeRandomProjector() );
+        }
+
+        assertEquals( 10, _projectionZoneEngine.update( _cartesianLines ) );
+        assertEquals( 0, _projectionZoneEngine.update( _cartesianLines ) );
+
+        final CartesianLine movedLine = _cartesianLines.get( 3 );
+        movedLine.setLine( 0.0d, 0.0d, 5.0d, 5.0d );
+        movedLine.setNumberOfProjectionZones( 2 );
+        _cartesianLines.get( 7 ).setNumberOfProjectionZones( 9 );
+
+        assertEquals( 2, _projectionZoneEngine.update( _cartesianLines ) );
+        assertEquals( 0, _projectionZoneEngine.update( _cartesianLines ) );
+        assertEquals( 12L, _projectionZoneEngine.getRecomputedLineCount() );
+        assertSameGeometry( ProjectionZoneGeometry.compute( 0.0d, 0.0d, 5.0d, 5.0d, 2 ),
+                            _projectionZoneEngine.getProjectionZones( movedLine ) );
+    }
+
+    @Test
+    public void cachedProjectionZonesAreShared() {
+        final CartesianLine cartesianLine = makeRandomProjector();
+        _cartesianLines.add( cartesianLine );
+        _projectionZoneEngine.update( _cartesianLines );
+
+        assertSame( _projectionZoneEngine.getProjectionZones( cartesianLine ),
+                    _projectionZoneEngine.getProjectionZones( cartesianLine ) );
+        assertEquals( 1L, _projectionZoneEngine.getRecomputedLineCount() );
+    }
+
+    @Test
+    public void nonProjectorLinesAreDropped() {
+        final CartesianLine projector = makeRandomProjector();
+        final CartesianLine formerProjector = makeRandomProjector();
+        final CartesianLine removedProjector = makeRandomProjector();
+        final CartesianLine plainLine = makeLine( 0.0d, 0.0d, 1.0d, 1.0d );
+        _cartesianLines.add( projector );
+        _cartesianLines.add( formerProjector );
+        _cartesianLines.add( removedProjector );
+        _cartesianLines.add( plainLine );
+
+        assertEquals( 3, _projectionZoneEngine.update( _cartesianLines ) );
+        assertEquals( 3, _projectionZoneEngine.size() );
+        assertNull( _projectionZoneEngine.getProjectionZones( plainLine ) );
+
+        formerProjector.setUseAsProjector( false );
+        _cartesianLines.remove( removedProjector );
+
+        assertEquals( 0, _projectionZoneEngine.update( _cartesianLines ) );
+        assertEquals( 1, _projectionZoneEngine.size() );
+        assertNull( _projectionZoneEngine.getProjectionZones( formerProjector ) );
+        assertNotNull( _projectionZoneEngine.getProjectionZones( projector ) );
+    }
+
+    @Test
+    public void singleLineUpdatesOnlyRecomputeChanges() {
+        final CartesianLine cartesianLine = makeRandomProjector();
+
+        assertTrue( _projectionZoneEngine.updateLinearObject( cartesianLine ) );
+        assertFalse( _projectionZoneEngine.updateLinearObject( cartesianLine ) );
+
+        cartesianLine.setNumberOfProjectionZones( cartesianLine.getNumberOfProjectionZones() + 1 );
+
+        assertTrue( _projectionZoneEngine.updateLinearObject( cartesianLine ) );
+
+        cartesianLine.setUseAsProjector( false );
+
+        assertFalse( _projectionZoneEngine.updateLinearObject( cartesianLine ) );
+        assertEquals( 0, _projectionZoneEngine.size() );
+    }
+
+    @Test
+    public void parallelAndSequentialUpdatesAgree() {
+        for ( int i = 0; i < NUMBER_OF_PARALLEL_LINES; i++ ) {
+            _cartesianLines.add( makeRandomProjector() );
+        }
+
+        // Grow the sequential engine's collection in steps that stay under the
+        // threshold, so that each of its updates is computed sequentially.
+        final ProjectionZoneEngine< CartesianLine > sequentialEngine = ProjectionZoneEngine
+                .forCartesianLines();
+        for ( int to = 100; to < NUMBER_OF_PARALLEL_LINES; to += 100 ) {
+            sequentialEngine.update( _cartesianLines.subList( 0, to ) );
+        }
+        sequentialEngine.update( _cartesianLines );
+
+        assertEquals( NUMBER_OF_PARALLEL_LINES, _projectionZoneEngine.update( _cartesianLines ) );
+        assertEquals( NUMBER_OF_PARALLEL_LINES, _projectionZoneEngine.size() );
+        assertEquals( NUMBER_OF_PARALLEL_LINES, sequentialEngine.size() );
+        for ( final CartesianLine cartesianLine : _cartesianLines ) {
+            assertSameGeometry( sequentialEngine.getProjectionZones( cartesianLine ),
+                                _projectionZoneEngine.getProjectionZones( cartesianLine ) );
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ProjectionZoneGeometry}.
+ */
+public final class ProjectionZoneGeometryTest {
+
+    private static final double TOLERANCE = 1.0e-12d;
+
+    @Test
+    public void lineIsSubdividedIntoEqualZones() {
+        final ProjectionZoneGeometry projectionZoneGeometry = ProjectionZoneGeometry
+                .compute( 0.0d, 0.0d, 10.0d, 0.0d, 4 );
+
+        assertEquals( 4, projectionZoneGeometry.getNumberOfProjectionZones() );
+        assertEquals( 2.5d, projectionZoneGeometry.getZoneLength(), TOLERANCE );
+        for ( int pointIndex = 0; pointIndex <= 4; pointIndex++ ) {
+            assertEquals( 2.5d * pointIndex,
+                          projectionZoneGeometry.getSubdivisionX( pointIndex ),
+                          TOLERANCE );
+            assertEquals( 0.0d, projectionZoneGeometry.getSubdivisionY( pointIndex ), TOLERANCE );
+        }
+    }
+
+    @Test
+    public void normalIsToTheLeftOfTheLine() {
+        final ProjectionZoneGeometry projectionZoneGeometry = ProjectionZoneGeometry
+                .compute( 0.0d, 0.0d, 10.0d, 0.0d, 1 );
+
+        assertEquals( 0.0d, projectionZoneGeometry.getNormalX(), TOLERANCE );
+        assertEquals( 1.0d, projectionZoneGeometry.getNormalY(), TOLERANCE );
+    }
+
+    @Test
+    public void zoneExtentsAreOrderedForReversedLines() {
+        final ProjectionZoneGeometry projectionZoneGeometry = ProjectionZoneGeometry
+                .compute( 10.0d, 10.0d, 0.0d, 0.0d, 2 );
+
+        assertEquals( 5.0d, projectionZoneGeometry.getZoneMinimumX( 0 ), TOLERANCE );
+        assertEquals( 5.0d, projectionZoneGeometry.getZoneMinimumY( 0 ), TOLERANCE );
+        assertEquals( 10.0d, projectionZoneGeometry.getZoneMaximumX( 0 ), TOLERANCE );
+        assertEquals( 10.0d, projectionZoneGeometry.getZoneMaximumY( 0 ), TOLERANCE );
+        assertEquals( 0.0d, projectionZoneGeometry.getZoneMinimumX( 1 ), TOLERANCE );
+        assertEquals( 5.0d, projectionZoneGeometry.getZoneMaximumX( 1 ), TOLERANCE );
+    }
+
+    @Test
+    public void lastSubdivisionPointIsTheEndOfTheLine() {
+        final ProjectionZoneGeometry projectionZoneGeometry = ProjectionZoneGeometry
+                .compute( 0.1d, 0.2d, 0.7d, 0.3d, 3 );
+
+        assertEquals( 0.7d, projectionZoneGeometry.getSubdivisionX( 3 ), 0.0d );
+        assertEquals( 0.3d, projectionZoneGeometry.getSubdivisionY( 3 ), 0.0d );
+    }
+
+    @Test
+    public void degenerateLinesHaveOneZoneAndNoNormal() {
+        final ProjectionZoneGeometry projectionZoneGeometry = ProjectionZoneGeometry
+                .compute( 5.0d, 5.0d, 5.0d, 5.0d, 0 );
+
+        assertEquals( 1, projectionZoneGeometry.getNumberOfProjectionZones() );
+        assertEquals( 0.0d, projectionZoneGeometry.getNormalX(), 0.0d );
+        assertEquals( 0.0d, projectionZoneGeometry.getNormalY(), 0.0d );
+        assertEquals( 0.0d, projectionZoneGeometry.getZoneLength(), 0.0d );
+    }
+}
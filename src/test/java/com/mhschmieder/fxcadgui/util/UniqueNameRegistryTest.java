@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the fxcadgui Library
+ *
+ * You should have received a copy of the MIT License along with the fxcadgui
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxcadgui
+ */
+package com.mhschmieder.fxcadgui.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.text.NumberFormat;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Unit tests for {@link UniqueNameRegistry}.
+ */
+public final class UniqueNameRegistryTest {
+
+    private UniqueNameRegistry _uniqueNameRegistry;
+
+    @Before
+    public void setUp() {
+        final NumberFormat uniquefierNumberFormat = NumberFormat.getIntegerInstance( Locale.US );
+        uniquefierNumberFormat.setGroupingUsed( false );
+        _uniqueNameRegistry = new UniqueNameRegistry( uniquefierNumberFormat );
+    }
+
+    @Test
+    public void unusedNameIsReturnedAsIs() {
+        _uniqueNameRegistry.addName( "Wall" );
+
+        assertEquals( "Floor", _uniqueNameRegistry.getUniqueName( "Floor", null ) );
+    }
+
+    @Test
+    public void nameInUseGetsLowestFreeUniquefier() {
+        _uniqueNameRegistry.addName( "Wall" );
+        _uniqueNameRegistry.addName( "Wall 1" );
+        _uniqueNameRegistry.addName( "Wall 3" );
+
+        assertEquals( "Wall 2", _uniqueNameRegistry.getUniqueName( "Wall", null ) );
+        assertEquals( "Wall 2", _uniqueNameRegistry.getUniqueName( "Wall 3", null ) );
+    }
+
+    @Test
+    public void currentNameDoesNotCollideWithItself() {
+        _uniqueNameRegistry.addName( "Wall" );
+
+        assertEquals( "Wall", _uniqueNameRegistry.getUniqueName( "Wall", "Wall" ) );
+    }
+
+    @Test
+    public void currentUniquefiedNameIsKept() {
+        _uniqueNameRegistry.addName( "Wall" );
+        _uniqueNameRegistry.addName( "Wall 4" );
+
+        assertEquals( "Wall 4", _uniqueNameRegistry.getUniqueName( "Wall", "Wall 4" ) );
+    }
+
+    @Test
+    public void removedUniquefierIsReused() {
+        _uniqueNameRegistry.addName( "Wall" );
+        _uniqueNameRegistry.addName( "Wall 1" );
+        _uniqueNameRegistry.addName( "Wall 2" );
+        _uniqueNameRegistry.removeName( "Wall 1" );
+
+        assertFalse( _uniqueNameRegistry.containsName( "Wall 1" ) );
+        assertEquals( "Wall 1", _uniqueNameRegistry.getUniqueName( "Wall", null ) );
+    }
+
+    @Test
+    public void duplicateNamesAreCounted() {
+        _uniqueNameRegistry.addName( "Wall" );
+        _uniqueNameRegistry.addName( "Wall" );
+        _uniqueNameRegistry.removeName( "Wall" );
+
+        assertTrue( _uniqueNameRegistry.containsName( "Wall" ) );
+        assertEquals( "Wall 1", _uniqueNameRegistry.getUniqueName( "Wall", null ) );
+
+        _uniqueNameRegistry.removeName( "Wall" );
+        assertFalse( _uniqueNameRegistry.containsName( "Wall" ) );
+    }
+
+    @Test
+    public void renameMovesTheName() {
+        _uniqueNameRegistry.addName( "Wall" );
+        _uniqueNameRegistry.renameName( "Wall", "Floor" );
+
+        assertFalse( _uniqueNameRegistry.containsName( "Wall" ) );
+        assertTrue( _uniqueNameRegistry.containsName( "Floor" ) );
+        assertEquals( "Wall", _uniqueNameRegistry.getUniqueName( "Wall", null ) );
+    }
+
+    @Test
+    public void nonNumericSuffixIsPartOfTheBaseName() {
+        _uniqueNameRegistry.addName( "Wall North" );
+
+        assertEquals( "Wall North 1",
+                      _uniqueNameRegistry.getUniqueName( "Wall North", null ) );
+        assertEquals( "Wall", _uniqueNameRegistry.getUniqueName( "Wall", null ) );
+    }
+
+    @Test
+    public void repeatedAddsStayUnique() {
+        final Set< String > names = new HashSet<>();
+        for ( int i = 0; i < 1000; i++ ) {
+            final String uniqueName = _uniqueNameRegistry.getUniqueName( "Wall", null );
+            assertTrue( uniqueName, names.add( uniqueName ) );
+            _uniqueNameRegistry.addName( uniqueName );
+        }
+
+        assertTrue( names.contains( "Wall" ) );
+        assertTrue( names.contains( "Wall 999" ) );
+    }
+}